@@ -410,6 +410,7 @@ public class IoTDBRestServiceIT {
     queryV2(httpClient);
     queryGroupByLevelV2(httpClient);
     queryRowLimitV2(httpClient);
+    queryStreamV2(httpClient);
     queryShowChildPathsV2(httpClient);
     queryShowNodesV2(httpClient);
     showAllTTLV2(httpClient);
@@ -1631,6 +1632,65 @@ public class IoTDBRestServiceIT {
     }
   }
 
+  public void queryStreamV2(CloseableHttpClient httpClient) {
+    CloseableHttpResponse response = null;
+    try {
+      HttpPost httpPost = getHttpPost("http://127.0.0.1:" + port + "/rest/v2/query/stream");
+      String sql = "{\"sql\":\"select s3,s4 from root.sg25\"}";
+      httpPost.setEntity(new StringEntity(sql, Charset.defaultCharset()));
+      response = httpClient.execute(httpPost);
+      HttpEntity responseEntity = response.getEntity();
+      String message = EntityUtils.toString(responseEntity, "utf-8");
+      String[] lines = message.split("\n");
+      Assert.assertTrue(lines.length >= 2);
+      ObjectMapper mapper = new ObjectMapper();
+
+      Map header = mapper.readValue(lines[0], Map.class);
+      List<Object> expressions = new ArrayList<>();
+      expressions.add("root.sg25.s3");
+      expressions.add("root.sg25.s4");
+      Assert.assertEquals(expressions, header.get("expressions"));
+
+      List<Object> timestampsResult = new ArrayList<>();
+      List<Object> values1Result = new ArrayList<>();
+      List<Object> values2Result = new ArrayList<>();
+      for (int i = 1; i < lines.length - 1; i++) {
+        Map rows = mapper.readValue(lines[i], Map.class);
+        List<List<Object>> values = (List<List<Object>>) rows.get("values");
+        timestampsResult.addAll((List<Object>) rows.get("timestamps"));
+        values1Result.addAll(values.get(0));
+        values2Result.addAll(values.get(1));
+      }
+      List<Object> timestamps = new ArrayList<>();
+      timestamps.add(1635232143960L);
+      timestamps.add(1635232153960L);
+      List<Object> values1 = new ArrayList<>();
+      values1.add("2aa");
+      values1.add("");
+      List<Object> values2 = new ArrayList<>();
+      values2.add(11);
+      values2.add(2);
+      Assert.assertEquals(timestamps, timestampsResult);
+      Assert.assertEquals(values1, values1Result);
+      Assert.assertEquals(values2, values2Result);
+
+      Map status = mapper.readValue(lines[lines.length - 1], Map.class);
+      Assert.assertEquals(200, status.get("code"));
+    } catch (IOException e) {
+      e.printStackTrace();
+      fail(e.getMessage());
+    } finally {
+      try {
+        if (response != null) {
+          response.close();
+        }
+      } catch (IOException e) {
+        e.printStackTrace();
+        fail(e.getMessage());
+      }
+    }
+  }
+
   public Map queryMetaDataV2(CloseableHttpClient httpClient, String sql) {
     CloseableHttpResponse response = null;
     try {
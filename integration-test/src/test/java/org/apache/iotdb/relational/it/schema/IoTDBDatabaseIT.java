@@ -362,7 +362,13 @@ public class IoTDBDatabaseIT {
           statement.executeQuery("show tables"),
           "TableName,TTL(ms),",
           new HashSet<>(
-              Arrays.asList("databases,INF,", "tables,INF,", "columns,INF,", "queries,INF,")));
+              Arrays.asList(
+                  "databases,INF,",
+                  "tables,INF,",
+                  "columns,INF,",
+                  "queries,INF,",
+                  "query_profiles,INF,",
+                  "driver_tasks,INF,")));
 
       TestUtils.assertResultSetEqual(
           statement.executeQuery("desc databases"),
@@ -406,6 +412,37 @@ public class IoTDBDatabaseIT {
                   "datanode_id,INT32,ATTRIBUTE,",
                   "elapsed_time,FLOAT,ATTRIBUTE,",
                   "statement,STRING,ATTRIBUTE,")));
+      TestUtils.assertResultSetEqual(
+          statement.executeQuery("desc query_profiles"),
+          "ColumnName,DataType,Category,",
+          new HashSet<>(
+              Arrays.asList(
+                  "query_id,STRING,TAG,",
+                  "datanode_id,INT32,ATTRIBUTE,",
+                  "fragment_instance_num,INT32,ATTRIBUTE,",
+                  "start_time,TIMESTAMP,ATTRIBUTE,",
+                  "elapsed_time,FLOAT,ATTRIBUTE,",
+                  "cpu_time,FLOAT,ATTRIBUTE,",
+                  "read_bytes,INT64,ATTRIBUTE,",
+                  "disk_chunk_num,INT64,ATTRIBUTE,",
+                  "chunk_cache_hit_num,INT64,ATTRIBUTE,",
+                  "timeseries_metadata_cache_hit_num,INT64,ATTRIBUTE,",
+                  "bloom_filter_cache_hit_num,INT64,ATTRIBUTE,",
+                  "decoded_page_num,INT64,ATTRIBUTE,",
+                  "peak_memory,INT64,ATTRIBUTE,")));
+      TestUtils.assertResultSetEqual(
+          statement.executeQuery("desc driver_tasks"),
+          "ColumnName,DataType,Category,",
+          new HashSet<>(
+              Arrays.asList(
+                  "query_id,STRING,TAG,",
+                  "driver_task_id,STRING,TAG,",
+                  "datanode_id,INT32,ATTRIBUTE,",
+                  "state,STRING,ATTRIBUTE,",
+                  "priority_level,STRING,ATTRIBUTE,",
+                  "scheduled_time,FLOAT,ATTRIBUTE,",
+                  "ready_queued_time,FLOAT,ATTRIBUTE,",
+                  "blocked_queued_time,FLOAT,ATTRIBUTE,")));
     }
   }
 
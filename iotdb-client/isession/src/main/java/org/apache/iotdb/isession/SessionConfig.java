@@ -31,6 +31,7 @@ public class SessionConfig {
   public static final int DEFAULT_CONNECTION_TIMEOUT_MS = 0;
   public static final boolean DEFAULT_REDIRECTION_MODE = true;
   public static final boolean DEFAULT_RECORDS_AUTO_CONVERT_TABLET = true;
+  public static final boolean DEFAULT_TABLET_COMPRESSION = false;
   public static final int CPU_CORES = Runtime.getRuntime().availableProcessors();
   public static final int DEFAULT_SESSION_EXECUTOR_THREAD_NUM = 2 * CPU_CORES;
   public static final int DEFAULT_SESSION_EXECUTOR_TASK_NUM = 1_000;
@@ -85,4 +85,7 @@ public class Config {
   public static final String SQL_DIALECT = "sql_dialect";
 
   public static final String DATABASE = "db";
+
+  /** Key of whether to prepare the statements on the server, false by default. */
+  public static final String SERVER_PREPARED_STATEMENT = "server_prepared_statement";
 }
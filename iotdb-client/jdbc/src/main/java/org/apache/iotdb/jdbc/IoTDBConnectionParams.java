@@ -54,6 +54,8 @@ public class IoTDBConnectionParams {
 
   private String db;
 
+  private boolean serverPreparedStatement = false;
+
   public IoTDBConnectionParams(String url) {
     this.jdbcUriString = url;
   }
@@ -197,4 +199,12 @@ public class IoTDBConnectionParams {
   public void setDb(String db) {
     this.db = db;
   }
+
+  public boolean isServerPreparedStatement() {
+    return serverPreparedStatement;
+  }
+
+  public void setServerPreparedStatement(boolean serverPreparedStatement) {
+    this.serverPreparedStatement = serverPreparedStatement;
+  }
 }
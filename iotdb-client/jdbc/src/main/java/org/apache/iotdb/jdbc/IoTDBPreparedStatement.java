@@ -19,8 +19,16 @@
 
 package org.apache.iotdb.jdbc;
 
+import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.service.rpc.thrift.IClientRPCService.Iface;
-
+import org.apache.iotdb.service.rpc.thrift.TSDeallocatePreparedStatementReq;
+import org.apache.iotdb.service.rpc.thrift.TSExecutePreparedStatementReq;
+import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementReq;
+import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementResp;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareStatementReq;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareStatementResp;
+
+import org.apache.thrift.TApplicationException;
 import org.apache.thrift.TException;
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.utils.Binary;
@@ -72,6 +80,13 @@ public class IoTDBPreparedStatement extends IoTDBStatement implements PreparedSt
   /** save the SQL parameters as (paramLoc,paramValue) pairs. */
   private final Map<Integer, String> parameters = new HashMap<>();
 
+  // whether to execute the statement prepared on the server, which reuses the parse results
+  private boolean serverPrepared;
+  // the id of the statement prepared on the server and the session it is prepared in
+  private Long preparedStatementId;
+  private long preparedSessionId;
+  private int preparedParameterCount;
+
   IoTDBPreparedStatement(
       IoTDBConnection connection,
       Iface client,
@@ -82,6 +97,8 @@ public class IoTDBPreparedStatement extends IoTDBStatement implements PreparedSt
       throws SQLException {
     super(connection, client, sessionId, zoneId, charset);
     this.sql = sql;
+    this.serverPrepared =
+        connection.getParams() != null && connection.getParams().isServerPreparedStatement();
   }
 
   // Only for tests
@@ -117,6 +134,85 @@ public class IoTDBPreparedStatement extends IoTDBStatement implements PreparedSt
     return super.executeUpdate(createCompleteSql(sql, parameters));
   }
 
+  @Override
+  TSExecuteStatementResp executeStatement(TSExecuteStatementReq execReq, ExecuteStatementRpc rpc)
+      throws TException {
+    if (!serverPrepared || !prepareOnServer()) {
+      return super.executeStatement(execReq, rpc);
+    }
+
+    // all the parameters are set, which is checked when creating the complete sql
+    List<String> parameterList = new ArrayList<>(preparedParameterCount);
+    for (int i = 1; i <= preparedParameterCount; i++) {
+      parameterList.add(parameters.get(i));
+    }
+    TSExecutePreparedStatementReq req =
+        new TSExecutePreparedStatementReq(
+            getSessionId(), preparedStatementId, parameterList, execReq.getStatementId());
+    if (execReq.isSetFetchSize()) {
+      req.setFetchSize(execReq.getFetchSize());
+    }
+    if (execReq.isSetTimeout()) {
+      req.setTimeout(execReq.getTimeout());
+    }
+    if (execReq.isSetJdbcQuery()) {
+      req.setJdbcQuery(execReq.isJdbcQuery());
+    }
+    return client.executePreparedStatement(req);
+  }
+
+  /**
+   * Prepares the statement on the server if it is not prepared in the current session yet.
+   *
+   * @return false if the statement cannot be prepared on the server, which is then executed as a
+   *     complete sql from now on
+   */
+  private boolean prepareOnServer() throws TException {
+    if (preparedStatementId != null && preparedSessionId == getSessionId()) {
+      return true;
+    }
+    TSPrepareStatementResp resp;
+    try {
+      resp = client.prepareStatement(new TSPrepareStatementReq(getSessionId(), sql));
+    } catch (TApplicationException e) {
+      // the server does not support prepared statements
+      logger.debug("Failed to prepare statement {} on the server", sql, e);
+      serverPrepared = false;
+      return false;
+    }
+    if (resp.getStatus().getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      serverPrepared = false;
+      return false;
+    }
+    int parameterCount = splitSqlStatement(sql).size() - 1;
+    if (resp.getParameterCount() != parameterCount) {
+      // the server splits the parameters in another way, e.g. '?' in a quoted identifier
+      client.deallocatePreparedStatement(
+          new TSDeallocatePreparedStatementReq(getSessionId(), resp.getPreparedStatementId()));
+      serverPrepared = false;
+      return false;
+    }
+    preparedStatementId = resp.getPreparedStatementId();
+    preparedSessionId = getSessionId();
+    preparedParameterCount = parameterCount;
+    return true;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    if (preparedStatementId != null && preparedSessionId == getSessionId()) {
+      try {
+        client.deallocatePreparedStatement(
+            new TSDeallocatePreparedStatementReq(preparedSessionId, preparedStatementId));
+      } catch (TException e) {
+        // the prepared statement is released along with the session anyway
+        logger.debug("Failed to deallocate prepared statement {}", sql, e);
+      }
+      preparedStatementId = null;
+    }
+    super.close();
+  }
+
   @Override
   public ResultSetMetaData getMetaData() throws SQLException {
     return getResultSet().getMetaData();
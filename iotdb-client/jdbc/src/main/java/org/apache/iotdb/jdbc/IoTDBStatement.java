@@ -315,7 +315,7 @@ public class IoTDBStatement implements Statement {
     }
     execReq.setFetchSize(rows);
     execReq.setTimeout((long) queryTimeout * 1000);
-    TSExecuteStatementResp execResp = client.executeStatementV2(execReq);
+    TSExecuteStatementResp execResp = executeStatement(execReq, client::executeStatementV2);
     try {
       RpcUtils.verifySuccess(execResp.getStatus());
     } catch (StatementExecutionException e) {
@@ -356,6 +356,21 @@ public class IoTDBStatement implements Statement {
     return false;
   }
 
+  /**
+   * Sends the request of executing a sql by the given rpc, which is overridden by {@link
+   * IoTDBPreparedStatement} to execute the statement prepared on the server instead.
+   */
+  TSExecuteStatementResp executeStatement(TSExecuteStatementReq execReq, ExecuteStatementRpc rpc)
+      throws TException {
+    return rpc.execute(execReq);
+  }
+
+  @FunctionalInterface
+  interface ExecuteStatementRpc {
+
+    TSExecuteStatementResp execute(TSExecuteStatementReq execReq) throws TException;
+  }
+
   @Override
   public int[] executeBatch() throws SQLException {
     checkConnection("executeBatch");
@@ -464,7 +479,7 @@ public class IoTDBStatement implements Statement {
     execReq.setFetchSize(rows);
     execReq.setTimeout(timeoutInMS);
     execReq.setJdbcQuery(true);
-    TSExecuteStatementResp execResp = client.executeQueryStatementV2(execReq);
+    TSExecuteStatementResp execResp = executeStatement(execReq, client::executeQueryStatementV2);
     queryId = execResp.getQueryId();
     try {
       RpcUtils.verifySuccess(execResp.getStatus());
@@ -548,7 +563,8 @@ public class IoTDBStatement implements Statement {
 
   private int executeUpdateSQL(final String sql) throws TException, IoTDBSQLException {
     final TSExecuteStatementReq execReq = new TSExecuteStatementReq(sessionId, sql, stmtId);
-    final TSExecuteStatementResp execResp = client.executeUpdateStatement(execReq);
+    final TSExecuteStatementResp execResp =
+        executeStatement(execReq, client::executeUpdateStatement);
     if (execResp.isSetQueryId()) {
       queryId = execResp.getQueryId();
     }
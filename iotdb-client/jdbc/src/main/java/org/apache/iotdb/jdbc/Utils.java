@@ -139,6 +139,10 @@ public class Utils {
     if (info.containsKey(Config.SQL_DIALECT)) {
       params.setSqlDialect(info.getProperty(Config.SQL_DIALECT));
     }
+    if (info.containsKey(Config.SERVER_PREPARED_STATEMENT)) {
+      params.setServerPreparedStatement(
+          Boolean.parseBoolean(info.getProperty(Config.SERVER_PREPARED_STATEMENT)));
+    }
 
     return params;
   }
@@ -178,6 +182,7 @@ public class Utils {
         case Config.VERSION:
         case Config.NETWORK_TIMEOUT:
         case Config.SQL_DIALECT:
+        case Config.SERVER_PREPARED_STATEMENT:
           info.put(key, value);
           break;
         case Config.TIME_ZONE:
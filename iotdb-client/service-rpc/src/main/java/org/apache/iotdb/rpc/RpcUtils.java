@@ -68,6 +68,9 @@ public class RpcUtils {
 
   public static final String TIME_PRECISION = "timestamp_precision";
 
+  /** Key of the session configuration negotiating the compressed payload of insertTablet. */
+  public static final String COMPRESSED_TABLET = "compressed_tablet";
+
   public static final String MILLISECOND = "ms";
 
   public static final String MICROSECOND = "us";
@@ -45,6 +45,9 @@ public abstract class AbstractSessionBuilder {
   // datanode while encountering retriable errors in current DataNode
   public boolean enableRedirection = SessionConfig.DEFAULT_REDIRECTION_MODE;
   public boolean enableRecordsAutoConvertTablet = SessionConfig.DEFAULT_RECORDS_AUTO_CONVERT_TABLET;
+  // if set to true, the tablets are sent in a compressed columnar layout to the servers supporting
+  // it, which saves network bandwidth at the cost of some CPU on both sides
+  public boolean enableTabletCompression = SessionConfig.DEFAULT_TABLET_COMPRESSION;
   public Version version = SessionConfig.DEFAULT_VERSION;
   public long timeOut = SessionConfig.DEFAULT_QUERY_TIME_OUT;
 
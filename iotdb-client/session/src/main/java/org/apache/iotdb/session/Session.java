@@ -157,6 +157,7 @@ public class Session implements ISession {
   protected boolean enableRedirection;
   protected boolean enableRecordsAutoConvertTablet =
       SessionConfig.DEFAULT_RECORDS_AUTO_CONVERT_TABLET;
+  protected boolean enableTabletCompression = SessionConfig.DEFAULT_TABLET_COMPRESSION;
   private static final double CONVERT_THRESHOLD = 0.5;
   private static final double SAMPLE_PROPORTION = 0.05;
   private static final int MIN_RECORDS_SIZE = 40;
@@ -446,6 +447,7 @@ public class Session implements ISession {
     }
     this.enableRedirection = builder.enableRedirection;
     this.enableRecordsAutoConvertTablet = builder.enableRecordsAutoConvertTablet;
+    this.enableTabletCompression = builder.enableTabletCompression;
     this.username = builder.username;
     this.password = builder.pw;
     this.fetchSize = builder.fetchSize;
@@ -4201,6 +4203,11 @@ public class Session implements ISession {
       return this;
     }
 
+    public Builder enableTabletCompression(boolean enableTabletCompression) {
+      this.enableTabletCompression = enableTabletCompression;
+      return this;
+    }
+
     public Builder nodeUrls(List<String> nodeUrls) {
       this.nodeUrls = nodeUrls;
       return this;
@@ -64,6 +64,7 @@ import org.apache.iotdb.service.rpc.thrift.TSSetSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSSetTimeZoneReq;
 import org.apache.iotdb.service.rpc.thrift.TSUnsetSchemaTemplateReq;
 import org.apache.iotdb.session.util.CheckedSupplier;
+import org.apache.iotdb.session.util.CompressedTabletCodec;
 import org.apache.iotdb.session.util.SessionUtils;
 
 import org.apache.thrift.TException;
@@ -75,6 +76,7 @@ import org.apache.tsfile.utils.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.security.SecureRandom;
 import java.time.ZoneId;
 import java.util.ArrayList;
@@ -114,6 +116,9 @@ public class SessionConnection {
   // ms is 1_000, us is 1_000_000, ns is 1_000_000_000
   private int timeFactor = 1_000;
 
+  // whether the tablets are sent in the compressed layout, negotiated while opening the session
+  private boolean tabletCompressionEnabled = false;
+
   // TestOnly
   public SessionConnection(String sqlDialect) {
     availableNodes = Collections::emptyList;
@@ -213,12 +218,20 @@ public class SessionConnection {
     if (database != null) {
       openReq.putToConfiguration("db", database);
     }
+    if (session.enableTabletCompression) {
+      openReq.putToConfiguration(RpcUtils.COMPRESSED_TABLET, Boolean.TRUE.toString());
+    }
 
     try {
       TSOpenSessionResp openResp = client.openSession(openReq);
 
       RpcUtils.verifySuccess(openResp.getStatus());
       this.timeFactor = RpcUtils.getTimeFactor(openResp);
+      // servers not supporting it do not echo the configuration back
+      this.tabletCompressionEnabled =
+          session.enableTabletCompression
+              && openResp.isSetConfiguration()
+              && Boolean.parseBoolean(openResp.getConfiguration().get(RpcUtils.COMPRESSED_TABLET));
       if (Session.protocolVersion.getValue() != openResp.getServerProtocolVersion().getValue()) {
         logger.warn(
             "Protocol differ, Client version is {}}, but Server version is {}",
@@ -1106,6 +1119,15 @@ public class SessionConnection {
 
   private TSStatus insertTabletInternal(TSInsertTabletReq request) throws TException {
     request.setSessionId(sessionId);
+    // compressed for each attempt, since the reconnected server may not support it
+    if (tabletCompressionEnabled) {
+      try {
+        return client.insertTablet(CompressedTabletCodec.compress(request));
+      } catch (IOException e) {
+        logger.warn(
+            "Failed to compress the tablet of {}, send it uncompressed", request.prefixPath, e);
+      }
+    }
     return client.insertTablet(request);
   }
 
@@ -244,6 +244,19 @@ public class TableSessionBuilder extends AbstractSessionBuilder {
     return this;
   }
 
+  /**
+   * Enables or disables sending tablets in a compressed columnar layout. It only takes effect on
+   * the servers supporting it, and the tablets are sent as they are to the others.
+   *
+   * @param enableTabletCompression whether to compress the tablets.
+   * @return the current {@link TableSessionBuilder} instance.
+   * @defaultValue false
+   */
+  public TableSessionBuilder enableTabletCompression(boolean enableTabletCompression) {
+    this.enableTabletCompression = enableTabletCompression;
+    return this;
+  }
+
   /**
    * Sets the connection timeout in milliseconds.
    *
@@ -125,6 +125,7 @@ public class SessionPool implements ISessionPool {
   // datanode while encountering retriable errors in current DataNode
   private boolean enableRedirection;
   private boolean enableRecordsAutoConvertTablet;
+  private boolean enableTabletCompression;
   private boolean enableQueryRedirection = false;
 
   private Map<String, TEndPoint> deviceIdToEndpoint;
@@ -505,6 +506,7 @@ public class SessionPool implements ISessionPool {
       tableModelDeviceIdToEndpoint = new ConcurrentHashMap<>();
     }
     this.enableRecordsAutoConvertTablet = builder.enableRecordsAutoConvertTablet;
+    this.enableTabletCompression = builder.enableTabletCompression;
     this.connectionTimeoutInMs = builder.connectionTimeoutInMs;
     this.version = builder.version;
     this.thriftDefaultBufferSize = builder.thriftDefaultBufferSize;
@@ -566,6 +568,7 @@ public class SessionPool implements ISessionPool {
               .thriftMaxFrameSize(thriftMaxFrameSize)
               .enableRedirection(enableRedirection)
               .enableRecordsAutoConvertTablet(enableRecordsAutoConvertTablet)
+              .enableTabletCompression(enableTabletCompression)
               .version(version)
               .useSSL(useSSL)
               .trustStore(trustStore)
@@ -589,6 +592,7 @@ public class SessionPool implements ISessionPool {
               .thriftMaxFrameSize(thriftMaxFrameSize)
               .enableRedirection(enableRedirection)
               .enableRecordsAutoConvertTablet(enableRecordsAutoConvertTablet)
+              .enableTabletCompression(enableTabletCompression)
               .version(version)
               .useSSL(useSSL)
               .trustStore(trustStore)
@@ -3651,6 +3655,11 @@ public class SessionPool implements ISessionPool {
       return this;
     }
 
+    public Builder enableTabletCompression(boolean enableTabletCompression) {
+      this.enableTabletCompression = enableTabletCompression;
+      return this;
+    }
+
     public Builder connectionTimeoutInMs(int connectionTimeoutInMs) {
       this.connectionTimeoutInMs = connectionTimeoutInMs;
       return this;
@@ -180,6 +180,19 @@ public class TableSessionPoolBuilder extends AbstractSessionPoolBuilder {
     return this;
   }
 
+  /**
+   * Enables or disables sending tablets in a compressed columnar layout. It only takes effect on
+   * the servers supporting it, and the tablets are sent as they are to the others.
+   *
+   * @param enableTabletCompression whether to compress the tablets.
+   * @return the current {@link TableSessionPoolBuilder} instance.
+   * @defaultValue false
+   */
+  public TableSessionPoolBuilder enableTabletCompression(boolean enableTabletCompression) {
+    this.enableTabletCompression = enableTabletCompression;
+    return this;
+  }
+
   /**
    * Enables or disables redirection for cluster nodes.
    *
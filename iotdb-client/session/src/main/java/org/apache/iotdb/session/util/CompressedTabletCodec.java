@@ -0,0 +1,358 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session.util;
+
+import org.apache.iotdb.service.rpc.thrift.TSInsertTabletReq;
+
+import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.encoding.decoder.Decoder;
+import org.apache.tsfile.encoding.encoder.Encoder;
+import org.apache.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BytesUtils;
+import org.apache.tsfile.utils.PublicBAOS;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+import org.apache.tsfile.write.UnSupportedDataTypeException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Converts the payload of a {@link TSInsertTabletReq} between the plain layout written by {@link
+ * SessionUtils} and a compressed columnar layout, which is sent when both the client and the server
+ * enable it while opening the session.
+ *
+ * <p>In the compressed layout, the timestamps are encoded with TS_2DIFF, and each value column is
+ * encoded with the default encoding of its data type and prefixed with its encoded length. The
+ * bitmaps follow the value columns as they are in the plain layout. Both the timestamps and the
+ * values are then compressed as one LZ4 block, prefixed with the uncompressed length.
+ */
+public class CompressedTabletCodec {
+
+  private static final ICompressor COMPRESSOR = ICompressor.getCompressor(CompressionType.LZ4);
+  private static final IUnCompressor UN_COMPRESSOR =
+      IUnCompressor.getUnCompressor(CompressionType.LZ4);
+
+  private static final TSEncoding TIME_ENCODING = TSEncoding.TS_2DIFF;
+
+  // TS_2DIFF packs the deltas of at most 128 values in a block, whose header takes 24 bytes
+  private static final int TS_2DIFF_BLOCK_SIZE = 128;
+  private static final int TS_2DIFF_BLOCK_HEADER_SIZE = 24;
+  // the encodings of the values never take more than twice the plain size plus a small header
+  private static final int ENCODED_COLUMN_OVERHEAD = 64;
+
+  private CompressedTabletCodec() {
+    // util class
+  }
+
+  /**
+   * @return a request sharing everything except the payload with the given plain request, whose
+   *     timestamps and values are compressed
+   */
+  public static TSInsertTabletReq compress(TSInsertTabletReq request) throws IOException {
+    TSInsertTabletReq compressedRequest = new TSInsertTabletReq();
+    compressedRequest.setSessionId(request.getSessionId());
+    compressedRequest.setPrefixPath(request.getPrefixPath());
+    compressedRequest.setMeasurements(request.getMeasurements());
+    compressedRequest.setTypes(request.getTypes());
+    compressedRequest.setSize(request.getSize());
+    if (request.isSetIsAligned()) {
+      compressedRequest.setIsAligned(request.isIsAligned());
+    }
+    if (request.isSetWriteToTable()) {
+      compressedRequest.setWriteToTable(request.isWriteToTable());
+    }
+    if (request.isSetColumnCategories()) {
+      compressedRequest.setColumnCategories(request.getColumnCategories());
+    }
+    compressedRequest.setTimestamps(
+        compressTimes(request.bufferForTimestamps().duplicate(), request.getSize()));
+    compressedRequest.setValues(
+        compressValues(
+            request.bufferForValues().duplicate(), request.getTypes(), request.getSize()));
+    compressedRequest.setIsCompressed(true);
+    return compressedRequest;
+  }
+
+  static ByteBuffer compressTimes(ByteBuffer plainTimes, int size) throws IOException {
+    PublicBAOS out = new PublicBAOS(size * Long.BYTES / 4 + 16);
+    Encoder encoder =
+        TSEncodingBuilder.getEncodingBuilder(TIME_ENCODING).getEncoder(TSDataType.INT64);
+    for (int i = 0; i < size; i++) {
+      encoder.encode(plainTimes.getLong(), out);
+    }
+    encoder.flush(out);
+    return compress(out);
+  }
+
+  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
+  static ByteBuffer compressValues(ByteBuffer plainValues, List<Integer> types, int size)
+      throws IOException {
+    PublicBAOS out = new PublicBAOS(plainValues.remaining() / 4 + 16);
+    PublicBAOS columnOut = new PublicBAOS();
+    for (Integer typeOrdinal : types) {
+      TSDataType type = TSDataType.deserialize(typeOrdinal.byteValue());
+      Encoder encoder = TSEncodingBuilder.getEncodingBuilder(getEncoding(type)).getEncoder(type);
+      columnOut.reset();
+      switch (type) {
+        case BOOLEAN:
+          for (int i = 0; i < size; i++) {
+            encoder.encode(BytesUtils.byteToBool(plainValues.get()), columnOut);
+          }
+          break;
+        case INT32:
+        case DATE:
+          for (int i = 0; i < size; i++) {
+            encoder.encode(plainValues.getInt(), columnOut);
+          }
+          break;
+        case INT64:
+        case TIMESTAMP:
+          for (int i = 0; i < size; i++) {
+            encoder.encode(plainValues.getLong(), columnOut);
+          }
+          break;
+        case FLOAT:
+          for (int i = 0; i < size; i++) {
+            encoder.encode(plainValues.getFloat(), columnOut);
+          }
+          break;
+        case DOUBLE:
+          for (int i = 0; i < size; i++) {
+            encoder.encode(plainValues.getDouble(), columnOut);
+          }
+          break;
+        case TEXT:
+        case BLOB:
+        case STRING:
+          for (int i = 0; i < size; i++) {
+            byte[] bytes = new byte[plainValues.getInt()];
+            plainValues.get(bytes);
+            encoder.encode(new Binary(bytes), columnOut);
+          }
+          break;
+        default:
+          throw new UnSupportedDataTypeException(
+              String.format("Data type %s is not supported.", type));
+      }
+      encoder.flush(columnOut);
+      ReadWriteIOUtils.write(columnOut.size(), out);
+      out.write(columnOut.getBuf(), 0, columnOut.size());
+    }
+    // the bitmaps are kept as they are, the compression shrinks them anyway
+    byte[] bitMaps = new byte[plainValues.remaining()];
+    plainValues.get(bitMaps);
+    out.write(bitMaps);
+    return compress(out);
+  }
+
+  /**
+   * @param maxUncompressedLength the largest uncompressed length that the content can have, which
+   *     is checked before the uncompressed buffer is allocated because the length is given by the
+   *     request
+   * @return the uncompressed content of a compressed timestamps or values buffer
+   * @throws IOException if the uncompressed length is negative or larger than the limit
+   */
+  public static ByteBuffer uncompress(ByteBuffer buffer, long maxUncompressedLength)
+      throws IOException {
+    buffer = buffer.duplicate();
+    int uncompressedLength = buffer.getInt();
+    if (uncompressedLength < 0 || uncompressedLength > maxUncompressedLength) {
+      throw new IOException(
+          String.format(
+              "The uncompressed length %d of the compressed tablet is not in [0, %d]",
+              uncompressedLength, maxUncompressedLength));
+    }
+    byte[] compressed;
+    int offset;
+    if (buffer.hasArray()) {
+      compressed = buffer.array();
+      offset = buffer.arrayOffset() + buffer.position();
+    } else {
+      compressed = new byte[buffer.remaining()];
+      buffer.get(compressed);
+      offset = 0;
+    }
+    byte[] uncompressed = new byte[uncompressedLength];
+    UN_COMPRESSOR.uncompress(compressed, offset, buffer.remaining(), uncompressed, 0);
+    return ByteBuffer.wrap(uncompressed);
+  }
+
+  /** @return the largest uncompressed length of the timestamps of a tablet with the given size */
+  public static long getMaxUncompressedTimesLength(int size) {
+    return (long) size * Long.BYTES
+        + ((long) size / TS_2DIFF_BLOCK_SIZE + 1) * TS_2DIFF_BLOCK_HEADER_SIZE;
+  }
+
+  /**
+   * @param limit the largest length accepted in any case, which is the only bound of the columns
+   *     of variable-length data types
+   * @return the largest uncompressed length of the values of a tablet with the given types and size
+   */
+  public static long getMaxUncompressedValuesLength(TSDataType[] types, int size, long limit) {
+    long length = 0;
+    for (TSDataType type : types) {
+      switch (type) {
+        case BOOLEAN:
+          length += size;
+          break;
+        case INT32:
+        case DATE:
+        case FLOAT:
+          length += 2L * size * Integer.BYTES;
+          break;
+        case INT64:
+        case TIMESTAMP:
+        case DOUBLE:
+          length += 2L * size * Long.BYTES;
+          break;
+        default:
+          return limit;
+      }
+      // the length prefix of the column, and its bitmap in the worst case
+      length += Integer.BYTES + ENCODED_COLUMN_OVERHEAD + 1 + size / Byte.SIZE + 1;
+    }
+    return Math.min(length, limit);
+  }
+
+  /** Decodes the timestamps from an uncompressed timestamps buffer. */
+  public static long[] decodeTimes(ByteBuffer buffer, int size) throws IOException {
+    Decoder decoder = Decoder.getDecoderByType(TIME_ENCODING, TSDataType.INT64);
+    long[] times = new long[size];
+    for (int i = 0; i < size; i++) {
+      checkHasNext(decoder, buffer);
+      times[i] = decoder.readLong(buffer);
+    }
+    return times;
+  }
+
+  /**
+   * Decodes the value columns from an uncompressed values buffer into primitive arrays. The buffer
+   * is left at the start of the bitmaps, which are read the same way as those of a plain buffer.
+   */
+  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
+  public static Object[] decodeValues(ByteBuffer buffer, TSDataType[] types, int size)
+      throws IOException {
+    Object[] values = new Object[types.length];
+    for (int i = 0; i < types.length; i++) {
+      int columnLength = buffer.getInt();
+      ByteBuffer column = buffer.slice();
+      column.limit(columnLength);
+      buffer.position(buffer.position() + columnLength);
+      Decoder decoder = Decoder.getDecoderByType(getEncoding(types[i]), types[i]);
+      switch (types[i]) {
+        case BOOLEAN:
+          boolean[] boolValues = new boolean[size];
+          for (int index = 0; index < size; index++) {
+            checkHasNext(decoder, column);
+            boolValues[index] = decoder.readBoolean(column);
+          }
+          values[i] = boolValues;
+          break;
+        case INT32:
+        case DATE:
+          int[] intValues = new int[size];
+          for (int index = 0; index < size; index++) {
+            checkHasNext(decoder, column);
+            intValues[index] = decoder.readInt(column);
+          }
+          values[i] = intValues;
+          break;
+        case INT64:
+        case TIMESTAMP:
+          long[] longValues = new long[size];
+          for (int index = 0; index < size; index++) {
+            checkHasNext(decoder, column);
+            longValues[index] = decoder.readLong(column);
+          }
+          values[i] = longValues;
+          break;
+        case FLOAT:
+          float[] floatValues = new float[size];
+          for (int index = 0; index < size; index++) {
+            checkHasNext(decoder, column);
+            floatValues[index] = decoder.readFloat(column);
+          }
+          values[i] = floatValues;
+          break;
+        case DOUBLE:
+          double[] doubleValues = new double[size];
+          for (int index = 0; index < size; index++) {
+            checkHasNext(decoder, column);
+            doubleValues[index] = decoder.readDouble(column);
+          }
+          values[i] = doubleValues;
+          break;
+        case TEXT:
+        case BLOB:
+        case STRING:
+          Binary[] binaryValues = new Binary[size];
+          for (int index = 0; index < size; index++) {
+            checkHasNext(decoder, column);
+            binaryValues[index] = decoder.readBinary(column);
+          }
+          values[i] = binaryValues;
+          break;
+        default:
+          throw new UnSupportedDataTypeException(
+              String.format("Data type %s is not supported.", types[i]));
+      }
+    }
+    return values;
+  }
+
+  /** The default encodings of the data types, which suit most of the time series. */
+  private static TSEncoding getEncoding(TSDataType type) {
+    switch (type) {
+      case BOOLEAN:
+        return TSEncoding.RLE;
+      case INT32:
+      case DATE:
+      case INT64:
+      case TIMESTAMP:
+        return TSEncoding.TS_2DIFF;
+      case FLOAT:
+      case DOUBLE:
+        return TSEncoding.GORILLA;
+      default:
+        return TSEncoding.PLAIN;
+    }
+  }
+
+  private static void checkHasNext(Decoder decoder, ByteBuffer buffer) throws IOException {
+    if (!decoder.hasNext(buffer)) {
+      throw new IOException("The compressed tablet has fewer values than its size");
+    }
+  }
+
+  private static ByteBuffer compress(PublicBAOS out) throws IOException {
+    byte[] compressed = COMPRESSOR.compress(out.toByteArray());
+    ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + compressed.length);
+    buffer.putInt(out.size());
+    buffer.put(compressed);
+    buffer.flip();
+    return buffer;
+  }
+}
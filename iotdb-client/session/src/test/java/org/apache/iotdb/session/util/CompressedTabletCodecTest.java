@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session.util;
+
+import org.apache.iotdb.service.rpc.thrift.TSInsertTabletReq;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BitMap;
+import org.apache.tsfile.utils.BytesUtils;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CompressedTabletCodecTest {
+
+  private static final int ROW_SIZE = 1000;
+  private static final TSDataType[] TYPES = {
+    TSDataType.BOOLEAN,
+    TSDataType.INT32,
+    TSDataType.INT64,
+    TSDataType.FLOAT,
+    TSDataType.DOUBLE,
+    TSDataType.TEXT
+  };
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    long[] times = new long[ROW_SIZE];
+    boolean[] booleans = new boolean[ROW_SIZE];
+    int[] ints = new int[ROW_SIZE];
+    long[] longs = new long[ROW_SIZE];
+    float[] floats = new float[ROW_SIZE];
+    double[] doubles = new double[ROW_SIZE];
+    Binary[] texts = new Binary[ROW_SIZE];
+    BitMap doubleBitMap = new BitMap(ROW_SIZE);
+    for (int i = 0; i < ROW_SIZE; i++) {
+      times[i] = 1_700_000_000_000L + i * 1000L;
+      booleans[i] = i % 3 == 0;
+      ints[i] = i / 10;
+      longs[i] = -i * 7L;
+      floats[i] = 20.5f + (i % 10) * 0.1f;
+      doubles[i] = Math.sin(i);
+      texts[i] = new Binary("status" + i % 4, TSFileConfig.STRING_CHARSET);
+      if (i % 7 == 0) {
+        doubleBitMap.mark(i);
+      }
+    }
+    Object[] values = {booleans, ints, longs, floats, doubles, texts};
+    BitMap[] bitMaps = new BitMap[TYPES.length];
+    bitMaps[4] = doubleBitMap;
+
+    List<IMeasurementSchema> schemas = new ArrayList<>();
+    for (int i = 0; i < TYPES.length; i++) {
+      schemas.add(new MeasurementSchema("s" + i, TYPES[i]));
+    }
+    Tablet tablet = new Tablet("root.sg.d1", schemas, times, values, bitMaps, ROW_SIZE);
+
+    TSInsertTabletReq request = new TSInsertTabletReq();
+    request.setPrefixPath(tablet.getDeviceId());
+    for (IMeasurementSchema schema : schemas) {
+      request.addToMeasurements(schema.getMeasurementName());
+      request.addToTypes(schema.getType().ordinal());
+    }
+    request.setTimestamps(SessionUtils.getTimeBuffer(tablet));
+    request.setValues(SessionUtils.getValueBuffer(tablet));
+    request.setSize(ROW_SIZE);
+    int plainTimesLength = request.bufferForTimestamps().remaining();
+    int plainValuesLength = request.bufferForValues().remaining();
+
+    TSInsertTabletReq compressedRequest = CompressedTabletCodec.compress(request);
+    Assert.assertTrue(compressedRequest.isIsCompressed());
+    Assert.assertEquals(request.getMeasurements(), compressedRequest.getMeasurements());
+    // the plain request is left untouched so that it can still be sent
+    Assert.assertEquals(plainTimesLength, request.bufferForTimestamps().remaining());
+    Assert.assertEquals(plainValuesLength, request.bufferForValues().remaining());
+    Assert.assertTrue(compressedRequest.bufferForTimestamps().remaining() < plainTimesLength / 10);
+    Assert.assertTrue(compressedRequest.bufferForValues().remaining() < plainValuesLength / 2);
+
+    Assert.assertArrayEquals(
+        times,
+        CompressedTabletCodec.decodeTimes(
+            CompressedTabletCodec.uncompress(
+                compressedRequest.bufferForTimestamps(),
+                CompressedTabletCodec.getMaxUncompressedTimesLength(ROW_SIZE)),
+            ROW_SIZE));
+
+    ByteBuffer valueBuffer =
+        CompressedTabletCodec.uncompress(
+            compressedRequest.bufferForValues(),
+            CompressedTabletCodec.getMaxUncompressedValuesLength(
+                TYPES, ROW_SIZE, Integer.MAX_VALUE));
+    Object[] decodedValues = CompressedTabletCodec.decodeValues(valueBuffer, TYPES, ROW_SIZE);
+    Assert.assertArrayEquals(booleans, (boolean[]) decodedValues[0]);
+    Assert.assertArrayEquals(ints, (int[]) decodedValues[1]);
+    Assert.assertArrayEquals(longs, (long[]) decodedValues[2]);
+    Assert.assertArrayEquals(floats, (float[]) decodedValues[3], 0);
+    Assert.assertArrayEquals(doubles, (double[]) decodedValues[4], 0);
+    Assert.assertArrayEquals(texts, (Binary[]) decodedValues[5]);
+
+    // the bitmaps follow the values as they are in the plain layout
+    for (int i = 0; i < TYPES.length; i++) {
+      boolean hasBitMap = BytesUtils.byteToBool(valueBuffer.get());
+      Assert.assertEquals(i == 4, hasBitMap);
+      if (hasBitMap) {
+        byte[] bytes = new byte[BitMap.getSizeOfBytes(ROW_SIZE)];
+        valueBuffer.get(bytes);
+        Assert.assertArrayEquals(doubleBitMap.getTruncatedByteArray(ROW_SIZE), bytes);
+      }
+    }
+    Assert.assertFalse(valueBuffer.hasRemaining());
+  }
+
+  @Test
+  public void testEmptyTablet() throws IOException {
+    TSInsertTabletReq request = new TSInsertTabletReq();
+    request.setPrefixPath("root.sg.d1");
+    request.addToMeasurements("s0");
+    request.addToTypes(TSDataType.INT64.ordinal());
+    request.setTimestamps(ByteBuffer.allocate(0));
+    request.setValues(ByteBuffer.allocate(0));
+    request.setSize(0);
+
+    TSInsertTabletReq compressedRequest = CompressedTabletCodec.compress(request);
+    Assert.assertEquals(
+        0,
+        CompressedTabletCodec.decodeTimes(
+                CompressedTabletCodec.uncompress(
+                    compressedRequest.bufferForTimestamps(),
+                    CompressedTabletCodec.getMaxUncompressedTimesLength(0)),
+                0)
+            .length);
+    TSDataType[] types = new TSDataType[] {TSDataType.INT64};
+    ByteBuffer valueBuffer =
+        CompressedTabletCodec.uncompress(
+            compressedRequest.bufferForValues(),
+            CompressedTabletCodec.getMaxUncompressedValuesLength(types, 0, Integer.MAX_VALUE));
+    Object[] values = CompressedTabletCodec.decodeValues(valueBuffer, types, 0);
+    Assert.assertEquals(0, ((long[]) values[0]).length);
+    Assert.assertFalse(valueBuffer.hasRemaining());
+  }
+
+  @Test
+  public void testRejectInvalidUncompressedLength() throws IOException {
+    ByteBuffer times = CompressedTabletCodec.compressTimes(ByteBuffer.allocate(0), 0);
+
+    // a length larger than the limit is rejected before the buffer is allocated
+    ByteBuffer crafted = times.duplicate();
+    crafted.putInt(0, Integer.MAX_VALUE);
+    try {
+      CompressedTabletCodec.uncompress(
+          crafted, CompressedTabletCodec.getMaxUncompressedTimesLength(ROW_SIZE));
+      Assert.fail();
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage().contains(String.valueOf(Integer.MAX_VALUE)));
+    }
+
+    crafted.putInt(0, -1);
+    try {
+      CompressedTabletCodec.uncompress(crafted, Integer.MAX_VALUE);
+      Assert.fail();
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage().contains("-1"));
+    }
+
+    // the values of variable-length types are only bounded by the given limit
+    Assert.assertEquals(
+        100,
+        CompressedTabletCodec.getMaxUncompressedValuesLength(
+            new TSDataType[] {TSDataType.INT64, TSDataType.TEXT}, ROW_SIZE, 100));
+    Assert.assertTrue(
+        CompressedTabletCodec.getMaxUncompressedValuesLength(
+                new TSDataType[] {TSDataType.INT64}, ROW_SIZE, Integer.MAX_VALUE)
+            < Integer.MAX_VALUE);
+  }
+}
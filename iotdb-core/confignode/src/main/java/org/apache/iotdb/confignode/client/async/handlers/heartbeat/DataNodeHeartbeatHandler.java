@@ -60,6 +60,8 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
 
   private final PipeRuntimeCoordinator pipeRuntimeCoordinator;
 
+  private final Consumer<Map<String, Long>> minWrittenTimesRespProcess;
+
   public DataNodeHeartbeatHandler(
       int nodeId,
       LoadManager loadManager,
@@ -68,7 +70,8 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
       Map<Integer, Long> regionDisk,
       Consumer<Map<Integer, Long>> seriesUsageRespProcess,
       Consumer<Map<Integer, Long>> deviceUsageRespProcess,
-      PipeRuntimeCoordinator pipeRuntimeCoordinator) {
+      PipeRuntimeCoordinator pipeRuntimeCoordinator,
+      Consumer<Map<String, Long>> minWrittenTimesRespProcess) {
 
     this.nodeId = nodeId;
     this.loadManager = loadManager;
@@ -78,6 +81,7 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
     this.seriesUsageRespProcess = seriesUsageRespProcess;
     this.deviceUsageRespProcess = deviceUsageRespProcess;
     this.pipeRuntimeCoordinator = pipeRuntimeCoordinator;
+    this.minWrittenTimesRespProcess = minWrittenTimesRespProcess;
   }
 
   @Override
@@ -158,6 +162,9 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
     if (heartbeatResp.isSetRegionDisk()) {
       loadManager.getLoadCache().updateRegionSizeMap(nodeId, heartbeatResp.getRegionDisk());
     }
+    if (heartbeatResp.isSetMinWrittenTimes()) {
+      minWrittenTimesRespProcess.accept(heartbeatResp.getMinWrittenTimes());
+    }
   }
 
   @Override
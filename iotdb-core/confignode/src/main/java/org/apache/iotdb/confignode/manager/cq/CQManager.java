@@ -41,7 +41,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -58,6 +61,11 @@ public class CQManager {
 
   private ScheduledExecutorService executor;
 
+  // cqId -> (database -> the minimum time of the points written into it since the last execution
+  // of the cq), only tracked if the cqs recompute the windows receiving late data. The inner maps
+  // are only accessed inside the atomic operations of the outer map.
+  private final Map<String, Map<String, Long>> minWrittenTimes = new ConcurrentHashMap<>();
+
   public CQManager(ConfigManager configManager) {
     this.configManager = configManager;
     this.lock = new ReentrantReadWriteLock();
@@ -78,7 +86,11 @@ public class CQManager {
 
   public TSStatus dropCQ(TDropCQReq req) {
     try {
-      return configManager.getConsensusManager().write(new DropCQPlan(req.cqId));
+      TSStatus status = configManager.getConsensusManager().write(new DropCQPlan(req.cqId));
+      if (status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        minWrittenTimes.remove(req.cqId);
+      }
+      return status;
     } catch (ConsensusException e) {
       LOGGER.warn("Unexpected error happened while dropping cq {}: ", req.cqId, e);
       // consensus layer related errors
@@ -101,6 +113,40 @@ public class CQManager {
     }
   }
 
+  /**
+   * Called with the min time of the points written into each database of a DataNode since its last
+   * heartbeat.
+   */
+  public void updateMinWrittenTimes(Map<String, Long> databaseMinWrittenTimes) {
+    for (String cqId : minWrittenTimes.keySet()) {
+      mergeMinWrittenTimes(cqId, databaseMinWrittenTimes);
+    }
+  }
+
+  /**
+   * Returns the minimum time of the points written into each database since the last call for the
+   * cq. The databases without any written point are absent.
+   */
+  public Map<String, Long> pollMinWrittenTimes(String cqId) {
+    Map<String, Long> previous = minWrittenTimes.put(cqId, new HashMap<>());
+    return previous == null ? Collections.emptyMap() : previous;
+  }
+
+  /** Gives back the polled minimum written times of the cq whose execution fails. */
+  public void restoreMinWrittenTimes(String cqId, Map<String, Long> databaseMinWrittenTimes) {
+    mergeMinWrittenTimes(cqId, databaseMinWrittenTimes);
+  }
+
+  private void mergeMinWrittenTimes(String cqId, Map<String, Long> databaseMinWrittenTimes) {
+    minWrittenTimes.computeIfPresent(
+        cqId,
+        (k, cqMinWrittenTimes) -> {
+          databaseMinWrittenTimes.forEach(
+              (database, time) -> cqMinWrittenTimes.merge(database, time, Math::min));
+          return cqMinWrittenTimes;
+        });
+  }
+
   public ScheduledExecutorService getExecutor() {
     ScheduledExecutorService res;
     lock.readLock().lock();
@@ -180,5 +226,7 @@ public class CQManager {
     if (previous != null) {
       previous.shutdown();
     }
+    // heartbeats are only handled by the leader, the tracked times become stale from now on
+    minWrittenTimes.clear();
   }
 }
@@ -37,6 +37,9 @@ import org.apache.thrift.async.AsyncMethodCallback;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -63,6 +66,9 @@ public class CQScheduleTask implements Runnable {
     }
   }
 
+  private static final long LATE_DATA_LOOKBACK =
+      CommonDescriptor.getInstance().getConfig().getContinuousQueryLateDataLookbackInMs() * FACTOR;
+
   private final String cqId;
   private final long everyInterval;
   private final long startTimeOffset;
@@ -155,6 +161,42 @@ public class CQScheduleTask implements Runnable {
     return getFirstExecutionTime(boundaryTime, everyInterval, now);
   }
 
+  /**
+   * Extends the start time back by whole every intervals to cover the earliest point written late,
+   * so that the windows of the earlier executions receiving late points are recomputed with the
+   * same boundaries. The start time is extended by at most lookback.
+   */
+  public static long getStartTimeCoveringLateData(
+      long startTime, long minWrittenTime, long everyInterval, long lookback) {
+    if (minWrittenTime >= startTime) {
+      return startTime;
+    }
+    long maxExtendedIntervals = lookback / everyInterval;
+    long extendedIntervals =
+        minWrittenTime <= startTime - lookback
+            ? maxExtendedIntervals
+            : Math.min((startTime - minWrittenTime - 1) / everyInterval + 1, maxExtendedIntervals);
+    return startTime - extendedIntervals * everyInterval;
+  }
+
+  /**
+   * Returns the start time extended to cover the late points of each database receiving any. The
+   * executing DataNode uses the earliest one among the databases read by the cq.
+   */
+  public static Map<String, Long> getLateDataStartTimes(
+      long startTime, Map<String, Long> minWrittenTimes, long everyInterval, long lookback) {
+    Map<String, Long> lateDataStartTimes = new HashMap<>();
+    minWrittenTimes.forEach(
+        (database, minWrittenTime) -> {
+          long lateDataStartTime =
+              getStartTimeCoveringLateData(startTime, minWrittenTime, everyInterval, lookback);
+          if (lateDataStartTime < startTime) {
+            lateDataStartTimes.put(database, lateDataStartTime);
+          }
+        });
+    return lateDataStartTimes;
+  }
+
   public static long getFirstExecutionTime(long boundaryTime, long everyInterval, long now) {
     if (now <= boundaryTime) {
       return boundaryTime;
@@ -167,12 +209,20 @@ public class CQScheduleTask implements Runnable {
   public void run() {
     long startTime = executionTime - startTimeOffset;
     long endTime = executionTime - endTimeOffset;
+    Map<String, Long> minWrittenTimes = Collections.emptyMap();
+    Map<String, Long> lateDataStartTimes = Collections.emptyMap();
+    if (LATE_DATA_LOOKBACK > 0) {
+      minWrittenTimes = configManager.getCQManager().pollMinWrittenTimes(cqId);
+      lateDataStartTimes =
+          getLateDataStartTimes(startTime, minWrittenTimes, everyInterval, LATE_DATA_LOOKBACK);
+    }
 
     Optional<TDataNodeLocation> targetDataNode =
         configManager.getNodeManager().getLowestLoadDataNode();
     // no usable DataNode to execute CQ
     if (!targetDataNode.isPresent()) {
       LOGGER.warn("There is no RUNNING DataNode to execute CQ {}", cqId);
+      restoreMinWrittenTimes(minWrittenTimes);
       if (needSubmit()) {
         submitSelf(retryWaitTimeInMS, TimeUnit.MILLISECONDS);
       }
@@ -186,13 +236,18 @@ public class CQScheduleTask implements Runnable {
           System.currentTimeMillis() * FACTOR);
       TExecuteCQ executeCQReq =
           new TExecuteCQ(queryBody, startTime, endTime, everyInterval, zoneId, cqId, username);
+      if (!lateDataStartTimes.isEmpty()) {
+        executeCQReq.setLateDataStartTimes(lateDataStartTimes);
+      }
       try {
         AsyncDataNodeInternalServiceClient client =
             CnToDnInternalServiceAsyncRequestManager.getInstance()
                 .getAsyncClient(targetDataNode.get());
-        client.executeCQ(executeCQReq, new AsyncExecuteCQCallback(startTime, endTime));
+        client.executeCQ(
+            executeCQReq, new AsyncExecuteCQCallback(startTime, endTime, minWrittenTimes));
       } catch (Exception t) {
         LOGGER.warn("Execute CQ {} failed", cqId, t);
+        restoreMinWrittenTimes(minWrittenTimes);
         if (needSubmit()) {
           submitSelf(retryWaitTimeInMS, TimeUnit.MILLISECONDS);
         }
@@ -209,6 +264,13 @@ public class CQScheduleTask implements Runnable {
     executor.schedule(this, delay, unit);
   }
 
+  private void restoreMinWrittenTimes(Map<String, Long> minWrittenTimes) {
+    // the late points are covered by the next execution if this one fails
+    if (!minWrittenTimes.isEmpty()) {
+      configManager.getCQManager().restoreMinWrittenTimes(cqId, minWrittenTimes);
+    }
+  }
+
   private boolean needSubmit() {
     // current node is still leader and thread pool is not shut down.
     return configManager.getConsensusManager().isLeader() && !executor.isShutdown();
@@ -218,10 +280,13 @@ public class CQScheduleTask implements Runnable {
 
     private final long startTime;
     private final long endTime;
+    private final Map<String, Long> minWrittenTimes;
 
-    public AsyncExecuteCQCallback(long startTime, long endTime) {
+    public AsyncExecuteCQCallback(
+        long startTime, long endTime, Map<String, Long> minWrittenTimes) {
       this.startTime = startTime;
       this.endTime = endTime;
+      this.minWrittenTimes = minWrittenTimes;
     }
 
     private void updateExecutionTime() {
@@ -283,6 +348,7 @@ public class CQScheduleTask implements Runnable {
 
       } else {
         LOGGER.warn("Execute CQ {} failed, TSStatus is {}", cqId, response);
+        restoreMinWrittenTimes(minWrittenTimes);
         if (needSubmit()) {
           submitSelf(retryWaitTimeInMS, TimeUnit.MILLISECONDS);
         }
@@ -292,6 +358,7 @@ public class CQScheduleTask implements Runnable {
     @Override
     public void onError(Exception exception) {
       LOGGER.warn("Execute CQ {} failed", cqId, exception);
+      restoreMinWrittenTimes(minWrittenTimes);
       if (needSubmit()) {
         submitSelf(retryWaitTimeInMS, TimeUnit.MILLISECONDS);
       }
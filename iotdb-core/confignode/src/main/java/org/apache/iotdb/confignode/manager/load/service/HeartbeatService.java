@@ -253,7 +253,8 @@ public class HeartbeatService {
               configManager.getClusterQuotaManager().getRegionDisk(),
               configManager.getClusterSchemaManager()::updateTimeSeriesUsage,
               configManager.getClusterSchemaManager()::updateDeviceUsage,
-              configManager.getPipeManager().getPipeRuntimeCoordinator());
+              configManager.getPipeManager().getPipeRuntimeCoordinator(),
+              configManager.getCQManager()::updateMinWrittenTimes);
       configManager.getClusterQuotaManager().updateSpaceQuotaUsage();
       addConfigNodeLocationsToReq(dataNodeId, heartbeatReq);
       AsyncDataNodeHeartbeatClientPool.getInstance()
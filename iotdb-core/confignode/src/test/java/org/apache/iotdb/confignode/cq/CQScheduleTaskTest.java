@@ -22,6 +22,10 @@ import org.apache.iotdb.confignode.manager.cq.CQScheduleTask;
 
 import org.junit.Test;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.junit.Assert.assertEquals;
 
 public class CQScheduleTaskTest {
@@ -41,4 +45,50 @@ public class CQScheduleTaskTest {
     long everyInterval = 30L;
     assertEquals(110L, CQScheduleTask.getFirstExecutionTime(boundaryTime, everyInterval, now));
   }
+
+  @Test
+  public void testGetStartTimeCoveringLateData() {
+    long startTime = 100L;
+    long everyInterval = 30L;
+    long lookback = 90L;
+    // no late points
+    assertEquals(
+        100L,
+        CQScheduleTask.getStartTimeCoveringLateData(startTime, 100L, everyInterval, lookback));
+    assertEquals(
+        100L,
+        CQScheduleTask.getStartTimeCoveringLateData(
+            startTime, Long.MAX_VALUE, everyInterval, lookback));
+    // extended to the start of the earlier execution receiving the late point
+    assertEquals(
+        70L, CQScheduleTask.getStartTimeCoveringLateData(startTime, 70L, everyInterval, lookback));
+    assertEquals(
+        40L, CQScheduleTask.getStartTimeCoveringLateData(startTime, 69L, everyInterval, lookback));
+    // extended by at most lookback
+    assertEquals(
+        10L, CQScheduleTask.getStartTimeCoveringLateData(startTime, 0L, everyInterval, lookback));
+    assertEquals(
+        10L,
+        CQScheduleTask.getStartTimeCoveringLateData(
+            startTime, Long.MIN_VALUE, everyInterval, lookback));
+  }
+
+  @Test
+  public void testGetLateDataStartTimes() {
+    long startTime = 100L;
+    long everyInterval = 30L;
+    long lookback = 90L;
+    Map<String, Long> minWrittenTimes = new HashMap<>();
+    // root.sg1 receives late points, root.sg2 only receives the points of the current window
+    minWrittenTimes.put("root.sg1", 69L);
+    minWrittenTimes.put("root.sg2", 100L);
+    assertEquals(
+        Collections.singletonMap("root.sg1", 40L),
+        CQScheduleTask.getLateDataStartTimes(startTime, minWrittenTimes, everyInterval, lookback));
+    // the results of the previous execution are not tracked, nothing extends the next window
+    assertEquals(
+        Collections.emptyMap(),
+        CQScheduleTask.getLateDataStartTimes(
+            startTime, Collections.emptyMap(), everyInterval, lookback));
+  }
 }
@@ -249,6 +249,7 @@ public class IoTConsensusConfig {
     private final long allocateMemoryForConsensus;
     private final long allocateMemoryForQueue;
     private final long regionMigrationSpeedLimitBytesPerSecond;
+    private final int logDispatcherThreadNum;
 
     private Replication(
         int maxLogEntriesNumPerBatch,
@@ -264,7 +265,8 @@ public class IoTConsensusConfig {
         long checkpointGap,
         long allocateMemoryForConsensus,
         double maxMemoryRatioForQueue,
-        long regionMigrationSpeedLimitBytesPerSecond) {
+        long regionMigrationSpeedLimitBytesPerSecond,
+        int logDispatcherThreadNum) {
       this.maxLogEntriesNumPerBatch = maxLogEntriesNumPerBatch;
       this.maxSizePerBatch = maxSizePerBatch;
       this.maxPendingBatchesNum = maxPendingBatchesNum;
@@ -279,6 +281,7 @@ public class IoTConsensusConfig {
       this.allocateMemoryForConsensus = allocateMemoryForConsensus;
       this.allocateMemoryForQueue = (long) (allocateMemoryForConsensus * maxMemoryRatioForQueue);
       this.regionMigrationSpeedLimitBytesPerSecond = regionMigrationSpeedLimitBytesPerSecond;
+      this.logDispatcherThreadNum = logDispatcherThreadNum;
     }
 
     public int getMaxLogEntriesNumPerBatch() {
@@ -337,6 +340,10 @@ public class IoTConsensusConfig {
       return regionMigrationSpeedLimitBytesPerSecond;
     }
 
+    public int getLogDispatcherThreadNum() {
+      return logDispatcherThreadNum;
+    }
+
     public static Replication.Builder newBuilder() {
       return new Replication.Builder();
     }
@@ -358,6 +365,8 @@ public class IoTConsensusConfig {
       private long allocateMemoryForConsensus = Runtime.getRuntime().maxMemory() / 10;
       private double maxMemoryRatioForQueue = 0.6;
       private long regionMigrationSpeedLimitBytesPerSecond = 32 * 1024 * 1024L;
+      private int logDispatcherThreadNum =
+          Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
 
       public Replication.Builder setMaxLogEntriesNumPerBatch(int maxLogEntriesNumPerBatch) {
         this.maxLogEntriesNumPerBatch = maxLogEntriesNumPerBatch;
@@ -432,6 +441,11 @@ public class IoTConsensusConfig {
         return this;
       }
 
+      public Builder setLogDispatcherThreadNum(int logDispatcherThreadNum) {
+        this.logDispatcherThreadNum = logDispatcherThreadNum;
+        return this;
+      }
+
       public Replication build() {
         return new Replication(
             maxLogEntriesNumPerBatch,
@@ -447,7 +461,8 @@ public class IoTConsensusConfig {
             checkpointGap,
             allocateMemoryForConsensus,
             maxMemoryRatioForQueue,
-            regionMigrationSpeedLimitBytesPerSecond);
+            regionMigrationSpeedLimitBytesPerSecond,
+            logDispatcherThreadNum);
       }
     }
   }
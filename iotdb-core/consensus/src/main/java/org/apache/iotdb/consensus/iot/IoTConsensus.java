@@ -100,6 +100,8 @@ public class IoTConsensus implements IConsensus {
   private final IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager;
   private final IClientManager<TEndPoint, SyncIoTConsensusServiceClient> syncClientManager;
   private final ScheduledExecutorService backgroundTaskService;
+  // shared by the log dispatchers of all consensus groups on this node
+  private final ScheduledExecutorService logDispatcherExecutor;
   private Future<?> updateReaderFuture;
   private Map<ConsensusGroupId, List<Peer>> correctPeerListBeforeStart = null;
 
@@ -121,6 +123,10 @@ public class IoTConsensus implements IConsensus {
     this.backgroundTaskService =
         IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
             ThreadName.IOT_CONSENSUS_BACKGROUND_TASK_EXECUTOR.getName());
+    this.logDispatcherExecutor =
+        IoTDBThreadPoolFactory.newScheduledThreadPool(
+            config.getIotConsensusConfig().getReplication().getLogDispatcherThreadNum(),
+            ThreadName.LOG_DISPATCHER.getName());
     // init IoTConsensus memory manager
     IoTConsensusMemoryManager.getInstance()
         .init(
@@ -177,6 +183,7 @@ public class IoTConsensus implements IConsensus {
                   new ArrayList<>(),
                   registry.apply(consensusGroupId),
                   backgroundTaskService,
+                  logDispatcherExecutor,
                   clientManager,
                   syncClientManager,
                   config);
@@ -213,12 +220,16 @@ public class IoTConsensus implements IConsensus {
   public synchronized void stop() {
     Optional.ofNullable(updateReaderFuture).ifPresent(future -> future.cancel(false));
     stateMachineMap.values().parallelStream().forEach(IoTConsensusServerImpl::stop);
+    logDispatcherExecutor.shutdownNow();
     clientManager.close();
     syncClientManager.close();
     registerManager.deregisterAll();
     backgroundTaskService.shutdown();
     try {
       backgroundTaskService.awaitTermination(5, TimeUnit.SECONDS);
+      if (!logDispatcherExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+        logger.error("Unable to shutdown LogDispatcher service after 10 seconds");
+      }
     } catch (InterruptedException e) {
       logger.warn("{}: interrupted when shutting down add Executor with exception {}", this, e);
       Thread.currentThread().interrupt();
@@ -284,6 +295,7 @@ public class IoTConsensus implements IConsensus {
                           peers,
                           registry.apply(groupId),
                           backgroundTaskService,
+                          logDispatcherExecutor,
                           clientManager,
                           syncClientManager,
                           config);
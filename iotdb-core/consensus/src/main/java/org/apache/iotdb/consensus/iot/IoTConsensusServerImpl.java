@@ -131,6 +131,7 @@ public class IoTConsensusServerImpl {
   private final IoTConsensusServerMetrics ioTConsensusServerMetrics;
   private final String consensusGroupId;
   private final ScheduledExecutorService backgroundTaskService;
+  private final ScheduledExecutorService logDispatcherExecutor;
   private final IoTConsensusRateLimiter ioTConsensusRateLimiter =
       IoTConsensusRateLimiter.getInstance();
 
@@ -140,6 +141,7 @@ public class IoTConsensusServerImpl {
       List<Peer> configuration,
       IStateMachine stateMachine,
       ScheduledExecutorService backgroundTaskService,
+      ScheduledExecutorService logDispatcherExecutor,
       IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager,
       IClientManager<TEndPoint, SyncIoTConsensusServiceClient> syncClientManager,
       IoTConsensusConfig config) {
@@ -156,6 +158,7 @@ public class IoTConsensusServerImpl {
       persistConfiguration();
     }
     this.backgroundTaskService = backgroundTaskService;
+    this.logDispatcherExecutor = logDispatcherExecutor;
     this.config = config;
     this.consensusGroupId = thisNode.getGroupId().toString();
     consensusReqReader = (ConsensusReqReader) stateMachine.read(new GetConsensusReqReaderPlan());
@@ -881,6 +884,10 @@ public class IoTConsensusServerImpl {
     return backgroundTaskService;
   }
 
+  public ScheduledExecutorService getLogDispatcherExecutor() {
+    return logDispatcherExecutor;
+  }
+
   public LogDispatcher getLogDispatcher() {
     return logDispatcher;
   }
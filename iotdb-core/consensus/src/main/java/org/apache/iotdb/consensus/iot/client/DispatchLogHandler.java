@@ -150,5 +150,7 @@ public class DispatchLogHandler implements AsyncMethodCallback<TSyncLogEntriesRe
     // update safely deleted search index after last flushed sync index may be updated by
     // removeBatch
     thread.updateSafelyDeletedSearchIndex();
+    // a slot of the synchronization pipeline may have been released
+    thread.wakeUp();
   }
 }
@@ -73,6 +73,15 @@ public interface ConsensusReqReader {
      */
     void waitForNextReady(long time, TimeUnit unit) throws InterruptedException, TimeoutException;
 
+    /**
+     * Non-blocking counterpart of {@link this#waitForNextReady()}. Like {@link this#hasNext()}, but
+     * if the next element has not become ready for a while since the first unsuccessful check, the
+     * elements which are still in the file being written are made readable as well.
+     *
+     * @return true if the next element is ready.
+     */
+    boolean isNextReady();
+
     /**
      * Skips to target position of next element in the iteration <br>
      * . Notice: The correctness of forward skipping should be guaranteed by the caller.
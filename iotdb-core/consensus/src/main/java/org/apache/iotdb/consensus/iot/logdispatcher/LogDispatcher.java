@@ -21,8 +21,6 @@ package org.apache.iotdb.consensus.iot.logdispatcher;
 
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.commons.client.IClientManager;
-import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
-import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.consensus.common.Peer;
 import org.apache.iotdb.consensus.common.request.IndexedConsensusRequest;
@@ -46,13 +44,23 @@ import java.util.Objects;
 import java.util.OptionalLong;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
-/** Manage all asynchronous replication threads and corresponding async clients. */
+/**
+ * Manage all asynchronous replication tasks and corresponding async clients.
+ *
+ * <p>Each peer is served by a {@link LogDispatcherThread}, which is an event-driven task rather
+ * than a dedicated thread: it is scheduled onto the executor shared by all consensus groups of this
+ * node whenever new requests arrive or a slot in its synchronization pipeline is released, and
+ * gives the worker back as soon as there is nothing left to send.
+ */
 public class LogDispatcher {
 
   private static final Logger logger = LoggerFactory.getLogger(LogDispatcher.class);
@@ -61,7 +69,7 @@ public class LogDispatcher {
   private final List<LogDispatcherThread> threads;
   private final int selfPeerId;
   private final IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager;
-  private ExecutorService executorService;
+  private final ScheduledExecutorService executorService;
 
   private final ConsensusReqReader reader;
   private boolean stopped = false;
@@ -76,29 +84,19 @@ public class LogDispatcher {
     this.reader = (ConsensusReqReader) impl.getStateMachine().read(new GetConsensusReqReaderPlan());
     this.selfPeerId = impl.getThisNode().getNodeId();
     this.clientManager = clientManager;
+    // The executor is owned by IoTConsensus and shared by all consensus groups, so the number of
+    // dispatching threads no longer grows with the number of regions and replicas.
+    this.executorService = impl.getLogDispatcherExecutor();
     this.threads =
         impl.getConfiguration().stream()
             .filter(x -> !Objects.equals(x, impl.getThisNode()))
             .map(x -> new LogDispatcherThread(x, impl.getConfig(), DEFAULT_INITIAL_SYNC_INDEX))
             .collect(Collectors.toList());
-    if (!threads.isEmpty()) {
-      initLogSyncThreadPool();
-    }
-  }
-
-  private void initLogSyncThreadPool() {
-    // We use cached thread pool here because each LogDispatcherThread will occupy one thread.
-    // And every LogDispatcherThread won't release its thread in this pool because it won't stop
-    // unless LogDispatcher stop.
-    // Thus, the size of this threadPool will be the same as the count of LogDispatcherThread.
-    this.executorService =
-        IoTDBThreadPoolFactory.newCachedThreadPool(
-            ThreadName.LOG_DISPATCHER.getName() + "-" + impl.getThisNode().getGroupId());
   }
 
   public synchronized void start() {
     if (!threads.isEmpty()) {
-      threads.forEach(executorService::submit);
+      threads.forEach(LogDispatcherThread::wakeUp);
     }
   }
 
@@ -106,16 +104,6 @@ public class LogDispatcher {
     if (!threads.isEmpty()) {
       threads.forEach(LogDispatcherThread::setStopped);
       threads.forEach(LogDispatcherThread::processStopped);
-      executorService.shutdownNow();
-      int timeout = 10;
-      try {
-        if (!executorService.awaitTermination(timeout, TimeUnit.SECONDS)) {
-          logger.error("Unable to shutdown LogDispatcher service after {} seconds", timeout);
-        }
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-        logger.error("Unexpected Interruption when closing LogDispatcher service ");
-      }
     }
     stopped = true;
   }
@@ -126,12 +114,7 @@ public class LogDispatcher {
     }
     LogDispatcherThread thread = new LogDispatcherThread(peer, impl.getConfig(), initialSyncIndex);
     threads.add(thread);
-    // If the initial replica is 1, the executorService won't be initialized. And when adding
-    // dispatcher thread, the executorService should be initialized manually
-    if (this.executorService == null) {
-      initLogSyncThreadPool();
-    }
-    executorService.submit(thread);
+    thread.wakeUp();
   }
 
   public synchronized void removeLogDispatcherThread(Peer peer) throws IOException {
@@ -192,6 +175,8 @@ public class LogDispatcher {
                     thread.getPeer(),
                     request.getSearchIndex());
               }
+              // Even if the request is not queued, the dispatcher will catch up from the WAL
+              thread.wakeUpForNewRequest();
             });
       }
     }
@@ -208,6 +193,14 @@ public class LogDispatcher {
   public class LogDispatcherThread implements Runnable {
 
     private static final long PENDING_REQUEST_TAKING_TIME_OUT_IN_SEC = 10;
+    private static final long STOP_WAITING_TIME_OUT_IN_SEC = 30;
+    // Retry interval when the memory for a constructed batch can not be reserved
+    private static final long RESERVE_MEMORY_RETRY_INTERVAL_IN_MS = 100;
+    // Retry interval when the requests to be sent have not been flushed into the WAL yet
+    private static final long WAL_ENTRY_NOT_READY_RETRY_INTERVAL_IN_MS = 100;
+    // Upper bound of batches sent in one scheduling round, so that one busy peer can not occupy a
+    // shared worker while other groups are waiting
+    private static final int MAX_BATCHES_PER_ROUND = 8;
     private static final long START_INDEX = 1;
     private final IoTConsensusConfig config;
     private final Peer peer;
@@ -229,7 +222,19 @@ public class LogDispatcher {
 
     private final LogDispatcherThreadMetrics logDispatcherThreadMetrics;
 
-    private final CountDownLatch runFinished = new CountDownLatch(1);
+    // Guarantees that at most one dispatching round of this peer is queued or running
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    // Held while a dispatching round is running, so that stop() can wait for it to finish
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    private volatile ScheduledFuture<?> delayedWakeUp;
+    // The System.nanoTime() at which delayedWakeUp fires
+    private long delayedWakeUpDeadline;
+    // Whether the last batch construction stopped at a request which is not readable from the WAL
+    private boolean walEntryNotReady = false;
+    // A constructed batch which has not been admitted into the synchronization pipeline yet
+    private Batch unsentBatch;
+    // Whether the last round stopped because the pipeline was full and there may be more to send
+    private volatile boolean backlogged = false;
 
     public LogDispatcherThread(Peer peer, IoTConsensusConfig config, long initialSyncIndex) {
       this.peer = peer;
@@ -259,6 +264,11 @@ public class LogDispatcher {
       return controller.getLastFlushedIndex();
     }
 
+    /** The number of requests written locally but not yet synchronized to this peer. */
+    public long getSyncLag() {
+      return Math.max(0, impl.getSearchIndex() - controller.getCurrentIndex());
+    }
+
     public Peer getPeer() {
       return peer;
     }
@@ -307,12 +317,23 @@ public class LogDispatcher {
 
     private void setStopped() {
       stopped = true;
+      ScheduledFuture<?> future = delayedWakeUp;
+      if (future != null) {
+        future.cancel(false);
+      }
     }
 
     private void processStopped() {
       try {
-        if (!runFinished.await(30, TimeUnit.SECONDS)) {
-          logger.info("{}: Dispatcher for {} didn't stop after 30s.", impl.getThisNode(), peer);
+        // wait for the running round, if any, to finish
+        if (dispatchLock.tryLock(STOP_WAITING_TIME_OUT_IN_SEC, TimeUnit.SECONDS)) {
+          dispatchLock.unlock();
+        } else {
+          logger.info(
+              "{}: Dispatcher for {} didn't stop after {}s.",
+              impl.getThisNode(),
+              peer,
+              STOP_WAITING_TIME_OUT_IN_SEC);
         }
       } catch (InterruptedException e) {
         Thread.currentThread().interrupt();
@@ -327,6 +348,8 @@ public class LogDispatcher {
       for (IndexedConsensusRequest indexedConsensusRequest : bufferedEntries) {
         requestSize += indexedConsensusRequest.getSerializedSize();
       }
+      // the memory of an unsent batch has not been reserved in syncStatus yet
+      unsentBatch = null;
       iotConsensusMemoryManager.free(requestSize, true);
       syncStatus.free();
       MetricService.getInstance().removeMetricSet(logDispatcherThreadMetrics);
@@ -344,50 +367,137 @@ public class LogDispatcher {
       return impl;
     }
 
+    /**
+     * Schedule a dispatching round onto the shared executor if none is queued or running. It is
+     * called when new requests are offered, when a pending batch is acknowledged and by the
+     * delayed wake-ups of the dispatcher itself.
+     */
+    public void wakeUp() {
+      if (stopped || !scheduled.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        executorService.execute(this);
+      } catch (RejectedExecutionException e) {
+        scheduled.set(false);
+        if (!executorService.isShutdown()) {
+          logger.warn("{}: Failed to schedule dispatcher for {}", impl.getThisNode(), peer, e);
+        }
+      }
+    }
+
+    /**
+     * Called when a new request is offered. Under low write pressure the round is deferred for at
+     * most maxWaitingTimeForAccumulatingBatchInMs, so that the requests written in the meantime are
+     * sent in one RPC instead of one RPC per request.
+     */
+    private void wakeUpForNewRequest() {
+      long accumulatingTimeInMs =
+          config.getReplication().getMaxWaitingTimeForAccumulatingBatchInMs();
+      if (accumulatingTimeInMs <= 0
+          || backlogged
+          || pendingEntries.size() >= config.getReplication().getMaxLogEntriesNumPerBatch()) {
+        wakeUp();
+      } else {
+        wakeUpLater(accumulatingTimeInMs, TimeUnit.MILLISECONDS);
+      }
+    }
+
+    /**
+     * Schedule a delayed wake-up. Only the earliest one is kept: a pending wake-up which fires no
+     * later than the requested one makes this a no-op, and a later one is replaced.
+     */
+    private synchronized void wakeUpLater(long delay, TimeUnit unit) {
+      if (stopped) {
+        return;
+      }
+      long deadline = System.nanoTime() + unit.toNanos(delay);
+      ScheduledFuture<?> future = delayedWakeUp;
+      if (future != null && !future.isDone()) {
+        if (delayedWakeUpDeadline - deadline <= 0) {
+          return;
+        }
+        future.cancel(false);
+      }
+      try {
+        delayedWakeUp = executorService.schedule(this::wakeUp, delay, unit);
+        delayedWakeUpDeadline = deadline;
+      } catch (RejectedExecutionException e) {
+        if (!executorService.isShutdown()) {
+          logger.warn("{}: Failed to schedule dispatcher for {}", impl.getThisNode(), peer, e);
+        }
+      }
+    }
+
     @Override
     public void run() {
-      logger.info("{}: Dispatcher for {} starts", impl.getThisNode(), peer);
+      dispatchLock.lock();
       try {
-        Batch batch;
-        while (!Thread.interrupted() && !stopped) {
+        if (!stopped) {
+          dispatch();
+        }
+      } catch (Exception e) {
+        logger.error("Unexpected error in logDispatcher for peer {}", peer, e);
+        wakeUpLater(config.getReplication().getBasicRetryWaitTimeMs(), TimeUnit.MILLISECONDS);
+      } finally {
+        dispatchLock.unlock();
+        scheduled.set(false);
+      }
+      // Requests offered or batches acknowledged while this round was running did not schedule a
+      // new round because `scheduled` was still set, so check again after releasing it.
+      if (!stopped && unsentBatch == null && syncStatus.hasAvailableSlot()) {
+        if (backlogged || !bufferedEntries.isEmpty()) {
+          wakeUp();
+        } else if (!pendingEntries.isEmpty()) {
+          wakeUpForNewRequest();
+        }
+      }
+    }
+
+    /** Send at most {@link #MAX_BATCHES_PER_ROUND} batches without blocking the shared worker. */
+    private void dispatch() {
+      for (int i = 0; i < MAX_BATCHES_PER_ROUND && !stopped; i++) {
+        if (unsentBatch == null) {
+          // the pipeline is full, the acknowledgement of a pending batch will wake us up
+          if (!syncStatus.hasAvailableSlot()) {
+            backlogged = true;
+            return;
+          }
           long startTime = System.nanoTime();
-          while ((batch = getBatch()).isEmpty()) {
-            // we may block here if there is no requests in the queue
-            IndexedConsensusRequest request =
-                pendingEntries.poll(PENDING_REQUEST_TAKING_TIME_OUT_IN_SEC, TimeUnit.SECONDS);
-            if (request != null) {
-              bufferedEntries.add(request);
-              // If write pressure is low, we simply sleep a little to reduce the number of RPC
-              if (pendingEntries.size() <= config.getReplication().getMaxLogEntriesNumPerBatch()
-                  && bufferedEntries.isEmpty()) {
-                Thread.sleep(config.getReplication().getMaxWaitingTimeForAccumulatingBatchInMs());
-              }
-            }
-            // Immediately check for interrupts after poll and sleep
-            if (Thread.interrupted() || stopped) {
-              throw new InterruptedException("Interrupted after polling and sleeping");
+          Batch batch = getBatch();
+          if (batch.isEmpty()) {
+            backlogged = false;
+            if (walEntryNotReady) {
+              // the next request is not readable from the WAL yet, check again shortly
+              wakeUpLater(WAL_ENTRY_NOT_READY_RETRY_INTERVAL_IN_MS, TimeUnit.MILLISECONDS);
+            } else {
+              // Nothing to send for now. New requests will wake us up, the periodic wake-up makes
+              // sure the requests which only exist in the WAL are eventually replicated.
+              wakeUpLater(PENDING_REQUEST_TAKING_TIME_OUT_IN_SEC, TimeUnit.SECONDS);
             }
-          }
-          // Immediately check for interrupts after a time-consuming getBatch() operation
-          if (Thread.interrupted() || stopped) {
-            throw new InterruptedException("Interrupted after getting a batch");
+            return;
           }
           logDispatcherThreadMetrics.recordConstructBatchTime(System.nanoTime() - startTime);
-          // we may block here if the synchronization pipeline is full
-          syncStatus.addNextBatch(batch);
-          logEntriesFromWAL.addAndGet(batch.getLogEntriesNumFromWAL());
-          logEntriesFromQueue.addAndGet(
-              batch.getLogEntries().size() - batch.getLogEntriesNumFromWAL());
-          // sends batch asynchronously and migrates the retry logic into the callback handler
-          sendBatchAsync(batch, new DispatchLogHandler(this, logDispatcherThreadMetrics, batch));
+          unsentBatch = batch;
         }
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-      } catch (Exception e) {
-        logger.error("Unexpected error in logDispatcher for peer {}", peer, e);
+        if (!syncStatus.tryAddNextBatch(unsentBatch)) {
+          backlogged = true;
+          if (syncStatus.hasAvailableSlot()) {
+            // the memory for this batch can not be reserved currently, retry later
+            wakeUpLater(RESERVE_MEMORY_RETRY_INTERVAL_IN_MS, TimeUnit.MILLISECONDS);
+          }
+          return;
+        }
+        Batch batch = unsentBatch;
+        unsentBatch = null;
+        logEntriesFromWAL.addAndGet(batch.getLogEntriesNumFromWAL());
+        logEntriesFromQueue.addAndGet(
+            batch.getLogEntries().size() - batch.getLogEntriesNumFromWAL());
+        // sends batch asynchronously and migrates the retry logic into the callback handler
+        sendBatchAsync(batch, new DispatchLogHandler(this, logDispatcherThreadMetrics, batch));
       }
-      runFinished.countDown();
-      logger.info("{}: Dispatcher for {} exits", impl.getThisNode(), peer);
+      // the round quota is used up, yield the worker to other dispatchers
+      backlogged = true;
     }
 
     public void updateSafelyDeletedSearchIndex() {
@@ -404,6 +514,7 @@ public class LogDispatcher {
     }
 
     public Batch getBatch() {
+      walEntryNotReady = false;
       long startIndex = syncStatus.getNextSendingIndex();
       long maxIndex;
       synchronized (impl.getIndexObject()) {
@@ -538,11 +649,11 @@ public class LogDispatcher {
       walEntryIterator.skipTo(targetIndex);
       while (targetIndex < maxIndex && logBatches.canAccumulate()) {
         logger.debug("construct from WAL for one Entry, index : {}", targetIndex);
-        try {
-          walEntryIterator.waitForNextReady();
-        } catch (InterruptedException e) {
-          Thread.currentThread().interrupt();
-          logger.warn("wait for next WAL entry is interrupted");
+        // Never block the shared worker waiting for the WAL, send what we have and retry later.
+        // The gap must not be skipped, so the caller stops accumulating as for corrupted data.
+        if (!walEntryIterator.isNextReady()) {
+          walEntryNotReady = true;
+          return true;
         }
         IndexedConsensusRequest data = walEntryIterator.next();
         if (data.getSearchIndex() < targetIndex) {
@@ -567,7 +678,7 @@ public class LogDispatcher {
             new TLogEntry(data.getSerializedRequests(), data.getSearchIndex(), true));
       }
       // In the case of corrupt Data, we return true so that we can send a batch as soon as
-      // possible, avoiding potential duplication
+      // possible, avoiding potential duplication. The same applies when the WAL is not ready.
       return hasCorruptedData;
     }
 
@@ -88,6 +88,17 @@ public class LogDispatcherThreadMetrics implements IMetricSet {
         logDispatcherThread.getPeer().getGroupId().toString(),
         Tag.TYPE.toString(),
         "cachedRequestInMemoryQueue");
+    metricService.createAutoGauge(
+        Metric.IOT_CONSENSUS.toString(),
+        MetricLevel.IMPORTANT,
+        logDispatcherThread,
+        LogDispatcher.LogDispatcherThread::getSyncLag,
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        logDispatcherThread.getPeer().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "syncLag");
   }
 
   private void bindStageTimer(AbstractMetricService metricService) {
@@ -168,6 +179,15 @@ public class LogDispatcherThreadMetrics implements IMetricSet {
         logDispatcherThread.getPeer().getGroupId().toString(),
         Tag.TYPE.toString(),
         "cachedRequestInMemoryQueue");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.IOT_CONSENSUS.toString(),
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        logDispatcherThread.getPeer().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "syncLag");
   }
 
   private String formatName() {
@@ -51,6 +51,24 @@ public class SyncStatus {
     pendingBatches.add(batch);
   }
 
+  /**
+   * Non-blocking version of {@link #addNextBatch(Batch)} used by the shared dispatcher pool.
+   *
+   * @return false if the synchronization pipeline is full or the memory can not be reserved
+   */
+  public synchronized boolean tryAddNextBatch(Batch batch) {
+    if (!hasAvailableSlot()
+        || !iotConsensusMemoryManager.reserve(batch.getSerializedSize(), false)) {
+      return false;
+    }
+    pendingBatches.add(batch);
+    return true;
+  }
+
+  public synchronized boolean hasAvailableSlot() {
+    return pendingBatches.size() < config.getReplication().getMaxPendingBatchesNum();
+  }
+
   /**
    * We only set a flag if this batch is not the first one. Notice, We need to confirm that the
    * batch in the parameter is actually in pendingBatches, rather than a reference to a different
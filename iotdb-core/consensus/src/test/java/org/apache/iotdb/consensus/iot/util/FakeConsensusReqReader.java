@@ -99,6 +99,11 @@ public class FakeConsensusReqReader implements ConsensusReqReader, DataSet {
       }
     }
 
+    @Override
+    public boolean isNextReady() {
+      return hasNext();
+    }
+
     @Override
     public void skipTo(long targetIndex) {
       nextSearchIndex = targetIndex;
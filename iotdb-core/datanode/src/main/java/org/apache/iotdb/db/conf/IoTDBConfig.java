@@ -118,6 +118,16 @@ public class IoTDBConfig {
   /** Max mqtt message size. Unit: byte */
   private int mqttMaxMessageSize = 1048576;
 
+  /**
+   * Max number of rows of one mqtt client to buffer before inserting them in one statement. Rows
+   * are inserted one by one if it is not larger than 1. Disabled by default because a buffered row
+   * is acknowledged to QoS 1 publishers before it is inserted.
+   */
+  private int mqttBatchSize = 1;
+
+  /** Max time that a row received by mqtt waits in the buffer before it is inserted. Unit: ms */
+  private long mqttBatchMaxDelayInMs = 10;
+
   /** Rpc binding address. */
   private String rpcAddress = "0.0.0.0";
 
@@ -332,6 +342,25 @@ public class IoTDBConfig {
   /** Strategy of multiple directories. */
   private String multiDirStrategyClassName = null;
 
+  /** Directory caching the blocks of the TsFiles on the last tier */
+  private String tierCacheDir =
+      IoTDBConstant.DN_DEFAULT_DATA_DIR + File.separator + IoTDBConstant.TIER_CACHE_FOLDER_NAME;
+
+  /** The disk space in bytes used to cache the TsFiles on the last tier. 0 means disabled. */
+  private long tierCacheSizeInBytes = 0;
+
+  /** The interval in ms to look for the sealed TsFiles to be migrated to the next tier. */
+  private long tierMigrationCheckIntervalInMs = 600_000L;
+
+  /** The limit of tier migration can reach per second. When <= 0, no limit. unit: megabyte */
+  private int tierMigrationThroughputMbPerSec = 16;
+
+  /**
+   * A TsFile opened by at least this number of queries during the last check interval is not
+   * migrated to the next tier.
+   */
+  private int tierMigrationHotFileAccessCount = 10;
+
   private String ratisDataRegionSnapshotDir =
       IoTDBConstant.DN_DEFAULT_DATA_DIR
           + File.separator
@@ -369,6 +398,21 @@ public class IoTDBConfig {
 
   private int degreeOfParallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
 
+  /**
+   * How many chunks on disk a raw series scan reads into the chunk cache ahead of the consumer. 0
+   * means that the chunks are only read when they are consumed.
+   */
+  private int chunkPrefetchDepth = 0;
+
+  /**
+   * How many chunks all the raw series scans of a fragment instance can be reading ahead at the
+   * same time. A value <= 0 means no limit other than {@link #chunkPrefetchDepth} of each scan.
+   */
+  private int chunkPrefetchDepthPerQuery = 64;
+
+  /** How many threads can concurrently prefetch chunks for queries. */
+  private int chunkPrefetchThreadCount = Runtime.getRuntime().availableProcessors();
+
   private int mergeThresholdOfExplainAnalyze = 10;
 
   private int modeMapSizeThreshold = 10000;
@@ -593,6 +637,39 @@ public class IoTDBConfig {
   /** whether to cache meta data(ChunkMetaData and TsFileMetaData) or not. */
   private boolean metaDataCacheEnable = true;
 
+  /**
+   * whether to read sealed TsFiles through memory-mapped buffers, so that the chunks and metadata
+   * are served from the page cache without copying.
+   */
+  private boolean mmapReadForSealedTsFileEnable = false;
+
+  /**
+   * whether to keep an in-memory filter of the devices and series of each TsFile sealed by flush or
+   * compaction, so that the files without the queried series are skipped without reading metadata.
+   */
+  private boolean seriesPresenceFilterEnable = false;
+
+  /**
+   * the interval in ms of the pre-aggregated buckets kept for the series of each sequence TsFile,
+   * which answer the GROUP BY time queries aligned with the interval. 0 means disabled.
+   */
+  private long rollupIntervalInMs = 0;
+
+  /**
+   * the max memory in bytes taken by the rollups of an unsealed TsFile, beyond which the TsFile is
+   * sealed without rollups
+   */
+  private long rollupMaxMemoryInBytesPerTsFile = 16 * 1024 * 1024L;
+
+  /** the memory in bytes of the cache of the rollups read by queries */
+  private long rollupCacheSizeInBytes = 32 * 1024 * 1024L;
+
+  /**
+   * the memory in bytes used to cache the results of the user queries on sealed time partitions,
+   * which are reused by the identical queries until the partitions change. 0 means disabled.
+   */
+  private long queryResultCacheSizeInBytes = 0;
+
   /** Memory allocated for bloomFilter cache in read process */
   private long allocateMemoryForBloomFilterCache = allocateMemoryForRead / 1001;
 
@@ -640,6 +717,9 @@ public class IoTDBConfig {
   /** the max executing time of query in ms. Unit: millisecond */
   private long queryTimeoutThreshold = 60000;
 
+  /** the max number of statements that one session can prepare on the server at the same time */
+  private int maxPreparedStatementNumPerSession = 256;
+
   /** the max time to live of a session in ms. Unit: millisecond */
   private int sessionTimeoutThreshold = 0;
 
@@ -871,6 +951,15 @@ public class IoTDBConfig {
   /** time cost(ms) threshold for slow query. Unit: millisecond */
   private long slowQueryThreshold = 30000;
 
+  /**
+   * Time cost(ms) threshold above which the resource profile of a query on this DataNode is
+   * retained. Negative value disables query profiling.
+   */
+  private long queryProfileThreshold = 1000;
+
+  /** Max number of query profiles retained in memory on each DataNode. */
+  private int queryProfileRetainedNum = 1000;
+
   private int patternMatchingThreshold = 1000000;
 
   /**
@@ -1145,6 +1234,8 @@ public class IoTDBConfig {
   private int maxPendingBatchesNum = 5;
   private double maxMemoryRatioForQueue = 0.6;
   private long regionMigrationSpeedLimitBytesPerSecond = 32 * 1024 * 1024L;
+  private int iotConsensusLogDispatcherThreadNum =
+      Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
 
   // IoTConsensusV2 Config
   private int iotConsensusV2PipelineSize = 5;
@@ -1276,6 +1367,14 @@ public class IoTDBConfig {
     this.maxMemoryRatioForQueue = maxMemoryRatioForQueue;
   }
 
+  public int getIotConsensusLogDispatcherThreadNum() {
+    return iotConsensusLogDispatcherThreadNum;
+  }
+
+  public void setIotConsensusLogDispatcherThreadNum(int iotConsensusLogDispatcherThreadNum) {
+    this.iotConsensusLogDispatcherThreadNum = iotConsensusLogDispatcherThreadNum;
+  }
+
   public float getUdfMemoryBudgetInMB() {
     return udfMemoryBudgetInMB;
   }
@@ -1395,6 +1494,7 @@ public class IoTDBConfig {
     extPipeDir = addDataHomeDir(extPipeDir);
     queryDir = addDataHomeDir(queryDir);
     sortTmpDir = addDataHomeDir(sortTmpDir);
+    tierCacheDir = addDataHomeDir(tierCacheDir);
     formulateDataDirs(tierDataDirs);
   }
 
@@ -1736,6 +1836,46 @@ public class IoTDBConfig {
     this.multiDirStrategyClassName = multiDirStrategyClassName;
   }
 
+  public String getTierCacheDir() {
+    return tierCacheDir;
+  }
+
+  public void setTierCacheDir(String tierCacheDir) {
+    this.tierCacheDir = tierCacheDir;
+  }
+
+  public long getTierCacheSizeInBytes() {
+    return tierCacheSizeInBytes;
+  }
+
+  public void setTierCacheSizeInBytes(long tierCacheSizeInBytes) {
+    this.tierCacheSizeInBytes = tierCacheSizeInBytes;
+  }
+
+  public long getTierMigrationCheckIntervalInMs() {
+    return tierMigrationCheckIntervalInMs;
+  }
+
+  public void setTierMigrationCheckIntervalInMs(long tierMigrationCheckIntervalInMs) {
+    this.tierMigrationCheckIntervalInMs = tierMigrationCheckIntervalInMs;
+  }
+
+  public int getTierMigrationThroughputMbPerSec() {
+    return tierMigrationThroughputMbPerSec;
+  }
+
+  public void setTierMigrationThroughputMbPerSec(int tierMigrationThroughputMbPerSec) {
+    this.tierMigrationThroughputMbPerSec = tierMigrationThroughputMbPerSec;
+  }
+
+  public int getTierMigrationHotFileAccessCount() {
+    return tierMigrationHotFileAccessCount;
+  }
+
+  public void setTierMigrationHotFileAccessCount(int tierMigrationHotFileAccessCount) {
+    this.tierMigrationHotFileAccessCount = tierMigrationHotFileAccessCount;
+  }
+
   public void checkMultiDirStrategyClassName() {
     confirmMultiDirStrategy();
     for (String multiDirStrategy : CLUSTER_ALLOWED_MULTI_DIR_STRATEGIES) {
@@ -1799,6 +1939,32 @@ public class IoTDBConfig {
     return degreeOfParallelism;
   }
 
+  public int getChunkPrefetchDepth() {
+    return chunkPrefetchDepth;
+  }
+
+  public void setChunkPrefetchDepth(int chunkPrefetchDepth) {
+    this.chunkPrefetchDepth = Math.max(0, chunkPrefetchDepth);
+  }
+
+  public int getChunkPrefetchDepthPerQuery() {
+    return chunkPrefetchDepthPerQuery;
+  }
+
+  public void setChunkPrefetchDepthPerQuery(int chunkPrefetchDepthPerQuery) {
+    this.chunkPrefetchDepthPerQuery = chunkPrefetchDepthPerQuery;
+  }
+
+  public int getChunkPrefetchThreadCount() {
+    return chunkPrefetchThreadCount;
+  }
+
+  public void setChunkPrefetchThreadCount(int chunkPrefetchThreadCount) {
+    if (chunkPrefetchThreadCount > 0) {
+      this.chunkPrefetchThreadCount = chunkPrefetchThreadCount;
+    }
+  }
+
   public void setMergeThresholdOfExplainAnalyze(int mergeThresholdOfExplainAnalyze) {
     this.mergeThresholdOfExplainAnalyze = mergeThresholdOfExplainAnalyze;
   }
@@ -1926,6 +2092,14 @@ public class IoTDBConfig {
     this.queryTimeoutThreshold = queryTimeoutThreshold;
   }
 
+  public int getMaxPreparedStatementNumPerSession() {
+    return maxPreparedStatementNumPerSession;
+  }
+
+  public void setMaxPreparedStatementNumPerSession(int maxPreparedStatementNumPerSession) {
+    this.maxPreparedStatementNumPerSession = maxPreparedStatementNumPerSession;
+  }
+
   public int getSessionTimeoutThreshold() {
     return sessionTimeoutThreshold;
   }
@@ -2333,6 +2507,54 @@ public class IoTDBConfig {
     this.metaDataCacheEnable = metaDataCacheEnable;
   }
 
+  public boolean isMmapReadForSealedTsFileEnable() {
+    return mmapReadForSealedTsFileEnable;
+  }
+
+  public void setMmapReadForSealedTsFileEnable(boolean mmapReadForSealedTsFileEnable) {
+    this.mmapReadForSealedTsFileEnable = mmapReadForSealedTsFileEnable;
+  }
+
+  public boolean isSeriesPresenceFilterEnable() {
+    return seriesPresenceFilterEnable;
+  }
+
+  public void setSeriesPresenceFilterEnable(boolean seriesPresenceFilterEnable) {
+    this.seriesPresenceFilterEnable = seriesPresenceFilterEnable;
+  }
+
+  public long getRollupIntervalInMs() {
+    return rollupIntervalInMs;
+  }
+
+  public void setRollupIntervalInMs(long rollupIntervalInMs) {
+    this.rollupIntervalInMs = rollupIntervalInMs;
+  }
+
+  public long getRollupMaxMemoryInBytesPerTsFile() {
+    return rollupMaxMemoryInBytesPerTsFile;
+  }
+
+  public void setRollupMaxMemoryInBytesPerTsFile(long rollupMaxMemoryInBytesPerTsFile) {
+    this.rollupMaxMemoryInBytesPerTsFile = rollupMaxMemoryInBytesPerTsFile;
+  }
+
+  public long getRollupCacheSizeInBytes() {
+    return rollupCacheSizeInBytes;
+  }
+
+  public void setRollupCacheSizeInBytes(long rollupCacheSizeInBytes) {
+    this.rollupCacheSizeInBytes = rollupCacheSizeInBytes;
+  }
+
+  public long getQueryResultCacheSizeInBytes() {
+    return queryResultCacheSizeInBytes;
+  }
+
+  public void setQueryResultCacheSizeInBytes(long queryResultCacheSizeInBytes) {
+    this.queryResultCacheSizeInBytes = queryResultCacheSizeInBytes;
+  }
+
   public long getAllocateMemoryForBloomFilterCache() {
     return allocateMemoryForBloomFilterCache;
   }
@@ -2733,6 +2955,22 @@ public class IoTDBConfig {
     this.mqttMaxMessageSize = mqttMaxMessageSize;
   }
 
+  public int getMqttBatchSize() {
+    return mqttBatchSize;
+  }
+
+  public void setMqttBatchSize(int mqttBatchSize) {
+    this.mqttBatchSize = mqttBatchSize;
+  }
+
+  public long getMqttBatchMaxDelayInMs() {
+    return mqttBatchMaxDelayInMs;
+  }
+
+  public void setMqttBatchMaxDelayInMs(long mqttBatchMaxDelayInMs) {
+    this.mqttBatchMaxDelayInMs = mqttBatchMaxDelayInMs;
+  }
+
   public int getTagAttributeFlushInterval() {
     return tagAttributeFlushInterval;
   }
@@ -2799,6 +3037,22 @@ public class IoTDBConfig {
     this.slowQueryThreshold = slowQueryThreshold;
   }
 
+  public long getQueryProfileThreshold() {
+    return queryProfileThreshold;
+  }
+
+  public void setQueryProfileThreshold(long queryProfileThreshold) {
+    this.queryProfileThreshold = queryProfileThreshold;
+  }
+
+  public int getQueryProfileRetainedNum() {
+    return queryProfileRetainedNum;
+  }
+
+  public void setQueryProfileRetainedNum(int queryProfileRetainedNum) {
+    this.queryProfileRetainedNum = queryProfileRetainedNum;
+  }
+
   public boolean isEnableIndex() {
     return enableIndex;
   }
@@ -330,6 +330,40 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "meta_data_cache_enable", Boolean.toString(conf.isMetaDataCacheEnable()))));
 
+    conf.setMmapReadForSealedTsFileEnable(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "mmap_read_for_sealed_tsfile_enable",
+                Boolean.toString(conf.isMmapReadForSealedTsFileEnable()))));
+
+    conf.setSeriesPresenceFilterEnable(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "series_presence_filter_enable",
+                Boolean.toString(conf.isSeriesPresenceFilterEnable()))));
+
+    conf.setRollupIntervalInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "rollup_interval_in_ms", Long.toString(conf.getRollupIntervalInMs()))));
+
+    conf.setRollupMaxMemoryInBytesPerTsFile(
+        Long.parseLong(
+            properties.getProperty(
+                "rollup_max_memory_in_bytes_per_tsfile",
+                Long.toString(conf.getRollupMaxMemoryInBytesPerTsFile()))));
+
+    conf.setRollupCacheSizeInBytes(
+        Long.parseLong(
+            properties.getProperty(
+                "rollup_cache_size_in_bytes", Long.toString(conf.getRollupCacheSizeInBytes()))));
+
+    conf.setQueryResultCacheSizeInBytes(
+        Long.parseLong(
+            properties.getProperty(
+                "query_result_cache_size_in_bytes",
+                Long.toString(conf.getQueryResultCacheSizeInBytes()))));
+
     initMemoryAllocate(properties);
 
     String systemDir = properties.getProperty("dn_system_dir");
@@ -377,6 +411,31 @@ public class IoTDBDescriptor {
       throw e;
     }
 
+    conf.setTierCacheDir(properties.getProperty("tier_cache_dir", conf.getTierCacheDir()));
+
+    conf.setTierCacheSizeInBytes(
+        Long.parseLong(
+            properties.getProperty(
+                "tier_cache_size_in_bytes", Long.toString(conf.getTierCacheSizeInBytes()))));
+
+    conf.setTierMigrationCheckIntervalInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "tier_migration_check_interval_in_ms",
+                Long.toString(conf.getTierMigrationCheckIntervalInMs()))));
+
+    conf.setTierMigrationThroughputMbPerSec(
+        Integer.parseInt(
+            properties.getProperty(
+                "tier_migration_throughput_mb_per_sec",
+                Integer.toString(conf.getTierMigrationThroughputMbPerSec()))));
+
+    conf.setTierMigrationHotFileAccessCount(
+        Integer.parseInt(
+            properties.getProperty(
+                "tier_migration_hot_file_access_count",
+                Integer.toString(conf.getTierMigrationHotFileAccessCount()))));
+
     conf.setBatchSize(
         Integer.parseInt(
             properties.getProperty("batch_size", Integer.toString(conf.getBatchSize()))));
@@ -506,6 +565,12 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "query_timeout_threshold", Long.toString(conf.getQueryTimeoutThreshold()))));
 
+    conf.setMaxPreparedStatementNumPerSession(
+        Integer.parseInt(
+            properties.getProperty(
+                "max_prepared_statement_num_per_session",
+                Integer.toString(conf.getMaxPreparedStatementNumPerSession()))));
+
     conf.setSessionTimeoutThreshold(
         Integer.parseInt(
             properties.getProperty(
@@ -562,6 +627,23 @@ public class IoTDBDescriptor {
       conf.setDegreeOfParallelism(Runtime.getRuntime().availableProcessors() / 2);
     }
 
+    conf.setChunkPrefetchDepth(
+        Integer.parseInt(
+            properties.getProperty(
+                "chunk_prefetch_depth", Integer.toString(conf.getChunkPrefetchDepth()))));
+
+    conf.setChunkPrefetchDepthPerQuery(
+        Integer.parseInt(
+            properties.getProperty(
+                "chunk_prefetch_depth_per_query",
+                Integer.toString(conf.getChunkPrefetchDepthPerQuery()))));
+
+    conf.setChunkPrefetchThreadCount(
+        Integer.parseInt(
+            properties.getProperty(
+                "chunk_prefetch_thread_count",
+                Integer.toString(conf.getChunkPrefetchThreadCount()))));
+
     conf.setMergeThresholdOfExplainAnalyze(
         Integer.parseInt(
             properties.getProperty(
@@ -865,6 +947,19 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "slow_query_threshold", String.valueOf(conf.getSlowQueryThreshold()))));
 
+    conf.setQueryProfileThreshold(
+        Long.parseLong(
+            properties.getProperty(
+                "query_profile_threshold", String.valueOf(conf.getQueryProfileThreshold()))));
+
+    int queryProfileRetainedNum =
+        Integer.parseInt(
+            properties.getProperty(
+                "query_profile_retained_num", String.valueOf(conf.getQueryProfileRetainedNum())));
+    if (queryProfileRetainedNum > 0) {
+      conf.setQueryProfileRetainedNum(queryProfileRetainedNum);
+    }
+
     conf.setDataRegionNum(
         Integer.parseInt(
             properties.getProperty("data_region_num", String.valueOf(conf.getDataRegionNum()))));
@@ -1182,6 +1277,16 @@ public class IoTDBDescriptor {
                 "region_migration_speed_limit_bytes_per_second",
                 ConfigurationFileUtils.getConfigurationDefaultValue(
                     "region_migration_speed_limit_bytes_per_second"))));
+    conf.setIotConsensusLogDispatcherThreadNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "data_region_iot_log_dispatcher_thread_num",
+                ConfigurationFileUtils.getConfigurationDefaultValue(
+                    "data_region_iot_log_dispatcher_thread_num"))));
+    if (conf.getIotConsensusLogDispatcherThreadNum() <= 0) {
+      conf.setIotConsensusLogDispatcherThreadNum(
+          Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+    }
   }
 
   private void loadIoTConsensusV2Props(TrimProperties properties) throws IOException {
@@ -1854,6 +1959,19 @@ public class IoTDBDescriptor {
       conf.setMqttMaxMessageSize(
           Integer.parseInt(properties.getProperty(IoTDBConstant.MQTT_MAX_MESSAGE_SIZE).trim()));
     }
+
+    if (properties.getProperty(IoTDBConstant.MQTT_BATCH_SIZE) != null) {
+      conf.setMqttBatchSize(
+          Integer.parseInt(properties.getProperty(IoTDBConstant.MQTT_BATCH_SIZE).trim()));
+    }
+
+    if (properties.getProperty(IoTDBConstant.MQTT_BATCH_MAX_DELAY_IN_MS) != null) {
+      long mqttBatchMaxDelayInMs =
+          Long.parseLong(properties.getProperty(IoTDBConstant.MQTT_BATCH_MAX_DELAY_IN_MS).trim());
+      if (mqttBatchMaxDelayInMs > 0) {
+        conf.setMqttBatchMaxDelayInMs(mqttBatchMaxDelayInMs);
+      }
+    }
   }
 
   // timed flush memtable
@@ -1964,6 +2082,12 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "slow_query_threshold",
                   ConfigurationFileUtils.getConfigurationDefaultValue("slow_query_threshold"))));
+      // update query_profile_threshold
+      conf.setQueryProfileThreshold(
+          Long.parseLong(
+              properties.getProperty(
+                  "query_profile_threshold",
+                  ConfigurationFileUtils.getConfigurationDefaultValue("query_profile_threshold"))));
       // update select into operation max buffer size
       conf.setIntoOperationBufferSizeInByte(
           Long.parseLong(
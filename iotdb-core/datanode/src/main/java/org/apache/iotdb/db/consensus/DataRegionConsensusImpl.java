@@ -140,6 +140,8 @@ public class DataRegionConsensusImpl {
                           .setMaxMemoryRatioForQueue(CONF.getMaxMemoryRatioForQueue())
                           .setRegionMigrationSpeedLimitBytesPerSecond(
                               CONF.getRegionMigrationSpeedLimitBytesPerSecond())
+                          .setLogDispatcherThreadNum(
+                              CONF.getIotConsensusLogDispatcherThreadNum())
                           .build())
                   .build())
           .setPipeConsensusConfig(
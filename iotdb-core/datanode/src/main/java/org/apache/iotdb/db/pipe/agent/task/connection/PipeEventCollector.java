@@ -113,11 +113,7 @@ public class PipeEventCollector implements EventCollector {
       return;
     }
 
-    if (!forceTabletFormat
-        && (!sourceEvent.shouldParseTimeOrPattern()
-            || (sourceEvent.isTableModelEvent()
-                && sourceEvent.getTablePattern() == null
-                && !sourceEvent.shouldParseTime()))) {
+    if (!forceTabletFormat && !sourceEvent.shouldParse4Transfer()) {
       collectEvent(sourceEvent);
       return;
     }
@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.connector.client;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.pipe.config.PipeConfig;
+import org.apache.iotdb.commons.pipe.connector.payload.airgap.AirGapOneByteResponse;
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.common.PipeTransferHandshakeConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferDataNodeHandshakeV2Req;
+import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferTsFilePieceStreamReq;
+import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferTsFileSealWithModReq;
+import org.apache.iotdb.db.pipe.connector.protocol.thrift.async.IoTDBDataRegionAsyncConnector;
+import org.apache.iotdb.db.pipe.event.common.tsfile.PipeTsFileInsertionEvent;
+import org.apache.iotdb.pipe.api.exception.PipeConnectionException;
+import org.apache.iotdb.pipe.api.exception.PipeException;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.apache.tsfile.utils.BytesUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import static org.apache.iotdb.commons.utils.BasicStructureSerDeUtil.INT_LEN;
+import static org.apache.iotdb.commons.utils.BasicStructureSerDeUtil.LONG_LEN;
+
+/**
+ * {@link IoTDBDataNodeZeroCopyTsFileClient} streams sealed TsFiles and their mods to the air gap
+ * receiver of the target on a dedicated socket. Each file piece is sent as a small header followed
+ * by the raw bytes of the piece, which are transferred from the hard-linked file to the socket by
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} without being
+ * copied into the heap. The receiver streams the piece into its receiver file dir through a small
+ * buffer, and answers the end writing offset of the file, from which a rejected piece is resent.
+ */
+public class IoTDBDataNodeZeroCopyTsFileClient implements AutoCloseable {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(IoTDBDataNodeZeroCopyTsFileClient.class);
+
+  private static final PipeConfig PIPE_CONFIG = PipeConfig.getInstance();
+
+  // The unit of resuming. A rejected piece is resent from the offset answered by the receiver.
+  private static final long PIECE_SIZE_IN_BYTES = 64L * 1024 * 1024;
+  private static final int MAX_RESUME_TIMES_WITHOUT_PROGRESS = 3;
+
+  private final IoTDBDataRegionAsyncConnector connector;
+
+  private final List<TEndPoint> endPoints;
+  private final int connectionTimeoutMs;
+  private int endPointIndex = 0;
+
+  private final String username;
+  private final String password;
+  private final boolean shouldReceiverConvertOnTypeMismatch;
+  private final String loadTsFileStrategy;
+
+  private TEndPoint currentEndPoint;
+  private SocketChannel socketChannel;
+
+  public IoTDBDataNodeZeroCopyTsFileClient(
+      final IoTDBDataRegionAsyncConnector connector,
+      final List<TEndPoint> nodeUrls,
+      final int port,
+      final int connectionTimeoutMs,
+      /* The following parameters are used to handshake with the receiver. */
+      final String username,
+      final String password,
+      final boolean shouldReceiverConvertOnTypeMismatch,
+      final String loadTsFileStrategy) {
+    this.connector = connector;
+
+    // The air gap receiver listens on the same hosts as the thrift receiver
+    this.endPoints =
+        nodeUrls.stream()
+            .map(nodeUrl -> new TEndPoint(nodeUrl.getIp(), port))
+            .distinct()
+            .collect(Collectors.toList());
+    this.connectionTimeoutMs = connectionTimeoutMs;
+
+    this.username = username;
+    this.password = password;
+    this.shouldReceiverConvertOnTypeMismatch = shouldReceiverConvertOnTypeMismatch;
+    this.loadTsFileStrategy = loadTsFileStrategy;
+  }
+
+  public synchronized void transfer(
+      final PipeTsFileInsertionEvent event, final boolean transferMod, final String dataBaseName)
+      throws PipeException, IOException {
+    final File tsFile = event.getTsFile();
+    final File modFile = event.getModFile();
+
+    connectIfNecessary();
+    try {
+      final byte[] sealBytes;
+      if (transferMod) {
+        transferFilePieces(event, modFile, false);
+        transferFilePieces(event, tsFile, false);
+        sealBytes =
+            PipeTransferTsFileSealWithModReq.toTPipeTransferBytes(
+                modFile.getName(),
+                modFile.length(),
+                tsFile.getName(),
+                tsFile.length(),
+                dataBaseName);
+      } else {
+        transferFilePieces(event, tsFile, true);
+        sealBytes =
+            PipeTransferTsFileSealWithModReq.toTPipeTransferBytes(
+                tsFile.getName(), tsFile.length(), dataBaseName);
+      }
+
+      if (!sendAndReceiveOneByteResponse(sealBytes)) {
+        final String errorMessage =
+            String.format("Seal file %s error. Socket %s.", tsFile, currentEndPoint);
+        connector
+            .statusHandler()
+            .handle(
+                new TSStatus(TSStatusCode.PIPE_RECEIVER_USER_CONFLICT_EXCEPTION.getStatusCode())
+                    .setMessage(errorMessage),
+                errorMessage,
+                tsFile.getName());
+        return;
+      }
+    } catch (final IOException e) {
+      // The stream may be broken in the middle of a piece, reconnect next time
+      closeSocketChannel();
+      throw e;
+    }
+
+    LOGGER.info(
+        "Successfully transferred file {} through zero copy socket {} (committer key={}, commit id={}).",
+        tsFile,
+        currentEndPoint,
+        event.getCommitterKey(),
+        event.getCommitId());
+  }
+
+  private void transferFilePieces(
+      final PipeTsFileInsertionEvent event, final File file, final boolean isSingleFile)
+      throws PipeException, IOException {
+    try (final FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      final long fileLength = fileChannel.size();
+      final ByteBuffer response = ByteBuffer.allocate(1 + LONG_LEN);
+
+      long position = 0;
+      int resumeTimes = 0;
+      while (position < fileLength) {
+        final long pieceLength = Math.min(PIECE_SIZE_IN_BYTES, fileLength - position);
+        connector.rateLimitIfNeeded(
+            event.getPipeName(), event.getCreationTime(), currentEndPoint, pieceLength);
+
+        writeWithLengthAndChecksum(
+            PipeTransferTsFilePieceStreamReq.toTPipeTransferBytes(
+                file.getName(), position, pieceLength, isSingleFile));
+        long transferredLength = 0;
+        while (transferredLength < pieceLength) {
+          transferredLength +=
+              fileChannel.transferTo(
+                  position + transferredLength, pieceLength - transferredLength, socketChannel);
+        }
+
+        response.clear();
+        readTillFull(response.array());
+        final boolean isSuccessful = response.get() == AirGapOneByteResponse.OK[0];
+        final long endWritingOffset = response.getLong();
+
+        if (isSuccessful) {
+          position += pieceLength;
+          resumeTimes = 0;
+        } else if (0 <= endWritingOffset
+            && endWritingOffset <= fileLength
+            && ++resumeTimes <= MAX_RESUME_TIMES_WITHOUT_PROGRESS) {
+          position = endWritingOffset;
+          LOGGER.info("Redirect file {} position to {}.", file, position);
+        } else {
+          throw new PipeException(
+              String.format(
+                  "Transfer file %s error at offset %s. Socket %s.",
+                  file, position, currentEndPoint));
+        }
+      }
+    }
+  }
+
+  private void connectIfNecessary() throws IOException {
+    if (socketChannel != null && socketChannel.isConnected()) {
+      return;
+    }
+    closeSocketChannel();
+
+    for (int i = 0; i < endPoints.size(); ++i) {
+      final TEndPoint endPoint = endPoints.get(endPointIndex);
+      endPointIndex = (endPointIndex + 1) % endPoints.size();
+
+      try {
+        socketChannel = SocketChannel.open();
+        socketChannel
+            .socket()
+            .connect(
+                new InetSocketAddress(endPoint.getIp(), endPoint.getPort()), connectionTimeoutMs);
+        socketChannel.socket().setKeepAlive(true);
+        socketChannel.socket().setSoTimeout(connectionTimeoutMs);
+        currentEndPoint = endPoint;
+
+        if (!sendAndReceiveOneByteResponse(generateHandshakePayload())) {
+          throw new PipeConnectionException("Handshake error with target server " + endPoint);
+        }
+        socketChannel.socket().setSoTimeout(PIPE_CONFIG.getPipeConnectorTransferTimeoutMs());
+        LOGGER.info("Zero copy TsFile socket to {} is handshaked successfully.", endPoint);
+        return;
+      } catch (final Exception e) {
+        LOGGER.warn(
+            "Failed to connect zero copy TsFile socket to {}, because: {}. Ignore it.",
+            endPoint,
+            e.getMessage());
+        closeSocketChannel();
+      }
+    }
+    throw new PipeConnectionException(
+        String.format("All target servers %s are not available.", endPoints));
+  }
+
+  private byte[] generateHandshakePayload() throws IOException {
+    final HashMap<String, String> params = new HashMap<>();
+    params.put(
+        PipeTransferHandshakeConstant.HANDSHAKE_KEY_CLUSTER_ID,
+        IoTDBDescriptor.getInstance().getConfig().getClusterId());
+    params.put(
+        PipeTransferHandshakeConstant.HANDSHAKE_KEY_TIME_PRECISION,
+        CommonDescriptor.getInstance().getConfig().getTimestampPrecision());
+    params.put(
+        PipeTransferHandshakeConstant.HANDSHAKE_KEY_CONVERT_ON_TYPE_MISMATCH,
+        Boolean.toString(shouldReceiverConvertOnTypeMismatch));
+    params.put(
+        PipeTransferHandshakeConstant.HANDSHAKE_KEY_LOAD_TSFILE_STRATEGY, loadTsFileStrategy);
+    params.put(PipeTransferHandshakeConstant.HANDSHAKE_KEY_USERNAME, username);
+    params.put(PipeTransferHandshakeConstant.HANDSHAKE_KEY_PASSWORD, password);
+
+    return PipeTransferDataNodeHandshakeV2Req.toTPipeTransferBytes(params);
+  }
+
+  private boolean sendAndReceiveOneByteResponse(final byte[] bytes) throws IOException {
+    writeWithLengthAndChecksum(bytes);
+
+    final byte[] response = new byte[1];
+    readTillFull(response);
+    return response[0] == AirGapOneByteResponse.OK[0];
+  }
+
+  /** Same framing as the air gap connector, the checksum only covers the header. */
+  private void writeWithLengthAndChecksum(final byte[] bytes) throws IOException {
+    final CRC32 crc32 = new CRC32();
+    crc32.update(bytes, 0, bytes.length);
+
+    final ByteBuffer buffer = ByteBuffer.allocate(2 * INT_LEN + LONG_LEN + bytes.length);
+    buffer.putInt(bytes.length + LONG_LEN);
+    buffer.putInt(bytes.length + LONG_LEN);
+    buffer.put(BytesUtils.longToBytes(crc32.getValue()));
+    buffer.put(bytes);
+    buffer.flip();
+
+    while (buffer.hasRemaining()) {
+      socketChannel.write(buffer);
+    }
+  }
+
+  /** Read through the socket's stream, which respects the socket timeout unlike the channel. */
+  private void readTillFull(final byte[] buffer) throws IOException {
+    final InputStream inputStream = socketChannel.socket().getInputStream();
+    int readLength = 0;
+    while (readLength < buffer.length) {
+      final int length = inputStream.read(buffer, readLength, buffer.length - readLength);
+      if (length == -1) {
+        throw new PipeConnectionException(
+            String.format(
+                "Zero copy TsFile socket %s is closed by the receiver.", currentEndPoint));
+      }
+      readLength += length;
+    }
+  }
+
+  private void closeSocketChannel() {
+    if (socketChannel == null) {
+      return;
+    }
+    try {
+      socketChannel.close();
+    } catch (final IOException e) {
+      LOGGER.warn("Failed to close zero copy TsFile socket to {}.", currentEndPoint, e);
+    } finally {
+      socketChannel = null;
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    closeSocketChannel();
+  }
+}
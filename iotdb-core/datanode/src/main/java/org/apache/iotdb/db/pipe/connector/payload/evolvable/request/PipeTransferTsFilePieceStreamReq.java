@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.connector.payload.evolvable.request;
+
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.IoTDBConnectorRequestVersion;
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeRequestType;
+import org.apache.iotdb.service.rpc.thrift.TPipeTransferReq;
+
+import org.apache.tsfile.utils.PublicBAOS;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Header of a TsFile piece which is streamed on a dedicated socket. Only the file name, the offset
+ * and the length are serialized, the {@link #getPieceLength()} bytes of the piece follow the header
+ * on the socket as raw bytes, so that the sender can transfer them directly from the file.
+ */
+public class PipeTransferTsFilePieceStreamReq extends TPipeTransferReq {
+
+  private transient String fileName;
+  private transient long startWritingOffset;
+  private transient long pieceLength;
+  private transient boolean isSingleFile;
+
+  private PipeTransferTsFilePieceStreamReq() {
+    // Empty constructor
+  }
+
+  public String getFileName() {
+    return fileName;
+  }
+
+  public long getStartWritingOffset() {
+    return startWritingOffset;
+  }
+
+  public long getPieceLength() {
+    return pieceLength;
+  }
+
+  public boolean isSingleFile() {
+    return isSingleFile;
+  }
+
+  /////////////////////////////// Thrift ///////////////////////////////
+
+  public static PipeTransferTsFilePieceStreamReq fromTPipeTransferReq(
+      final TPipeTransferReq transferReq) {
+    final PipeTransferTsFilePieceStreamReq req = new PipeTransferTsFilePieceStreamReq();
+
+    req.fileName = ReadWriteIOUtils.readString(transferReq.body);
+    req.startWritingOffset = ReadWriteIOUtils.readLong(transferReq.body);
+    req.pieceLength = ReadWriteIOUtils.readLong(transferReq.body);
+    req.isSingleFile = ReadWriteIOUtils.readBool(transferReq.body);
+
+    req.version = transferReq.version;
+    req.type = transferReq.type;
+    req.body = transferReq.body;
+
+    return req;
+  }
+
+  /////////////////////////////// Air Gap ///////////////////////////////
+
+  public static byte[] toTPipeTransferBytes(
+      final String fileName,
+      final long startWritingOffset,
+      final long pieceLength,
+      final boolean isSingleFile)
+      throws IOException {
+    try (final PublicBAOS byteArrayOutputStream = new PublicBAOS();
+        final DataOutputStream outputStream = new DataOutputStream(byteArrayOutputStream)) {
+      ReadWriteIOUtils.write(IoTDBConnectorRequestVersion.VERSION_1.getVersion(), outputStream);
+      ReadWriteIOUtils.write(PipeRequestType.TRANSFER_TS_FILE_PIECE_STREAM.getType(), outputStream);
+      ReadWriteIOUtils.write(fileName, outputStream);
+      ReadWriteIOUtils.write(startWritingOffset, outputStream);
+      ReadWriteIOUtils.write(pieceLength, outputStream);
+      ReadWriteIOUtils.write(isSingleFile, outputStream);
+      return byteArrayOutputStream.toByteArray();
+    }
+  }
+
+  /////////////////////////////// Object ///////////////////////////////
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    final PipeTransferTsFilePieceStreamReq that = (PipeTransferTsFilePieceStreamReq) obj;
+    return Objects.equals(fileName, that.fileName)
+        && startWritingOffset == that.startWritingOffset
+        && pieceLength == that.pieceLength
+        && isSingleFile == that.isSingleFile
+        && version == that.version
+        && type == that.type
+        && Objects.equals(body, that.body);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        fileName, startWritingOffset, pieceLength, isSingleFile, version, type, body);
+  }
+}
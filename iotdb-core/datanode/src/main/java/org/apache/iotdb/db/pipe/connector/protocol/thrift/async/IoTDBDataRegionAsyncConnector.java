@@ -21,10 +21,12 @@ package org.apache.iotdb.db.pipe.connector.protocol.thrift.async;
 
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.commons.client.async.AsyncPipeDataTransferServiceClient;
+import org.apache.iotdb.commons.pipe.config.PipeConfig;
 import org.apache.iotdb.commons.pipe.connector.protocol.IoTDBConnector;
 import org.apache.iotdb.commons.pipe.event.EnrichedEvent;
 import org.apache.iotdb.db.pipe.agent.task.subtask.connector.PipeConnectorSubtask;
 import org.apache.iotdb.db.pipe.connector.client.IoTDBDataNodeAsyncClientManager;
+import org.apache.iotdb.db.pipe.connector.client.IoTDBDataNodeZeroCopyTsFileClient;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.batch.PipeTabletEventBatch;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.batch.PipeTabletEventPlainBatch;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.batch.PipeTabletEventTsFileBatch;
@@ -75,10 +77,13 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_LEADER_CACHE_ENABLE_DEFAULT_VALUE;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_LEADER_CACHE_ENABLE_KEY;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_ZERO_COPY_TSFILE_PORT_DEFAULT_VALUE;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_ZERO_COPY_TSFILE_PORT_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_IOTDB_SSL_ENABLE_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_IOTDB_SSL_TRUST_STORE_PATH_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_IOTDB_SSL_TRUST_STORE_PWD_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_LEADER_CACHE_ENABLE_KEY;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_ZERO_COPY_TSFILE_PORT_KEY;
 
 public class IoTDBDataRegionAsyncConnector extends IoTDBConnector {
 
@@ -93,6 +98,7 @@ public class IoTDBDataRegionAsyncConnector extends IoTDBConnector {
   private final BlockingQueue<Event> retryEventQueue = new LinkedBlockingQueue<>();
 
   private IoTDBDataNodeAsyncClientManager clientManager;
+  private IoTDBDataNodeZeroCopyTsFileClient zeroCopyTsFileClient;
 
   private PipeTransferBatchReqBuilder tabletBatchBuilder;
 
@@ -135,6 +141,23 @@ public class IoTDBDataRegionAsyncConnector extends IoTDBConnector {
             shouldReceiverConvertOnTypeMismatch,
             loadTsFileStrategy);
 
+    final int zeroCopyTsFilePort =
+        parameters.getIntOrDefault(
+            Arrays.asList(SINK_ZERO_COPY_TSFILE_PORT_KEY, CONNECTOR_ZERO_COPY_TSFILE_PORT_KEY),
+            CONNECTOR_ZERO_COPY_TSFILE_PORT_DEFAULT_VALUE);
+    if (zeroCopyTsFilePort > 0) {
+      zeroCopyTsFileClient =
+          new IoTDBDataNodeZeroCopyTsFileClient(
+              this,
+              nodeUrls,
+              zeroCopyTsFilePort,
+              PipeConfig.getInstance().getPipeConnectorHandshakeTimeoutMs(),
+              username,
+              password,
+              shouldReceiverConvertOnTypeMismatch,
+              loadTsFileStrategy);
+    }
+
     if (isTabletBatchModeEnabled) {
       tabletBatchBuilder = new PipeTransferBatchReqBuilder(parameters);
     }
@@ -326,6 +349,11 @@ public class IoTDBDataRegionAsyncConnector extends IoTDBConnector {
       throws Exception {
     final PipeTsFileInsertionEvent pipeTsFileInsertionEvent =
         (PipeTsFileInsertionEvent) tsFileInsertionEvent;
+    if (Objects.nonNull(zeroCopyTsFileClient)) {
+      transferWithZeroCopy(pipeTsFileInsertionEvent);
+      return;
+    }
+
     // We increase the reference count for this event to determine if the event may be released.
     if (!pipeTsFileInsertionEvent.increaseReferenceCount(
         IoTDBDataRegionAsyncConnector.class.getName())) {
@@ -367,6 +395,35 @@ public class IoTDBDataRegionAsyncConnector extends IoTDBConnector {
     }
   }
 
+  /**
+   * Stream the file synchronously on the dedicated socket. The event is committed by the caller
+   * once this method returns, like the events transferred by the retry connector.
+   */
+  private void transferWithZeroCopy(final PipeTsFileInsertionEvent pipeTsFileInsertionEvent)
+      throws Exception {
+    // We increase the reference count for this event to determine if the event may be released.
+    if (!pipeTsFileInsertionEvent.increaseReferenceCount(
+        IoTDBDataRegionAsyncConnector.class.getName())) {
+      return;
+    }
+
+    try {
+      if (!pipeTsFileInsertionEvent.getTsFile().exists()) {
+        throw new FileNotFoundException(pipeTsFileInsertionEvent.getTsFile().getAbsolutePath());
+      }
+
+      zeroCopyTsFileClient.transfer(
+          pipeTsFileInsertionEvent,
+          pipeTsFileInsertionEvent.isWithMod() && clientManager.supportModsIfIsDataNodeReceiver(),
+          pipeTsFileInsertionEvent.isTableModelEvent()
+              ? pipeTsFileInsertionEvent.getTableModelDatabaseName()
+              : null);
+    } finally {
+      pipeTsFileInsertionEvent.decreaseReferenceCount(
+          IoTDBDataRegionAsyncConnector.class.getName(), false);
+    }
+  }
+
   private void transfer(final PipeTransferTsFileHandler pipeTransferTsFileHandler) {
     AsyncPipeDataTransferServiceClient client = null;
     try {
@@ -571,6 +628,10 @@ public class IoTDBDataRegionAsyncConnector extends IoTDBConnector {
       LOGGER.warn("Failed to close client manager.", e);
     }
 
+    if (zeroCopyTsFileClient != null) {
+      zeroCopyTsFileClient.close();
+    }
+
     // clear reference count of events in retry queue after closing async client
     clearRetryEventsReferenceCount();
 
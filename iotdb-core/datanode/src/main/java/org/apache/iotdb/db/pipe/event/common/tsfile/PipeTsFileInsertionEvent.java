@@ -32,6 +32,7 @@ import org.apache.iotdb.db.pipe.event.common.tablet.PipeRawTabletInsertionEvent;
 import org.apache.iotdb.db.pipe.event.common.tsfile.aggregator.TsFileInsertionPointCounter;
 import org.apache.iotdb.db.pipe.event.common.tsfile.parser.TsFileInsertionEventParser;
 import org.apache.iotdb.db.pipe.event.common.tsfile.parser.TsFileInsertionEventParserProvider;
+import org.apache.iotdb.db.pipe.event.common.tsfile.parser.TsFileInsertionEventPrefetcher;
 import org.apache.iotdb.db.pipe.extractor.dataregion.realtime.assigner.PipeTimePartitionProgressIndexKeeper;
 import org.apache.iotdb.db.pipe.metric.PipeDataNodeRemainingEventAndTimeMetrics;
 import org.apache.iotdb.db.pipe.resource.PipeDataNodeResourceManager;
@@ -82,6 +83,7 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
 
   private final AtomicBoolean isClosed;
   private TsFileInsertionEventParser eventParser;
+  private volatile TsFileInsertionEventPrefetcher prefetcher;
 
   // The point count of the TsFile. Used for metrics on PipeConsensus' receiver side.
   // May be updated after it is flushed. Should be negative if not set.
@@ -297,6 +299,11 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
 
   @Override
   public boolean internallyDecreaseResourceReferenceCount(final String holderMessage) {
+    // Release the prefetched tablets if the event is released without being parsed
+    if (Objects.nonNull(prefetcher)) {
+      close();
+    }
+
     try {
       PipeDataNodeResourceManager.tsfile().decreaseFileReference(tsFile);
       if (isWithMod) {
@@ -493,6 +500,18 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
             "Pipe skipping temporary TsFile's parsing which shouldn't be transferred: {}", tsFile);
         return Collections.emptyList();
       }
+
+      if (Objects.nonNull(prefetcher)) {
+        final boolean isPrefetched = prefetcher.await();
+        final TsFileInsertionEventPrefetcher currentPrefetcher = prefetcher;
+        prefetcher = null;
+        if (isPrefetched) {
+          return currentPrefetcher.toTabletInsertionEvents();
+        }
+        // Parse the file again from the beginning
+        close();
+      }
+
       waitForResourceEnough4Parsing(timeoutMs);
       return initEventParser().toTabletInsertionEvents();
     } catch (final Exception e) {
@@ -568,13 +587,43 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
     return isGeneratedByHistoricalExtractor;
   }
 
+  /**
+   * Start parsing the TsFile on a background thread, the parsed tablets are handed out by {@link
+   * #toTabletInsertionEvents()} later in the same order. Does nothing if the parsing has already
+   * started or the pipe memory is not enough for parsing.
+   */
+  public synchronized void startPrefetchingTabletInsertionEvents() {
+    if (Objects.nonNull(prefetcher)
+        || Objects.nonNull(eventParser)
+        || !PipeDataNodeResourceManager.memory().isEnough4TabletParsing()) {
+      return;
+    }
+
+    prefetcher =
+        new TsFileInsertionEventPrefetcher(
+            tsFile.getPath(),
+            () -> {
+              if (!waitForTsFileClose()) {
+                return Collections.emptyList();
+              }
+              eventParser = provideEventParser();
+              return eventParser.toTabletInsertionEvents();
+            });
+  }
+
+  /**
+   * @return whether the event has to be parsed into tablets before being transferred, if the
+   *     tablet format is not forced
+   */
+  public boolean shouldParse4Transfer() {
+    return shouldParseTimeOrPattern()
+        && !(isTableModelEvent() && getTablePattern() == null && !shouldParseTime());
+  }
+
   private TsFileInsertionEventParser initEventParser() {
     try {
       if (eventParser == null) {
-        eventParser =
-            new TsFileInsertionEventParserProvider(
-                    tsFile, treePattern, tablePattern, startTime, endTime, pipeTaskMeta, this)
-                .provide();
+        eventParser = provideEventParser();
       }
       return eventParser;
     } catch (final IOException e) {
@@ -586,6 +635,12 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
     }
   }
 
+  private TsFileInsertionEventParser provideEventParser() throws IOException {
+    return new TsFileInsertionEventParserProvider(
+            tsFile, treePattern, tablePattern, startTime, endTime, pipeTaskMeta, this)
+        .provide();
+  }
+
   public long count(final boolean skipReportOnCommit) throws IOException {
     long count = 0;
 
@@ -613,6 +668,13 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
   /** Release the resource of {@link TsFileInsertionEventParser}. */
   @Override
   public void close() {
+    final TsFileInsertionEventPrefetcher currentPrefetcher = prefetcher;
+    if (currentPrefetcher != null) {
+      // Wait for the background parsing, which may be using the parser
+      currentPrefetcher.cancel();
+      prefetcher = null;
+    }
+
     if (eventParser != null) {
       eventParser.close();
       eventParser = null;
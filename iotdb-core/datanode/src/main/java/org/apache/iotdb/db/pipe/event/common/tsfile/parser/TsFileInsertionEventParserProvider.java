@@ -27,6 +27,7 @@ import org.apache.iotdb.commons.pipe.datastructure.pattern.TreePattern;
 import org.apache.iotdb.db.pipe.event.common.tsfile.PipeTsFileInsertionEvent;
 import org.apache.iotdb.db.pipe.event.common.tsfile.parser.query.TsFileInsertionEventQueryParser;
 import org.apache.iotdb.db.pipe.event.common.tsfile.parser.scan.TsFileInsertionEventScanParser;
+import org.apache.iotdb.db.pipe.event.common.tsfile.parser.scan.TsFileInsertionEventSharedScanParser;
 import org.apache.iotdb.db.pipe.event.common.tsfile.parser.table.TsFileInsertionEventTableParser;
 import org.apache.iotdb.db.pipe.resource.PipeDataNodeResourceManager;
 
@@ -101,18 +102,27 @@ public class TsFileInsertionEventParserProvider {
     final Map<IDeviceID, Boolean> filteredDeviceIsAlignedMap =
         filterDeviceIsAlignedMapByPattern(deviceIsAlignedMap);
     // Use scan data container if we need enough amount to data thus it's better to scan than query.
-    return (double) filteredDeviceIsAlignedMap.size() / originalSize
-            > PipeConfig.getInstance().getPipeTsFileScanParsingThreshold()
-        ? new TsFileInsertionEventScanParser(
-            tsFile, treePattern, startTime, endTime, pipeTaskMeta, sourceEvent)
-        : new TsFileInsertionEventQueryParser(
-            tsFile,
-            treePattern,
-            startTime,
-            endTime,
-            pipeTaskMeta,
-            sourceEvent,
-            filteredDeviceIsAlignedMap);
+    if ((double) filteredDeviceIsAlignedMap.size() / originalSize
+        <= PipeConfig.getInstance().getPipeTsFileScanParsingThreshold()) {
+      return new TsFileInsertionEventQueryParser(
+          tsFile,
+          treePattern,
+          startTime,
+          endTime,
+          pipeTaskMeta,
+          sourceEvent,
+          filteredDeviceIsAlignedMap);
+    }
+
+    // Share the scan with the other pipes parsing the same TsFile, because each of them would
+    // read and decode most of the TsFile as well.
+    final TsFileInsertionEventParser sharedScanParser =
+        TsFileInsertionEventSharedScanParser.tryCreate(
+            tsFile, treePattern, pipeTaskMeta, sourceEvent);
+    return Objects.nonNull(sharedScanParser)
+        ? sharedScanParser
+        : new TsFileInsertionEventScanParser(
+            tsFile, treePattern, startTime, endTime, pipeTaskMeta, sourceEvent);
   }
 
   private Map<IDeviceID, Boolean> filterDeviceIsAlignedMapByPattern(
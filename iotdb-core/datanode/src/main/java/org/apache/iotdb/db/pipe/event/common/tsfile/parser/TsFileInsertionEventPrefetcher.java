@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.event.common.tsfile.parser;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.pipe.config.PipeConfig;
+import org.apache.iotdb.db.pipe.event.common.tablet.PipeRawTabletInsertionEvent;
+import org.apache.iotdb.db.pipe.resource.PipeDataNodeResourceManager;
+import org.apache.iotdb.db.pipe.resource.memory.PipeMemoryBlock;
+import org.apache.iotdb.db.pipe.resource.memory.PipeMemoryWeightUtil;
+import org.apache.iotdb.pipe.api.event.dml.insertion.TabletInsertionEvent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * {@link TsFileInsertionEventPrefetcher} parses the head of a TsFile on a background thread before
+ * the event is consumed, so that several TsFiles can be parsed concurrently while the consumer
+ * still goes through them one by one. The tablets are handed out in exactly the order of the
+ * underlying parser: first the prefetched ones, then the rest of the same iterator, which is only
+ * touched by the consumer after the background parsing has stopped.
+ *
+ * <p>The last tablet decoded by the parser is charged to the memory block of the parser, the others
+ * are charged to the pipe memory here. So a prefetched tablet is charged right before the next one
+ * is decoded, and the prefetching stops without decoding more tablets when the tablets exceed the
+ * per file limit, or when the pipe memory is not sufficient. Once the parser is exhausted, which
+ * releases its memory block, the last tablet has to be charged here as well, or the prefetching
+ * fails and the file is parsed again when it is consumed.
+ */
+public class TsFileInsertionEventPrefetcher {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(TsFileInsertionEventPrefetcher.class);
+
+  private static final PipeConfig PIPE_CONFIG = PipeConfig.getInstance();
+
+  private static class ExecutorHolder {
+
+    private static final ExecutorService EXECUTOR =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            PIPE_CONFIG.getPipeTsFileParallelParsingThreadNum() > 0
+                ? PIPE_CONFIG.getPipeTsFileParallelParsingThreadNum()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 4),
+            ThreadName.PIPE_TSFILE_PARALLEL_PARSER.getName());
+
+    private ExecutorHolder() {
+      // Empty constructor
+    }
+  }
+
+  private final String tsFilePath;
+  private final Callable<Iterable<TabletInsertionEvent>> parserSupplier;
+  private final long maxPrefetchedMemoryInBytes;
+
+  private final Deque<TabletInsertionEvent> prefetchedEvents = new ArrayDeque<>();
+  private final Deque<PipeMemoryBlock> prefetchedMemoryBlocks = new ArrayDeque<>();
+  private Iterator<TabletInsertionEvent> iterator;
+
+  private final Future<?> future;
+  private volatile boolean isCancelled = false;
+
+  public TsFileInsertionEventPrefetcher(
+      final String tsFilePath, final Callable<Iterable<TabletInsertionEvent>> parserSupplier) {
+    this(
+        tsFilePath,
+        parserSupplier,
+        PIPE_CONFIG.getPipeTsFileParallelParsingMaxPrefetchedMemoryInBytes(),
+        ExecutorHolder.EXECUTOR);
+  }
+
+  TsFileInsertionEventPrefetcher(
+      final String tsFilePath,
+      final Callable<Iterable<TabletInsertionEvent>> parserSupplier,
+      final long maxPrefetchedMemoryInBytes,
+      final ExecutorService executor) {
+    this.tsFilePath = tsFilePath;
+    this.parserSupplier = parserSupplier;
+    this.maxPrefetchedMemoryInBytes = maxPrefetchedMemoryInBytes;
+    this.future = executor.submit(this::prefetch);
+  }
+
+  private Void prefetch() throws Exception {
+    if (isCancelled) {
+      return null;
+    }
+    iterator = parserSupplier.call().iterator();
+
+    final float usedThreshold =
+        (float) PIPE_CONFIG.getPipeDataStructureTabletMemoryBlockAllocationRejectThreshold();
+    long prefetchedMemoryInBytes = 0;
+    // The last decoded tablet, which is still charged to the memory block of the parser
+    long lastSizeInBytes = -1;
+    while (!isCancelled && prefetchedMemoryInBytes < maxPrefetchedMemoryInBytes) {
+      if (!iterator.hasNext()) {
+        if (lastSizeInBytes >= 0) {
+          // Throws if the memory is not enough, then the prefetched tablets are dropped
+          prefetchedMemoryBlocks.add(
+              PipeDataNodeResourceManager.memory().forceAllocate(lastSizeInBytes));
+        }
+        break;
+      }
+
+      if (lastSizeInBytes >= 0) {
+        // The last tablet is not charged to the parser any more once the next one is decoded
+        final PipeMemoryBlock block =
+            PipeDataNodeResourceManager.memory()
+                .forceAllocateIfSufficient(lastSizeInBytes, usedThreshold);
+        if (block == null) {
+          break;
+        }
+        prefetchedMemoryBlocks.add(block);
+        prefetchedMemoryInBytes += lastSizeInBytes;
+      }
+
+      final TabletInsertionEvent event = iterator.next();
+      prefetchedEvents.add(event);
+      lastSizeInBytes = calculateSizeInBytes(event);
+    }
+    return null;
+  }
+
+  private static long calculateSizeInBytes(final TabletInsertionEvent event) {
+    return event instanceof PipeRawTabletInsertionEvent
+        ? PipeMemoryWeightUtil.calculateTabletSizeInBytes(
+            ((PipeRawTabletInsertionEvent) event).convertToTablet())
+        : 0;
+  }
+
+  /**
+   * Wait for the background parsing to stop.
+   *
+   * @return {@code false} if the background parsing failed, in which case the caller shall close
+   *     the parser and parse the file again from the beginning
+   */
+  public boolean await() throws InterruptedException {
+    try {
+      future.get();
+      return true;
+    } catch (final ExecutionException e) {
+      LOGGER.warn(
+          "Failed to parse TsFile {} in background, will parse it again.",
+          tsFilePath,
+          e.getCause());
+      clear();
+      return false;
+    }
+  }
+
+  /** Must be called after {@link #await()} returns {@code true}. */
+  public Iterable<TabletInsertionEvent> toTabletInsertionEvents() {
+    if (iterator == null) {
+      return Collections.emptyList();
+    }
+
+    return () ->
+        new Iterator<TabletInsertionEvent>() {
+          @Override
+          public boolean hasNext() {
+            return !prefetchedEvents.isEmpty() || iterator.hasNext();
+          }
+
+          @Override
+          public TabletInsertionEvent next() {
+            if (prefetchedEvents.isEmpty()) {
+              if (!iterator.hasNext()) {
+                throw new NoSuchElementException();
+              }
+              return iterator.next();
+            }
+
+            final PipeMemoryBlock block = prefetchedMemoryBlocks.poll();
+            if (block != null) {
+              block.close();
+            }
+            return prefetchedEvents.poll();
+          }
+        };
+  }
+
+  /** Stop the background parsing and wait for it, so that the parser can be closed safely. */
+  public void cancel() {
+    isCancelled = true;
+    try {
+      future.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (final ExecutionException e) {
+      // The failure has been logged by the consumer or is not relevant any more
+    } finally {
+      clear();
+    }
+  }
+
+  private void clear() {
+    prefetchedEvents.clear();
+    prefetchedMemoryBlocks.forEach(PipeMemoryBlock::close);
+    prefetchedMemoryBlocks.clear();
+  }
+}
@@ -0,0 +1,371 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.event.common.tsfile.parser.scan;
+
+import org.apache.iotdb.commons.pipe.config.PipeConfig;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.PrefixTreePattern;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.TreePattern;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.pipe.resource.PipeDataNodeResourceManager;
+import org.apache.iotdb.db.pipe.resource.memory.PipeMemoryBlock;
+import org.apache.iotdb.db.pipe.resource.memory.PipeMemoryWeightUtil;
+
+import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.write.record.Tablet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes a TsFile once for all the pipes parsing it at the same time. The whole TsFile is decoded
+ * by a {@link TsFileInsertionEventScanParser} with the root pattern, and the decoded tablets are
+ * retained until every {@link Subscription} has consumed them, so that each pipe only filters the
+ * tablets by its own pattern instead of reading and decoding the TsFile again.
+ *
+ * <p>The retained tablets are limited by {@link
+ * PipeConfig#getPipeTsFileSharedParsingMaxRetainedMemoryInBytes()}. When the limit is reached, the
+ * consumed tablets are dropped and no more subscriptions are accepted. If that is still not enough,
+ * the subscriptions lagging behind are detached and continue with a private scan of the TsFile, so
+ * that a slow pipe never blocks the others.
+ *
+ * <p>The retained tablets are only accounted here while they are retained. A tablet handed out to a
+ * pipe is accounted by the parser of that pipe and then by the event carrying it, so dropping it
+ * from here does not leave it unaccounted.
+ *
+ * <p>Only one subscription decodes at a time, under {@link #decodeLock}. The decoding and the
+ * memory allocation are done outside the monitor of the scanner, so the subscriptions which only
+ * read the retained tablets are never blocked by them.
+ */
+public class SharedTsFileScanner {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SharedTsFileScanner.class);
+
+  private static final TreePattern ROOT_PATTERN = new PrefixTreePattern(null);
+
+  // hardlink of the TsFile in pipe dir -> the scanner accepting new subscriptions
+  private static final Map<String, SharedTsFileScanner> SCANNERS = new ConcurrentHashMap<>();
+
+  private final File tsFile;
+
+  // Guards the parser and the memory block, and is acquired before the monitor of the scanner
+  private final Object decodeLock = new Object();
+
+  private TsFileInsertionEventScanParser parser;
+  private Iterator<Pair<Tablet, Boolean>> tabletIterator;
+  private boolean isExhausted = false;
+  private boolean isFailed = false;
+  private long decodedTabletNum = 0;
+
+  // the retained tablets, the first one is the (firstRetainedIndex)th tablet of the TsFile
+  private final List<Pair<Tablet, Boolean>> retainedTablets = new ArrayList<>();
+  private final List<Long> retainedTabletSizes = new ArrayList<>();
+  private long firstRetainedIndex = 0;
+  private long retainedMemoryInBytes = 0;
+  private PipeMemoryBlock allocatedMemoryBlock;
+
+  private final Set<Subscription> subscriptions = new HashSet<>();
+  private boolean isClosed = false;
+
+  private SharedTsFileScanner(final File tsFile) {
+    this.tsFile = tsFile;
+  }
+
+  /**
+   * Subscribe to the shared scan of the TsFile, which is started by the first subscription.
+   *
+   * @return {@code null} if sharing is disabled
+   */
+  public static Subscription subscribe(final File tsFile) {
+    if (PipeConfig.getInstance().getPipeTsFileSharedParsingMaxRetainedMemoryInBytes() <= 0) {
+      return null;
+    }
+
+    while (true) {
+      final SharedTsFileScanner scanner =
+          SCANNERS.computeIfAbsent(tsFile.getPath(), path -> new SharedTsFileScanner(tsFile));
+      final Subscription subscription = scanner.trySubscribe();
+      if (Objects.nonNull(subscription)) {
+        return subscription;
+      }
+      // The scanner has dropped tablets or has been closed, start a new one
+      SCANNERS.remove(tsFile.getPath(), scanner);
+    }
+  }
+
+  private synchronized Subscription trySubscribe() {
+    if (isClosed || isFailed || firstRetainedIndex > 0) {
+      return null;
+    }
+    final Subscription subscription = new Subscription();
+    subscriptions.add(subscription);
+    return subscription;
+  }
+
+  /**
+   * @return the next tablet for the subscription, or {@code null} if the TsFile is consumed or the
+   *     subscription is detached
+   */
+  private Pair<Tablet, Boolean> next(final Subscription subscription) throws IOException {
+    while (true) {
+      final Pair<Tablet, Boolean> tablet = nextRetained(subscription);
+      if (Objects.nonNull(tablet) || subscription.isDetached || isExhausted()) {
+        return tablet;
+      }
+      synchronized (decodeLock) {
+        // Another subscription may have decoded the tablet while we were waiting for the lock
+        if (!needsDecoding(subscription)) {
+          continue;
+        }
+        try {
+          if (!decodeNextTablet(subscription)) {
+            return null;
+          }
+        } catch (final IOException | RuntimeException e) {
+          // Let the retries of the failed pipes start a new scan
+          synchronized (this) {
+            isFailed = true;
+          }
+          throw e;
+        }
+      }
+    }
+  }
+
+  private synchronized Pair<Tablet, Boolean> nextRetained(final Subscription subscription)
+      throws IOException {
+    if (isFailed) {
+      throw new IOException(String.format("The shared scan of tsfile %s failed", tsFile));
+    }
+    if (subscription.isDetached
+        || subscription.position == firstRetainedIndex + retainedTablets.size()) {
+      return null;
+    }
+    return retainedTablets.get((int) (subscription.position++ - firstRetainedIndex));
+  }
+
+  private synchronized boolean isExhausted() {
+    return isExhausted;
+  }
+
+  private synchronized boolean needsDecoding(final Subscription subscription) {
+    return !isClosed
+        && !isExhausted
+        && !isFailed
+        && !subscription.isDetached
+        && subscription.position == firstRetainedIndex + retainedTablets.size();
+  }
+
+  /** Called with {@link #decodeLock} held. */
+  private boolean decodeNextTablet(final Subscription subscription) throws IOException {
+    if (Objects.isNull(parser)) {
+      parser =
+          new TsFileInsertionEventScanParser(
+              tsFile, ROOT_PATTERN, Long.MIN_VALUE, Long.MAX_VALUE, null, null);
+      tabletIterator = parser.toTabletWithIsAligneds().iterator();
+      allocatedMemoryBlock =
+          PipeDataNodeResourceManager.memory().forceAllocateForTabletWithRetry(0);
+    }
+    if (!tabletIterator.hasNext()) {
+      synchronized (this) {
+        isExhausted = true;
+      }
+      closeParser();
+      return false;
+    }
+
+    final Pair<Tablet, Boolean> tablet = tabletIterator.next();
+    ++decodedTabletNum;
+    final long tabletSize = PipeMemoryWeightUtil.calculateTabletSizeInBytes(tablet.getLeft());
+    final long maxRetainedMemoryInBytes =
+        PipeConfig.getInstance().getPipeTsFileSharedParsingMaxRetainedMemoryInBytes();
+    final long newRetainedMemoryInBytes;
+    synchronized (this) {
+      if (retainedMemoryInBytes + tabletSize > maxRetainedMemoryInBytes) {
+        dropConsumedTablets();
+      }
+      while (retainedMemoryInBytes + tabletSize > maxRetainedMemoryInBytes
+          && detachSlowestSubscription(subscription)) {
+        dropConsumedTablets();
+      }
+
+      retainedTablets.add(tablet);
+      retainedTabletSizes.add(tabletSize);
+      retainedMemoryInBytes += tabletSize;
+      newRetainedMemoryInBytes = retainedMemoryInBytes;
+    }
+    PipeDataNodeResourceManager.memory()
+        .forceResize(allocatedMemoryBlock, newRetainedMemoryInBytes);
+    return true;
+  }
+
+  private void dropConsumedTablets() {
+    long minPosition = firstRetainedIndex + retainedTablets.size();
+    for (final Subscription subscription : subscriptions) {
+      minPosition = Math.min(minPosition, subscription.position);
+    }
+    final int dropCount = (int) (minPosition - firstRetainedIndex);
+    if (dropCount == 0) {
+      return;
+    }
+    for (int i = 0; i < dropCount; i++) {
+      retainedMemoryInBytes -= retainedTabletSizes.get(i);
+    }
+    retainedTablets.subList(0, dropCount).clear();
+    retainedTabletSizes.subList(0, dropCount).clear();
+    firstRetainedIndex = minPosition;
+  }
+
+  /**
+   * Detach the subscription lagging furthest behind, except the one decoding.
+   *
+   * @return {@code false} if there is no other subscription to detach
+   */
+  private boolean detachSlowestSubscription(final Subscription decodingSubscription) {
+    Subscription slowest = null;
+    for (final Subscription subscription : subscriptions) {
+      if (subscription != decodingSubscription
+          && (slowest == null || subscription.position < slowest.position)) {
+        slowest = subscription;
+      }
+    }
+    if (slowest == null) {
+      return false;
+    }
+    LOGGER.info(
+        "Pipe subscription of the shared scan of tsfile {} falls behind by {} tablets, "
+            + "it will scan the tsfile by itself.",
+        tsFile,
+        firstRetainedIndex + retainedTablets.size() - slowest.position);
+    slowest.isDetached = true;
+    subscriptions.remove(slowest);
+    return true;
+  }
+
+  private void unsubscribe(final Subscription subscription) {
+    synchronized (this) {
+      subscriptions.remove(subscription);
+      if (isClosed || !subscriptions.isEmpty()) {
+        return;
+      }
+      isClosed = true;
+      retainedTablets.clear();
+      retainedTabletSizes.clear();
+      retainedMemoryInBytes = 0;
+    }
+    // Not in the synchronized block to avoid dead lock with the subscribe and the decoding
+    SCANNERS.remove(tsFile.getPath(), this);
+    synchronized (decodeLock) {
+      closeParser();
+      if (Objects.nonNull(allocatedMemoryBlock)) {
+        allocatedMemoryBlock.close();
+        allocatedMemoryBlock = null;
+      }
+    }
+  }
+
+  private void closeParser() {
+    if (Objects.nonNull(parser)) {
+      parser.close();
+      parser = null;
+      tabletIterator = null;
+    }
+  }
+
+  /** The position of one pipe in the shared scan of a TsFile. */
+  public class Subscription implements AutoCloseable {
+
+    // index of the next tablet to return
+    private long position = 0;
+    private volatile boolean isDetached = false;
+
+    // the private scan after the subscription is detached
+    private TsFileInsertionEventScanParser privateParser;
+    private Iterator<Pair<Tablet, Boolean>> privateTabletIterator;
+
+    private Subscription() {}
+
+    /**
+     * @return the next tablet of the TsFile and whether it is aligned, or {@code null} if all the
+     *     tablets are returned
+     */
+    public Pair<Tablet, Boolean> next() throws IOException {
+      if (!isDetached) {
+        final Pair<Tablet, Boolean> tablet = SharedTsFileScanner.this.next(this);
+        // The tablet has been counted in the position even if the subscription is detached
+        // meanwhile, so it must be returned here and the private scan starts from the next call
+        if (Objects.nonNull(tablet) || !isDetached) {
+          return tablet;
+        }
+      }
+      return nextPrivately();
+    }
+
+    private Pair<Tablet, Boolean> nextPrivately() throws IOException {
+      if (Objects.isNull(privateParser)) {
+        unsubscribe(this);
+        privateParser =
+            new TsFileInsertionEventScanParser(
+                tsFile, ROOT_PATTERN, Long.MIN_VALUE, Long.MAX_VALUE, null, null);
+        privateTabletIterator = privateParser.toTabletWithIsAligneds().iterator();
+        // The scan is deterministic, skip the tablets already returned by the shared scan
+        for (long i = 0; i < position && privateTabletIterator.hasNext(); i++) {
+          privateTabletIterator.next();
+        }
+      }
+      if (!privateTabletIterator.hasNext()) {
+        return null;
+      }
+      ++position;
+      return privateTabletIterator.next();
+    }
+
+    @TestOnly
+    public boolean isDetached() {
+      return isDetached;
+    }
+
+    @TestOnly
+    public long getSharedDecodedTabletNum() {
+      synchronized (decodeLock) {
+        return decodedTabletNum;
+      }
+    }
+
+    @Override
+    public void close() {
+      unsubscribe(this);
+      if (Objects.nonNull(privateParser)) {
+        privateParser.close();
+        privateParser = null;
+        privateTabletIterator = null;
+      }
+    }
+  }
+}
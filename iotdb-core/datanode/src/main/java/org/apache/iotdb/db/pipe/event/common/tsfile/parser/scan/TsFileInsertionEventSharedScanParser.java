@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.event.common.tsfile.parser.scan;
+
+import org.apache.iotdb.commons.pipe.agent.task.meta.PipeTaskMeta;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.TreePattern;
+import org.apache.iotdb.db.pipe.event.common.PipeInsertionEvent;
+import org.apache.iotdb.db.pipe.event.common.tablet.PipeRawTabletInsertionEvent;
+import org.apache.iotdb.db.pipe.event.common.tablet.parser.TabletInsertionEventTreePatternParser;
+import org.apache.iotdb.db.pipe.event.common.tsfile.parser.TsFileInsertionEventParser;
+import org.apache.iotdb.db.pipe.resource.PipeDataNodeResourceManager;
+import org.apache.iotdb.db.pipe.resource.memory.PipeMemoryWeightUtil;
+import org.apache.iotdb.pipe.api.event.dml.insertion.TabletInsertionEvent;
+import org.apache.iotdb.pipe.api.exception.PipeException;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.StringArrayDeviceID;
+import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.write.record.Tablet;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Parses a TsFile through a {@link SharedTsFileScanner}, so that the pipes parsing the same TsFile
+ * at the same time only decode it once. Each tablet decoded by the shared scan is filtered by the
+ * pattern of this pipe, and is passed on without copying if the pattern covers its device.
+ *
+ * <p>The tablets passed on may be shared by several pipes, which is safe because the tablets read
+ * from a TsFile are already sorted and deduplicated, and are never modified after that.
+ */
+public class TsFileInsertionEventSharedScanParser extends TsFileInsertionEventParser {
+
+  private final SharedTsFileScanner.Subscription subscription;
+
+  // The next tablet to return, fetched ahead to know whether the current one is the last
+  private Pair<Tablet, Boolean> nextTablet;
+
+  public TsFileInsertionEventSharedScanParser(
+      final SharedTsFileScanner.Subscription subscription,
+      final TreePattern pattern,
+      final PipeTaskMeta pipeTaskMeta,
+      final PipeInsertionEvent sourceEvent) {
+    super(pattern, null, Long.MIN_VALUE, Long.MAX_VALUE, pipeTaskMeta, sourceEvent);
+
+    this.subscription = subscription;
+    nextTablet = fetchNextTablet();
+  }
+
+  /**
+   * @return {@code null} if sharing the parsing of TsFiles is disabled
+   */
+  public static TsFileInsertionEventSharedScanParser tryCreate(
+      final File tsFile,
+      final TreePattern pattern,
+      final PipeTaskMeta pipeTaskMeta,
+      final PipeInsertionEvent sourceEvent) {
+    final SharedTsFileScanner.Subscription subscription = SharedTsFileScanner.subscribe(tsFile);
+    return Objects.nonNull(subscription)
+        ? new TsFileInsertionEventSharedScanParser(
+            subscription, pattern, pipeTaskMeta, sourceEvent)
+        : null;
+  }
+
+  @Override
+  public Iterable<TabletInsertionEvent> toTabletInsertionEvents() {
+    return () ->
+        new Iterator<TabletInsertionEvent>() {
+
+          @Override
+          public boolean hasNext() {
+            return Objects.nonNull(nextTablet);
+          }
+
+          @Override
+          public TabletInsertionEvent next() {
+            if (!hasNext()) {
+              close();
+              throw new NoSuchElementException();
+            }
+
+            final Pair<Tablet, Boolean> tablet = nextTablet;
+            nextTablet = fetchNextTablet();
+            final boolean hasNext = hasNext();
+            try {
+              return new PipeRawTabletInsertionEvent(
+                  sourceEvent != null ? sourceEvent.isTableModelEvent() : null,
+                  sourceEvent != null ? sourceEvent.getTreeModelDatabaseName() : null,
+                  tablet.getLeft(),
+                  tablet.getRight(),
+                  sourceEvent != null ? sourceEvent.getPipeName() : null,
+                  sourceEvent != null ? sourceEvent.getCreationTime() : 0,
+                  pipeTaskMeta,
+                  sourceEvent,
+                  !hasNext);
+            } finally {
+              if (!hasNext) {
+                close();
+              }
+            }
+          }
+        };
+  }
+
+  private Pair<Tablet, Boolean> fetchNextTablet() {
+    try {
+      Pair<Tablet, Boolean> tablet;
+      while (Objects.nonNull(tablet = subscription.next())) {
+        final Tablet filteredTablet = filterByPattern(tablet.getLeft(), tablet.getRight());
+        if (Objects.nonNull(filteredTablet)) {
+          return filteredTablet == tablet.getLeft()
+              ? tablet
+              : new Pair<>(filteredTablet, tablet.getRight());
+        }
+      }
+      return null;
+    } catch (final Exception e) {
+      close();
+      throw new PipeException("Failed to get next tablet insertion event.", e);
+    }
+  }
+
+  /**
+   * @return the tablet itself if it is fully matched, a copy of the matched columns if it is
+   *     partially matched, or {@code null} if nothing is matched
+   */
+  private Tablet filterByPattern(final Tablet tablet, final boolean isAligned) {
+    final IDeviceID deviceId = new StringArrayDeviceID(tablet.getDeviceId());
+    if (Objects.isNull(treePattern) || treePattern.isRoot() || treePattern.coversDevice(deviceId)) {
+      // The shared scanner may drop the tablet as soon as all the pipes have got it, so it is
+      // accounted here until the event carrying it allocates its own memory
+      PipeDataNodeResourceManager.memory()
+          .forceResize(
+              allocatedMemoryBlockForTablet,
+              PipeMemoryWeightUtil.calculateTabletSizeInBytes(tablet));
+      return tablet;
+    }
+    if (!treePattern.mayOverlapWithDevice(deviceId)) {
+      return null;
+    }
+
+    final Tablet filteredTablet =
+        new TabletInsertionEventTreePatternParser(
+                pipeTaskMeta, sourceEvent, tablet, isAligned, treePattern)
+            .convertToTablet();
+    if (PipeRawTabletInsertionEvent.isTabletEmpty(filteredTablet)) {
+      return null;
+    }
+    PipeDataNodeResourceManager.memory()
+        .forceResize(
+            allocatedMemoryBlockForTablet,
+            PipeMemoryWeightUtil.calculateTabletSizeInBytes(filteredTablet));
+    return filteredTablet;
+  }
+
+  @Override
+  public void close() {
+    subscription.close();
+    super.close();
+  }
+}
@@ -26,11 +26,13 @@ import org.apache.iotdb.commons.consensus.index.impl.TimeWindowStateProgressInde
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.pipe.agent.task.meta.PipeStaticMeta;
 import org.apache.iotdb.commons.pipe.agent.task.meta.PipeTaskMeta;
+import org.apache.iotdb.commons.pipe.config.PipeConfig;
 import org.apache.iotdb.commons.pipe.config.constant.SystemConstant;
 import org.apache.iotdb.commons.pipe.config.plugin.env.PipeTaskExtractorRuntimeEnvironment;
 import org.apache.iotdb.commons.pipe.datastructure.PersistentResource;
 import org.apache.iotdb.commons.pipe.datastructure.pattern.TablePattern;
 import org.apache.iotdb.commons.pipe.datastructure.pattern.TreePattern;
+import org.apache.iotdb.commons.pipe.event.EnrichedEvent;
 import org.apache.iotdb.db.pipe.consensus.deletion.DeletionResource;
 import org.apache.iotdb.db.pipe.consensus.deletion.DeletionResourceManager;
 import org.apache.iotdb.db.pipe.event.common.deletion.PipeDeleteDataNodeEvent;
@@ -153,6 +155,9 @@ public class PipeHistoricalDataRegionTsFileAndDeletionExtractor
   private volatile boolean hasBeenStarted = false;
 
   private Queue<PersistentResource> pendingQueue;
+  // Events polled from the pending queue ahead of time, whose TsFiles are being parsed in the
+  // background. They are supplied strictly in the order of the pending queue.
+  private final Queue<Event> prefetchedEvents = new ArrayDeque<>();
 
   @Override
   public void validate(final PipeParameterValidator validator) {
@@ -746,6 +751,13 @@ public class PipeHistoricalDataRegionTsFileAndDeletionExtractor
       return null;
     }
 
+    final Event event =
+        prefetchedEvents.isEmpty() ? supplyPendingResource() : prefetchedEvents.poll();
+    prefetchTsFileEventsIfNecessary();
+    return event;
+  }
+
+  private Event supplyPendingResource() {
     final PersistentResource resource = pendingQueue.poll();
     if (resource == null) {
       return supplyTerminateEvent();
@@ -756,6 +768,37 @@ public class PipeHistoricalDataRegionTsFileAndDeletionExtractor
     }
   }
 
+  /**
+   * Poll the next few resources of the pending queue and start parsing their TsFiles in the
+   * background, so that the parsing of the following files overlaps with the transfer of the
+   * current one.
+   */
+  private void prefetchTsFileEventsIfNecessary() {
+    final int parallelParsingNum =
+        PipeConfig.getInstance().getPipeHistoricalTsFileParallelParsingNum();
+    if (parallelParsingNum <= 0
+        || PipeConfig.getInstance().getPipeTsFileParallelParsingMaxPrefetchedMemoryInBytes() <= 0) {
+      return;
+    }
+
+    while (prefetchedEvents.size() < parallelParsingNum && !pendingQueue.isEmpty()) {
+      final PersistentResource resource = pendingQueue.poll();
+      final Event event =
+          resource instanceof TsFileResource
+              ? supplyTsFileEvent((TsFileResource) resource)
+              : supplyDeletionEvent((DeletionResource) resource);
+      if (Objects.isNull(event)) {
+        continue;
+      }
+
+      prefetchedEvents.add(event);
+      if (event instanceof PipeTsFileInsertionEvent
+          && ((PipeTsFileInsertionEvent) event).shouldParse4Transfer()) {
+        ((PipeTsFileInsertionEvent) event).startPrefetchingTabletInsertionEvents();
+      }
+    }
+  }
+
   private Event supplyTerminateEvent() {
     final PipeTerminateEvent terminateEvent =
         new PipeTerminateEvent(pipeName, creationTime, pipeTaskMeta, dataRegionId);
@@ -865,12 +908,13 @@ public class PipeHistoricalDataRegionTsFileAndDeletionExtractor
     return hasBeenStarted
         && (Objects.isNull(pendingQueue)
             || pendingQueue.isEmpty()
+                && prefetchedEvents.isEmpty()
                 && (!shouldTerminatePipeOnAllHistoricalEventsConsumed || isTerminateSignalSent));
   }
 
   @Override
   public int getPendingQueueSize() {
-    return Objects.nonNull(pendingQueue) ? pendingQueue.size() : 0;
+    return Objects.nonNull(pendingQueue) ? pendingQueue.size() + prefetchedEvents.size() : 0;
   }
 
   @Override
@@ -893,5 +937,12 @@ public class PipeHistoricalDataRegionTsFileAndDeletionExtractor
       pendingQueue.clear();
       pendingQueue = null;
     }
+
+    prefetchedEvents.forEach(
+        event ->
+            ((EnrichedEvent) event)
+                .decreaseReferenceCount(
+                    PipeHistoricalDataRegionTsFileAndDeletionExtractor.class.getName(), false));
+    prefetchedEvents.clear();
   }
 }
@@ -25,7 +25,11 @@ import org.apache.iotdb.commons.pipe.config.PipeConfig;
 import org.apache.iotdb.commons.pipe.connector.payload.airgap.AirGapELanguageConstant;
 import org.apache.iotdb.commons.pipe.connector.payload.airgap.AirGapOneByteResponse;
 import org.apache.iotdb.commons.pipe.connector.payload.airgap.AirGapPseudoTPipeTransferRequest;
+import org.apache.iotdb.commons.pipe.connector.payload.airgap.AirGapPseudoTPipeTransferStreamRequest;
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeRequestType;
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.response.PipeTransferFilePieceResp;
 import org.apache.iotdb.db.pipe.agent.PipeDataNodeAgent;
+import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferTsFilePieceStreamReq;
 import org.apache.iotdb.db.pipe.receiver.protocol.thrift.IoTDBDataNodeReceiverAgent;
 import org.apache.iotdb.db.protocol.session.ClientSession;
 import org.apache.iotdb.db.protocol.session.SessionManager;
@@ -39,6 +43,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -125,13 +130,20 @@ public class IoTDBAirGapReceiver extends WrappedRunnable {
 
       // Removed the used checksum
       final ByteBuffer byteBuffer = ByteBuffer.wrap(data, LONG_LEN, data.length - LONG_LEN);
+      final byte version = ReadWriteIOUtils.readByte(byteBuffer);
+      final short type = ReadWriteIOUtils.readShort(byteBuffer);
+
+      if (type == PipeRequestType.TRANSFER_TS_FILE_PIECE_STREAM.getType()) {
+        receiveFilePieceStream(inputStream, version, type, byteBuffer.slice());
+        return;
+      }
 
       // Pseudo request, to reuse logic in IoTDBThriftReceiverAgent
       final AirGapPseudoTPipeTransferRequest req =
           (AirGapPseudoTPipeTransferRequest)
               new AirGapPseudoTPipeTransferRequest()
-                  .setVersion(ReadWriteIOUtils.readByte(byteBuffer))
-                  .setType(ReadWriteIOUtils.readShort(byteBuffer))
+                  .setVersion(version)
+                  .setType(type)
                   .setBody(byteBuffer.slice());
       final TPipeTransferResp resp = agent.receive(req);
 
@@ -171,6 +183,49 @@ public class IoTDBAirGapReceiver extends WrappedRunnable {
     }
   }
 
+  /**
+   * The raw bytes of the file piece follow the header on the socket, and are streamed into the
+   * receiver file through the buffered socket stream. Besides the one byte response, the end
+   * writing offset of the file is returned so that the sender can resume from it.
+   */
+  private void receiveFilePieceStream(
+      final InputStream inputStream, final byte version, final short type, final ByteBuffer body)
+      throws IOException {
+    final long pieceLength =
+        PipeTransferTsFilePieceStreamReq.fromTPipeTransferReq(
+                new AirGapPseudoTPipeTransferRequest().setBody(body.duplicate()))
+            .getPieceLength();
+    final PieceInputStream pieceInputStream = new PieceInputStream(inputStream, pieceLength);
+
+    final TPipeTransferResp resp =
+        agent.receive(
+            new AirGapPseudoTPipeTransferStreamRequest(pieceInputStream)
+                .setVersion(version)
+                .setType(type)
+                .setBody(body));
+    // Keep the following requests aligned even if the piece is rejected
+    pieceInputStream.drain();
+
+    final long endWritingOffset =
+        resp.isSetBody()
+            ? PipeTransferFilePieceResp.fromTPipeTransferResp(resp).getEndWritingOffset()
+            : PipeTransferFilePieceResp.ERROR_END_OFFSET;
+    if (resp.getStatus().getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      LOGGER.warn(
+          "Pipe air gap receiver {}: Handle file piece stream failed, status: {}",
+          receiverId,
+          resp.getStatus());
+    }
+
+    final OutputStream outputStream = socket.getOutputStream();
+    outputStream.write(
+        resp.getStatus().getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()
+            ? AirGapOneByteResponse.OK
+            : AirGapOneByteResponse.FAIL);
+    outputStream.write(BytesUtils.longToBytes(endWritingOffset));
+    outputStream.flush();
+  }
+
   private void ok() throws IOException {
     final OutputStream outputStream = socket.getOutputStream();
     outputStream.write(AirGapOneByteResponse.OK);
@@ -291,4 +346,65 @@ public class IoTDBAirGapReceiver extends WrappedRunnable {
       currentSkippedBytes += skippedBytes;
     }
   }
+
+  /** Limits the socket stream to the raw bytes of one file piece. */
+  private static class PieceInputStream extends FilterInputStream {
+
+    private long remainingLength;
+
+    private PieceInputStream(final InputStream inputStream, final long pieceLength) {
+      super(inputStream);
+      this.remainingLength = pieceLength;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (remainingLength <= 0) {
+        return -1;
+      }
+      final int value = super.read();
+      if (value != -1) {
+        --remainingLength;
+      }
+      return value;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+      if (remainingLength <= 0) {
+        return -1;
+      }
+      final int readLength = super.read(buffer, offset, (int) Math.min(length, remainingLength));
+      if (readLength > 0) {
+        remainingLength -= readLength;
+      }
+      return readLength;
+    }
+
+    @Override
+    public long skip(final long length) throws IOException {
+      final long skippedLength = super.skip(Math.min(length, remainingLength));
+      remainingLength -= skippedLength;
+      return skippedLength;
+    }
+
+    @Override
+    public int available() throws IOException {
+      return (int) Math.min(super.available(), remainingLength);
+    }
+
+    @Override
+    public void close() {
+      // The socket stream is owned by the receiver
+    }
+
+    private void drain() throws IOException {
+      final byte[] drainBuffer = new byte[(int) Math.min(remainingLength, 8192)];
+      while (remainingLength > 0) {
+        if (read(drainBuffer, 0, drainBuffer.length) == -1) {
+          throw new PipeConnectionException("Socket closed when draining file piece stream.");
+        }
+      }
+    }
+  }
 }
@@ -24,6 +24,7 @@ import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.pipe.connector.payload.airgap.AirGapPseudoTPipeTransferRequest;
+import org.apache.iotdb.commons.pipe.connector.payload.airgap.AirGapPseudoTPipeTransferStreamRequest;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.common.PipeTransferSliceReqHandler;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeRequestType;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferCompressedReq;
@@ -56,6 +57,7 @@ import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransfer
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferTabletRawReq;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferTabletRawReqV2;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferTsFilePieceReq;
+import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferTsFilePieceStreamReq;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferTsFilePieceWithModReq;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferTsFileSealReq;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferTsFileSealWithModReq;
@@ -337,6 +339,15 @@ public class IoTDBDataNodeReceiver extends IoTDBFileReceiver {
                     .recordTransferTsFileSealWithModTimer(System.nanoTime() - startTime);
               }
             }
+          case TRANSFER_TS_FILE_PIECE_STREAM:
+            {
+              try {
+                return handleTransferTsFilePieceStream(req);
+              } finally {
+                PipeDataNodeReceiverMetrics.getInstance()
+                    .recordTransferTsFilePieceTimer(System.nanoTime() - startTime);
+              }
+            }
           case TRANSFER_SCHEMA_PLAN:
             {
               try {
@@ -427,6 +438,27 @@ public class IoTDBDataNodeReceiver extends IoTDBFileReceiver {
     }
   }
 
+  private TPipeTransferResp handleTransferTsFilePieceStream(final TPipeTransferReq req)
+      throws IOException {
+    if (!(req instanceof AirGapPseudoTPipeTransferStreamRequest)) {
+      final TSStatus status =
+          RpcUtils.getStatus(
+              TSStatusCode.PIPE_TYPE_ERROR,
+              "TsFile piece stream can only be transferred through the air gap receiver.");
+      LOGGER.warn("Receiver id = {}: {}", receiverId.get(), status.getMessage());
+      return new TPipeTransferResp(status);
+    }
+
+    final PipeTransferTsFilePieceStreamReq pieceReq =
+        PipeTransferTsFilePieceStreamReq.fromTPipeTransferReq(req);
+    return handleTransferFilePieceStream(
+        pieceReq.getFileName(),
+        pieceReq.getStartWritingOffset(),
+        pieceReq.getPieceLength(),
+        pieceReq.isSingleFile(),
+        ((AirGapPseudoTPipeTransferStreamRequest) req).getPayloadStream());
+  }
+
   private TPipeTransferResp handleTransferTabletInsertNode(
       final PipeTransferTabletInsertNodeReq req) {
     final InsertBaseStatement statement = req.constructStatement();
@@ -35,6 +35,7 @@ import org.apache.iotdb.db.queryengine.plan.analyze.schema.ClusterSchemaFetcher;
 import org.apache.iotdb.db.queryengine.plan.analyze.schema.ISchemaFetcher;
 import org.apache.iotdb.db.queryengine.plan.execution.ExecutionResult;
 import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertMultiTabletsStatement;
+import org.apache.iotdb.db.storageengine.dataregion.MinWrittenTimeTracker;
 import org.apache.iotdb.rpc.TSStatusCode;
 
 import org.slf4j.Logger;
@@ -65,6 +66,9 @@ public class DataNodeInternalClient {
 
       SESSION_MANAGER.supplySession(
           session, sessionInfo.getUserName(), sessionInfo.getZoneId(), ClientVersion.V_1_0);
+      if (MinWrittenTimeTracker.getInstance().isGeneratedByContinuousQuery(sessionInfo)) {
+        MinWrittenTimeTracker.getInstance().registerContinuousQuerySession(session.getId());
+      }
 
       LOGGER.info("User: {}, opens internal Session-{}.", sessionInfo.getUserName(), session);
     } catch (Exception e) {
@@ -99,6 +103,7 @@ public class DataNodeInternalClient {
   }
 
   public void close() {
+    MinWrittenTimeTracker.getInstance().deregisterContinuousQuerySession(session.getId());
     SESSION_MANAGER.closeSession(session, COORDINATOR::cleanupQueryExecution);
   }
 }
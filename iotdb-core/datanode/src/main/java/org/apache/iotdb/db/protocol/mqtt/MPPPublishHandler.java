@@ -19,10 +19,14 @@
 package org.apache.iotdb.db.protocol.mqtt;
 
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.conf.IoTDBConstant.ClientVersion;
+import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.db.auth.AuthorityChecker;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.protocol.session.MqttClientSession;
 import org.apache.iotdb.db.protocol.session.SessionManager;
 import org.apache.iotdb.db.queryengine.plan.Coordinator;
@@ -32,7 +36,9 @@ import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeDeviceP
 import org.apache.iotdb.db.queryengine.plan.analyze.schema.ClusterSchemaFetcher;
 import org.apache.iotdb.db.queryengine.plan.analyze.schema.ISchemaFetcher;
 import org.apache.iotdb.db.queryengine.plan.execution.ExecutionResult;
+import org.apache.iotdb.db.queryengine.plan.statement.Statement;
 import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowsStatement;
 import org.apache.iotdb.db.utils.CommonUtils;
 import org.apache.iotdb.db.utils.TimestampPrecisionUtils;
 import org.apache.iotdb.rpc.TSStatusCode;
@@ -51,6 +57,9 @@ import org.slf4j.LoggerFactory;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /** PublishHandler handle the messages from MQTT clients. */
 public class MPPPublishHandler extends AbstractInterceptHandler {
@@ -62,14 +71,32 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
 
   private final ConcurrentHashMap<String, MqttClientSession> clientIdToSessionMap =
       new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, MqttInsertionBatch> clientIdToBatchMap =
+      new ConcurrentHashMap<>();
   private final PayloadFormatter payloadFormat;
   private final IPartitionFetcher partitionFetcher;
   private final ISchemaFetcher schemaFetcher;
 
+  private final int batchSize;
+  private final long batchMaxDelayInMs;
+  // flushes the rows which have been buffered for too long, null if rows are not batched
+  private final ScheduledExecutorService batchFlusher;
+
   public MPPPublishHandler(IoTDBConfig config) {
     this.payloadFormat = PayloadFormatManager.getPayloadFormat(config.getMqttPayloadFormatter());
     partitionFetcher = ClusterPartitionFetcher.getInstance();
     schemaFetcher = ClusterSchemaFetcher.getInstance();
+
+    batchSize = config.getMqttBatchSize();
+    batchMaxDelayInMs = config.getMqttBatchMaxDelayInMs();
+    if (batchSize > 1) {
+      // the batches of different clients are flushed in parallel
+      batchFlusher =
+          IoTDBThreadPoolFactory.newScheduledThreadPool(
+              config.getMqttHandlerPoolSize(), ThreadName.MQTT_BATCH_FLUSHER.getName());
+    } else {
+      batchFlusher = null;
+    }
   }
 
   @Override
@@ -88,12 +115,20 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
           ZoneId.systemDefault().toString(),
           TSProtocolVersion.IOTDB_SERVICE_PROTOCOL_V3,
           ClientVersion.V_1_0);
+      if (batchFlusher != null) {
+        clientIdToBatchMap.put(msg.getClientID(), new MqttInsertionBatch(session));
+      }
       clientIdToSessionMap.put(msg.getClientID(), session);
     }
   }
 
   @Override
   public void onDisconnect(InterceptDisconnectMessage msg) {
+    MqttInsertionBatch batch = clientIdToBatchMap.remove(msg.getClientID());
+    if (null != batch) {
+      // rows published concurrently are either flushed here or inserted directly by onPublish
+      close(batch);
+    }
     MqttClientSession session = clientIdToSessionMap.remove(msg.getClientID());
     if (null != session) {
       sessionManager.closeSession(session, Coordinator.getInstance()::cleanupQueryExecution);
@@ -133,45 +168,23 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
 
         TSStatus tsStatus = null;
         try {
-          InsertRowStatement statement = new InsertRowStatement();
-          statement.setDevicePath(
-              DataNodeDevicePathCache.getInstance().getPartialPath(event.getDevice()));
-          TimestampPrecisionUtils.checkTimestampPrecision(event.getTimestamp());
-          statement.setTime(event.getTimestamp());
-          statement.setMeasurements(event.getMeasurements().toArray(new String[0]));
-          if (event.getDataTypes() == null) {
-            statement.setDataTypes(new TSDataType[event.getMeasurements().size()]);
-            statement.setValues(event.getValues().toArray(new Object[0]));
-            statement.setNeedInferType(true);
-          } else {
-            List<TSDataType> dataTypes = event.getDataTypes();
-            List<String> values = event.getValues();
-            Object[] inferredValues = new Object[values.size()];
-            for (int i = 0; i < values.size(); ++i) {
-              inferredValues[i] = CommonUtils.parseValue(dataTypes.get(i), values.get(i));
-            }
-            statement.setDataTypes(dataTypes.toArray(new TSDataType[0]));
-            statement.setValues(inferredValues);
-          }
-          statement.setAligned(false);
-
+          InsertRowStatement statement = createInsertRowStatement(event);
           tsStatus = AuthorityChecker.checkAuthority(statement, session);
           if (tsStatus.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
             LOG.warn(tsStatus.message);
           } else {
-            long queryId = sessionManager.requestQueryId();
-            ExecutionResult result =
-                Coordinator.getInstance()
-                    .executeForTreeModel(
-                        statement,
-                        queryId,
-                        sessionManager.getSessionInfo(session),
-                        "",
-                        partitionFetcher,
-                        schemaFetcher,
-                        config.getQueryTimeoutThreshold(),
-                        false);
-            tsStatus = result.status;
+            MqttInsertionBatch batch =
+                batchFlusher == null ? null : clientIdToBatchMap.get(clientId);
+            int bufferedRows = batch == null ? 0 : batch.add(statement);
+            if (bufferedRows == 0) {
+              // not batched, or the client is disconnecting and its batch has been closed
+              tsStatus = execute(statement, session);
+            } else if (bufferedRows >= batchSize) {
+              flush(batch);
+            } else if (bufferedRows == 1) {
+              // the first row since the last flush bounds the delay of all the rows after it
+              scheduleFlush(batch);
+            }
           }
         } catch (Exception e) {
           LOG.warn(
@@ -189,6 +202,96 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
     }
   }
 
+  private InsertRowStatement createInsertRowStatement(Message event)
+      throws IllegalPathException, QueryProcessException {
+    InsertRowStatement statement = new InsertRowStatement();
+    statement.setDevicePath(
+        DataNodeDevicePathCache.getInstance().getPartialPath(event.getDevice()));
+    TimestampPrecisionUtils.checkTimestampPrecision(event.getTimestamp());
+    statement.setTime(event.getTimestamp());
+    statement.setMeasurements(event.getMeasurements().toArray(new String[0]));
+    if (event.getDataTypes() == null) {
+      statement.setDataTypes(new TSDataType[event.getMeasurements().size()]);
+      statement.setValues(event.getValues().toArray(new Object[0]));
+      statement.setNeedInferType(true);
+    } else {
+      List<TSDataType> dataTypes = event.getDataTypes();
+      List<String> values = event.getValues();
+      Object[] inferredValues = new Object[values.size()];
+      for (int i = 0; i < values.size(); ++i) {
+        inferredValues[i] = CommonUtils.parseValue(dataTypes.get(i), values.get(i));
+      }
+      statement.setDataTypes(dataTypes.toArray(new TSDataType[0]));
+      statement.setValues(inferredValues);
+    }
+    statement.setAligned(false);
+    return statement;
+  }
+
+  private TSStatus execute(Statement statement, MqttClientSession session) {
+    long queryId = sessionManager.requestQueryId();
+    ExecutionResult result =
+        Coordinator.getInstance()
+            .executeForTreeModel(
+                statement,
+                queryId,
+                sessionManager.getSessionInfo(session),
+                "",
+                partitionFetcher,
+                schemaFetcher,
+                config.getQueryTimeoutThreshold(),
+                false);
+    return result.status;
+  }
+
+  private void scheduleFlush(MqttInsertionBatch batch) {
+    try {
+      batchFlusher.schedule(() -> flush(batch), batchMaxDelayInMs, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // the handler is stopping, and stop() inserts the buffered rows
+      LOG.debug(
+          "Failed to schedule the flush of mqtt client {}",
+          batch.getSession().getClientAddress(),
+          e);
+    }
+  }
+
+  private void flush(MqttInsertionBatch batch) {
+    batch.flush(statement -> insertBatch(batch, statement));
+  }
+
+  private void close(MqttInsertionBatch batch) {
+    batch.close(statement -> insertBatch(batch, statement));
+  }
+
+  private void insertBatch(MqttInsertionBatch batch, InsertRowsStatement statement) {
+    try {
+      TSStatus tsStatus = execute(statement, batch.getSession());
+      if (tsStatus.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        LOG.warn(
+            "meet error when inserting {} rows of mqtt client {}, because {}",
+            statement.getInsertRowStatementList().size(),
+            batch.getSession().getClientAddress(),
+            tsStatus);
+      }
+    } catch (Exception e) {
+      LOG.warn(
+          "meet error when inserting {} rows of mqtt client {}, because ",
+          statement.getInsertRowStatementList().size(),
+          batch.getSession().getClientAddress(),
+          e);
+    }
+  }
+
+  /** Insert the buffered rows and stop batching, called after the broker is stopped. */
+  public void stop() {
+    if (batchFlusher != null) {
+      batchFlusher.shutdownNow();
+      clientIdToBatchMap.values().forEach(this::close);
+      clientIdToBatchMap.clear();
+    }
+  }
+
   @Override
   public void onSessionLoopError(Throwable throwable) {
     // TODO: Implement something sensible here ...
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.mqtt;
+
+import org.apache.iotdb.db.protocol.session.MqttClientSession;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowsStatement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The rows received from one mqtt client that have not been inserted yet. They are coalesced across
+ * publishes and inserted by one {@link InsertRowsStatement}, which saves the analysis and dispatch
+ * cost of inserting them one by one.
+ */
+class MqttInsertionBatch {
+
+  private final MqttClientSession session;
+
+  // serializes the flushes so that the rows are inserted in the order they are received
+  private final Object flushLock = new Object();
+
+  private List<InsertRowStatement> rows = new ArrayList<>();
+
+  // set when the client disconnects, after which no row is buffered any more
+  private boolean closed = false;
+
+  MqttInsertionBatch(MqttClientSession session) {
+    this.session = session;
+  }
+
+  MqttClientSession getSession() {
+    return session;
+  }
+
+  /**
+   * @return the number of buffered rows after adding this one, or 0 if the batch is closed and the
+   *     row is not buffered
+   */
+  synchronized int add(InsertRowStatement row) {
+    if (closed) {
+      return 0;
+    }
+    rows.add(row);
+    return rows.size();
+  }
+
+  private synchronized List<InsertRowStatement> drain() {
+    if (rows.isEmpty()) {
+      return null;
+    }
+    List<InsertRowStatement> drained = rows;
+    rows = new ArrayList<>();
+    return drained;
+  }
+
+  /**
+   * Insert all the buffered rows. The caller is blocked until the rows are inserted, as well as
+   * the rows drained by a concurrent flush, which is how a client that publishes faster than the
+   * rows can be inserted is slowed down.
+   */
+  void flush(Consumer<InsertRowsStatement> executor) {
+    synchronized (flushLock) {
+      List<InsertRowStatement> drained = drain();
+      if (drained == null) {
+        return;
+      }
+      InsertRowsStatement statement = new InsertRowsStatement();
+      statement.setInsertRowStatementList(drained);
+      executor.accept(statement);
+    }
+  }
+
+  /** Stop buffering rows and insert the buffered ones, nothing can be added once it returns. */
+  void close(Consumer<InsertRowsStatement> executor) {
+    synchronized (this) {
+      closed = true;
+    }
+    flush(executor);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.rest.filter;
+
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.Provider;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Closes the {@link StreamingOutput} entity that holds resources, e.g., a running query, once the
+ * request is finished, as JAX-RS does not call {@link StreamingOutput#write} when the request fails
+ * before the entity is written.
+ */
+@Provider
+public class StreamingOutputCloseListener implements ApplicationEventListener {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StreamingOutputCloseListener.class);
+
+  @Override
+  public void onEvent(ApplicationEvent event) {
+    // do nothing
+  }
+
+  @Override
+  public RequestEventListener onRequest(RequestEvent requestEvent) {
+    return new RequestListener();
+  }
+
+  private static class RequestListener implements RequestEventListener {
+
+    private Closeable entity;
+
+    @Override
+    public void onEvent(RequestEvent event) {
+      switch (event.getType()) {
+        case RESP_FILTERS_START:
+          // the response returned by the resource, before the filters may replace it
+          captureEntity(event.getContainerResponse());
+          break;
+        case FINISHED:
+          captureEntity(event.getContainerResponse());
+          if (entity != null) {
+            try {
+              entity.close();
+            } catch (IOException e) {
+              LOGGER.warn("Failed to close the streaming output of the request", e);
+            }
+          }
+          break;
+        default:
+          break;
+      }
+    }
+
+    private void captureEntity(ContainerResponse response) {
+      if (entity == null
+          && response != null
+          && response.getEntity() instanceof StreamingOutput
+          && response.getEntity() instanceof Closeable) {
+        entity = (Closeable) response.getEntity();
+      }
+    }
+  }
+}
@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.iotdb.db.protocol.rest.v2.handler;
+
+import org.apache.iotdb.db.protocol.rest.model.ExecutionStatus;
+import org.apache.iotdb.db.queryengine.common.header.DatasetHeader;
+import org.apache.iotdb.db.queryengine.plan.execution.IQueryExecution;
+import org.apache.iotdb.db.queryengine.plan.statement.Statement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.QueryStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.metadata.GetRegionIdStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.metadata.ShowStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.sys.AuthorStatement;
+import org.apache.iotdb.db.utils.SetThreadName;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import com.google.gson.stream.JsonWriter;
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes the result of a query as newline-delimited json while it is fetched from the coordinator,
+ * so that neither the server nor the client has to hold the whole result in memory.
+ *
+ * <p>The first line is the header of the result, holding the column names and, for the queries of
+ * data, their data types. Every following line holds the rows of one fetched {@link TsBlock}
+ * column by column, in the same layout as {@code QueryDataSet}. The last line is an {@link
+ * ExecutionStatus} telling whether the result is complete, as the http status has already been sent
+ * when an error happens in the middle of the result.
+ *
+ * <p>The query is released once the result is written, or by {@link #close()} when the request
+ * ends without the result being written, e.g., the client is gone before the entity is streamed.
+ */
+public class QueryDataSetStreamingOutput implements StreamingOutput, Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(QueryDataSetStreamingOutput.class);
+
+  private final IQueryExecution queryExecution;
+  // whether the statement queries data, whose columns are named as expressions
+  private final boolean isDataQuery;
+  private final boolean withTimestamps;
+  private final int[] targetColumnIndexToSourceColumnIndex;
+  private final int actualRowSizeLimit;
+  // releases the query, called once the result is written or the client is gone
+  private final Runnable onFinish;
+  private final AtomicBoolean finished = new AtomicBoolean(false);
+
+  private QueryDataSetStreamingOutput(
+      IQueryExecution queryExecution,
+      boolean isDataQuery,
+      boolean withTimestamps,
+      int[] targetColumnIndexToSourceColumnIndex,
+      int actualRowSizeLimit,
+      Runnable onFinish) {
+    this.queryExecution = queryExecution;
+    this.isDataQuery = isDataQuery;
+    this.withTimestamps = withTimestamps;
+    this.targetColumnIndexToSourceColumnIndex = targetColumnIndexToSourceColumnIndex;
+    this.actualRowSizeLimit = actualRowSizeLimit;
+    this.onFinish = onFinish;
+  }
+
+  /**
+   * @param actualRowSizeLimit max number of rows to return. no limit when actualRowSizeLimit <= 0.
+   * @return null if the result of the statement can not be streamed
+   */
+  public static QueryDataSetStreamingOutput create(
+      IQueryExecution queryExecution,
+      Statement statement,
+      int actualRowSizeLimit,
+      Runnable onFinish) {
+    DatasetHeader header = queryExecution.getDatasetHeader();
+    List<String> resultColumns = header.getRespColumns();
+    int[] targetColumnIndexToSourceColumnIndex = new int[resultColumns.size()];
+    boolean withTimestamps;
+    if (statement instanceof ShowStatement
+        || statement instanceof AuthorStatement
+        || statement instanceof GetRegionIdStatement) {
+      for (int i = 0; i < resultColumns.size(); i++) {
+        targetColumnIndexToSourceColumnIndex[i] = i;
+      }
+      withTimestamps = false;
+    } else if (statement instanceof QueryStatement) {
+      for (int i = 0; i < resultColumns.size(); i++) {
+        targetColumnIndexToSourceColumnIndex[i] =
+            header.getColumnNameIndexMap().get(resultColumns.get(i));
+      }
+      withTimestamps =
+          !((QueryStatement) statement).isAggregationQuery()
+              || ((QueryStatement) statement).isGroupByTime();
+    } else {
+      return null;
+    }
+    return new QueryDataSetStreamingOutput(
+        queryExecution,
+        statement instanceof QueryStatement,
+        withTimestamps,
+        targetColumnIndexToSourceColumnIndex,
+        actualRowSizeLimit,
+        onFinish);
+  }
+
+  @Override
+  public void write(OutputStream output) throws IOException {
+    Writer out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    JsonWriter writer = new JsonWriter(out);
+    // allows one top-level value per line, as well as NaN and Infinity in float and double columns
+    writer.setLenient(true);
+    try (SetThreadName threadName = new SetThreadName(queryExecution.getQueryId())) {
+      writeHeader(writer, out);
+      ExecutionStatus status;
+      try {
+        status = writeRows(writer, out);
+      } catch (IOException e) {
+        // the client is gone, there is no one to tell
+        throw e;
+      } catch (Exception e) {
+        LOGGER.warn("Failed to fetch the result of query {}", queryExecution.getQueryId(), e);
+        status = ExceptionHandler.tryCatchException(e);
+      }
+      writer.beginObject();
+      writer.name("code").value(status.getCode());
+      writer.name("message").value(status.getMessage());
+      writer.endObject();
+      endLine(out);
+    } finally {
+      close();
+    }
+  }
+
+  /** Releases the query if it is not released yet. */
+  @Override
+  public void close() {
+    if (finished.compareAndSet(false, true)) {
+      onFinish.run();
+    }
+  }
+
+  private void writeHeader(JsonWriter writer, Writer out) throws IOException {
+    DatasetHeader header = queryExecution.getDatasetHeader();
+    writer.beginObject();
+    writer.name(isDataQuery ? "expressions" : "column_names").beginArray();
+    for (String column : header.getRespColumns()) {
+      writer.value(column);
+    }
+    writer.endArray();
+    if (isDataQuery) {
+      writer.name("data_types").beginArray();
+      for (TSDataType dataType : header.getRespDataTypes()) {
+        writer.value(dataType.name());
+      }
+      writer.endArray();
+    }
+    writer.endObject();
+    endLine(out);
+  }
+
+  private ExecutionStatus writeRows(JsonWriter writer, Writer out) throws Exception {
+    int fetched = 0;
+    while (true) {
+      Optional<TsBlock> optionalTsBlock = queryExecution.getBatchResult();
+      if (!optionalTsBlock.isPresent()) {
+        break;
+      }
+      TsBlock tsBlock = optionalTsBlock.get();
+      int currentCount = tsBlock.getPositionCount();
+      if (currentCount == 0) {
+        continue;
+      }
+      if (0 < actualRowSizeLimit && actualRowSizeLimit < fetched + currentCount) {
+        return new ExecutionStatus()
+            .code(TSStatusCode.QUERY_PROCESS_ERROR.getStatusCode())
+            .message(
+                String.format(
+                    "Dataset row size exceeded the given max row size (%d)", actualRowSizeLimit));
+      }
+      fetched += currentCount;
+
+      writer.beginObject();
+      if (withTimestamps) {
+        writer.name("timestamps").beginArray();
+        for (int i = 0; i < currentCount; i++) {
+          writer.value(tsBlock.getTimeByIndex(i));
+        }
+        writer.endArray();
+      }
+      writer.name("values").beginArray();
+      for (int sourceIndex : targetColumnIndexToSourceColumnIndex) {
+        writeColumn(writer, tsBlock.getColumn(sourceIndex), currentCount);
+      }
+      writer.endArray();
+      writer.endObject();
+      endLine(out);
+    }
+    return new ExecutionStatus()
+        .code(TSStatusCode.SUCCESS_STATUS.getStatusCode())
+        .message(TSStatusCode.SUCCESS_STATUS.name());
+  }
+
+  private static void writeColumn(JsonWriter writer, Column column, int count) throws IOException {
+    writer.beginArray();
+    for (int i = 0; i < count; i++) {
+      if (column.isNull(i)) {
+        writer.nullValue();
+        continue;
+      }
+      switch (column.getDataType()) {
+        case BOOLEAN:
+          writer.value(column.getBoolean(i));
+          break;
+        case INT32:
+        case DATE:
+          writer.value(column.getInt(i));
+          break;
+        case INT64:
+        case TIMESTAMP:
+          writer.value(column.getLong(i));
+          break;
+        case FLOAT:
+          writer.value(column.getFloat(i));
+          break;
+        case DOUBLE:
+          writer.value(column.getDouble(i));
+          break;
+        case TEXT:
+        case STRING:
+          writer.value(column.getBinary(i).getStringValue(TSFileConfig.STRING_CHARSET));
+          break;
+        default:
+          writer.value(String.valueOf(column.getObject(i)));
+          break;
+      }
+    }
+    writer.endArray();
+  }
+
+  /** Ends the current line and pushes it to the client, who may start consuming it right away. */
+  private static void endLine(Writer out) throws IOException {
+    out.write('\n');
+    out.flush();
+  }
+}
@@ -27,6 +27,7 @@ import org.apache.iotdb.db.protocol.rest.v2.RestApiService;
 import org.apache.iotdb.db.protocol.rest.v2.handler.ExceptionHandler;
 import org.apache.iotdb.db.protocol.rest.v2.handler.ExecuteStatementHandler;
 import org.apache.iotdb.db.protocol.rest.v2.handler.QueryDataSetHandler;
+import org.apache.iotdb.db.protocol.rest.v2.handler.QueryDataSetStreamingOutput;
 import org.apache.iotdb.db.protocol.rest.v2.handler.RequestValidationHandler;
 import org.apache.iotdb.db.protocol.rest.v2.handler.StatementConstructionHandler;
 import org.apache.iotdb.db.protocol.rest.v2.model.ExecutionStatus;
@@ -65,6 +66,8 @@ public class RestApiServiceImpl extends RestApiService {
 
   private static final SessionManager SESSION_MANAGER = SessionManager.getInstance();
 
+  private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
   private final IPartitionFetcher partitionFetcher;
 
   private final ISchemaFetcher schemaFetcher;
@@ -229,6 +232,109 @@ public class RestApiServiceImpl extends RestApiService {
     }
   }
 
+  @Override
+  public Response executeQueryStatementStream(SQL sql, SecurityContext securityContext) {
+    Long queryId = null;
+    Statement statement = null;
+    long startTime = System.nanoTime();
+    // the query is released by the streaming output once the result is written
+    boolean streaming = false;
+    try {
+      RequestValidationHandler.validateSQL(sql);
+      statement = StatementGenerator.createStatement(sql.getSql(), ZoneId.systemDefault());
+
+      if (statement == null) {
+        return Response.ok()
+            .entity(
+                new org.apache.iotdb.db.protocol.rest.model.ExecutionStatus()
+                    .code(TSStatusCode.SQL_PARSE_ERROR.getStatusCode())
+                    .message("This operation type is not supported"))
+            .build();
+      }
+
+      if (ExecuteStatementHandler.validateStatement(statement)) {
+        return Response.ok()
+            .entity(
+                new org.apache.iotdb.db.protocol.rest.model.ExecutionStatus()
+                    .code(TSStatusCode.EXECUTE_STATEMENT_ERROR.getStatusCode())
+                    .message(TSStatusCode.EXECUTE_STATEMENT_ERROR.name()))
+            .build();
+      }
+
+      Response response = authorizationHandler.checkAuthority(securityContext, statement);
+      if (response != null) {
+        return response;
+      }
+
+      queryId = SESSION_MANAGER.requestQueryId();
+      ExecutionResult result =
+          COORDINATOR.executeForTreeModel(
+              statement,
+              queryId,
+              SESSION_MANAGER.getSessionInfo(SESSION_MANAGER.getCurrSession()),
+              sql.getSql(),
+              partitionFetcher,
+              schemaFetcher,
+              config.getQueryTimeoutThreshold(),
+              true);
+      if (result.status.code != TSStatusCode.SUCCESS_STATUS.getStatusCode()
+          && result.status.code != TSStatusCode.REDIRECTION_RECOMMEND.getStatusCode()) {
+        return Response.ok()
+            .entity(
+                new ExecutionStatus()
+                    .code(result.status.getCode())
+                    .message(result.status.getMessage()))
+            .build();
+      }
+      IQueryExecution queryExecution = COORDINATOR.getQueryExecution(queryId);
+      // unlike executeQueryStatement, the result is not limited unless the client asks for it
+      QueryDataSetStreamingOutput output =
+          QueryDataSetStreamingOutput.create(
+              queryExecution,
+              statement,
+              sql.getRowLimit() == null ? 0 : sql.getRowLimit(),
+              finishStreamingQuery(queryId, statement, startTime));
+      if (output == null) {
+        return Response.ok()
+            .entity(
+                new ExecutionStatus()
+                    .code(TSStatusCode.QUERY_PROCESS_ERROR.getStatusCode())
+                    .message(
+                        String.format(
+                            "unsupported query data type: %s", statement.getType().toString())))
+            .build();
+      }
+      streaming = true;
+      return Response.ok(output, NDJSON_MEDIA_TYPE).build();
+    } catch (Exception e) {
+      return Response.ok().entity(ExceptionHandler.tryCatchException(e)).build();
+    } finally {
+      if (!streaming) {
+        long costTime = System.nanoTime() - startTime;
+        Optional.ofNullable(statement)
+            .ifPresent(
+                s ->
+                    CommonUtils.addStatementExecutionLatency(
+                        OperationType.EXECUTE_QUERY_STATEMENT, s.getType().name(), costTime));
+        if (queryId != null) {
+          COORDINATOR.cleanupQueryExecution(queryId);
+        }
+      }
+    }
+  }
+
+  private static Runnable finishStreamingQuery(long queryId, Statement statement, long startTime) {
+    return () -> {
+      long costTime = System.nanoTime() - startTime;
+      CommonUtils.addStatementExecutionLatency(
+          OperationType.EXECUTE_QUERY_STATEMENT, statement.getType().name(), costTime);
+      long executionTime = COORDINATOR.getTotalExecutionTime(queryId);
+      CommonUtils.addQueryLatency(
+          statement.getType(), executionTime > 0 ? executionTime : costTime);
+      COORDINATOR.cleanupQueryExecution(queryId);
+    };
+  }
+
   @Override
   public Response insertRecords(
       InsertRecordsRequest insertRecordsRequest, SecurityContext securityContext) {
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.protocol.session;
 
 import org.apache.iotdb.commons.conf.IoTDBConstant.ClientVersion;
+import org.apache.iotdb.db.queryengine.plan.parser.PreparedSql;
 import org.apache.iotdb.service.rpc.thrift.TSConnectionInfo;
 import org.apache.iotdb.service.rpc.thrift.TSConnectionType;
 
@@ -31,8 +32,11 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.time.ZoneId;
+import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class IClientSession {
 
@@ -54,6 +58,11 @@ public abstract class IClientSession {
 
   @Nullable private String databaseName;
 
+  // the statements prepared on the server by this client
+  private final Map<Long, PreparedSql> preparedStatements = new ConcurrentHashMap<>();
+
+  private final AtomicLong preparedStatementIdGenerator = new AtomicLong(0);
+
   public abstract String getClientAddress();
 
   public abstract int getClientPort();
@@ -130,6 +139,30 @@ public abstract class IClientSession {
         getUsername(), getLogInTime(), getConnectionId(), getConnectionType());
   }
 
+  /**
+   * @return the id of the prepared statement, or -1 if the session already holds {@code
+   *     maxPreparedStatementNum} prepared statements
+   */
+  public synchronized long addPreparedStatement(
+      PreparedSql preparedSql, int maxPreparedStatementNum) {
+    if (preparedStatements.size() >= maxPreparedStatementNum) {
+      return -1;
+    }
+    long preparedStatementId = preparedStatementIdGenerator.incrementAndGet();
+    preparedStatements.put(preparedStatementId, preparedSql);
+    return preparedStatementId;
+  }
+
+  @Nullable
+  public PreparedSql getPreparedStatement(long preparedStatementId) {
+    return preparedStatements.get(preparedStatementId);
+  }
+
+  @Nullable
+  public PreparedSql removePreparedStatement(long preparedStatementId) {
+    return preparedStatements.remove(preparedStatementId);
+  }
+
   /**
    * statementIds that this client opens.<br>
    * For JDBC clients, each Statement instance has a statement id.<br>
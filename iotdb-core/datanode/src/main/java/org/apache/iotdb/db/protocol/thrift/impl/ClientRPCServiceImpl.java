@@ -48,6 +48,7 @@ import org.apache.iotdb.db.audit.AuditLogger;
 import org.apache.iotdb.db.auth.AuthorityChecker;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.sql.SemanticException;
 import org.apache.iotdb.db.pipe.agent.PipeDataNodeAgent;
 import org.apache.iotdb.db.protocol.basic.BasicOpenSessionResp;
 import org.apache.iotdb.db.protocol.client.ConfigNodeClient;
@@ -81,6 +82,7 @@ import org.apache.iotdb.db.queryengine.plan.analyze.schema.ISchemaFetcher;
 import org.apache.iotdb.db.queryengine.plan.execution.ExecutionResult;
 import org.apache.iotdb.db.queryengine.plan.execution.IQueryExecution;
 import org.apache.iotdb.db.queryengine.plan.parser.ASTVisitor;
+import org.apache.iotdb.db.queryengine.plan.parser.PreparedSql;
 import org.apache.iotdb.db.queryengine.plan.parser.StatementGenerator;
 import org.apache.iotdb.db.queryengine.plan.planner.LocalExecutionPlanner;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
@@ -142,9 +144,11 @@ import org.apache.iotdb.service.rpc.thrift.TSCreateAlignedTimeseriesReq;
 import org.apache.iotdb.service.rpc.thrift.TSCreateMultiTimeseriesReq;
 import org.apache.iotdb.service.rpc.thrift.TSCreateSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSCreateTimeseriesReq;
+import org.apache.iotdb.service.rpc.thrift.TSDeallocatePreparedStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSDeleteDataReq;
 import org.apache.iotdb.service.rpc.thrift.TSDropSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementReq;
+import org.apache.iotdb.service.rpc.thrift.TSExecutePreparedStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementResp;
 import org.apache.iotdb.service.rpc.thrift.TSFastLastDataQueryForOneDeviceReq;
@@ -165,6 +169,8 @@ import org.apache.iotdb.service.rpc.thrift.TSInsertTabletsReq;
 import org.apache.iotdb.service.rpc.thrift.TSLastDataQueryReq;
 import org.apache.iotdb.service.rpc.thrift.TSOpenSessionReq;
 import org.apache.iotdb.service.rpc.thrift.TSOpenSessionResp;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareStatementReq;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareStatementResp;
 import org.apache.iotdb.service.rpc.thrift.TSProtocolVersion;
 import org.apache.iotdb.service.rpc.thrift.TSPruneSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
@@ -201,6 +207,8 @@ import org.apache.tsfile.write.schema.MeasurementSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.time.ZoneId;
@@ -296,6 +304,15 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
 
   private TSExecuteStatementResp executeStatementInternal(
       TSExecuteStatementReq req, SelectResult setResult) {
+    return executeStatementInternal(req, setResult, null);
+  }
+
+  /**
+   * @param preparedSql the prepared statement that {@code req} is bound from, whose cached parse
+   *     trees are reused for the tree model, null if {@code req} is not a prepared statement
+   */
+  private TSExecuteStatementResp executeStatementInternal(
+      TSExecuteStatementReq req, SelectResult setResult, @Nullable PreparedSql preparedSql) {
     boolean finished = false;
     long queryId = Long.MIN_VALUE;
     String statement = req.getStatement();
@@ -315,7 +332,10 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
       // create and cache dataset
       ExecutionResult result;
       if (clientSession.getSqlDialect() == IClientSession.SqlDialect.TREE) {
-        Statement s = StatementGenerator.createStatement(statement, clientSession.getZoneId());
+        Statement s =
+            preparedSql == null
+                ? StatementGenerator.createStatement(statement, clientSession.getZoneId())
+                : preparedSql.createStatement(statement, clientSession.getZoneId());
 
         if (s == null) {
           return RpcUtils.getTSExecuteStatementResp(
@@ -1268,6 +1288,10 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
     Map<String, String> configuration = new HashMap<>();
     configuration.put(
         TIME_PRECISION, CommonDescriptor.getInstance().getConfig().getTimestampPrecision());
+    if (req.configuration != null
+        && Boolean.parseBoolean(req.configuration.get(RpcUtils.COMPRESSED_TABLET))) {
+      configuration.put(RpcUtils.COMPRESSED_TABLET, Boolean.TRUE.toString());
+    }
     return resp.setSessionId(openSessionResp.getSessionId()).setConfiguration(configuration);
   }
 
@@ -2432,6 +2456,75 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
     return SESSION_MANAGER.requestStatementId(SESSION_MANAGER.getCurrSession());
   }
 
+  @Override
+  public TSPrepareStatementResp prepareStatement(TSPrepareStatementReq req) {
+    IClientSession clientSession = SESSION_MANAGER.getCurrSessionAndUpdateIdleTime();
+    if (!SESSION_MANAGER.checkLogin(clientSession)) {
+      return new TSPrepareStatementResp(getNotLoggedInStatus());
+    }
+    PreparedSql preparedSql = new PreparedSql(req.getStatement());
+    int maxPreparedStatementNum = config.getMaxPreparedStatementNumPerSession();
+    long preparedStatementId =
+        clientSession.addPreparedStatement(preparedSql, maxPreparedStatementNum);
+    if (preparedStatementId < 0) {
+      return new TSPrepareStatementResp(
+          RpcUtils.getStatus(
+              TSStatusCode.ILLEGAL_PARAMETER,
+              String.format(
+                  "The session has already prepared %d statements, deallocate some of them first",
+                  maxPreparedStatementNum)));
+    }
+    TSPrepareStatementResp resp = new TSPrepareStatementResp(RpcUtils.SUCCESS_STATUS);
+    resp.setPreparedStatementId(preparedStatementId);
+    resp.setParameterCount(preparedSql.getParameterCount());
+    return resp;
+  }
+
+  @Override
+  public TSExecuteStatementResp executePreparedStatement(TSExecutePreparedStatementReq req) {
+    IClientSession clientSession = SESSION_MANAGER.getCurrSessionAndUpdateIdleTime();
+    if (!SESSION_MANAGER.checkLogin(clientSession)) {
+      return RpcUtils.getTSExecuteStatementResp(getNotLoggedInStatus());
+    }
+    PreparedSql preparedSql = clientSession.getPreparedStatement(req.getPreparedStatementId());
+    if (preparedSql == null) {
+      return RpcUtils.getTSExecuteStatementResp(
+          RpcUtils.getStatus(
+              TSStatusCode.ILLEGAL_PARAMETER,
+              "Prepared statement " + req.getPreparedStatementId() + " does not exist"));
+    }
+    String statement;
+    try {
+      statement = preparedSql.bind(req.getParameters());
+    } catch (SemanticException e) {
+      return RpcUtils.getTSExecuteStatementResp(
+          RpcUtils.getStatus(TSStatusCode.SEMANTIC_ERROR, e.getMessage()));
+    }
+
+    TSExecuteStatementReq executeReq =
+        new TSExecuteStatementReq(req.getSessionId(), statement, req.getStatementId());
+    if (req.isSetFetchSize()) {
+      executeReq.setFetchSize(req.getFetchSize());
+    }
+    if (req.isSetTimeout()) {
+      executeReq.setTimeout(req.getTimeout());
+    }
+    if (req.isSetJdbcQuery()) {
+      executeReq.setJdbcQuery(req.isJdbcQuery());
+    }
+    return executeStatementInternal(executeReq, SELECT_RESULT, preparedSql);
+  }
+
+  @Override
+  public TSStatus deallocatePreparedStatement(TSDeallocatePreparedStatementReq req) {
+    IClientSession clientSession = SESSION_MANAGER.getCurrSessionAndUpdateIdleTime();
+    if (!SESSION_MANAGER.checkLogin(clientSession)) {
+      return getNotLoggedInStatus();
+    }
+    clientSession.removePreparedStatement(req.getPreparedStatementId());
+    return RpcUtils.SUCCESS_STATUS;
+  }
+
   @Override
   public TSStatus createSchemaTemplate(TSCreateSchemaTemplateReq req) {
     try {
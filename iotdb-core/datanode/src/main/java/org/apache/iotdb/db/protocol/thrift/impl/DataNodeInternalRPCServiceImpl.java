@@ -164,6 +164,7 @@ import org.apache.iotdb.db.service.DataNode;
 import org.apache.iotdb.db.service.RegionMigrateService;
 import org.apache.iotdb.db.service.metrics.FileMetrics;
 import org.apache.iotdb.db.storageengine.StorageEngine;
+import org.apache.iotdb.db.storageengine.dataregion.MinWrittenTimeTracker;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.repair.RepairTaskStatus;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
@@ -423,7 +424,9 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
                   PlanNode planNode = PlanNodeType.deserialize(request.planNode.body);
                   RegionWriteExecutor executor = new RegionWriteExecutor();
                   TSendSinglePlanNodeResp resp = new TSendSinglePlanNodeResp();
-                  RegionExecutionResult executionResult = executor.execute(groupId, planNode);
+                  RegionExecutionResult executionResult =
+                      executor.execute(
+                          groupId, planNode, request.isGeneratedByContinuousQuery());
                   resp.setAccepted(executionResult.isAccepted());
                   resp.setMessage(executionResult.getMessage());
                   resp.setStatus(executionResult.getStatus());
@@ -1428,6 +1431,8 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
 
     SESSION_MANAGER.supplySession(
         session, req.getUsername(), ZoneId.of(req.getZoneId()), ClientVersion.V_1_0);
+    // the results written by the cq are not late data of the target databases
+    MinWrittenTimeTracker.getInstance().registerContinuousQuerySession(session.getId());
 
     String executedSQL = req.queryBody;
 
@@ -1439,12 +1444,14 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
             TSStatusCode.SQL_PARSE_ERROR, "This operation type is not supported");
       }
 
+      long startTime = getStartTimeCoveringLateData(s, req);
+
       // 1. Add time filter in where
       Expression timeFilter =
           new LogicAndExpression(
               new GreaterEqualExpression(
                   new TimestampOperand(),
-                  new ConstantOperand(TSDataType.INT64, String.valueOf(req.startTime))),
+                  new ConstantOperand(TSDataType.INT64, String.valueOf(startTime))),
               new LessThanExpression(
                   new TimestampOperand(),
                   new ConstantOperand(TSDataType.INT64, String.valueOf(req.endTime))));
@@ -1457,7 +1464,7 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
 
       // 2. Add time range in group by time
       if (s.getGroupByTimeComponent() != null) {
-        s.getGroupByTimeComponent().setStartTime(req.startTime);
+        s.getGroupByTimeComponent().setStartTime(startTime);
         s.getGroupByTimeComponent().setEndTime(req.endTime);
         s.getGroupByTimeComponent().setLeftCRightO(true);
       }
@@ -1500,11 +1507,38 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
       // TODO call the coordinator to release query resource
       return onQueryException(e, "\"" + executedSQL + "\". " + OperationType.EXECUTE_STATEMENT);
     } finally {
+      MinWrittenTimeTracker.getInstance().deregisterContinuousQuerySession(session.getId());
       SESSION_MANAGER.closeSession(session, COORDINATOR::cleanupQueryExecution);
       SESSION_MANAGER.removeCurrSession();
     }
   }
 
+  /**
+   * Returns the earliest start time extended to recompute the windows receiving late data of the
+   * databases read by the cq, or the original start time if none of them receives late data.
+   */
+  private static long getStartTimeCoveringLateData(QueryStatement statement, TExecuteCQ req)
+      throws IllegalPathException {
+    long startTime = req.getStartTime();
+    if (!req.isSetLateDataStartTimes()) {
+      return startTime;
+    }
+    for (Map.Entry<String, Long> entry : req.getLateDataStartTimes().entrySet()) {
+      if (entry.getValue() >= startTime) {
+        continue;
+      }
+      PartialPath databasePattern =
+          new PartialPath(entry.getKey()).concatNode(MULTI_LEVEL_PATH_WILDCARD);
+      for (PartialPath prefixPath : statement.getFromComponent().getPrefixPaths()) {
+        if (prefixPath.concatNode(MULTI_LEVEL_PATH_WILDCARD).overlapWith(databasePattern)) {
+          startTime = entry.getValue();
+          break;
+        }
+      }
+    }
+    return startTime;
+  }
+
   @Override
   public TSStatus setSpaceQuota(TSetSpaceQuotaReq req) throws TException {
     return spaceQuotaManager.setSpaceQuota(req);
@@ -1906,6 +1940,11 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
       PipeDataNodeAgent.task().collectPipeMetaList(resp);
     }
 
+    Map<String, Long> minWrittenTimes = MinWrittenTimeTracker.getInstance().poll();
+    if (!minWrittenTimes.isEmpty()) {
+      resp.setMinWrittenTimes(minWrittenTimes);
+    }
+
     if (req.isSetConfigNodeEndPoints()) {
       if (ConfigNodeInfo.getInstance()
           .updateConfigNodeList(new ArrayList<>(req.getConfigNodeEndPoints()))) {
@@ -22,11 +22,13 @@ package org.apache.iotdb.db.queryengine.execution.driver;
 import org.apache.iotdb.commons.utils.FileUtils;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.exchange.sink.ISink;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.queryengine.execution.operator.Operator;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
 import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTaskId;
 import org.apache.iotdb.db.queryengine.metric.QueryExecutionMetricSet;
 import org.apache.iotdb.db.queryengine.metric.QueryMetricsManager;
+import org.apache.iotdb.db.utils.stats.CpuTimer;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -128,6 +130,19 @@ public abstract class Driver implements IDriver {
 
     long maxRuntime = duration.roundTo(TimeUnit.NANOSECONDS);
 
+    CpuTimer cpuTimer = new CpuTimer();
+    try {
+      return processForInternal(blockedFuture, maxRuntime);
+    } finally {
+      // charge the wall time and cpu time of this quanta to the fragment instance
+      CpuTimer.CpuDuration cpuDuration = cpuTimer.elapsedTime();
+      FragmentInstanceContext fragmentInstanceContext = driverContext.getFragmentInstanceContext();
+      fragmentInstanceContext.addRunningTime(cpuDuration.getWall().roundTo(TimeUnit.NANOSECONDS));
+      fragmentInstanceContext.addCpuTime(cpuDuration.getCpu().roundTo(TimeUnit.NANOSECONDS));
+    }
+  }
+
+  private ListenableFuture<?> processForInternal(SettableFuture<?> blockedFuture, long maxRuntime) {
     Optional<ListenableFuture<?>> result =
         tryWithLock(
             100,
@@ -71,6 +71,9 @@ import org.apache.iotdb.db.schemaengine.SchemaEngine;
 import org.apache.iotdb.db.schemaengine.schemaregion.ISchemaRegion;
 import org.apache.iotdb.db.schemaengine.template.ClusterTemplateManager;
 import org.apache.iotdb.db.schemaengine.template.Template;
+import org.apache.iotdb.db.storageengine.StorageEngine;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.MinWrittenTimeTracker;
 import org.apache.iotdb.db.trigger.executor.TriggerFireResult;
 import org.apache.iotdb.db.trigger.executor.TriggerFireVisitor;
 import org.apache.iotdb.rpc.RpcUtils;
@@ -144,11 +147,21 @@ public class RegionWriteExecutor {
     pipeExecutionVisitor = new PipeEnrichedWriteSchemaNodeExecutionVisitor(executionVisitor);
   }
 
-  @SuppressWarnings("squid:S1181")
   public RegionExecutionResult execute(ConsensusGroupId groupId, PlanNode planNode) {
+    return execute(groupId, planNode, false);
+  }
+
+  /**
+   * @param isGeneratedByContinuousQuery whether the plan node writes the results of a continuous
+   *     query, which are not tracked as late data of the database
+   */
+  @SuppressWarnings("squid:S1181")
+  public RegionExecutionResult execute(
+      ConsensusGroupId groupId, PlanNode planNode, boolean isGeneratedByContinuousQuery) {
     try {
       WritePlanNodeExecutionContext context =
-          new WritePlanNodeExecutionContext(groupId, regionManager.getRegionLock(groupId));
+          new WritePlanNodeExecutionContext(
+              groupId, regionManager.getRegionLock(groupId), isGeneratedByContinuousQuery);
       return planNode.accept(executionVisitor, context);
     } catch (Throwable e) {
       LOGGER.warn(e.getMessage(), e);
@@ -258,6 +271,10 @@ public class RegionWriteExecutor {
       context.getRegionWriteValidationRWLock().readLock().lock();
       try {
         final TSStatus status = fireTriggerAndInsert(context.getRegionId(), insertNode);
+        if (MinWrittenTimeTracker.isEnabled()
+            && status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+          trackMinWrittenTime(context, insertNode);
+        }
         return RegionExecutionResult.create(
             TSStatusCode.SUCCESS_STATUS.getStatusCode() == status.getCode(),
             status.message,
@@ -274,6 +291,19 @@ public class RegionWriteExecutor {
       }
     }
 
+    private void trackMinWrittenTime(
+        final WritePlanNodeExecutionContext context, final InsertNode insertNode) {
+      final DataRegion dataRegion =
+          StorageEngine.getInstance().getDataRegion((DataRegionId) context.getRegionId());
+      if (dataRegion != null) {
+        MinWrittenTimeTracker.getInstance()
+            .update(
+                dataRegion.getDatabaseName(),
+                insertNode.getMinTime(),
+                context.isGeneratedByContinuousQuery());
+      }
+    }
+
     private TSStatus fireTriggerAndInsert(
         final ConsensusGroupId groupId, final InsertNode insertNode) throws ConsensusException {
       long triggerCostTime = 0;
@@ -1099,9 +1129,15 @@ public class RegionWriteExecutor {
 
     private final ReentrantReadWriteLock regionRWLock;
 
-    WritePlanNodeExecutionContext(ConsensusGroupId regionId, ReentrantReadWriteLock regionRWLock) {
+    private final boolean isGeneratedByContinuousQuery;
+
+    WritePlanNodeExecutionContext(
+        ConsensusGroupId regionId,
+        ReentrantReadWriteLock regionRWLock,
+        boolean isGeneratedByContinuousQuery) {
       this.regionId = regionId;
       this.regionRWLock = regionRWLock;
+      this.isGeneratedByContinuousQuery = isGeneratedByContinuousQuery;
     }
 
     public ConsensusGroupId getRegionId() {
@@ -1111,5 +1147,9 @@ public class RegionWriteExecutor {
     public ReentrantReadWriteLock getRegionWriteValidationRWLock() {
       return regionRWLock;
     }
+
+    public boolean isGeneratedByContinuousQuery() {
+      return isGeneratedByContinuousQuery;
+    }
   }
 }
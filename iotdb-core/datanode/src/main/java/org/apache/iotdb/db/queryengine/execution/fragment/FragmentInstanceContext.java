@@ -34,6 +34,7 @@ import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
 import org.apache.iotdb.db.queryengine.plan.planner.memory.MemoryReservationManager;
 import org.apache.iotdb.db.queryengine.plan.planner.memory.ThreadSafeMemoryReservationManager;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.TimePredicate;
+import org.apache.iotdb.db.queryengine.statistics.QueryProfileManager;
 import org.apache.iotdb.db.storageengine.dataregion.IDataRegionForQuery;
 import org.apache.iotdb.db.storageengine.dataregion.read.IQueryDataSource;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
@@ -57,6 +58,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -120,6 +122,10 @@ public class FragmentInstanceContext extends QueryContext {
   private long initQueryDataSourceCost = 0;
   private final AtomicLong readyQueueTime = new AtomicLong(0);
   private final AtomicLong blockQueueTime = new AtomicLong(0);
+  private final AtomicLong runningTime = new AtomicLong(0);
+  private final AtomicLong cpuTimeInNanos = new AtomicLong(0);
+  // chunks being read ahead by all the series scans of this fragment instance
+  private final AtomicInteger prefetchingChunkNum = new AtomicInteger(0);
   private long unclosedSeqFileNum = 0;
   private long unclosedUnseqFileNum = 0;
   private long closedSeqFileNum = 0;
@@ -676,6 +682,7 @@ public class FragmentInstanceContext extends QueryContext {
     // record fragment instance execution time and metadata get time to metrics
     long durationTime = System.currentTimeMillis() - executionStartTime.get();
     QueryRelatedResourceMetricSet.getInstance().updateFragmentInstanceTime(durationTime);
+    QueryProfileManager.getInstance().tryRecord(this, durationTime);
 
     SeriesScanCostMetricSet.getInstance()
         .recordBloomFilterMetrics(
@@ -819,6 +826,26 @@ public class FragmentInstanceContext extends QueryContext {
     return blockQueueTime.get();
   }
 
+  public void addRunningTime(long time) {
+    runningTime.addAndGet(time);
+  }
+
+  public long getRunningTime() {
+    return runningTime.get();
+  }
+
+  public void addCpuTime(long time) {
+    cpuTimeInNanos.addAndGet(time);
+  }
+
+  public long getCpuTimeInNanos() {
+    return cpuTimeInNanos.get();
+  }
+
+  public AtomicInteger getPrefetchingChunkNum() {
+    return prefetchingChunkNum;
+  }
+
   public long getClosedSeqFileNum() {
     return closedSeqFileNum;
   }
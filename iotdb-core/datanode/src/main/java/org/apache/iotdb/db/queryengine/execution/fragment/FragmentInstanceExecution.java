@@ -175,6 +175,7 @@ public class FragmentInstanceExecution {
 
     statistics.setBlockQueuedTime(context.getBlockQueueTime());
     statistics.setReadyQueuedTime(context.getReadyQueueTime());
+    statistics.setRunningTime(context.getRunningTime());
 
     statistics.setInitDataQuerySourceCost(context.getInitQueryDataSourceCost());
 
@@ -19,11 +19,13 @@
 
 package org.apache.iotdb.db.queryengine.execution.operator.source;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.aggregation.TreeAggregator;
 import org.apache.iotdb.db.queryengine.execution.aggregation.timerangeiterator.ITimeRangeIterator;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.GroupByTimeParameter;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileRollup;
 
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
@@ -32,8 +34,10 @@ import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.utils.Pair;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -70,6 +74,12 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
   /** Some special data types(like BLOB) cannot use statistics. */
   protected final boolean canUseStatistics;
 
+  /** The parameter of the down sampling whose windows may be made of rollups, otherwise null. */
+  private final GroupByTimeParameter rollupGroupByTimeParameter;
+
+  /** The rollup buckets of the skipped files, which are not consumed by the windows yet. */
+  private final Deque<Statistics> pendingRollupBuckets = new ArrayDeque<>();
+
   @SuppressWarnings("squid:S107")
   protected AbstractSeriesAggregationScanOperator(
       PlanNodeId sourceId,
@@ -97,6 +107,16 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     this.maxReturnSize = maxReturnSize;
     this.outputEndTime = outputEndTime;
     this.canUseStatistics = canUseStatistics;
+    this.rollupGroupByTimeParameter =
+        canUseStatistics
+                && ascending
+                && groupByTimeParameter != null
+                && groupByTimeParameter.isLeftCRightO()
+                && !groupByTimeParameter.getInterval().containsMonth()
+                && !groupByTimeParameter.getSlidingStep().containsMonth()
+                && IoTDBDescriptor.getInstance().getConfig().getRollupIntervalInMs() > 0
+            ? groupByTimeParameter
+            : null;
   }
 
   @Override
@@ -171,6 +191,11 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
         return true;
       }
 
+      if (calcFromRollupBuckets()) {
+        updateResultTsBlock();
+        return true;
+      }
+
       if (readAndCalcFromPage()) {
         updateResultTsBlock();
         return true;
@@ -228,6 +253,36 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     return calcResult.getLeft();
   }
 
+  /**
+   * Consume the pending rollup buckets of the current window.
+   *
+   * @return true if the buckets after the current window remain, i.e. the window is done
+   */
+  private boolean calcFromRollupBuckets() {
+    while (!pendingRollupBuckets.isEmpty()) {
+      Statistics bucket = pendingRollupBuckets.peek();
+      if (bucket.getStartTime() > curTimeRange.getMax()) {
+        return true;
+      }
+      pendingRollupBuckets.poll();
+      // buckets before the window lie in the gap between two windows
+      if (bucket.getStartTime() >= curTimeRange.getMin()) {
+        calcFromStatistics(bucket, new Statistics[] {bucket});
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Whether every bucket of the rollups lies in one window, which holds if the windows start and
+   * end at multiples of the rollup interval.
+   */
+  private boolean isAlignedWithRollup(long rollupInterval) {
+    return rollupGroupByTimeParameter.getInterval().nonMonthDuration % rollupInterval == 0
+        && rollupGroupByTimeParameter.getSlidingStep().nonMonthDuration % rollupInterval == 0
+        && Math.floorMod(rollupGroupByTimeParameter.getStartTime(), rollupInterval) == 0;
+  }
+
   protected void calcFromStatistics(Statistics timeStatistics, Statistics[] valueStatistics) {
     for (TreeAggregator aggregator : aggregators) {
       if (aggregator.hasFinalResult()) {
@@ -267,6 +322,20 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
             continue;
           }
         }
+
+        // calc from the rollups if the file spans several windows
+        if (rollupGroupByTimeParameter != null) {
+          TsFileRollup.SeriesRollup rollup = seriesScanUtil.currentFileRollup();
+          if (rollup != null && isAlignedWithRollup(rollup.getInterval())) {
+            pendingRollupBuckets.addAll(rollup.getBuckets());
+            seriesScanUtil.skipCurrentFile();
+            if (calcFromRollupBuckets()) {
+              return true;
+            } else {
+              continue;
+            }
+          }
+        }
       }
 
       // read chunk
@@ -25,6 +25,7 @@ import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.SeriesScanOpt
 import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.AlignedDescPriorityMergeReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.AlignedPriorityMergeReader;
+import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.ColumnarPointReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.DescPriorityMergeReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.PriorityMergeReader;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
@@ -110,7 +111,7 @@ public class AlignedSeriesScanUtil extends SeriesScanUtil {
 
   @Override
   protected IPointReader getPointReader(TsBlock tsBlock) {
-    return tsBlock.getTsBlockAlignedRowIterator();
+    return new ColumnarPointReader(tsBlock, true);
   }
 
   @Override
@@ -90,6 +90,10 @@ public class FileLoaderUtils {
       TimeseriesMetadata timeSeriesMetadata;
       // If the tsfile is closed, we need to load from tsfile
       if (resource.isClosed()) {
+        if (definitelyNotContains(
+            resource, seriesPath.getDeviceId(), seriesPath.getMeasurement())) {
+          return null;
+        }
         // when resource.getTimeIndexType() == 1, TsFileResource.timeIndexType is deviceTimeIndex
         // we should not ignore the non-exist of device in TsFileMetadata
         timeSeriesMetadata =
@@ -124,6 +128,8 @@ public class FileLoaderUtils {
                 .getNonAlignedTimeSeriesMetadataModificationTime()
                 .getAndAdd(costTime);
           }
+        } else if (resource.hasSeriesPresenceFilter()) {
+          TimeSeriesMetadataCache.getInstance().recordSeriesPresenceFilterFalsePositive();
         }
       } else { // if the tsfile is unclosed, we just get it directly from TsFileResource
         loadFromMem = true;
@@ -269,6 +275,17 @@ public class FileLoaderUtils {
     String filePath = resource.getTsFilePath();
     IDeviceID deviceId = alignedPath.getDeviceId();
 
+    // the time column of an aligned device is the series with empty measurement
+    if (definitelyNotContains(resource, deviceId, "")) {
+      return null;
+    }
+    if (ignoreAllNullRows
+        && !valueMeasurementList.isEmpty()
+        && valueMeasurementList.stream()
+            .allMatch(measurement -> definitelyNotContains(resource, deviceId, measurement))) {
+      return null;
+    }
+
     // when resource.getTimeIndexType() == 1, TsFileResource.timeIndexType is deviceTimeIndex
     // we should not ignore the non-exist of device in TsFileMetadata
     TimeseriesMetadata timeColumn =
@@ -294,22 +311,21 @@ public class FileLoaderUtils {
                 globalTimeFilter,
                 false);
       } else {
+        // the cache misses of all the sub sensors are loaded together
         List<TimeseriesMetadata> valueTimeSeriesMetadataList =
-            new ArrayList<>(valueMeasurementList.size());
+            cache.get(
+                filePath,
+                resource.getTsFileID(),
+                deviceId,
+                valueMeasurementList,
+                allSensors,
+                resource.getTimeIndexType() == ITimeIndex.FILE_TIME_INDEX_TYPE,
+                isDebug,
+                context);
         // if all the queried aligned sensors does not exist, we will return null
         boolean exist = false;
-        for (String valueMeasurement : valueMeasurementList) {
-          TimeseriesMetadata valueColumn =
-              cache.get(
-                  filePath,
-                  new TimeSeriesMetadataCacheKey(
-                      resource.getTsFileID(), deviceId, valueMeasurement),
-                  allSensors,
-                  resource.getTimeIndexType() == ITimeIndex.FILE_TIME_INDEX_TYPE,
-                  isDebug,
-                  context);
+        for (TimeseriesMetadata valueColumn : valueTimeSeriesMetadataList) {
           exist = (exist || (valueColumn != null));
-          valueTimeSeriesMetadataList.add(valueColumn);
         }
         if (!ignoreAllNullRows || exist) {
           alignedTimeSeriesMetadata =
@@ -323,10 +339,26 @@ public class FileLoaderUtils {
                   ignoreAllNullRows);
         }
       }
+    } else if (resource.hasSeriesPresenceFilter()) {
+      cache.recordSeriesPresenceFilterFalsePositive();
     }
     return alignedTimeSeriesMetadata;
   }
 
+  /**
+   * Check the series presence filter of the sealed TsFile, so that the files which don't contain
+   * the series are skipped without reading any metadata.
+   */
+  private static boolean definitelyNotContains(
+      TsFileResource resource, IDeviceID deviceId, String measurement) {
+    if (!resource.hasSeriesPresenceFilter()) {
+      return false;
+    }
+    boolean notContains = resource.definitelyNotContains(deviceId, measurement);
+    TimeSeriesMetadataCache.getInstance().recordSeriesPresenceFilterResult(!notContains);
+    return notContains;
+  }
+
   private static AbstractAlignedTimeSeriesMetadata setModifications(
       TsFileResource resource,
       TimeseriesMetadata timeColumnMetadata,
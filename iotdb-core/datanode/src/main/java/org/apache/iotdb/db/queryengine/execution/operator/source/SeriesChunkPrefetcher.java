@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
+import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.DiskAlignedChunkLoader;
+import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.DiskChunkLoader;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.file.metadata.AlignedChunkMetadata;
+import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.read.controller.IChunkLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads the upcoming disk chunks of one {@link SeriesScanUtil} into the {@link ChunkCache} ahead of
+ * the consumer. Chunks are prefetched in the order their chunk metadata are unpacked, and at most
+ * {@code prefetchDepth} of them are prefetched but not consumed yet at any time. The chunks of the
+ * same file submitted together are read by one task in the order of their offsets, so that they
+ * are read sequentially instead of as scattered positional reads. All the prefetchers of a
+ * fragment instance together read at most {@link IoTDBConfig#getChunkPrefetchDepthPerQuery()}
+ * chunks at the same time, and nothing is read once the fragment instance is finished.
+ *
+ * <p>This class is not thread-safe, it is only used by the thread consuming the series.
+ */
+public class SeriesChunkPrefetcher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SeriesChunkPrefetcher.class);
+
+  private static class ExecutorHolder {
+
+    private static final ExecutorService EXECUTOR =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            IoTDBDescriptor.getInstance().getConfig().getChunkPrefetchThreadCount(),
+            ThreadName.QUERY_CHUNK_PREFETCH.getName());
+
+    private ExecutorHolder() {
+      // Empty constructor
+    }
+  }
+
+  private final FragmentInstanceContext context;
+  private final int prefetchDepth;
+  private final int queryPrefetchDepth =
+      IoTDBDescriptor.getInstance().getConfig().getChunkPrefetchDepthPerQuery();
+
+  private final Deque<IChunkMetadata> pendingChunkMetadata = new ArrayDeque<>();
+  // chunks prefetched but not consumed yet, the future is completed once the chunk is loaded
+  private final Map<IChunkMetadata, CompletableFuture<Void>> prefetchingChunks =
+      new IdentityHashMap<>();
+  // chunks consumed before being prefetched, which shall not be prefetched any more
+  private final Set<IChunkMetadata> consumedPendingChunks =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+
+  public SeriesChunkPrefetcher(FragmentInstanceContext context, int prefetchDepth) {
+    this.context = context;
+    this.prefetchDepth = prefetchDepth;
+  }
+
+  /** Called when the chunk metadata of a file are unpacked, in the order they are unpacked. */
+  public void addChunkMetadataList(List<IChunkMetadata> chunkMetadataList) {
+    for (IChunkMetadata chunkMetadata : chunkMetadataList) {
+      if (getTsFileResource(chunkMetadata) != null) {
+        pendingChunkMetadata.add(chunkMetadata);
+      }
+    }
+    prefetch();
+  }
+
+  /** Called when the chunk is loaded or skipped by the consumer. */
+  public void onChunkConsumed(IChunkMetadata chunkMetadata) {
+    CompletableFuture<Void> future = prefetchingChunks.remove(chunkMetadata);
+    if (future != null) {
+      ChunkCache.getInstance().recordPrefetchedChunkConsumed(future.isDone());
+      prefetch();
+    } else if (getTsFileResource(chunkMetadata) != null) {
+      consumedPendingChunks.add(chunkMetadata);
+      // the depth of the query may have been exhausted by other scans when it was added
+      prefetch();
+    }
+  }
+
+  private void prefetch() {
+    // the chunks are useless once the fragment instance is finished
+    if (pendingChunkMetadata.isEmpty() || context.getStateMachine().getState().isDone()) {
+      return;
+    }
+    Map<TsFileResource, List<IChunkMetadata>> chunkMetadataGroupedByFile = new LinkedHashMap<>();
+    int available = reserve(prefetchDepth - prefetchingChunks.size());
+    while (available > 0 && !pendingChunkMetadata.isEmpty()) {
+      IChunkMetadata chunkMetadata = pendingChunkMetadata.poll();
+      if (consumedPendingChunks.remove(chunkMetadata)) {
+        continue;
+      }
+      chunkMetadataGroupedByFile
+          .computeIfAbsent(getTsFileResource(chunkMetadata), k -> new ArrayList<>())
+          .add(chunkMetadata);
+      available--;
+    }
+    release(available);
+
+    for (Map.Entry<TsFileResource, List<IChunkMetadata>> entry :
+        chunkMetadataGroupedByFile.entrySet()) {
+      List<IChunkMetadata> chunkMetadataList = entry.getValue();
+      chunkMetadataList.sort(Comparator.comparingLong(IChunkMetadata::getOffsetOfChunkHeader));
+
+      List<CompletableFuture<Void>> futures = new ArrayList<>(chunkMetadataList.size());
+      for (IChunkMetadata chunkMetadata : chunkMetadataList) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        prefetchingChunks.put(chunkMetadata, future);
+        futures.add(future);
+      }
+      ExecutorHolder.EXECUTOR.submit(() -> load(entry.getKey(), chunkMetadataList, futures));
+    }
+  }
+
+  private void load(
+      TsFileResource resource,
+      List<IChunkMetadata> chunkMetadataList,
+      List<CompletableFuture<Void>> futures) {
+    try {
+      for (int i = 0; i < chunkMetadataList.size(); i++) {
+        if (context.getStateMachine().getState().isDone()) {
+          return;
+        }
+        for (long offset : getChunkHeaderOffsets(chunkMetadataList.get(i))) {
+          ChunkCache.getInstance()
+              .prefetch(
+                  new ChunkCache.ChunkCacheKey(
+                      resource.getTsFilePath(),
+                      resource.getTsFileID(),
+                      offset,
+                      resource.isClosed()),
+                  context);
+        }
+        futures.get(i).complete(null);
+      }
+    } catch (IOException | RuntimeException e) {
+      // the consumer will read the chunk again and report the error if there is any
+      LOGGER.debug("Failed to prefetch chunks of {}", resource.getTsFilePath(), e);
+    } finally {
+      release(chunkMetadataList.size());
+    }
+  }
+
+  /** Reserve at most the given number of chunks to read within the depth of the query. */
+  private int reserve(int chunkNum) {
+    if (queryPrefetchDepth <= 0 || chunkNum <= 0) {
+      return chunkNum;
+    }
+    AtomicInteger prefetchingChunkNum = context.getPrefetchingChunkNum();
+    while (true) {
+      int current = prefetchingChunkNum.get();
+      int reserved = Math.min(chunkNum, queryPrefetchDepth - current);
+      if (reserved <= 0) {
+        return 0;
+      }
+      if (prefetchingChunkNum.compareAndSet(current, current + reserved)) {
+        return reserved;
+      }
+    }
+  }
+
+  private void release(int chunkNum) {
+    if (queryPrefetchDepth > 0 && chunkNum > 0) {
+      context.getPrefetchingChunkNum().addAndGet(-chunkNum);
+    }
+  }
+
+  private static List<Long> getChunkHeaderOffsets(IChunkMetadata chunkMetadata) {
+    if (!(chunkMetadata instanceof AlignedChunkMetadata)) {
+      return Collections.singletonList(chunkMetadata.getOffsetOfChunkHeader());
+    }
+
+    AlignedChunkMetadata alignedChunkMetadata = (AlignedChunkMetadata) chunkMetadata;
+    List<Long> offsets = new ArrayList<>();
+    offsets.add(alignedChunkMetadata.getTimeChunkMetadata().getOffsetOfChunkHeader());
+    for (IChunkMetadata valueChunkMetadata : alignedChunkMetadata.getValueChunkMetadataList()) {
+      if (valueChunkMetadata != null) {
+        offsets.add(valueChunkMetadata.getOffsetOfChunkHeader());
+      }
+    }
+    return offsets;
+  }
+
+  private static TsFileResource getTsFileResource(IChunkMetadata chunkMetadata) {
+    IChunkLoader chunkLoader = chunkMetadata.getChunkLoader();
+    if (chunkLoader instanceof DiskChunkLoader) {
+      return ((DiskChunkLoader) chunkLoader).getTsFileResource();
+    } else if (chunkLoader instanceof DiskAlignedChunkLoader) {
+      return ((DiskAlignedChunkLoader) chunkLoader).getTsFileResource();
+    } else {
+      // chunks in memory need no prefetching
+      return null;
+    }
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.iotdb.db.queryengine.execution.operator.source;
 
 import org.apache.iotdb.commons.path.IFullPath;
 import org.apache.iotdb.commons.path.NonAlignedFullPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
@@ -30,10 +31,12 @@ import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.MemAlignedPageReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.MemPageReader;
+import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.ColumnarPointReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.DescPriorityMergeReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.MergeReaderPriority;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.PriorityMergeReader;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileRollup;
 
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
@@ -60,8 +63,10 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.PriorityQueue;
@@ -95,10 +100,17 @@ public class SeriesScanUtil implements Accountable {
   private ITimeSeriesMetadata firstTimeSeriesMetadata;
   private final List<ITimeSeriesMetadata> seqTimeSeriesMetadata;
   private final PriorityQueue<ITimeSeriesMetadata> unSeqTimeSeriesMetadata;
+  // the files of the cached sequence TimeSeriesMetadata, only recorded if rollups may be read
+  private final Map<ITimeSeriesMetadata, TsFileResource> seqFileResources =
+      new IdentityHashMap<>();
+  private final boolean recordSeqFileResources =
+      IoTDBDescriptor.getInstance().getConfig().getRollupIntervalInMs() > 0;
 
   // chunk cache
   private IChunkMetadata firstChunkMetadata;
   private final PriorityQueue<IChunkMetadata> cachedChunkMetadata;
+  // null if the chunks are not prefetched
+  private final SeriesChunkPrefetcher chunkPrefetcher;
 
   // page cache
   private VersionPageReader firstPageReader;
@@ -161,6 +173,11 @@ public class SeriesScanUtil implements Accountable {
             orderUtils.comparingLong(
                 chunkMetadata -> orderUtils.getOrderTime(chunkMetadata.getStatistics())));
 
+    this.chunkPrefetcher =
+        scanOptions.getChunkPrefetchDepth() > 0
+            ? new SeriesChunkPrefetcher(context, scanOptions.getChunkPrefetchDepth())
+            : null;
+
     // init PageReader materializer
     this.seqPageReaders = new LinkedList<>();
     this.unSeqPageReaders =
@@ -283,7 +300,31 @@ public class SeriesScanUtil implements Accountable {
     return firstTimeSeriesMetadata.getMeasurementStatistics(index).orElse(null);
   }
 
+  /**
+   * Returns the rollups of the current file, or null if the file has no rollups matching its
+   * statistics. Only the closed sequence files of non-aligned series have rollups.
+   */
+  public TsFileRollup.SeriesRollup currentFileRollup() throws IOException {
+    checkState(firstTimeSeriesMetadata != null, "no first file");
+
+    TsFileResource resource = seqFileResources.get(firstTimeSeriesMetadata);
+    if (resource == null || !resource.isClosed() || resource.anyModFileExists()) {
+      return null;
+    }
+    TsFileRollup.SeriesRollup rollup =
+        TsFileRollup.read(
+            resource.getTsFile(),
+            deviceID,
+            ((NonAlignedFullPath) seriesPath).getMeasurement(),
+            dataType);
+    // the rollups are stale if the data of the file is dropped, e.g. by ttl during compaction
+    return rollup != null && rollup.getCount() == firstTimeSeriesMetadata.getStatistics().getCount()
+        ? rollup
+        : null;
+  }
+
   public void skipCurrentFile() {
+    seqFileResources.remove(firstTimeSeriesMetadata);
     firstTimeSeriesMetadata = null;
   }
 
@@ -408,11 +449,15 @@ public class SeriesScanUtil implements Accountable {
   }
 
   protected void unpackOneTimeSeriesMetadata(ITimeSeriesMetadata timeSeriesMetadata) {
+    seqFileResources.remove(timeSeriesMetadata);
     List<IChunkMetadata> chunkMetadataList =
         FileLoaderUtils.loadChunkMetadataList(timeSeriesMetadata);
     chunkMetadataList.forEach(chunkMetadata -> chunkMetadata.setSeq(timeSeriesMetadata.isSeq()));
 
     cachedChunkMetadata.addAll(chunkMetadataList);
+    if (chunkPrefetcher != null) {
+      chunkPrefetcher.addChunkMetadataList(chunkMetadataList);
+    }
   }
 
   private boolean currentChunkOverlapped() {
@@ -442,6 +487,9 @@ public class SeriesScanUtil implements Accountable {
   }
 
   public void skipCurrentChunk() {
+    if (chunkPrefetcher != null) {
+      chunkPrefetcher.onChunkConsumed(firstChunkMetadata);
+    }
     firstChunkMetadata = null;
   }
 
@@ -576,6 +624,9 @@ public class SeriesScanUtil implements Accountable {
   }
 
   private void unpackOneChunkMetaData(IChunkMetadata chunkMetaData) throws IOException {
+    if (chunkPrefetcher != null) {
+      chunkPrefetcher.onChunkConsumed(chunkMetaData);
+    }
     List<IPageReader> pageReaderList =
         FileLoaderUtils.loadPageReaderList(chunkMetaData, scanOptions.getGlobalTimeFilter());
     long timestampInFileName = FileLoaderUtils.getTimestampInFileName(chunkMetaData);
@@ -868,9 +919,13 @@ public class SeriesScanUtil implements Accountable {
               }
             }
 
-            // get the latest first point in mergeReader
-            timeValuePair = mergeReader.nextTimeValuePair();
-            addTimeValuePairToResult(timeValuePair, builder);
+            // get the latest first point in mergeReader, together with the following points of
+            // the same page till any other data may come in between
+            final long endPointTime = currentPageEndPointTime;
+            if (mergeReader.nextRun(builder, () -> getRunEndTime(endPointTime)) == 0) {
+              timeValuePair = mergeReader.nextTimeValuePair();
+              addTimeValuePairToResult(timeValuePair, builder);
+            }
           }
           hasCachedNextOverlappedPage = !builder.isEmpty();
           cachedTsBlock = builder.build();
@@ -896,6 +951,62 @@ public class SeriesScanUtil implements Accountable {
     }
   }
 
+  /**
+   * Get the time till which the points in mergeReader can be merged without the checks for each of
+   * them in {@link #hasNextOverlappedPage()}: no TsFile, TimeSeriesMetadata, ChunkMetadata or page
+   * outside mergeReader overlaps with them, and they don't excess the current page end point.
+   */
+  private long getRunEndTime(long currentPageEndPointTime) {
+    long runEndTime = currentPageEndPointTime;
+    if (orderUtils.hasNextUnseqResource()) {
+      runEndTime =
+          getRunEndTimeBefore(runEndTime, dataSource.getCurrentUnSeqOrderTime(curUnseqFileIndex));
+    }
+    if (orderUtils.hasNextSeqResource()) {
+      runEndTime =
+          getRunEndTimeBefore(runEndTime, dataSource.getCurrentSeqOrderTime(curSeqFileIndex));
+    }
+    if (!seqTimeSeriesMetadata.isEmpty()) {
+      runEndTime = getRunEndTimeBefore(runEndTime, seqTimeSeriesMetadata.get(0).getStatistics());
+    }
+    if (!unSeqTimeSeriesMetadata.isEmpty()) {
+      runEndTime = getRunEndTimeBefore(runEndTime, unSeqTimeSeriesMetadata.peek().getStatistics());
+    }
+    if (firstTimeSeriesMetadata != null) {
+      runEndTime = getRunEndTimeBefore(runEndTime, firstTimeSeriesMetadata.getStatistics());
+    }
+    if (firstChunkMetadata != null) {
+      runEndTime = getRunEndTimeBefore(runEndTime, firstChunkMetadata.getStatistics());
+    }
+    if (!cachedChunkMetadata.isEmpty()) {
+      runEndTime = getRunEndTimeBefore(runEndTime, cachedChunkMetadata.peek().getStatistics());
+    }
+    if (firstPageReader != null) {
+      runEndTime = getRunEndTimeBefore(runEndTime, firstPageReader.getStatistics());
+    }
+    if (!seqPageReaders.isEmpty()) {
+      runEndTime = getRunEndTimeBefore(runEndTime, seqPageReaders.get(0).getStatistics());
+    }
+    if (!unSeqPageReaders.isEmpty()) {
+      runEndTime = getRunEndTimeBefore(runEndTime, unSeqPageReaders.peek().getStatistics());
+    }
+    return runEndTime;
+  }
+
+  @SuppressWarnings("squid:S3740")
+  private long getRunEndTimeBefore(long runEndTime, Statistics statistics) {
+    return getRunEndTimeBefore(runEndTime, orderUtils.getOrderTime(statistics));
+  }
+
+  /** The run must end before the data starting from the order time, which overlaps with it. */
+  private long getRunEndTimeBefore(long runEndTime, long orderTime) {
+    if (orderUtils.getAscending()) {
+      return Math.min(runEndTime, orderTime == Long.MIN_VALUE ? orderTime : orderTime - 1);
+    } else {
+      return Math.max(runEndTime, orderTime == Long.MAX_VALUE ? orderTime : orderTime + 1);
+    }
+  }
+
   private long updateEndPointTime(long currentPageEndPointTime, VersionPageReader pageReader) {
     if (orderUtils.getAscending()) {
       return Math.min(currentPageEndPointTime, pageReader.getStatistics().getEndTime());
@@ -1171,12 +1282,15 @@ public class SeriesScanUtil implements Accountable {
   }
 
   private Optional<ITimeSeriesMetadata> unpackSeqTsFileResource() throws IOException {
-    ITimeSeriesMetadata timeseriesMetadata =
-        loadTimeSeriesMetadata(orderUtils.getNextSeqFileResource(true), true);
+    TsFileResource resource = orderUtils.getNextSeqFileResource(true);
+    ITimeSeriesMetadata timeseriesMetadata = loadTimeSeriesMetadata(resource, true);
     // skip if data type is mismatched which may be caused by delete
     if (timeseriesMetadata != null && timeseriesMetadata.typeMatch(getTsDataTypeList())) {
       timeseriesMetadata.setSeq(true);
       seqTimeSeriesMetadata.add(timeseriesMetadata);
+      if (recordSeqFileResources && !isAligned) {
+        seqFileResources.put(timeseriesMetadata, resource);
+      }
       return Optional.of(timeseriesMetadata);
     } else {
       return Optional.empty();
@@ -1209,7 +1323,7 @@ public class SeriesScanUtil implements Accountable {
   }
 
   protected IPointReader getPointReader(TsBlock tsBlock) {
-    return tsBlock.getTsBlockSingleColumnIterator();
+    return new ColumnarPointReader(tsBlock, false);
   }
 
   protected boolean timeAllSelected(IMetadata metadata) {
@@ -20,9 +20,14 @@
 package org.apache.iotdb.db.queryengine.execution.operator.source.relational;
 
 import org.apache.iotdb.commons.schema.table.InformationSchema;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.protocol.session.IClientSession;
+import org.apache.iotdb.db.queryengine.execution.schedule.DriverScheduler;
+import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTask;
 import org.apache.iotdb.db.queryengine.plan.Coordinator;
 import org.apache.iotdb.db.queryengine.plan.execution.IQueryExecution;
+import org.apache.iotdb.db.queryengine.statistics.QueryProfile;
+import org.apache.iotdb.db.queryengine.statistics.QueryProfileManager;
 
 import org.apache.tsfile.block.column.ColumnBuilder;
 import org.apache.tsfile.enums.TSDataType;
@@ -87,6 +92,104 @@ public class InformationSchemaContentSupplierFactory {
         }
       };
 
+    } else if (tableName.equals(InformationSchema.QUERY_PROFILES)) {
+      return new Iterator<TsBlock>() {
+        private final TsBlockBuilder resultBuilder = new TsBlockBuilder(dataTypes);
+        private final ColumnBuilder[] columnBuilders = resultBuilder.getValueColumnBuilders();
+
+        private final List<QueryProfile> profiles =
+            QueryProfileManager.getInstance().getAllProfiles();
+
+        private final int totalSize = profiles.size();
+        private int nextConsumedIndex;
+
+        @Override
+        public boolean hasNext() {
+          return nextConsumedIndex < totalSize;
+        }
+
+        @Override
+        public TsBlock next() {
+          while (nextConsumedIndex < totalSize && !resultBuilder.isFull()) {
+            QueryProfile profile = profiles.get(nextConsumedIndex);
+
+            columnBuilders[0].writeBinary(BytesUtils.valueOf(profile.getQueryId()));
+            columnBuilders[1].writeInt(profile.getDataNodeId());
+            columnBuilders[2].writeInt(profile.getFragmentInstanceNum());
+            columnBuilders[3].writeLong(profile.getStartTime());
+            columnBuilders[4].writeFloat((float) profile.getElapsedTimeInMs() / 1000);
+            columnBuilders[5].writeFloat((float) profile.getCpuTimeInNanos() / 1_000_000_000);
+            columnBuilders[6].writeLong(profile.getReadBytes());
+            columnBuilders[7].writeLong(profile.getDiskChunkNum());
+            columnBuilders[8].writeLong(profile.getChunkCacheHitNum());
+            columnBuilders[9].writeLong(profile.getTimeSeriesMetadataCacheHitNum());
+            columnBuilders[10].writeLong(profile.getBloomFilterCacheHitNum());
+            columnBuilders[11].writeLong(profile.getDecodedPageNum());
+            columnBuilders[12].writeLong(profile.getPeakMemoryInBytes());
+            resultBuilder.declarePosition();
+            nextConsumedIndex++;
+          }
+          TsBlock result =
+              resultBuilder.build(
+                  new RunLengthEncodedColumn(
+                      TableScanOperator.TIME_COLUMN_TEMPLATE, resultBuilder.getPositionCount()));
+          resultBuilder.reset();
+          return result;
+        }
+      };
+
+    } else if (tableName.equals(InformationSchema.DRIVER_TASKS)) {
+      return new Iterator<TsBlock>() {
+        private final TsBlockBuilder resultBuilder = new TsBlockBuilder(dataTypes);
+        private final ColumnBuilder[] columnBuilders = resultBuilder.getValueColumnBuilders();
+
+        private final List<DriverTask> driverTasks =
+            DriverScheduler.getInstance().getAllDriverTasks();
+
+        private final int dataNodeId = IoTDBDescriptor.getInstance().getConfig().getDataNodeId();
+
+        private final int totalSize = driverTasks.size();
+        private int nextConsumedIndex;
+
+        @Override
+        public boolean hasNext() {
+          return nextConsumedIndex < totalSize;
+        }
+
+        @Override
+        public TsBlock next() {
+          while (nextConsumedIndex < totalSize && !resultBuilder.isFull()) {
+            DriverTask driverTask = driverTasks.get(nextConsumedIndex);
+
+            columnBuilders[0].writeBinary(
+                BytesUtils.valueOf(driverTask.getDriverTaskId().getQueryId().getId()));
+            columnBuilders[1].writeBinary(
+                BytesUtils.valueOf(driverTask.getDriverTaskId().getFullId()));
+            columnBuilders[2].writeInt(dataNodeId);
+            columnBuilders[3].writeBinary(BytesUtils.valueOf(driverTask.getStatus().toString()));
+            columnBuilders[4].writeBinary(
+                BytesUtils.valueOf(
+                    driverTask.isHighestPriority()
+                        ? "highest"
+                        : String.valueOf(driverTask.getPriority().getLevel())));
+            columnBuilders[5].writeFloat(
+                (float) driverTask.getScheduledTimeInNanos() / 1_000_000_000);
+            columnBuilders[6].writeFloat(
+                (float) driverTask.getReadyQueuedTimeInNanos() / 1_000_000_000);
+            columnBuilders[7].writeFloat(
+                (float) driverTask.getBlockQueuedTimeInNanos() / 1_000_000_000);
+            resultBuilder.declarePosition();
+            nextConsumedIndex++;
+          }
+          TsBlock result =
+              resultBuilder.build(
+                  new RunLengthEncodedColumn(
+                      TableScanOperator.TIME_COLUMN_TEMPLATE, resultBuilder.getPositionCount()));
+          resultBuilder.reset();
+          return result;
+        }
+      };
+
     } else {
       throw new UnsupportedOperationException("Unknown table: " + tableName);
     }
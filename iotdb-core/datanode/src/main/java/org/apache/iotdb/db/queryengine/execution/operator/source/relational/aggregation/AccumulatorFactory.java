@@ -24,6 +24,8 @@ import org.apache.iotdb.commons.udf.utils.TableUDFUtils;
 import org.apache.iotdb.commons.udf.utils.UDFDataTypeTransformer;
 import org.apache.iotdb.db.queryengine.execution.aggregation.VarianceAccumulator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedAccumulator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedApproxCountDistinctAccumulator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedApproxPercentileAccumulator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedAvgAccumulator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedCountAccumulator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedExtremeAccumulator;
@@ -225,6 +227,10 @@ public class AccumulatorFactory {
         return new GroupedMinByAccumulator(inputDataTypes.get(0), inputDataTypes.get(1));
       case MODE:
         return new GroupedModeAccumulator(inputDataTypes.get(0));
+      case APPROX_COUNT_DISTINCT:
+        return new GroupedApproxCountDistinctAccumulator(inputDataTypes.get(0));
+      case APPROX_PERCENTILE:
+        return new GroupedApproxPercentileAccumulator(inputDataTypes.get(0));
       case STDDEV:
       case STDDEV_SAMP:
         return new GroupedVarianceAccumulator(
@@ -286,6 +292,10 @@ public class AccumulatorFactory {
         return new ExtremeAccumulator(inputDataTypes.get(0));
       case MODE:
         return new TableModeAccumulator(inputDataTypes.get(0));
+      case APPROX_COUNT_DISTINCT:
+        return new TableApproxCountDistinctAccumulator(inputDataTypes.get(0));
+      case APPROX_PERCENTILE:
+        return new TableApproxPercentileAccumulator(inputDataTypes.get(0));
       case STDDEV:
       case STDDEV_SAMP:
         return new TableVarianceAccumulator(
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation;
+
+import org.apache.iotdb.db.exception.sql.SemanticException;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.TDigest;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.tsfile.read.common.block.column.BinaryColumnBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BytesUtils;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.write.UnSupportedDataTypeException;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.Utils.UNSUPPORTED_TYPE_MESSAGE;
+
+public class TableApproxPercentileAccumulator implements TableAccumulator {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(TableApproxPercentileAccumulator.class);
+  private final TSDataType seriesDataType;
+
+  private final TDigest digest = new TDigest();
+  // the percentile is a constant argument, it is NaN until the first row is seen
+  private double percentile = Double.NaN;
+
+  public TableApproxPercentileAccumulator(TSDataType seriesDataType) {
+    this.seriesDataType = seriesDataType;
+  }
+
+  @Override
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE + digest.getEstimatedSize();
+  }
+
+  @Override
+  public TableAccumulator copy() {
+    return new TableApproxPercentileAccumulator(seriesDataType);
+  }
+
+  @Override
+  public void addInput(Column[] arguments, AggregationMask mask) {
+    Column column = arguments[0];
+    int positionCount = mask.getSelectedPositionCount();
+
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < positionCount; i++) {
+        if (!column.isNull(i)) {
+          percentile = checkPercentile(percentile, arguments[1], i);
+          digest.add(getDoubleValue(seriesDataType, column, i));
+        }
+      }
+    } else {
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!column.isNull(position)) {
+          percentile = checkPercentile(percentile, arguments[1], position);
+          digest.add(getDoubleValue(seriesDataType, column, position));
+        }
+      }
+    }
+  }
+
+  @Override
+  public void addIntermediate(Column argument) {
+    checkArgument(
+        argument instanceof BinaryColumn
+            || (argument instanceof RunLengthEncodedColumn
+                && ((RunLengthEncodedColumn) argument).getValue() instanceof BinaryColumn),
+        "intermediate input and output of ApproxPercentile should be BinaryColumn");
+
+    for (int i = 0; i < argument.getPositionCount(); i++) {
+      if (argument.isNull(i)) {
+        continue;
+      }
+
+      byte[] bytes = argument.getBinary(i).getValues();
+      percentile = BytesUtils.bytesToDouble(bytes, 0);
+      digest.merge(TDigest.deserialize(Arrays.copyOfRange(bytes, Double.BYTES, bytes.length)));
+    }
+  }
+
+  @Override
+  public void evaluateIntermediate(ColumnBuilder columnBuilder) {
+    checkArgument(
+        columnBuilder instanceof BinaryColumnBuilder,
+        "intermediate input and output of ApproxPercentile should be BinaryColumn");
+
+    if (digest.isEmpty()) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeBinary(new Binary(serialize(percentile, digest)));
+    }
+  }
+
+  @Override
+  public void evaluateFinal(ColumnBuilder columnBuilder) {
+    if (digest.isEmpty()) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeDouble(digest.quantile(percentile));
+    }
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  @Override
+  public void addStatistics(Statistics[] statistics) {
+    throw new UnsupportedOperationException(getClass().getName());
+  }
+
+  @Override
+  public void reset() {
+    digest.reset();
+    percentile = Double.NaN;
+  }
+
+  public static double getDoubleValue(TSDataType dataType, Column column, int position) {
+    switch (dataType) {
+      case INT32:
+        return column.getInt(position);
+      case INT64:
+        return column.getLong(position);
+      case FLOAT:
+        return column.getFloat(position);
+      case DOUBLE:
+        return column.getDouble(position);
+      default:
+        throw new UnSupportedDataTypeException(String.format(UNSUPPORTED_TYPE_MESSAGE, dataType));
+    }
+  }
+
+  /** Returns the percentile at the position, which should be the same as the previous one. */
+  public static double checkPercentile(double previous, Column percentileColumn, int position) {
+    if (percentileColumn.isNull(position)) {
+      throw new SemanticException("percentile of approx_percentile should not be null");
+    }
+    double percentile = percentileColumn.getDouble(position);
+    if (percentile == previous) {
+      return percentile;
+    }
+    if (!Double.isNaN(previous)) {
+      throw new SemanticException("percentile of approx_percentile should be a constant");
+    }
+    if (percentile < 0 || percentile > 1) {
+      throw new SemanticException("percentile of approx_percentile should be in [0, 1]");
+    }
+    return percentile;
+  }
+
+  // percentile | digest
+  public static byte[] serialize(double percentile, TDigest digest) {
+    byte[] digestBytes = digest.serialize();
+    byte[] bytes = new byte[Double.BYTES + digestBytes.length];
+    BytesUtils.doubleToBytes(percentile, bytes, 0);
+    System.arraycopy(digestBytes, 0, bytes, Double.BYTES, digestBytes.length);
+    return bytes;
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A dense HyperLogLog sketch estimating the number of distinct values it has seen. Values are added
+ * as 64-bit hashes, the first {@code precision} bits of a hash choose the register and the position
+ * of the first set bit in the rest is kept in it. Two sketches of the same precision are merged by
+ * taking the maximum of every register, so the sketch can be used as the intermediate state of
+ * partial aggregations.
+ */
+public class HyperLogLog {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(HyperLogLog.class);
+
+  public static final int DEFAULT_PRECISION = 11;
+
+  private static final HashFunction BINARY_HASH_FUNCTION = Hashing.murmur3_128();
+
+  private final int precision;
+  private final byte[] registers;
+
+  public HyperLogLog() {
+    this(DEFAULT_PRECISION);
+  }
+
+  public HyperLogLog(int precision) {
+    checkArgument(
+        precision >= 4 && precision <= 16, "precision of HyperLogLog should be in [4, 16]");
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  private HyperLogLog(int precision, byte[] registers) {
+    this.precision = precision;
+    this.registers = registers;
+  }
+
+  public static long hash(long value) {
+    // the finalization mix of MurmurHash3
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+
+  public static long hash(double value) {
+    // +0.0 and -0.0 are the same value
+    return hash(Double.doubleToLongBits(value == 0.0d ? 0.0d : value));
+  }
+
+  public static long hash(Binary value) {
+    return BINARY_HASH_FUNCTION.hashBytes(value.getValues()).asLong();
+  }
+
+  public void add(long hash) {
+    int index = (int) (hash >>> (Long.SIZE - precision));
+    // the rest bits are shifted to the top, the lowest bit is set to bound the rank
+    long rest = (hash << precision) | (1L << (precision - 1));
+    byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+    if (rank > registers[index]) {
+      registers[index] = rank;
+    }
+  }
+
+  public void merge(HyperLogLog other) {
+    checkArgument(
+        precision == other.precision,
+        "HyperLogLog of precision %s can not be merged into one of precision %s",
+        other.precision,
+        precision);
+    for (int i = 0; i < registers.length; i++) {
+      if (other.registers[i] > registers[i]) {
+        registers[i] = other.registers[i];
+      }
+    }
+  }
+
+  public long cardinality() {
+    int registerCount = registers.length;
+    double sum = 0;
+    int zeroCount = 0;
+    for (byte register : registers) {
+      sum += 1.0d / (1L << register);
+      if (register == 0) {
+        zeroCount++;
+      }
+    }
+
+    double estimate = alpha(registerCount) * registerCount * registerCount / sum;
+    if (estimate <= 2.5d * registerCount && zeroCount > 0) {
+      // linear counting is more accurate for small cardinalities
+      estimate = registerCount * Math.log((double) registerCount / zeroCount);
+    }
+    return Math.round(estimate);
+  }
+
+  private static double alpha(int registerCount) {
+    switch (registerCount) {
+      case 16:
+        return 0.673d;
+      case 32:
+        return 0.697d;
+      case 64:
+        return 0.709d;
+      default:
+        return 0.7213d / (1 + 1.079d / registerCount);
+    }
+  }
+
+  public boolean isEmpty() {
+    for (byte register : registers) {
+      if (register != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public void reset() {
+    Arrays.fill(registers, (byte) 0);
+  }
+
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE + RamUsageEstimator.sizeOf(registers);
+  }
+
+  // precision | registers
+  public byte[] serialize() {
+    byte[] bytes = new byte[1 + registers.length];
+    bytes[0] = (byte) precision;
+    System.arraycopy(registers, 0, bytes, 1, registers.length);
+    return bytes;
+  }
+
+  public static HyperLogLog deserialize(byte[] bytes) {
+    int precision = bytes[0];
+    checkArgument(
+        bytes.length == 1 + (1 << precision),
+        "Invalid serialized HyperLogLog of %s bytes",
+        bytes.length);
+    return new HyperLogLog(precision, Arrays.copyOfRange(bytes, 1, bytes.length));
+  }
+}
@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate;
+
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A merging t-digest estimating the quantiles of the values it has seen. Values are buffered and
+ * periodically merged into a sorted list of centroids, whose sizes are bounded by the k1 scale
+ * function so that the centroids near the tails are small and the estimates of extreme quantiles
+ * such as p99 stay accurate. Two digests are merged by feeding the centroids of one into the
+ * buffer of the other, so the digest can be used as the intermediate state of partial
+ * aggregations.
+ */
+public class TDigest {
+
+  private static final long INSTANCE_SIZE = RamUsageEstimator.shallowSizeOfInstance(TDigest.class);
+
+  public static final double DEFAULT_COMPRESSION = 100;
+
+  private final double compression;
+
+  private double[] means;
+  private double[] weights;
+  private int centroidCount;
+
+  private final double[] bufferMeans;
+  private final double[] bufferWeights;
+  private int bufferCount;
+
+  private double totalWeight;
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  public TDigest() {
+    this(DEFAULT_COMPRESSION);
+  }
+
+  public TDigest(double compression) {
+    checkArgument(compression >= 10, "compression of TDigest should not be less than 10");
+    this.compression = compression;
+    int centroidCapacity = 2 * (int) Math.ceil(compression) + 10;
+    this.means = new double[centroidCapacity];
+    this.weights = new double[centroidCapacity];
+    int bufferCapacity = 5 * (int) Math.ceil(compression);
+    this.bufferMeans = new double[bufferCapacity];
+    this.bufferWeights = new double[bufferCapacity];
+  }
+
+  public void add(double value) {
+    add(value, 1);
+  }
+
+  private void add(double mean, double weight) {
+    if (Double.isNaN(mean)) {
+      return;
+    }
+    if (bufferCount == bufferMeans.length) {
+      compress();
+    }
+    bufferMeans[bufferCount] = mean;
+    bufferWeights[bufferCount] = weight;
+    bufferCount++;
+    totalWeight += weight;
+    min = Math.min(min, mean);
+    max = Math.max(max, mean);
+  }
+
+  public void merge(TDigest other) {
+    other.compress();
+    for (int i = 0; i < other.centroidCount; i++) {
+      add(other.means[i], other.weights[i]);
+    }
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  /** Returns the estimated value at the given quantile, NaN if no value is added. */
+  public double quantile(double quantile) {
+    checkArgument(quantile >= 0 && quantile <= 1, "quantile should be in [0, 1]");
+    compress();
+    if (centroidCount == 0) {
+      return Double.NaN;
+    }
+    if (centroidCount == 1) {
+      return means[0];
+    }
+    if (quantile == 0) {
+      return min;
+    }
+    if (quantile == 1) {
+      return max;
+    }
+
+    double index = quantile * totalWeight;
+    // the first and the last half centroids are interpolated with the min and the max
+    if (index < weights[0] / 2) {
+      return min + (means[0] - min) * index / (weights[0] / 2);
+    }
+    int last = centroidCount - 1;
+    if (index > totalWeight - weights[last] / 2) {
+      double lastHalf = weights[last] / 2;
+      return means[last] + (max - means[last]) * (index - (totalWeight - lastHalf)) / lastHalf;
+    }
+
+    double weightSoFar = weights[0] / 2;
+    for (int i = 0; i < last; i++) {
+      double deltaWeight = (weights[i] + weights[i + 1]) / 2;
+      if (weightSoFar + deltaWeight > index) {
+        double leftDistance = index - weightSoFar;
+        double rightDistance = weightSoFar + deltaWeight - index;
+        return (means[i] * rightDistance + means[i + 1] * leftDistance) / deltaWeight;
+      }
+      weightSoFar += deltaWeight;
+    }
+    return means[last];
+  }
+
+  public boolean isEmpty() {
+    return totalWeight == 0;
+  }
+
+  public void reset() {
+    centroidCount = 0;
+    bufferCount = 0;
+    totalWeight = 0;
+    min = Double.POSITIVE_INFINITY;
+    max = Double.NEGATIVE_INFINITY;
+  }
+
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE
+        + RamUsageEstimator.sizeOf(means)
+        + RamUsageEstimator.sizeOf(weights)
+        + RamUsageEstimator.sizeOf(bufferMeans)
+        + RamUsageEstimator.sizeOf(bufferWeights);
+  }
+
+  /** Merges the buffered values into the centroids. */
+  private void compress() {
+    if (bufferCount == 0) {
+      return;
+    }
+    sort(bufferMeans, bufferWeights, 0, bufferCount - 1);
+
+    // merge the sorted centroids and the sorted buffer
+    int count = centroidCount + bufferCount;
+    double[] sortedMeans = new double[count];
+    double[] sortedWeights = new double[count];
+    int i = 0;
+    int j = 0;
+    for (int k = 0; k < count; k++) {
+      if (j == bufferCount || (i < centroidCount && means[i] <= bufferMeans[j])) {
+        sortedMeans[k] = means[i];
+        sortedWeights[k] = weights[i++];
+      } else {
+        sortedMeans[k] = bufferMeans[j];
+        sortedWeights[k] = bufferWeights[j++];
+      }
+    }
+
+    centroidCount = 0;
+    bufferCount = 0;
+    double currentMean = sortedMeans[0];
+    double currentWeight = sortedWeights[0];
+    double weightSoFar = 0;
+    double weightLimit = totalWeight * quantileOfScale(scaleOfQuantile(0) + 1);
+    for (int k = 1; k < count; k++) {
+      if (weightSoFar + currentWeight + sortedWeights[k] <= weightLimit) {
+        currentWeight += sortedWeights[k];
+        currentMean += (sortedMeans[k] - currentMean) * sortedWeights[k] / currentWeight;
+      } else {
+        weightSoFar += currentWeight;
+        appendCentroid(currentMean, currentWeight);
+        weightLimit =
+            totalWeight * quantileOfScale(scaleOfQuantile(weightSoFar / totalWeight) + 1);
+        currentMean = sortedMeans[k];
+        currentWeight = sortedWeights[k];
+      }
+    }
+    appendCentroid(currentMean, currentWeight);
+  }
+
+  private void appendCentroid(double mean, double weight) {
+    if (centroidCount == means.length) {
+      means = Arrays.copyOf(means, centroidCount * 2);
+      weights = Arrays.copyOf(weights, centroidCount * 2);
+    }
+    means[centroidCount] = mean;
+    weights[centroidCount] = weight;
+    centroidCount++;
+  }
+
+  // the k1 scale function, k(q) = compression / (2 * PI) * asin(2q - 1)
+  private double scaleOfQuantile(double quantile) {
+    return compression / (2 * Math.PI) * Math.asin(2 * quantile - 1);
+  }
+
+  private double quantileOfScale(double scale) {
+    if (scale >= compression / 4) {
+      return 1;
+    }
+    return (Math.sin(scale * 2 * Math.PI / compression) + 1) / 2;
+  }
+
+  private static void sort(double[] keys, double[] values, int from, int to) {
+    while (from < to) {
+      double pivot = keys[(from + to) >>> 1];
+      int i = from;
+      int j = to;
+      while (i <= j) {
+        while (keys[i] < pivot) {
+          i++;
+        }
+        while (keys[j] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          swap(keys, i, j);
+          swap(values, i, j);
+          i++;
+          j--;
+        }
+      }
+      // recurse into the smaller part to bound the stack depth
+      if (j - from < to - i) {
+        sort(keys, values, from, j);
+        from = i;
+      } else {
+        sort(keys, values, i, to);
+        to = j;
+      }
+    }
+  }
+
+  private static void swap(double[] array, int i, int j) {
+    double temp = array[i];
+    array[i] = array[j];
+    array[j] = temp;
+  }
+
+  // compression | min | max | centroidCount | (mean | weight) * centroidCount
+  public byte[] serialize() {
+    compress();
+    ByteBuffer buffer =
+        ByteBuffer.allocate(3 * Double.BYTES + Integer.BYTES + 2 * Double.BYTES * centroidCount);
+    buffer.putDouble(compression);
+    buffer.putDouble(min);
+    buffer.putDouble(max);
+    buffer.putInt(centroidCount);
+    for (int i = 0; i < centroidCount; i++) {
+      buffer.putDouble(means[i]);
+      buffer.putDouble(weights[i]);
+    }
+    return buffer.array();
+  }
+
+  public static TDigest deserialize(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    TDigest digest = new TDigest(buffer.getDouble());
+    digest.min = buffer.getDouble();
+    digest.max = buffer.getDouble();
+    int centroidCount = buffer.getInt();
+    for (int i = 0; i < centroidCount; i++) {
+      double mean = buffer.getDouble();
+      double weight = buffer.getDouble();
+      digest.appendCentroid(mean, weight);
+      digest.totalWeight += weight;
+    }
+    return digest;
+  }
+}
@@ -436,6 +436,30 @@ public class DriverScheduler implements IDriverScheduler, IService {
     return queryMap.size();
   }
 
+  public int getReadyQueueTaskCount(int level) {
+    MultilevelPriorityQueue queue = (MultilevelPriorityQueue) readyQueue;
+    return level == MultilevelPriorityQueue.getNumOfPriorityLevels()
+        ? queue.getHighestPriorityLevelWaitingTaskCount()
+        : queue.getLevelWaitingTaskCount(level);
+  }
+
+  public long getLevelScheduledTime(int level) {
+    return ((MultilevelPriorityQueue) readyQueue).getLevelScheduledTime(level);
+  }
+
+  /** Get a snapshot of all the driver tasks that are not finished on this node. */
+  public List<DriverTask> getAllDriverTasks() {
+    List<DriverTask> result = new ArrayList<>();
+    for (Map<FragmentInstanceId, Set<DriverTask>> queryRelatedTasks : queryMap.values()) {
+      for (Set<DriverTask> fragmentRelatedTasks : queryRelatedTasks.values()) {
+        synchronized (fragmentRelatedTasks) {
+          result.addAll(fragmentRelatedTasks);
+        }
+      }
+    }
+    return result;
+  }
+
   @TestOnly
   public IndexedBlockingQueue<DriverTask> getReadyQueue() {
     return readyQueue;
@@ -485,6 +509,7 @@ public class DriverScheduler implements IDriverScheduler, IService {
             .getDriverContext()
             .getFragmentInstanceContext()
             .addBlockQueuedTime(blockQueuedTime);
+        task.addBlockQueuedTime(blockQueuedTime);
         DRIVER_SCHEDULER_METRIC_SET.recordTaskQueueTime(BLOCK_QUEUED_TIME, blockQueuedTime);
         task.setLastEnterReadyQueueTime(currentTime);
         task.resetLevelScheduledTime();
@@ -509,7 +534,10 @@ public class DriverScheduler implements IDriverScheduler, IService {
             .getDriverContext()
             .getFragmentInstanceContext()
             .addReadyQueuedTime(readyQueuedTime);
+        task.addReadyQueuedTime(readyQueuedTime);
         DRIVER_SCHEDULER_METRIC_SET.recordTaskQueueTime(READY_QUEUED_TIME, readyQueuedTime);
+        DRIVER_SCHEDULER_METRIC_SET.recordLevelReadyQueuedTime(
+            task.isHighestPriority(), task.getPriority().getLevel(), readyQueuedTime);
       } finally {
         task.unlock();
       }
@@ -26,6 +26,7 @@ import org.apache.iotdb.db.queryengine.execution.driver.IDriver;
 import org.apache.iotdb.db.queryengine.execution.schedule.queue.IndexedBlockingQueue;
 import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.MultilevelPriorityQueue;
 import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTask;
+import org.apache.iotdb.db.queryengine.metric.DriverSchedulerMetricSet;
 import org.apache.iotdb.db.utils.SetThreadName;
 
 import com.google.common.base.Ticker;
@@ -59,6 +60,9 @@ public class DriverTaskThread extends AbstractDriverThread {
       IoTDBThreadPoolFactory.newCachedThreadPool(
           ThreadName.DRIVER_TASK_SCHEDULER_NOTIFICATION.getName());
 
+  private static final DriverSchedulerMetricSet DRIVER_SCHEDULER_METRIC_SET =
+      DriverSchedulerMetricSet.getInstance();
+
   private final Ticker ticker;
 
   public DriverTaskThread(
@@ -91,6 +95,11 @@ public class DriverTaskThread extends AbstractDriverThread {
       return;
     }
     long quantaScheduledNanos = ticker.read() - startNanos;
+    DRIVER_SCHEDULER_METRIC_SET.recordLevelSchedule(
+        task.isHighestPriority(),
+        task.getPriority().getLevel(),
+        quantaScheduledNanos,
+        timeSlice.roundTo(TimeUnit.NANOSECONDS));
     ExecutionContext context = new ExecutionContext();
     context.setScheduledTimeInNanos(quantaScheduledNanos);
     context.setTimeSlice(timeSlice);
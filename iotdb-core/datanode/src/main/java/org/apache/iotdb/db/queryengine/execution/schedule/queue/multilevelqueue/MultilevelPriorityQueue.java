@@ -330,6 +330,24 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
     return LEVEL_THRESHOLD_SECONDS.length;
   }
 
+  /**
+   * The number of tasks waiting in the given level. The read is not synchronized with the queue
+   * operations, so it is only suitable for monitoring.
+   */
+  public int getLevelWaitingTaskCount(int level) {
+    return levelWaitingSplits[level].size();
+  }
+
+  /** The number of tasks waiting in the highest priority queue, only suitable for monitoring. */
+  public int getHighestPriorityLevelWaitingTaskCount() {
+    return highestPriorityLevelQueue.size();
+  }
+
+  /** Total amount of time(ns) the given level has been charged, used to balance the levels. */
+  public long getLevelScheduledTime(int level) {
+    return levelScheduledTime[level].get();
+  }
+
   // endregion
 
   @TestOnly
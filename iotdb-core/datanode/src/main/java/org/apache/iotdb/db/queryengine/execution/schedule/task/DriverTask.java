@@ -61,6 +61,13 @@ public class DriverTask implements IDIndexedAccessible {
   private long lastEnterReadyQueueTime;
   private long lastEnterBlockQueueTime;
 
+  // accumulated time of this task in each state, only used for monitoring. They are only updated
+  // by the scheduler threads holding the lock of this task, but read by the queries on
+  // information_schema.driver_tasks without it
+  private volatile long scheduledTimeInNanos;
+  private volatile long readyQueuedTimeInNanos;
+  private volatile long blockQueuedTimeInNanos;
+
   private long estimatedMemorySize;
 
   /** Initialize a dummy instance for queryHolder. */
@@ -121,6 +128,7 @@ public class DriverTask implements IDIndexedAccessible {
    * @param context the last execution context.
    */
   public void updateSchedulePriority(ExecutionContext context) {
+    scheduledTimeInNanos += context.getScheduledTimeInNanos();
     priority.set(driverTaskHandle.addScheduledTimeInNanos(context.getScheduledTimeInNanos()));
   }
 
@@ -203,6 +211,26 @@ public class DriverTask implements IDIndexedAccessible {
     this.lastEnterBlockQueueTime = lastEnterBlockQueueTime;
   }
 
+  public long getScheduledTimeInNanos() {
+    return scheduledTimeInNanos;
+  }
+
+  public long getReadyQueuedTimeInNanos() {
+    return readyQueuedTimeInNanos;
+  }
+
+  public void addReadyQueuedTime(long readyQueuedTimeInNanos) {
+    this.readyQueuedTimeInNanos += readyQueuedTimeInNanos;
+  }
+
+  public long getBlockQueuedTimeInNanos() {
+    return blockQueuedTimeInNanos;
+  }
+
+  public void addBlockQueuedTime(long blockQueuedTimeInNanos) {
+    this.blockQueuedTimeInNanos += blockQueuedTimeInNanos;
+  }
+
   /** a comparator of ddl, the less the ddl is, the low order it has. */
   public static class TimeoutComparator implements Comparator<DriverTask> {
 
@@ -46,12 +46,44 @@ public class ChunkCacheMetrics implements IMetricSet {
         ChunkCache::getHitRate,
         Tag.NAME.toString(),
         "chunk");
+    metricService.createAutoGauge(
+        Metric.CACHE.toString(),
+        MetricLevel.IMPORTANT,
+        chunkCache,
+        ChunkCache::getPrefetchedChunkHitCount,
+        Tag.NAME.toString(),
+        "ChunkPrefetch",
+        Tag.TYPE.toString(),
+        "hit");
+    metricService.createAutoGauge(
+        Metric.CACHE.toString(),
+        MetricLevel.IMPORTANT,
+        chunkCache,
+        ChunkCache::getPrefetchedChunkRequestCount,
+        Tag.NAME.toString(),
+        "ChunkPrefetch",
+        Tag.TYPE.toString(),
+        "all");
   }
 
   @Override
   public void unbindFrom(AbstractMetricService metricService) {
     metricService.remove(
         MetricType.AUTO_GAUGE, Metric.CACHE_HIT_RATE.toString(), Tag.NAME.toString(), "chunk");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.CACHE.toString(),
+        Tag.NAME.toString(),
+        "ChunkPrefetch",
+        Tag.TYPE.toString(),
+        "hit");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.CACHE.toString(),
+        Tag.NAME.toString(),
+        "ChunkPrefetch",
+        Tag.TYPE.toString(),
+        "all");
   }
 
   @Override
@@ -22,18 +22,26 @@ package org.apache.iotdb.db.queryengine.metric;
 import org.apache.iotdb.commons.service.metric.enums.Metric;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.db.queryengine.execution.schedule.DriverScheduler;
+import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.MultilevelPriorityQueue;
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
 import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.type.Histogram;
 import org.apache.iotdb.metrics.type.Timer;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.MetricType;
 
+import java.util.Arrays;
+
 public class DriverSchedulerMetricSet implements IMetricSet {
+  // must be initialized before INSTANCE since the level metric arrays depend on it
+  private static final int LEVEL_NUM = MultilevelPriorityQueue.getNumOfPriorityLevels();
   private static final DriverSchedulerMetricSet INSTANCE = new DriverSchedulerMetricSet();
 
   private DriverSchedulerMetricSet() {
-    // empty constructor
+    Arrays.fill(levelReadyQueuedTimeTimers, DoNothingMetricManager.DO_NOTHING_TIMER);
+    Arrays.fill(levelScheduledTimeTimers, DoNothingMetricManager.DO_NOTHING_TIMER);
+    Arrays.fill(levelTimeSliceUsageHistograms, DoNothingMetricManager.DO_NOTHING_HISTOGRAM);
   }
 
   public static final String READY_QUEUED_TIME = "ready_queued_time";
@@ -43,9 +51,21 @@ public class DriverSchedulerMetricSet implements IMetricSet {
   private static final String TIMEOUT_QUEUE_SIZE = "timeout_queue_task_count";
   private static final String QUERY_MAP_SIZE = "query_map_size";
 
+  // metrics of each level of MultilevelPriorityQueue, the last one is the highest priority queue
+  public static final String LEVEL_READY_QUEUED_TIME = "level_ready_queued_time";
+  public static final String LEVEL_SCHEDULED_TIME = "level_scheduled_time";
+  public static final String LEVEL_TIME_SLICE_USAGE = "level_time_slice_usage";
+  public static final String LEVEL_READY_QUEUE_TASK_COUNT = "level_ready_queue_task_count";
+  public static final String LEVEL_ACCUMULATED_SCHEDULED_TIME = "level_accumulated_scheduled_time";
+  private static final String HIGHEST_PRIORITY_LEVEL = "highest";
+
   private Timer readyQueuedTimeTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer blockQueuedTimeTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
 
+  private final Timer[] levelReadyQueuedTimeTimers = new Timer[LEVEL_NUM + 1];
+  private final Timer[] levelScheduledTimeTimers = new Timer[LEVEL_NUM + 1];
+  private final Histogram[] levelTimeSliceUsageHistograms = new Histogram[LEVEL_NUM + 1];
+
   @Override
   public void bindTo(AbstractMetricService metricService) {
     readyQueuedTimeTimer =
@@ -88,16 +108,58 @@ public class DriverSchedulerMetricSet implements IMetricSet {
         DriverScheduler::getQueryMapSize,
         Tag.NAME.toString(),
         QUERY_MAP_SIZE);
-    metricService.remove(
-        MetricType.AUTO_GAUGE,
-        Metric.DRIVER_SCHEDULER.toString(),
-        Tag.NAME.toString(),
-        TIMEOUT_QUEUE_SIZE);
-    metricService.remove(
-        MetricType.AUTO_GAUGE,
-        Metric.DRIVER_SCHEDULER.toString(),
-        Tag.NAME.toString(),
-        QUERY_MAP_SIZE);
+    bindLevelMetrics(metricService);
+  }
+
+  private void bindLevelMetrics(AbstractMetricService metricService) {
+    for (int level = 0; level <= LEVEL_NUM; level++) {
+      String levelName = getLevelName(level);
+      levelReadyQueuedTimeTimers[level] =
+          metricService.getOrCreateTimer(
+              Metric.DRIVER_SCHEDULER.toString(),
+              MetricLevel.IMPORTANT,
+              Tag.NAME.toString(),
+              LEVEL_READY_QUEUED_TIME,
+              Tag.LEVEL.toString(),
+              levelName);
+      levelScheduledTimeTimers[level] =
+          metricService.getOrCreateTimer(
+              Metric.DRIVER_SCHEDULER.toString(),
+              MetricLevel.IMPORTANT,
+              Tag.NAME.toString(),
+              LEVEL_SCHEDULED_TIME,
+              Tag.LEVEL.toString(),
+              levelName);
+      levelTimeSliceUsageHistograms[level] =
+          metricService.getOrCreateHistogram(
+              Metric.DRIVER_SCHEDULER.toString(),
+              MetricLevel.IMPORTANT,
+              Tag.NAME.toString(),
+              LEVEL_TIME_SLICE_USAGE,
+              Tag.LEVEL.toString(),
+              levelName);
+      final int finalLevel = level;
+      metricService.createAutoGauge(
+          Metric.DRIVER_SCHEDULER.toString(),
+          MetricLevel.IMPORTANT,
+          DriverScheduler.getInstance(),
+          scheduler -> scheduler.getReadyQueueTaskCount(finalLevel),
+          Tag.NAME.toString(),
+          LEVEL_READY_QUEUE_TASK_COUNT,
+          Tag.LEVEL.toString(),
+          levelName);
+      if (level < LEVEL_NUM) {
+        metricService.createAutoGauge(
+            Metric.DRIVER_SCHEDULER.toString(),
+            MetricLevel.IMPORTANT,
+            DriverScheduler.getInstance(),
+            scheduler -> scheduler.getLevelScheduledTime(finalLevel),
+            Tag.NAME.toString(),
+            LEVEL_ACCUMULATED_SCHEDULED_TIME,
+            Tag.LEVEL.toString(),
+            levelName);
+      }
+    }
   }
 
   @Override
@@ -124,6 +186,66 @@ public class DriverSchedulerMetricSet implements IMetricSet {
         Metric.DRIVER_SCHEDULER.toString(),
         Tag.NAME.toString(),
         BLOCK_QUEUE_TASK_COUNT);
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.DRIVER_SCHEDULER.toString(),
+        Tag.NAME.toString(),
+        TIMEOUT_QUEUE_SIZE);
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.DRIVER_SCHEDULER.toString(),
+        Tag.NAME.toString(),
+        QUERY_MAP_SIZE);
+    unbindLevelMetrics(metricService);
+  }
+
+  private void unbindLevelMetrics(AbstractMetricService metricService) {
+    Arrays.fill(levelReadyQueuedTimeTimers, DoNothingMetricManager.DO_NOTHING_TIMER);
+    Arrays.fill(levelScheduledTimeTimers, DoNothingMetricManager.DO_NOTHING_TIMER);
+    Arrays.fill(levelTimeSliceUsageHistograms, DoNothingMetricManager.DO_NOTHING_HISTOGRAM);
+    for (int level = 0; level <= LEVEL_NUM; level++) {
+      String levelName = getLevelName(level);
+      for (String name : Arrays.asList(LEVEL_READY_QUEUED_TIME, LEVEL_SCHEDULED_TIME)) {
+        metricService.remove(
+            MetricType.TIMER,
+            Metric.DRIVER_SCHEDULER.toString(),
+            Tag.NAME.toString(),
+            name,
+            Tag.LEVEL.toString(),
+            levelName);
+      }
+      metricService.remove(
+          MetricType.HISTOGRAM,
+          Metric.DRIVER_SCHEDULER.toString(),
+          Tag.NAME.toString(),
+          LEVEL_TIME_SLICE_USAGE,
+          Tag.LEVEL.toString(),
+          levelName);
+      metricService.remove(
+          MetricType.AUTO_GAUGE,
+          Metric.DRIVER_SCHEDULER.toString(),
+          Tag.NAME.toString(),
+          LEVEL_READY_QUEUE_TASK_COUNT,
+          Tag.LEVEL.toString(),
+          levelName);
+      if (level < LEVEL_NUM) {
+        metricService.remove(
+            MetricType.AUTO_GAUGE,
+            Metric.DRIVER_SCHEDULER.toString(),
+            Tag.NAME.toString(),
+            LEVEL_ACCUMULATED_SCHEDULED_TIME,
+            Tag.LEVEL.toString(),
+            levelName);
+      }
+    }
+  }
+
+  private static String getLevelName(int level) {
+    return level == LEVEL_NUM ? HIGHEST_PRIORITY_LEVEL : String.valueOf(level);
+  }
+
+  private static int getLevelIndex(boolean isHighestPriority, int level) {
+    return isHighestPriority ? LEVEL_NUM : level;
   }
 
   public void recordTaskQueueTime(String name, long queueTimeInNanos) {
@@ -139,6 +261,29 @@ public class DriverSchedulerMetricSet implements IMetricSet {
     }
   }
 
+  public void recordLevelReadyQueuedTime(
+      boolean isHighestPriority, int level, long queueTimeInNanos) {
+    levelReadyQueuedTimeTimers[getLevelIndex(isHighestPriority, level)].updateNanos(
+        queueTimeInNanos);
+  }
+
+  /**
+   * Record one scheduled quanta of a driver task.
+   *
+   * @param scheduledTimeInNanos the time the task actually ran in this quanta
+   * @param timeSliceInNanos the time slice assigned to the level of the task
+   */
+  public void recordLevelSchedule(
+      boolean isHighestPriority, int level, long scheduledTimeInNanos, long timeSliceInNanos) {
+    int levelIndex = getLevelIndex(isHighestPriority, level);
+    levelScheduledTimeTimers[levelIndex].updateNanos(scheduledTimeInNanos);
+    if (timeSliceInNanos > 0) {
+      // percentage of the time slice used by the task
+      levelTimeSliceUsageHistograms[levelIndex].update(
+          scheduledTimeInNanos * 100 / timeSliceInNanos);
+    }
+  }
+
   public static DriverSchedulerMetricSet getInstance() {
     return INSTANCE;
   }
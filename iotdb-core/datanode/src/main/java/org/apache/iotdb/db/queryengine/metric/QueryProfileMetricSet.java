@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.metric;
+
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.db.queryengine.statistics.QueryProfile;
+import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
+import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.type.Histogram;
+import org.apache.iotdb.metrics.type.Timer;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
+
+import java.util.Arrays;
+
+/** Distribution of the resource usage of the fragment instances kept as query profiles. */
+public class QueryProfileMetricSet implements IMetricSet {
+  private static final QueryProfileMetricSet INSTANCE = new QueryProfileMetricSet();
+
+  private QueryProfileMetricSet() {
+    // empty constructor
+  }
+
+  public static final String CPU_TIME = "cpu_time";
+  public static final String READ_BYTES = "read_bytes";
+  public static final String DISK_CHUNK = "disk_chunk";
+  public static final String DECODED_PAGE = "decoded_page";
+  public static final String PEAK_MEMORY = "peak_memory";
+
+  private Timer cpuTimeTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Histogram readBytesHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  private Histogram diskChunkHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  private Histogram decodedPageHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  private Histogram peakMemoryHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+
+  public void recordProfile(QueryProfile profile) {
+    cpuTimeTimer.updateNanos(profile.getCpuTimeInNanos());
+    readBytesHistogram.update(profile.getReadBytes());
+    diskChunkHistogram.update(profile.getDiskChunkNum());
+    decodedPageHistogram.update(profile.getDecodedPageNum());
+    peakMemoryHistogram.update(profile.getPeakMemoryInBytes());
+  }
+
+  @Override
+  public void bindTo(AbstractMetricService metricService) {
+    cpuTimeTimer =
+        metricService.getOrCreateTimer(
+            Metric.QUERY_PROFILE.toString(), MetricLevel.IMPORTANT, Tag.TYPE.toString(), CPU_TIME);
+    readBytesHistogram =
+        metricService.getOrCreateHistogram(
+            Metric.QUERY_PROFILE.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.TYPE.toString(),
+            READ_BYTES);
+    diskChunkHistogram =
+        metricService.getOrCreateHistogram(
+            Metric.QUERY_PROFILE.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.TYPE.toString(),
+            DISK_CHUNK);
+    decodedPageHistogram =
+        metricService.getOrCreateHistogram(
+            Metric.QUERY_PROFILE.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.TYPE.toString(),
+            DECODED_PAGE);
+    peakMemoryHistogram =
+        metricService.getOrCreateHistogram(
+            Metric.QUERY_PROFILE.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.TYPE.toString(),
+            PEAK_MEMORY);
+  }
+
+  @Override
+  public void unbindFrom(AbstractMetricService metricService) {
+    cpuTimeTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    readBytesHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+    diskChunkHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+    decodedPageHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+    peakMemoryHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+    metricService.remove(
+        MetricType.TIMER, Metric.QUERY_PROFILE.toString(), Tag.TYPE.toString(), CPU_TIME);
+    Arrays.asList(READ_BYTES, DISK_CHUNK, DECODED_PAGE, PEAK_MEMORY)
+        .forEach(
+            type ->
+                metricService.remove(
+                    MetricType.HISTOGRAM,
+                    Metric.QUERY_PROFILE.toString(),
+                    Tag.TYPE.toString(),
+                    type));
+  }
+
+  public static QueryProfileMetricSet getInstance() {
+    return INSTANCE;
+  }
+}
@@ -53,6 +53,33 @@ public class TimeSeriesMetadataCacheMetrics implements IMetricSet {
         l -> timeSeriesMetadataCache.calculateBloomFilterHitRatio() * 100.0d,
         Tag.NAME.toString(),
         "bloomFilter");
+    metricService.createAutoGauge(
+        Metric.CACHE.toString(),
+        MetricLevel.IMPORTANT,
+        timeSeriesMetadataCache,
+        TimeSeriesMetadataCache::getSeriesPresenceFilterRequestCount,
+        Tag.NAME.toString(),
+        "seriesPresenceFilter",
+        Tag.TYPE.toString(),
+        "all");
+    metricService.createAutoGauge(
+        Metric.CACHE.toString(),
+        MetricLevel.IMPORTANT,
+        timeSeriesMetadataCache,
+        TimeSeriesMetadataCache::getSeriesPresenceFilterNegativeCount,
+        Tag.NAME.toString(),
+        "seriesPresenceFilter",
+        Tag.TYPE.toString(),
+        "negative");
+    metricService.createAutoGauge(
+        Metric.CACHE.toString(),
+        MetricLevel.IMPORTANT,
+        timeSeriesMetadataCache,
+        TimeSeriesMetadataCache::getSeriesPresenceFilterFalsePositiveCount,
+        Tag.NAME.toString(),
+        "seriesPresenceFilter",
+        Tag.TYPE.toString(),
+        "false_positive");
   }
 
   @Override
@@ -67,6 +94,27 @@ public class TimeSeriesMetadataCacheMetrics implements IMetricSet {
         Metric.CACHE_HIT_RATE.toString(),
         Tag.NAME.toString(),
         "bloomFilter");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.CACHE.toString(),
+        Tag.NAME.toString(),
+        "seriesPresenceFilter",
+        Tag.TYPE.toString(),
+        "all");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.CACHE.toString(),
+        Tag.NAME.toString(),
+        "seriesPresenceFilter",
+        Tag.TYPE.toString(),
+        "negative");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.CACHE.toString(),
+        Tag.NAME.toString(),
+        "seriesPresenceFilter",
+        Tag.TYPE.toString(),
+        "false_positive");
   }
 
   @Override
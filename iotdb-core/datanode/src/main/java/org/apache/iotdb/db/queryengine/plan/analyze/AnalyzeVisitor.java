@@ -69,6 +69,7 @@ import org.apache.iotdb.db.queryengine.execution.operator.window.ainode.Inferenc
 import org.apache.iotdb.db.queryengine.execution.operator.window.ainode.InferenceWindowType;
 import org.apache.iotdb.db.queryengine.execution.operator.window.ainode.TailInferenceWindow;
 import org.apache.iotdb.db.queryengine.metric.QueryPlanCostMetricSet;
+import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.PreparedSchemaTreeCache;
 import org.apache.iotdb.db.queryengine.plan.analyze.load.LoadTsFileAnalyzer;
 import org.apache.iotdb.db.queryengine.plan.analyze.load.LoadTsFileToTableModelAnalyzer;
 import org.apache.iotdb.db.queryengine.plan.analyze.load.LoadTsFileToTreeModelAnalyzer;
@@ -504,6 +505,7 @@ public class AnalyzeVisitor extends StatementVisitor<Analysis, MPPQueryContext>
 
   private ISchemaTree analyzeSchema(
       QueryStatement queryStatement, Analysis analysis, MPPQueryContext context) {
+    PreparedSchemaTreeCache preparedSchemaTreeCache = queryStatement.getPreparedSchemaTreeCache();
     // concat path and construct path pattern tree
     ConcatPathRewriter concatPathRewriter = new ConcatPathRewriter();
     queryStatement =
@@ -527,6 +529,11 @@ public class AnalyzeVisitor extends StatementVisitor<Analysis, MPPQueryContext>
         schemaTree =
             schemaFetcher.fetchSchemaWithTags(
                 concatPathRewriter.getPatternTree(), allWildcardLeaf, context);
+      } else if (preparedSchemaTreeCache != null) {
+        schemaTree =
+            preparedSchemaTreeCache.getOrFetch(
+                concatPathRewriter.getPatternTree(),
+                patternTree -> schemaFetcher.fetchSchema(patternTree, allWildcardLeaf, context));
       } else {
         schemaTree =
             schemaFetcher.fetchSchema(
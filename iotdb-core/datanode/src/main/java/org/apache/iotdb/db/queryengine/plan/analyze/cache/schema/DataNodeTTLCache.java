@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.queryengine.plan.analyze.cache.schema;
 
 import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.schema.table.TsTable;
 import org.apache.iotdb.commons.schema.ttl.TTLCache;
@@ -33,6 +34,9 @@ import org.apache.tsfile.file.metadata.IDeviceID;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class DataNodeTTLCache {
+  private static final String[] ALL_PATH_NODES =
+      new String[] {IoTDBConstant.PATH_ROOT, IoTDBConstant.MULTI_LEVEL_PATH_WILDCARD};
+
   private final TTLCache treeModelTTLCache;
 
   private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
@@ -109,6 +113,17 @@ public class DataNodeTTLCache {
     }
   }
 
+  /** Whether any ttl other than the default infinite one is set in the tree model. */
+  public boolean hasTTLForTree() {
+    lock.readLock().lock();
+    try {
+      return treeModelTTLCache.getTtlCount() > 1
+          || treeModelTTLCache.getLastNodeTTL(ALL_PATH_NODES) != Long.MAX_VALUE;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
   /**
    * Get ttl of one specific path node without time precision conversion. If this node does not set
    * ttl, then return -1.
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.analyze.cache.schema;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.path.PathPatternTree;
+import org.apache.iotdb.db.queryengine.common.schematree.ISchemaTree;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.TreeDeviceSchemaCacheManager;
+
+import java.util.function.Function;
+
+/**
+ * The schema tree fetched by the last execution of a prepared statement. The parameters of a
+ * prepared statement are always literals, so all its executions fetch the schema of the same paths,
+ * and the schema tree is reused until the schema cache of this DataNode is invalidated.
+ *
+ * <p>Only the schema trees of full paths that are all resolved are kept, so that a series created
+ * afterwards can not be missed, while a deleted or altered series always invalidates the schema
+ * cache. The schema trees with logical views are not kept either, because the analysis modifies
+ * them.
+ */
+public class PreparedSchemaTreeCache {
+
+  private volatile CachedSchemaTree cachedSchemaTree;
+
+  /**
+   * @return the cached schema tree of the pattern tree if it is still valid, otherwise the one
+   *     fetched by the given fetcher
+   */
+  public ISchemaTree getOrFetch(
+      PathPatternTree patternTree, Function<PathPatternTree, ISchemaTree> fetcher) {
+    // read before fetching, so that an invalidation during the fetch is not missed
+    long schemaVersion = TreeDeviceSchemaCacheManager.getInstance().getSchemaVersion();
+    CachedSchemaTree cached = cachedSchemaTree;
+    if (cached != null
+        && cached.schemaVersion == schemaVersion
+        && cached.patternTree.equals(patternTree)) {
+      return cached.schemaTree;
+    }
+    ISchemaTree schemaTree = fetcher.apply(patternTree);
+    if (isCacheable(patternTree, schemaTree)) {
+      cachedSchemaTree = new CachedSchemaTree(patternTree, schemaVersion, schemaTree);
+    }
+    return schemaTree;
+  }
+
+  private static boolean isCacheable(PathPatternTree patternTree, ISchemaTree schemaTree) {
+    if (schemaTree.isEmpty() || schemaTree.hasLogicalViewMeasurement()) {
+      return false;
+    }
+    for (PartialPath path : patternTree.getAllPathPatterns()) {
+      if (path.hasWildcard() || schemaTree.searchMeasurementPaths(path).left.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static class CachedSchemaTree {
+
+    private final PathPatternTree patternTree;
+    private final long schemaVersion;
+    private final ISchemaTree schemaTree;
+
+    private CachedSchemaTree(
+        PathPatternTree patternTree, long schemaVersion, ISchemaTree schemaTree) {
+      this.patternTree = patternTree;
+      this.schemaVersion = schemaVersion;
+      this.schemaTree = schemaTree;
+    }
+  }
+}
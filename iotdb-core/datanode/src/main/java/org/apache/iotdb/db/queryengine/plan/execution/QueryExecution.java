@@ -39,8 +39,10 @@ import org.apache.iotdb.db.queryengine.execution.exchange.source.ISourceHandle;
 import org.apache.iotdb.db.queryengine.execution.exchange.source.SourceHandle;
 import org.apache.iotdb.db.queryengine.metric.QueryExecutionMetricSet;
 import org.apache.iotdb.db.queryengine.metric.QueryPlanCostMetricSet;
+import org.apache.iotdb.db.queryengine.plan.analyze.Analysis;
 import org.apache.iotdb.db.queryengine.plan.analyze.IAnalysis;
 import org.apache.iotdb.db.queryengine.plan.analyze.QueryType;
+import org.apache.iotdb.db.queryengine.plan.execution.memory.CachedResultSourceHandle;
 import org.apache.iotdb.db.queryengine.plan.execution.memory.MemorySourceHandle;
 import org.apache.iotdb.db.queryengine.plan.planner.IPlanner;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.DistributedQueryPlan;
@@ -103,6 +105,9 @@ public class QueryExecution implements IQueryExecution {
   // We use this SourceHandle to fetch the TsBlock from it.
   private ISourceHandle resultHandle;
 
+  // collects the result to be cached, null if the result is not cached
+  private QueryResultCache.ResultCollector resultCollector;
+
   // used for cleaning resultHandle up exactly once
   private final AtomicBoolean resultHandleCleanUp;
 
@@ -117,6 +122,7 @@ public class QueryExecution implements IQueryExecution {
       QueryPlanCostMetricSet.getInstance();
   private static final PerformanceOverviewMetrics PERFORMANCE_OVERVIEW_METRICS =
       PerformanceOverviewMetrics.getInstance();
+  private static final QueryResultCache QUERY_RESULT_CACHE = QueryResultCache.getInstance();
 
   @SuppressWarnings("squid:S107")
   public QueryExecution(IPlanner planner, MPPQueryContext context, ExecutorService executor) {
@@ -168,6 +174,13 @@ public class QueryExecution implements IQueryExecution {
       return;
     }
 
+    String resultCacheKey =
+        QUERY_RESULT_CACHE.isEnabled() ? QueryResultCache.getKey(analysis, context) : null;
+    if (resultCacheKey != null && serveFromResultCache(resultCacheKey)) {
+      LOGGER.debug("[ServeFromResultCache]");
+      return;
+    }
+
     // check timeout for query first
     checkTimeOutForQuery();
     doLogicalPlan();
@@ -195,6 +208,15 @@ public class QueryExecution implements IQueryExecution {
       initResultHandle();
     }
     PERFORMANCE_OVERVIEW_METRICS.recordPlanCost(System.nanoTime() - startTime);
+    if (resultCacheKey != null) {
+      Analysis treeAnalysis = (Analysis) analysis;
+      resultCollector =
+          QUERY_RESULT_CACHE.newCollector(
+              resultCacheKey,
+              treeAnalysis.getDataPartitionInfo(),
+              context.getGlobalTimeFilter().getTimeRanges(),
+              treeAnalysis.getRespDatasetHeader());
+    }
     schedule();
 
     // The last batch of memory reserved by the front end
@@ -261,6 +283,18 @@ public class QueryExecution implements IQueryExecution {
     return analysis.canSkipExecute(context);
   }
 
+  private boolean serveFromResultCache(String resultCacheKey) {
+    QueryResultCache.CachedResult cachedResult = QUERY_RESULT_CACHE.get(resultCacheKey);
+    if (cachedResult == null) {
+      return false;
+    }
+    // the column indexes of the header are resolved by distribution planning, which is skipped
+    ((Analysis) analysis).setRespDatasetHeader(cachedResult.getDatasetHeader());
+    this.resultHandle = new CachedResultSourceHandle(cachedResult.getSerializedTsBlocks());
+    stateMachine.transitionToRunning();
+    return true;
+  }
+
   private void constructResultForMemorySource() {
     TsBlock tsBlock = analysis.constructResultForMemorySource(context);
     this.resultHandle = new MemorySourceHandle(tsBlock);
@@ -440,6 +474,7 @@ public class QueryExecution implements IQueryExecution {
         } else if (resultHandle.isFinished()) {
           LOGGER.debug("[ResultHandleFinished]");
           stateMachine.transitionToFinished();
+          finishResultCollector();
           return Optional.empty();
         }
 
@@ -460,6 +495,7 @@ public class QueryExecution implements IQueryExecution {
           }
           return Optional.of(res);
         } else {
+          finishResultCollector();
           return Optional.empty();
         }
       } catch (ExecutionException | CancellationException e) {
@@ -499,7 +535,11 @@ public class QueryExecution implements IQueryExecution {
   }
 
   private TsBlock getDeserializedTsBlock() {
-    return resultHandle.receive();
+    TsBlock tsBlock = resultHandle.receive();
+    if (resultCollector != null && tsBlock != null) {
+      resultCollector.collect(tsBlock);
+    }
+    return tsBlock;
   }
 
   @Override
@@ -508,7 +548,18 @@ public class QueryExecution implements IQueryExecution {
   }
 
   private ByteBuffer getSerializedTsBlock() throws IoTDBException {
-    return resultHandle.getSerializedTsBlock();
+    ByteBuffer serializedTsBlock = resultHandle.getSerializedTsBlock();
+    if (resultCollector != null && serializedTsBlock != null) {
+      resultCollector.collect(serializedTsBlock);
+    }
+    return serializedTsBlock;
+  }
+
+  private void finishResultCollector() {
+    if (resultCollector != null) {
+      resultCollector.finish();
+      resultCollector = null;
+    }
   }
 
   /**
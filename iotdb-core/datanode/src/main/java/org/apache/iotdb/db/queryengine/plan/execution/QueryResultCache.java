@@ -0,0 +1,458 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.execution;
+
+import org.apache.iotdb.common.rpc.thrift.TDataNodeLocation;
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.commons.partition.DataPartition;
+import org.apache.iotdb.commons.service.metric.MetricService;
+import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.commons.utils.TimePartitionUtils;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.MPPQueryContext;
+import org.apache.iotdb.db.queryengine.common.header.DatasetHeader;
+import org.apache.iotdb.db.queryengine.metric.QueryResultCacheMetrics;
+import org.apache.iotdb.db.queryengine.plan.analyze.Analysis;
+import org.apache.iotdb.db.queryengine.plan.analyze.IAnalysis;
+import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeTTLCache;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.QueryStatement;
+
+import org.apache.tsfile.read.common.TimeRange;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.column.TsBlockSerde;
+import org.apache.tsfile.read.filter.basic.Filter;
+import org.apache.tsfile.utils.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the results of the tree model queries whose time range lies before the current time
+ * partition, so that the identical queries issued periodically by dashboards skip planning,
+ * dispatching and scanning. A result is valid as long as the versions of the time partitions it
+ * reads are unchanged, which are bumped by the DataRegions and TsFileManagers of this DataNode once
+ * the partitions receive writes, deletions, loads or compactions. Hence only the queries whose data
+ * regions all have a replica on this DataNode are cached.
+ */
+public class QueryResultCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(QueryResultCache.class);
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final TsBlockSerde SERDE = new TsBlockSerde();
+
+  // the versions of all the time partitions in the time range of a cached query are recorded, so
+  // that the queries spanning more partitions than this are not cached
+  private static final long MAX_TIME_PARTITION_NUM_PER_QUERY = 1024;
+
+  private final long capacityInBytes;
+
+  // a larger result is not cached, so that one query won't evict all the others
+  private final long maxResultSizeInBytes;
+
+  // guarded by this, kept in the access order for LRU eviction
+  private final LinkedHashMap<String, CachedResult> cachedResults =
+      new LinkedHashMap<>(16, 0.75f, true);
+  private long usedMemoryInBytes = 0;
+
+  // versions of the time partitions read by the cached queries and the running queries to be
+  // cached, keyed by <database, partition id>
+  private final Map<Pair<String, Long>, AtomicLong> partitionVersions = new ConcurrentHashMap<>();
+
+  // guarded by this, the number of the cached results reading each time partition. The version of
+  // a time partition is removed once no cached result reads it
+  private final Map<Pair<String, Long>, Integer> partitionReferenceCounts = new HashMap<>();
+
+  // a version is never reused, so a removed and recreated version never matches the one recorded
+  // by a running query before
+  private final AtomicLong versionGenerator = new AtomicLong(0);
+
+  private final AtomicLong hitCount = new AtomicLong(0);
+  private final AtomicLong requestCount = new AtomicLong(0);
+
+  private QueryResultCache() {
+    this(CONFIG.getQueryResultCacheSizeInBytes());
+    if (isEnabled()) {
+      MetricService.getInstance().addMetricSet(new QueryResultCacheMetrics(this));
+    }
+  }
+
+  @TestOnly
+  QueryResultCache(long capacityInBytes) {
+    this.capacityInBytes = capacityInBytes;
+    this.maxResultSizeInBytes = capacityInBytes / 4;
+  }
+
+  public boolean isEnabled() {
+    return capacityInBytes > 0;
+  }
+
+  /**
+   * Returns the key of the result of the analyzed query if it can be cached, otherwise null.
+   * Besides the data, the result depends on the statement, the user, the zone, the time ranges
+   * after evaluating now() and the output columns after expanding the wildcards, which are all
+   * covered by the key.
+   */
+  public static String getKey(IAnalysis analysis, MPPQueryContext context) {
+    if (!(analysis instanceof Analysis) || !context.isUserQuery() || context.getSql() == null) {
+      return null;
+    }
+    Analysis treeAnalysis = (Analysis) analysis;
+    if (!(treeAnalysis.getTreeStatement() instanceof QueryStatement)
+        || treeAnalysis.getRespDatasetHeader() == null) {
+      return null;
+    }
+    QueryStatement queryStatement = (QueryStatement) treeAnalysis.getTreeStatement();
+    if (queryStatement.isSelectInto() || queryStatement.isLastQuery()) {
+      return null;
+    }
+
+    Filter timeFilter = context.getGlobalTimeFilter();
+    if (timeFilter == null) {
+      return null;
+    }
+    List<TimeRange> timeRanges = timeFilter.getTimeRanges();
+    if (timeRanges.isEmpty()
+        || timeRanges.get(timeRanges.size() - 1).getMax()
+            >= TimePartitionUtils.getTimePartitionLowerBound(CommonDateTimeUtils.currentTime())
+        || getTimePartitionNum(timeRanges) > MAX_TIME_PARTITION_NUM_PER_QUERY) {
+      return null;
+    }
+
+    // the data expired by ttl changes as time goes by
+    DataPartition dataPartition = treeAnalysis.getDataPartitionInfo();
+    if (dataPartition == null
+        || dataPartition.isEmpty()
+        || DataNodeTTLCache.getInstance().hasTTLForTree()) {
+      return null;
+    }
+    for (TRegionReplicaSet replicaSet : dataPartition.getAllReplicaSets()) {
+      if (!hasLocalReplica(replicaSet)) {
+        return null;
+      }
+    }
+
+    DatasetHeader datasetHeader = treeAnalysis.getRespDatasetHeader();
+    return String.join(
+        "\n",
+        context.getSql().trim(),
+        context.getSession().getUserName(),
+        String.valueOf(context.getZoneId()),
+        timeRanges.toString(),
+        datasetHeader.getColumnHeaders().toString(),
+        String.valueOf(datasetHeader.isIgnoreTimestamp()));
+  }
+
+  private static long getTimePartitionNum(List<TimeRange> timeRanges) {
+    long timePartitionNum = 0;
+    for (TimeRange timeRange : timeRanges) {
+      long span =
+          TimePartitionUtils.getTimePartitionIdWithoutOverflow(timeRange.getMax())
+              - TimePartitionUtils.getTimePartitionIdWithoutOverflow(timeRange.getMin());
+      // a negative span means overflow of an unbounded range
+      if (span < 0 || span >= MAX_TIME_PARTITION_NUM_PER_QUERY) {
+        return Long.MAX_VALUE;
+      }
+      timePartitionNum += span + 1;
+    }
+    return timePartitionNum;
+  }
+
+  private static boolean hasLocalReplica(TRegionReplicaSet replicaSet) {
+    if (replicaSet.getDataNodeLocations() == null) {
+      return false;
+    }
+    for (TDataNodeLocation location : replicaSet.getDataNodeLocations()) {
+      if (location.getDataNodeId() == CONFIG.getDataNodeId()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns the cached result of the key, or null if there is none or it is out of date. */
+  public synchronized CachedResult get(String key) {
+    requestCount.incrementAndGet();
+    CachedResult cachedResult = cachedResults.get(key);
+    if (cachedResult == null) {
+      return null;
+    }
+    if (!isUpToDate(cachedResult.partitionVersions)) {
+      remove(key);
+      return null;
+    }
+    hitCount.incrementAndGet();
+    return cachedResult;
+  }
+
+  /**
+   * Starts collecting the result of the query, before the data of the time partitions in its data
+   * partition is read. The versions of all the time partitions in the time ranges of the query are
+   * recorded for each database, including the ones not existing yet, so that the result turns out
+   * of date once any of them receives writes later.
+   */
+  public ResultCollector newCollector(
+      String key,
+      DataPartition dataPartition,
+      List<TimeRange> timeRanges,
+      DatasetHeader datasetHeader) {
+    removeUnreferencedVersionsIfNecessary();
+    Map<Pair<String, Long>, Long> versions = new HashMap<>();
+    for (String database : dataPartition.getDataPartitionMap().keySet()) {
+      for (TimeRange timeRange : timeRanges) {
+        long maxPartitionId = TimePartitionUtils.getTimePartitionId(timeRange.getMax());
+        for (long partitionId = TimePartitionUtils.getTimePartitionId(timeRange.getMin());
+            partitionId <= maxPartitionId;
+            partitionId++) {
+          Pair<String, Long> partition = new Pair<>(database, partitionId);
+          versions.put(
+              partition,
+              partitionVersions
+                  .computeIfAbsent(
+                      partition, k -> new AtomicLong(versionGenerator.incrementAndGet()))
+                  .get());
+        }
+      }
+    }
+    return new ResultCollector(key, datasetHeader, versions);
+  }
+
+  /**
+   * The versions recorded by the running queries which are not cached in the end, e.g. failed or
+   * too large ones, are read by no cached result. They are removed once they outnumber the ones
+   * read by the cached results, and the running queries still reading them are not cached then.
+   */
+  private synchronized void removeUnreferencedVersionsIfNecessary() {
+    if (partitionVersions.size()
+        <= 2 * partitionReferenceCounts.size() + MAX_TIME_PARTITION_NUM_PER_QUERY) {
+      return;
+    }
+    partitionVersions
+        .keySet()
+        .removeIf(partition -> !partitionReferenceCounts.containsKey(partition));
+  }
+
+  private synchronized void put(String key, CachedResult cachedResult) {
+    // the time partitions may have changed while the query is running
+    if (!isUpToDate(cachedResult.partitionVersions)) {
+      return;
+    }
+    // before the evictions, which may release the same versions
+    for (Pair<String, Long> partition : cachedResult.partitionVersions.keySet()) {
+      partitionReferenceCounts.merge(partition, 1, Integer::sum);
+    }
+    remove(key);
+    Iterator<CachedResult> iterator = cachedResults.values().iterator();
+    while (usedMemoryInBytes + cachedResult.sizeInBytes > capacityInBytes && iterator.hasNext()) {
+      CachedResult evicted = iterator.next();
+      iterator.remove();
+      usedMemoryInBytes -= evicted.sizeInBytes;
+      release(evicted);
+    }
+    cachedResults.put(key, cachedResult);
+    usedMemoryInBytes += cachedResult.sizeInBytes;
+  }
+
+  private void remove(String key) {
+    CachedResult removed = cachedResults.remove(key);
+    if (removed != null) {
+      usedMemoryInBytes -= removed.sizeInBytes;
+      release(removed);
+    }
+  }
+
+  private void release(CachedResult cachedResult) {
+    for (Pair<String, Long> partition : cachedResult.partitionVersions.keySet()) {
+      if (partitionReferenceCounts.computeIfPresent(
+              partition, (k, count) -> count == 1 ? null : count - 1)
+          == null) {
+        partitionVersions.remove(partition);
+      }
+    }
+  }
+
+  private boolean isUpToDate(Map<Pair<String, Long>, Long> versions) {
+    for (Map.Entry<Pair<String, Long>, Long> entry : versions.entrySet()) {
+      AtomicLong version = partitionVersions.get(entry.getKey());
+      if (version == null || version.get() != entry.getValue()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Called once the time partition of the database receives writes, loads or compactions. */
+  public void invalidate(String database, long timePartitionId) {
+    if (partitionVersions.isEmpty()) {
+      return;
+    }
+    AtomicLong version = partitionVersions.get(new Pair<>(database, timePartitionId));
+    if (version != null) {
+      version.set(versionGenerator.incrementAndGet());
+    }
+  }
+
+  /** Called once the data of the database is deleted, whose time partitions are not known. */
+  public void invalidate(String database) {
+    for (Map.Entry<Pair<String, Long>, AtomicLong> entry : partitionVersions.entrySet()) {
+      if (entry.getKey().left.equals(database)) {
+        entry.getValue().set(versionGenerator.incrementAndGet());
+      }
+    }
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getRequestCount() {
+    return requestCount.get();
+  }
+
+  public double getHitRate() {
+    long requests = requestCount.get();
+    return requests == 0 ? 0 : (double) hitCount.get() / requests * 100;
+  }
+
+  public synchronized long getUsedMemoryInBytes() {
+    return usedMemoryInBytes;
+  }
+
+  @TestOnly
+  int getPartitionVersionNum() {
+    return partitionVersions.size();
+  }
+
+  public static QueryResultCache getInstance() {
+    return QueryResultCacheHolder.INSTANCE;
+  }
+
+  private static class QueryResultCacheHolder {
+
+    private static final QueryResultCache INSTANCE = new QueryResultCache();
+  }
+
+  public static class CachedResult {
+
+    private final DatasetHeader datasetHeader;
+    private final List<ByteBuffer> serializedTsBlocks;
+    private final long sizeInBytes;
+    private final Map<Pair<String, Long>, Long> partitionVersions;
+
+    private CachedResult(
+        DatasetHeader datasetHeader,
+        List<ByteBuffer> serializedTsBlocks,
+        long sizeInBytes,
+        Map<Pair<String, Long>, Long> partitionVersions) {
+      this.datasetHeader = datasetHeader;
+      this.serializedTsBlocks = serializedTsBlocks;
+      this.sizeInBytes = sizeInBytes;
+      this.partitionVersions = partitionVersions;
+    }
+
+    /** The header whose output column indexes are resolved by the query caching it. */
+    public DatasetHeader getDatasetHeader() {
+      return datasetHeader;
+    }
+
+    public List<ByteBuffer> getSerializedTsBlocks() {
+      return serializedTsBlocks;
+    }
+  }
+
+  /**
+   * Collects the TsBlocks of a query result as they are fetched by the client, which is cached once
+   * all of them are fetched. It is only used by the thread fetching the result.
+   */
+  public class ResultCollector {
+
+    private final String key;
+    private final DatasetHeader datasetHeader;
+    private final Map<Pair<String, Long>, Long> partitionVersions;
+
+    // null once the result turns out not to be cached
+    private List<ByteBuffer> serializedTsBlocks = new ArrayList<>();
+    private long sizeInBytes = 0;
+
+    private ResultCollector(
+        String key, DatasetHeader datasetHeader, Map<Pair<String, Long>, Long> partitionVersions) {
+      this.key = key;
+      this.datasetHeader = datasetHeader;
+      this.partitionVersions = partitionVersions;
+    }
+
+    public void collect(TsBlock tsBlock) {
+      if (serializedTsBlocks == null) {
+        return;
+      }
+      try {
+        collect(SERDE.serialize(tsBlock));
+      } catch (IOException e) {
+        LOGGER.debug("Failed to serialize the result of query {} for caching", key, e);
+        serializedTsBlocks = null;
+      }
+    }
+
+    public void collect(ByteBuffer serializedTsBlock) {
+      if (serializedTsBlocks == null) {
+        return;
+      }
+      sizeInBytes += serializedTsBlock.remaining();
+      if (sizeInBytes > maxResultSizeInBytes) {
+        serializedTsBlocks = null;
+        return;
+      }
+      // the buffer is consumed by the client, and it may be a slice of a larger one
+      ByteBuffer copy = ByteBuffer.allocate(serializedTsBlock.remaining());
+      copy.put(serializedTsBlock.duplicate());
+      copy.flip();
+      serializedTsBlocks.add(copy);
+    }
+
+    /** Called once the last TsBlock of the result is fetched. */
+    public void finish() {
+      if (serializedTsBlocks == null) {
+        return;
+      }
+      put(
+          key,
+          new CachedResult(
+              datasetHeader,
+              Collections.unmodifiableList(serializedTsBlocks),
+              sizeInBytes,
+              partitionVersions));
+      serializedTsBlocks = null;
+    }
+  }
+}
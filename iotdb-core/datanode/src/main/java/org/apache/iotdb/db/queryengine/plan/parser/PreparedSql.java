@@ -0,0 +1,297 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.parser;
+
+import org.apache.iotdb.commons.service.metric.PerformanceOverviewMetrics;
+import org.apache.iotdb.db.exception.sql.SemanticException;
+import org.apache.iotdb.db.qp.sql.SqlLexer;
+import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.PreparedSchemaTreeCache;
+import org.apache.iotdb.db.queryengine.plan.statement.Statement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.QueryStatement;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.WritableToken;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A tree model statement prepared on the server, whose parameters are marked by '?' outside the
+ * quoted literals and identifiers. The parameters are bound as the literal texts formatted by the
+ * client, each of which must be exactly one literal, so that a parameter can never change the
+ * structure of the statement.
+ *
+ * <p>Binding parameters of the same kinds, e.g. integers to integers, yields the same token types,
+ * which are always parsed into the same tree. So the parse trees are cached by the token types, and
+ * a bound statement matching a cached tree reuses it by replacing the texts of its tokens, which
+ * skips the ANTLR parsing.
+ */
+public class PreparedSql {
+
+  private static final PerformanceOverviewMetrics PERFORMANCE_OVERVIEW_METRICS =
+      PerformanceOverviewMetrics.getInstance();
+
+  // a statement is usually bound with only one or two kinds of parameters
+  private static final int MAX_CACHED_PARSE_TREE_COUNT = 8;
+
+  // the tokens which are a literal on their own
+  private static final Set<Integer> LITERAL_TOKEN_TYPES =
+      new HashSet<>(
+          Arrays.asList(
+              SqlLexer.STRING_LITERAL,
+              SqlLexer.BINARY_LITERAL,
+              SqlLexer.DATETIME_LITERAL,
+              SqlLexer.DURATION_LITERAL,
+              SqlLexer.TRUE,
+              SqlLexer.FALSE,
+              SqlLexer.NULL,
+              SqlLexer.NAN));
+
+  private final String sql;
+
+  // shared by the queries bound from this statement, which always read the same paths
+  private final PreparedSchemaTreeCache schemaTreeCache = new PreparedSchemaTreeCache();
+
+  // the sql split by the parameters
+  private final List<String> parts;
+
+  // guarded by itself
+  private final Map<List<Integer>, CachedParseTree> parseTrees =
+      new LinkedHashMap<List<Integer>, CachedParseTree>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Integer>, CachedParseTree> eldest) {
+          return size() > MAX_CACHED_PARSE_TREE_COUNT;
+        }
+      };
+
+  public PreparedSql(String sql) {
+    this.sql = sql;
+    this.parts = split(sql);
+  }
+
+  private static List<String> split(String sql) {
+    List<String> parts = new ArrayList<>();
+    int offset = 0;
+    // the quote of the literal or identifier being scanned, 0 if there is none
+    char quote = 0;
+    for (int i = 0; i < sql.length(); i++) {
+      char c = sql.charAt(i);
+      if (quote != 0) {
+        if (c == '\\') {
+          i++;
+        } else if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '\'' || c == '"' || c == '`') {
+        quote = c;
+      } else if (c == '?') {
+        parts.add(sql.substring(offset, i));
+        offset = i + 1;
+      }
+    }
+    parts.add(sql.substring(offset));
+    return parts;
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  public int getParameterCount() {
+    return parts.size() - 1;
+  }
+
+  /** Substitutes the literal texts of the parameters into the sql. */
+  public String bind(List<String> parameters) {
+    if (parameters.size() != getParameterCount()) {
+      throw new SemanticException(
+          String.format(
+              "The prepared statement expects %d parameters, but %d are given",
+              getParameterCount(), parameters.size()));
+    }
+    StringBuilder builder = new StringBuilder(parts.get(0));
+    for (int i = 0; i < parameters.size(); i++) {
+      checkLiteral(parameters.get(i));
+      builder.append(parameters.get(i)).append(parts.get(i + 1));
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Checks that the parameter is exactly one literal: a single literal token, or a number which is
+   * lexed into an optional sign and the tokens of the integer or real literal.
+   */
+  private static void checkLiteral(String parameter) {
+    List<Token> tokens;
+    try {
+      tokens = lex(parameter);
+    } catch (ParseCancellationException e) {
+      throw new SemanticException(
+          String.format("The parameter %s is not a literal: %s", parameter, e.getMessage()));
+    }
+    if (!isLiteral(tokens)) {
+      throw new SemanticException(String.format("The parameter %s is not a literal", parameter));
+    }
+  }
+
+  private static boolean isLiteral(List<Token> tokens) {
+    if (tokens.size() == 1 && LITERAL_TOKEN_TYPES.contains(tokens.get(0).getType())) {
+      return true;
+    }
+    int index = 0;
+    int firstType = tokens.isEmpty() ? Token.INVALID_TYPE : tokens.get(0).getType();
+    if (firstType == SqlLexer.MINUS || firstType == SqlLexer.PLUS) {
+      index++;
+    }
+    // INTEGER_LITERAL, EXPONENT_NUM_PART, INTEGER_LITERAL DOT,
+    // and [INTEGER_LITERAL] DOT (INTEGER_LITERAL | EXPONENT_NUM_PART)
+    if (index < tokens.size() && tokens.get(index).getType() == SqlLexer.EXPONENT_NUM_PART) {
+      return index + 1 == tokens.size();
+    }
+    boolean hasIntegerPart = false;
+    if (index < tokens.size() && tokens.get(index).getType() == SqlLexer.INTEGER_LITERAL) {
+      hasIntegerPart = true;
+      index++;
+    }
+    if (index == tokens.size()) {
+      return hasIntegerPart;
+    }
+    if (tokens.get(index).getType() != SqlLexer.DOT) {
+      return false;
+    }
+    index++;
+    if (index == tokens.size()) {
+      return hasIntegerPart;
+    }
+    int fractionType = tokens.get(index).getType();
+    return index + 1 == tokens.size()
+        && (fractionType == SqlLexer.INTEGER_LITERAL
+            || fractionType == SqlLexer.EXPONENT_NUM_PART);
+  }
+
+  /**
+   * Parses the sql returned by {@link #bind}, reusing the cached tree of the same token types. A
+   * query statement also gets the schema tree cache of this statement, so that its analysis can
+   * skip fetching the schema.
+   */
+  public Statement createStatement(String boundSql, ZoneId zoneId) {
+    Statement statement = parse(boundSql, zoneId);
+    if (statement instanceof QueryStatement) {
+      ((QueryStatement) statement).setPreparedSchemaTreeCache(schemaTreeCache);
+    }
+    return statement;
+  }
+
+  private Statement parse(String boundSql, ZoneId zoneId) {
+    long startTime = System.nanoTime();
+    try {
+      List<Token> tokens = lex(boundSql);
+      List<Integer> tokenTypes = new ArrayList<>(tokens.size());
+      for (Token token : tokens) {
+        tokenTypes.add(token.getType());
+      }
+
+      CachedParseTree parseTree;
+      synchronized (parseTrees) {
+        parseTree = parseTrees.get(tokenTypes);
+      }
+      if (parseTree == null) {
+        parseTree = new CachedParseTree(StatementGenerator.parse(boundSql));
+        if (!parseTree.getTokenTypes().equals(tokenTypes)) {
+          // not expected, the tree is used without being cached then
+          return parseTree.visit(parseTree.tokens, zoneId);
+        }
+        synchronized (parseTrees) {
+          parseTrees.put(tokenTypes, parseTree);
+        }
+      }
+      return parseTree.visit(tokens, zoneId);
+    } finally {
+      PERFORMANCE_OVERVIEW_METRICS.recordParseCost(System.nanoTime() - startTime);
+    }
+  }
+
+  /** Returns the tokens seen by the parser, i.e. those on the default channel except EOF. */
+  private static List<Token> lex(String sql) {
+    SqlLexer lexer = new SqlLexer(CharStreams.fromString(sql));
+    lexer.removeErrorListeners();
+    lexer.addErrorListener(SqlParseError.INSTANCE);
+    List<Token> tokens = new ArrayList<>();
+    for (Token token : lexer.getAllTokens()) {
+      if (token.getChannel() == Token.DEFAULT_CHANNEL) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+
+  private static class CachedParseTree {
+
+    private final ParseTree tree;
+
+    // the tokens of the terminals in the order of the sql, except EOF
+    private final List<WritableToken> tokens = new ArrayList<>();
+
+    private CachedParseTree(ParseTree tree) {
+      this.tree = tree;
+      collectTokens(tree);
+    }
+
+    private void collectTokens(ParseTree node) {
+      if (node instanceof TerminalNode) {
+        Token token = ((TerminalNode) node).getSymbol();
+        if (token.getType() != Token.EOF) {
+          tokens.add((WritableToken) token);
+        }
+        return;
+      }
+      for (int i = 0; i < node.getChildCount(); i++) {
+        collectTokens(node.getChild(i));
+      }
+    }
+
+    private List<Integer> getTokenTypes() {
+      List<Integer> tokenTypes = new ArrayList<>(tokens.size());
+      for (Token token : tokens) {
+        tokenTypes.add(token.getType());
+      }
+      return tokenTypes;
+    }
+
+    private synchronized Statement visit(List<? extends Token> boundTokens, ZoneId zoneId) {
+      for (int i = 0; i < tokens.size(); i++) {
+        tokens.get(i).setText(boundTokens.get(i).getText());
+      }
+      ASTVisitor astVisitor = new ASTVisitor();
+      astVisitor.setZoneId(zoneId);
+      return astVisitor.visit(tree);
+    }
+  }
+}
@@ -26,6 +26,7 @@ import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
 import org.apache.iotdb.commons.service.metric.PerformanceOverviewMetrics;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.qp.sql.IoTDBSqlParser;
 import org.apache.iotdb.db.qp.sql.SqlLexer;
@@ -91,6 +92,7 @@ import org.apache.iotdb.service.rpc.thrift.TSQueryTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSRawDataQueryReq;
 import org.apache.iotdb.service.rpc.thrift.TSSetSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSUnsetSchemaTemplateReq;
+import org.apache.iotdb.session.util.CompressedTabletCodec;
 
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
@@ -105,6 +107,7 @@ import org.apache.tsfile.utils.ReadWriteIOUtils;
 import org.apache.tsfile.utils.TimeDuration;
 import org.apache.tsfile.write.record.Tablet.ColumnCategory;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.time.ZoneId;
 import java.util.ArrayList;
@@ -332,27 +335,31 @@ public class StatementGenerator {
     insertStatement.setDevicePath(
         DEVICE_PATH_CACHE.getPartialPath(insertTabletReq.getPrefixPath()));
     insertStatement.setMeasurements(insertTabletReq.getMeasurements().toArray(new String[0]));
-    long[] timestamps =
-        QueryDataSetUtils.readTimesFromBuffer(insertTabletReq.timestamps, insertTabletReq.size);
-    if (timestamps.length != 0) {
-      TimestampPrecisionUtils.checkTimestampPrecision(timestamps[timestamps.length - 1]);
-    }
-    insertStatement.setTimes(timestamps);
-    insertStatement.setColumns(
-        QueryDataSetUtils.readTabletValuesFromBuffer(
-            insertTabletReq.values,
-            insertTabletReq.types,
-            insertTabletReq.types.size(),
-            insertTabletReq.size));
-    insertStatement.setBitMaps(
-        QueryDataSetUtils.readBitMapsFromBuffer(
-                insertTabletReq.values, insertTabletReq.types.size(), insertTabletReq.size)
-            .orElse(null));
-    insertStatement.setRowCount(insertTabletReq.size);
     TSDataType[] dataTypes = new TSDataType[insertTabletReq.types.size()];
     for (int i = 0; i < insertTabletReq.types.size(); i++) {
       dataTypes[i] = TSDataType.deserialize((byte) insertTabletReq.types.get(i).intValue());
     }
+    if (insertTabletReq.isIsCompressed()) {
+      readCompressedTablet(insertTabletReq, dataTypes, insertStatement);
+    } else {
+      insertStatement.setTimes(
+          QueryDataSetUtils.readTimesFromBuffer(insertTabletReq.timestamps, insertTabletReq.size));
+      insertStatement.setColumns(
+          QueryDataSetUtils.readTabletValuesFromBuffer(
+              insertTabletReq.values,
+              insertTabletReq.types,
+              insertTabletReq.types.size(),
+              insertTabletReq.size));
+      insertStatement.setBitMaps(
+          QueryDataSetUtils.readBitMapsFromBuffer(
+                  insertTabletReq.values, insertTabletReq.types.size(), insertTabletReq.size)
+              .orElse(null));
+    }
+    long[] timestamps = insertStatement.getTimes();
+    if (timestamps.length != 0) {
+      TimestampPrecisionUtils.checkTimestampPrecision(timestamps[timestamps.length - 1]);
+    }
+    insertStatement.setRowCount(insertTabletReq.size);
     insertStatement.setDataTypes(dataTypes);
     insertStatement.setAligned(insertTabletReq.isAligned);
     insertStatement.setWriteToTable(insertTabletReq.isWriteToTable());
@@ -375,6 +382,37 @@ public class StatementGenerator {
     return insertStatement;
   }
 
+  /** Decodes the compressed timestamps and values into the arrays of the statement directly. */
+  private static void readCompressedTablet(
+      TSInsertTabletReq insertTabletReq,
+      TSDataType[] dataTypes,
+      InsertTabletStatement insertStatement) {
+    // the uncompressed lengths come from the client, so they are checked before allocating
+    long maxLength = IoTDBDescriptor.getInstance().getConfig().getThriftMaxFrameSize();
+    try {
+      insertStatement.setTimes(
+          CompressedTabletCodec.decodeTimes(
+              CompressedTabletCodec.uncompress(
+                  insertTabletReq.timestamps,
+                  Math.min(
+                      CompressedTabletCodec.getMaxUncompressedTimesLength(insertTabletReq.size),
+                      maxLength)),
+              insertTabletReq.size));
+      ByteBuffer values =
+          CompressedTabletCodec.uncompress(
+              insertTabletReq.values,
+              CompressedTabletCodec.getMaxUncompressedValuesLength(
+                  dataTypes, insertTabletReq.size, maxLength));
+      insertStatement.setColumns(
+          CompressedTabletCodec.decodeValues(values, dataTypes, insertTabletReq.size));
+      insertStatement.setBitMaps(
+          QueryDataSetUtils.readBitMapsFromBuffer(values, dataTypes.length, insertTabletReq.size)
+              .orElse(null));
+    } catch (IOException | RuntimeException e) {
+      throw new IllegalArgumentException("Invalid compressed tablet: " + e.getMessage(), e);
+    }
+  }
+
   public static InsertMultiTabletsStatement createStatement(TSInsertTabletsReq req)
       throws IllegalPathException {
     final long startTime = System.nanoTime();
@@ -826,49 +864,52 @@ public class StatementGenerator {
     try {
       ASTVisitor astVisitor = new ASTVisitor();
       astVisitor.setZoneId(zoneId);
+      return astVisitor.visit(parse(sql));
+    } finally {
+      PERFORMANCE_OVERVIEW_METRICS.recordParseCost(System.nanoTime() - startTime);
+    }
+  }
 
-      CharStream charStream1 = CharStreams.fromString(sql);
-
-      SqlLexer lexer1 = new SqlLexer(charStream1);
-      lexer1.removeErrorListeners();
-      lexer1.addErrorListener(SqlParseError.INSTANCE);
-
-      CommonTokenStream tokens1 = new CommonTokenStream(lexer1);
-
-      IoTDBSqlParser parser1 = new IoTDBSqlParser(tokens1);
-      parser1.getInterpreter().setPredictionMode(PredictionMode.SLL);
-      parser1.removeErrorListeners();
-      parser1.addErrorListener(SqlParseError.INSTANCE);
-
-      ParseTree tree;
-      try {
-        // STAGE 1: try with simpler/faster SLL(*)
-        tree = parser1.singleStatement();
-        // if we get here, there was no syntax error and SLL(*) was enough; there is no need to try
-        // full LL(*)
-      } catch (Exception ex) {
-        CharStream charStream2 = CharStreams.fromString(sql);
+  static ParseTree parse(String sql) {
+    CharStream charStream1 = CharStreams.fromString(sql);
 
-        SqlLexer lexer2 = new SqlLexer(charStream2);
-        lexer2.removeErrorListeners();
-        lexer2.addErrorListener(SqlParseError.INSTANCE);
+    SqlLexer lexer1 = new SqlLexer(charStream1);
+    lexer1.removeErrorListeners();
+    lexer1.addErrorListener(SqlParseError.INSTANCE);
 
-        CommonTokenStream tokens2 = new CommonTokenStream(lexer2);
+    CommonTokenStream tokens1 = new CommonTokenStream(lexer1);
 
-        org.apache.iotdb.db.qp.sql.IoTDBSqlParser parser2 =
-            new org.apache.iotdb.db.qp.sql.IoTDBSqlParser(tokens2);
-        parser2.getInterpreter().setPredictionMode(PredictionMode.LL);
-        parser2.removeErrorListeners();
-        parser2.addErrorListener(SqlParseError.INSTANCE);
+    IoTDBSqlParser parser1 = new IoTDBSqlParser(tokens1);
+    parser1.getInterpreter().setPredictionMode(PredictionMode.SLL);
+    parser1.removeErrorListeners();
+    parser1.addErrorListener(SqlParseError.INSTANCE);
 
-        // STAGE 2: parser with full LL(*)
-        tree = parser2.singleStatement();
-        // if we get here, it's LL not SLL
-      }
-      return astVisitor.visit(tree);
-    } finally {
-      PERFORMANCE_OVERVIEW_METRICS.recordParseCost(System.nanoTime() - startTime);
-    }
+    ParseTree tree;
+    try {
+      // STAGE 1: try with simpler/faster SLL(*)
+      tree = parser1.singleStatement();
+      // if we get here, there was no syntax error and SLL(*) was enough; there is no need to try
+      // full LL(*)
+    } catch (Exception ex) {
+      CharStream charStream2 = CharStreams.fromString(sql);
+
+      SqlLexer lexer2 = new SqlLexer(charStream2);
+      lexer2.removeErrorListeners();
+      lexer2.addErrorListener(SqlParseError.INSTANCE);
+
+      CommonTokenStream tokens2 = new CommonTokenStream(lexer2);
+
+      org.apache.iotdb.db.qp.sql.IoTDBSqlParser parser2 =
+          new org.apache.iotdb.db.qp.sql.IoTDBSqlParser(tokens2);
+      parser2.getInterpreter().setPredictionMode(PredictionMode.LL);
+      parser2.removeErrorListeners();
+      parser2.addErrorListener(SqlParseError.INSTANCE);
+
+      // STAGE 2: parser with full LL(*)
+      tree = parser2.singleStatement();
+      // if we get here, it's LL not SLL
+    }
+    return tree;
   }
 
   private static void addMeasurementAndValue(
@@ -361,6 +361,8 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
     SeriesScanOptions.Builder scanOptionsBuilder = getSeriesScanOptionsBuilder(context);
     scanOptionsBuilder.withAllSensors(
         context.getAllSensors(seriesPath.getDeviceId(), seriesPath.getMeasurement()));
+    scanOptionsBuilder.withChunkPrefetchDepth(
+        IoTDBDescriptor.getInstance().getConfig().getChunkPrefetchDepth());
 
     Expression pushDownPredicate = node.getPushDownPredicate();
     boolean predicateCanPushIntoScan = canPushIntoScan(pushDownPredicate);
@@ -453,6 +455,8 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
             context.isBuildPlanUseTemplate()
                 ? context.getTemplatedInfo().getMeasurementList()
                 : seriesPath.getMeasurementList()));
+    scanOptionsBuilder.withChunkPrefetchDepth(
+        IoTDBDescriptor.getInstance().getConfig().getChunkPrefetchDepth());
 
     Expression pushDownPredicate = node.getPushDownPredicate();
     boolean predicateCanPushIntoScan = canPushIntoScan(pushDownPredicate);
@@ -403,7 +403,8 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
             node.getPushDownLimit(),
             node.getPushDownOffset(),
             node.isPushLimitToEachDevice(),
-            node.getPushDownPredicate());
+            node.getPushDownPredicate(),
+            IoTDBDescriptor.getInstance().getConfig().getChunkPrefetchDepth());
 
     OperatorContext operatorContext =
         context
@@ -1917,7 +1918,8 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
             node.getPushDownLimit(),
             node.getPushDownOffset(),
             node.isPushLimitToEachDevice(),
-            node.getPushDownPredicate());
+            node.getPushDownPredicate(),
+            0);
 
     Set<String> allSensors = new HashSet<>(measurementColumnNames);
     allSensors.add(""); // for time column
@@ -2051,7 +2053,8 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
       long pushDownLimit,
       long pushDownOffset,
       boolean pushLimitToEachDevice,
-      Expression pushDownPredicate) {
+      Expression pushDownPredicate,
+      int chunkPrefetchDepth) {
     SeriesScanOptions.Builder scanOptionsBuilder =
         timePredicate
             .map(expression -> getSeriesScanOptionsBuilder(context, expression))
@@ -2060,6 +2063,7 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
     scanOptionsBuilder.withPushDownOffset(pushDownOffset);
     scanOptionsBuilder.withPushLimitToEachDevice(pushLimitToEachDevice);
     scanOptionsBuilder.withAllSensors(new HashSet<>(measurementColumnNames));
+    scanOptionsBuilder.withChunkPrefetchDepth(chunkPrefetchDepth);
     if (pushDownPredicate != null) {
       scanOptionsBuilder.withPushDownFilter(
           convertPredicateToFilter(
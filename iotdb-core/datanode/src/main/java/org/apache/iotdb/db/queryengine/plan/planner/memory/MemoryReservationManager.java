@@ -43,4 +43,11 @@ public interface MemoryReservationManager {
    * this manager ends, Or the memory to be released in the batch may not be released correctly.
    */
   void releaseAllReservedMemory();
+
+  /**
+   * Get the peak size of memory that has ever been reserved through this manager at the same time.
+   *
+   * @return the peak reserved memory in bytes
+   */
+  long getPeakReservedBytes();
 }
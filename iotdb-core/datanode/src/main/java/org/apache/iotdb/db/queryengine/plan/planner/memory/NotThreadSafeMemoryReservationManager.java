@@ -38,6 +38,8 @@ public class NotThreadSafeMemoryReservationManager implements MemoryReservationM
 
   private long reservedBytesInTotal = 0;
 
+  private long peakReservedBytes = 0;
+
   private long bytesToBeReserved = 0;
 
   private long bytesToBeReleased = 0;
@@ -61,6 +63,7 @@ public class NotThreadSafeMemoryReservationManager implements MemoryReservationM
       LOCAL_EXECUTION_PLANNER.reserveFromFreeMemoryForOperators(
           bytesToBeReserved, reservedBytesInTotal, queryId.getId(), contextHolder);
       reservedBytesInTotal += bytesToBeReserved;
+      peakReservedBytes = Math.max(peakReservedBytes, reservedBytesInTotal);
       bytesToBeReserved = 0;
     }
   }
@@ -91,4 +94,9 @@ public class NotThreadSafeMemoryReservationManager implements MemoryReservationM
       bytesToBeReleased = 0;
     }
   }
+
+  @Override
+  public long getPeakReservedBytes() {
+    return peakReservedBytes;
+  }
 }
@@ -48,4 +48,9 @@ public class ThreadSafeMemoryReservationManager extends NotThreadSafeMemoryReser
   public synchronized void releaseAllReservedMemory() {
     super.releaseAllReservedMemory();
   }
+
+  @Override
+  public synchronized long getPeakReservedBytes() {
+    return super.getPeakReservedBytes();
+  }
 }
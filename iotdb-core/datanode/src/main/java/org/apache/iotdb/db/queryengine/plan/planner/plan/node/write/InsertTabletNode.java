@@ -869,9 +869,7 @@ public class InsertTabletNode extends InsertNode implements WALEntryValue {
   protected void writeTimes(IWALByteBufferView buffer, List<int[]> rangeList, int rowNumInRange) {
     buffer.putInt(rowNumInRange);
     for (int[] startEnd : rangeList) {
-      for (int i = startEnd[0]; i < startEnd[1]; i++) {
-        buffer.putLong(times[i]);
-      }
+      buffer.putLongs(times, startEnd[0], startEnd[1] - startEnd[0]);
     }
   }
 
@@ -920,29 +918,17 @@ public class InsertTabletNode extends InsertNode implements WALEntryValue {
     switch (dataType) {
       case INT32:
       case DATE:
-        int[] intValues = (int[]) column;
-        for (int j = start; j < end; j++) {
-          buffer.putInt(intValues[j]);
-        }
+        buffer.putInts((int[]) column, start, end - start);
         break;
       case INT64:
       case TIMESTAMP:
-        long[] longValues = (long[]) column;
-        for (int j = start; j < end; j++) {
-          buffer.putLong(longValues[j]);
-        }
+        buffer.putLongs((long[]) column, start, end - start);
         break;
       case FLOAT:
-        float[] floatValues = (float[]) column;
-        for (int j = start; j < end; j++) {
-          buffer.putFloat(floatValues[j]);
-        }
+        buffer.putFloats((float[]) column, start, end - start);
         break;
       case DOUBLE:
-        double[] doubleValues = (double[]) column;
-        for (int j = start; j < end; j++) {
-          buffer.putDouble(doubleValues[j]);
-        }
+        buffer.putDoubles((double[]) column, start, end - start);
         break;
       case BOOLEAN:
         boolean[] boolValues = (boolean[]) column;
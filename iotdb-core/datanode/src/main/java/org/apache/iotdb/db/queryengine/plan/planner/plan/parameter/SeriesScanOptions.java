@@ -50,19 +50,24 @@ public class SeriesScanOptions {
   private final boolean pushLimitToEachDevice;
   private PaginationController paginationController;
 
+  // how many chunks on disk are read ahead of the consumer, 0 means no prefetching
+  private final int chunkPrefetchDepth;
+
   public SeriesScanOptions(
       Filter globalTimeFilter,
       Filter pushDownFilter,
       long pushDownLimit,
       long pushDownOffset,
       Set<String> allSensors,
-      boolean pushLimitToEachDevice) {
+      boolean pushLimitToEachDevice,
+      int chunkPrefetchDepth) {
     this.globalTimeFilter = globalTimeFilter;
     this.pushDownFilter = pushDownFilter;
     this.pushDownLimit = pushDownLimit;
     this.pushDownOffset = pushDownOffset;
     this.allSensors = allSensors;
     this.pushLimitToEachDevice = pushLimitToEachDevice;
+    this.chunkPrefetchDepth = chunkPrefetchDepth;
   }
 
   public static SeriesScanOptions getDefaultSeriesScanOptions(IFullPath seriesPath) {
@@ -101,6 +106,10 @@ public class SeriesScanOptions {
     return allSensors;
   }
 
+  public int getChunkPrefetchDepth() {
+    return chunkPrefetchDepth;
+  }
+
   public PaginationController getPaginationController() {
     if (pushLimitToEachDevice) {
       return new PaginationController(pushDownLimit, pushDownOffset);
@@ -160,6 +169,8 @@ public class SeriesScanOptions {
 
     private boolean pushLimitToEachDevice = true;
 
+    private int chunkPrefetchDepth = 0;
+
     public Builder withGlobalTimeFilter(Filter globalTimeFilter) {
       this.globalTimeFilter = globalTimeFilter;
       return this;
@@ -189,6 +200,11 @@ public class SeriesScanOptions {
       this.allSensors = allSensors;
     }
 
+    public Builder withChunkPrefetchDepth(int chunkPrefetchDepth) {
+      this.chunkPrefetchDepth = chunkPrefetchDepth;
+      return this;
+    }
+
     public SeriesScanOptions build() {
       return new SeriesScanOptions(
           globalTimeFilter,
@@ -196,7 +212,8 @@ public class SeriesScanOptions {
           pushDownLimit,
           pushDownOffset,
           allSensors,
-          pushLimitToEachDevice);
+          pushLimitToEachDevice,
+          chunkPrefetchDepth);
     }
   }
 }
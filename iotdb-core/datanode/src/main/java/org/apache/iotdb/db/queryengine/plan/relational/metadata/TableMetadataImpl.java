@@ -605,6 +605,30 @@ public class TableMetadataImpl implements Metadata {
                   "Second argument of Aggregate functions [%s] should be orderable", functionName));
         }
 
+        break;
+      case SqlConstant.APPROX_COUNT_DISTINCT:
+        if (argumentTypes.size() != 1) {
+          throw new SemanticException(
+              String.format(
+                  "Aggregate functions [%s] should only have one argument", functionName));
+        }
+        break;
+      case SqlConstant.APPROX_PERCENTILE:
+        if (argumentTypes.size() != 2) {
+          throw new SemanticException(
+              String.format(
+                  "Aggregate functions [%s] should only have two arguments", functionName));
+        } else if (!isSupportedMathNumericType(argumentTypes.get(0))) {
+          throw new SemanticException(
+              String.format(
+                  "First argument of Aggregate functions [%s] only support numeric data types [INT32, INT64, FLOAT, DOUBLE]",
+                  functionName));
+        } else if (!DOUBLE.equals(argumentTypes.get(1))) {
+          throw new SemanticException(
+              String.format(
+                  "Second argument of Aggregate functions [%s] should be a DOUBLE percentile",
+                  functionName));
+        }
         break;
       case SqlConstant.COUNT:
         break;
@@ -615,6 +639,7 @@ public class TableMetadataImpl implements Metadata {
     // get return type
     switch (functionName.toLowerCase(Locale.ENGLISH)) {
       case SqlConstant.COUNT:
+      case SqlConstant.APPROX_COUNT_DISTINCT:
         return INT64;
       case SqlConstant.FIRST_AGGREGATION:
       case SqlConstant.LAST_AGGREGATION:
@@ -635,6 +660,7 @@ public class TableMetadataImpl implements Metadata {
       case SqlConstant.VARIANCE:
       case SqlConstant.VAR_POP:
       case SqlConstant.VAR_SAMP:
+      case SqlConstant.APPROX_PERCENTILE:
         return DOUBLE;
       default:
         // ignore
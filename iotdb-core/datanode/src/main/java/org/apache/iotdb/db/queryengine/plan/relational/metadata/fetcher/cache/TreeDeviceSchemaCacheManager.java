@@ -46,6 +46,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -63,6 +64,10 @@ public class TreeDeviceSchemaCacheManager {
   // cache update or clean have higher priority than cache read
   private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock(false);
 
+  // increased whenever the cache may be invalidated, to tell the schemas fetched before from those
+  // fetched after
+  private final AtomicLong schemaVersion = new AtomicLong(0);
+
   private TreeDeviceSchemaCacheManager() {
     tableDeviceSchemaCache = TableDeviceSchemaCache.getInstance();
   }
@@ -86,12 +91,17 @@ public class TreeDeviceSchemaCacheManager {
 
   public void takeWriteLock() {
     readWriteLock.writeLock().lock();
+    schemaVersion.incrementAndGet();
   }
 
   public void releaseWriteLock() {
     readWriteLock.writeLock().unlock();
   }
 
+  public long getSchemaVersion() {
+    return schemaVersion.get();
+  }
+
   /**
    * Get SchemaEntity info without auto create schema
    *
@@ -432,6 +442,7 @@ public class TreeDeviceSchemaCacheManager {
   }
 
   public void invalidate(final List<MeasurementPath> partialPathList) {
+    schemaVersion.incrementAndGet();
     // Currently invalidate by device
     partialPathList.forEach(
         measurementPath -> {
@@ -444,6 +455,7 @@ public class TreeDeviceSchemaCacheManager {
   }
 
   public void cleanUp() {
+    schemaVersion.incrementAndGet();
     tableDeviceSchemaCache.invalidateAll();
   }
 }
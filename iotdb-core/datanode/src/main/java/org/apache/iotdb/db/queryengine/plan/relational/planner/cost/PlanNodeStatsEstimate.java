@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.planner.cost;
+
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
+
+import static java.lang.Double.NaN;
+import static java.lang.Double.isNaN;
+import static java.util.Objects.requireNonNull;
+
+/** Estimated output row count and per column statistics of a plan node. */
+public class PlanNodeStatsEstimate {
+
+  private static final PlanNodeStatsEstimate UNKNOWN =
+      new PlanNodeStatsEstimate(NaN, ImmutableMap.of());
+
+  private final double outputRowCount;
+  private final Map<Symbol, SymbolStatsEstimate> symbolStatistics;
+
+  public PlanNodeStatsEstimate(
+      double outputRowCount, Map<Symbol, SymbolStatsEstimate> symbolStatistics) {
+    this.outputRowCount = outputRowCount;
+    this.symbolStatistics =
+        ImmutableMap.copyOf(requireNonNull(symbolStatistics, "symbolStatistics is null"));
+  }
+
+  public static PlanNodeStatsEstimate unknown() {
+    return UNKNOWN;
+  }
+
+  public double getOutputRowCount() {
+    return outputRowCount;
+  }
+
+  public boolean isOutputRowCountUnknown() {
+    return isNaN(outputRowCount);
+  }
+
+  public Map<Symbol, SymbolStatsEstimate> getSymbolStatistics() {
+    return symbolStatistics;
+  }
+
+  public SymbolStatsEstimate getSymbolStatistics(Symbol symbol) {
+    return symbolStatistics.getOrDefault(symbol, SymbolStatsEstimate.unknown());
+  }
+
+  /** Replace the row count, keeping the distinct values count of each column consistent. */
+  public PlanNodeStatsEstimate withOutputRowCount(double newOutputRowCount) {
+    ImmutableMap.Builder<Symbol, SymbolStatsEstimate> builder = ImmutableMap.builder();
+    symbolStatistics.forEach(
+        (symbol, stats) -> builder.put(symbol, stats.capDistinctValuesCount(newOutputRowCount)));
+    return new PlanNodeStatsEstimate(newOutputRowCount, builder.build());
+  }
+
+  @Override
+  public String toString() {
+    return "PlanNodeStatsEstimate{"
+        + "outputRowCount="
+        + outputRowCount
+        + ", symbolStatistics="
+        + symbolStatistics
+        + '}';
+  }
+}
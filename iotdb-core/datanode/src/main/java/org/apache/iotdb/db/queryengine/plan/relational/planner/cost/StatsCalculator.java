@@ -0,0 +1,318 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.planner.cost;
+
+import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.commons.partition.DataPartition;
+import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
+import org.apache.iotdb.commons.utils.TimePartitionUtils;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanVisitor;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.process.SingleChildProcessNode;
+import org.apache.iotdb.db.queryengine.plan.relational.analyzer.Analysis;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.ColumnSchema;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.DeviceEntry;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.AggregationNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.DeviceTableScanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.EnforceSingleRowNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.FilterNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.LimitNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.OffsetNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.ProjectNode;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.SymbolReference;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.tsfile.read.common.TimeRange;
+import org.apache.tsfile.read.filter.basic.Filter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.Double.NaN;
+
+/**
+ * Estimate the output size of plan nodes for cost based optimizations. The statistics of table
+ * scans are derived from the schema and the partition information fetched during planning, so no
+ * extra RPC is needed.
+ */
+public class StatsCalculator {
+
+  // The planner can not see the TsFiles of remote DataNodes, so a uniform density is assumed for
+  // each device in each time partition. The relative sizes of the inputs, which are dominated by
+  // the number of devices and time partitions, are what matter for join ordering.
+  private static final double ROWS_PER_DEVICE_PER_TIME_PARTITION = 10_000;
+
+  // selectivity of predicates that can not be analyzed
+  private static final double UNKNOWN_FILTER_COEFFICIENT = 0.9;
+
+  private final Analysis analysis;
+  private final Map<PlanNode, PlanNodeStatsEstimate> statsCache = new IdentityHashMap<>();
+  private final Visitor visitor = new Visitor();
+
+  public StatsCalculator(Analysis analysis) {
+    this.analysis = analysis;
+  }
+
+  public PlanNodeStatsEstimate calculateStats(PlanNode node) {
+    PlanNodeStatsEstimate stats = statsCache.get(node);
+    if (stats == null) {
+      stats = node.accept(visitor, null);
+      statsCache.put(node, stats);
+    }
+    return stats;
+  }
+
+  /**
+   * Estimate the row count of an equi-join by assuming that the values of each join key are
+   * uniformly distributed and contained by the side with more distinct values.
+   */
+  public static double estimateEquiJoinRowCount(
+      double leftRowCount,
+      double rightRowCount,
+      List<SymbolStatsEstimate> leftKeyStats,
+      List<SymbolStatsEstimate> rightKeyStats) {
+    double rowCount = leftRowCount * rightRowCount;
+    for (int i = 0; i < leftKeyStats.size(); i++) {
+      double leftDistinct = distinctValuesCount(leftKeyStats.get(i), leftRowCount);
+      double rightDistinct = distinctValuesCount(rightKeyStats.get(i), rightRowCount);
+      double maxDistinct = Math.max(leftDistinct, rightDistinct);
+      if (maxDistinct > 1) {
+        rowCount /= maxDistinct;
+      }
+    }
+    return rowCount;
+  }
+
+  private static double distinctValuesCount(SymbolStatsEstimate stats, double rowCount) {
+    return stats.isDistinctValuesCountUnknown()
+        ? rowCount
+        : Math.min(stats.getDistinctValuesCount(), rowCount);
+  }
+
+  private class Visitor extends PlanVisitor<PlanNodeStatsEstimate, Void> {
+
+    @Override
+    public PlanNodeStatsEstimate visitPlan(PlanNode node, Void context) {
+      return PlanNodeStatsEstimate.unknown();
+    }
+
+    @Override
+    public PlanNodeStatsEstimate visitSingleChildProcess(
+        SingleChildProcessNode node, Void context) {
+      // sort, output and similar nodes do not change the size of their input
+      return calculateStats(node.getChild());
+    }
+
+    @Override
+    public PlanNodeStatsEstimate visitProject(ProjectNode node, Void context) {
+      PlanNodeStatsEstimate childStats = calculateStats(node.getChild());
+      ImmutableMap.Builder<Symbol, SymbolStatsEstimate> builder = ImmutableMap.builder();
+      for (Map.Entry<Symbol, Expression> entry : node.getAssignments().entrySet()) {
+        if (entry.getValue() instanceof SymbolReference) {
+          Symbol source = Symbol.from(entry.getValue());
+          builder.put(entry.getKey(), childStats.getSymbolStatistics(source));
+        }
+      }
+      return new PlanNodeStatsEstimate(childStats.getOutputRowCount(), builder.build());
+    }
+
+    @Override
+    public PlanNodeStatsEstimate visitFilter(FilterNode node, Void context) {
+      PlanNodeStatsEstimate childStats = calculateStats(node.getChild());
+      return childStats.withOutputRowCount(
+          childStats.getOutputRowCount() * UNKNOWN_FILTER_COEFFICIENT);
+    }
+
+    @Override
+    public PlanNodeStatsEstimate visitLimit(LimitNode node, Void context) {
+      PlanNodeStatsEstimate childStats = calculateStats(node.getChild());
+      if (childStats.isOutputRowCountUnknown()
+          || childStats.getOutputRowCount() > node.getCount()) {
+        return childStats.withOutputRowCount(node.getCount());
+      }
+      return childStats;
+    }
+
+    @Override
+    public PlanNodeStatsEstimate visitOffset(OffsetNode node, Void context) {
+      PlanNodeStatsEstimate childStats = calculateStats(node.getChild());
+      return childStats.withOutputRowCount(
+          Math.max(childStats.getOutputRowCount() - node.getCount(), 0));
+    }
+
+    @Override
+    public PlanNodeStatsEstimate visitEnforceSingleRow(EnforceSingleRowNode node, Void context) {
+      return calculateStats(node.getChild()).withOutputRowCount(1);
+    }
+
+    @Override
+    public PlanNodeStatsEstimate visitAggregation(AggregationNode node, Void context) {
+      PlanNodeStatsEstimate childStats = calculateStats(node.getChild());
+      if (node.hasSingleGlobalAggregation()) {
+        return new PlanNodeStatsEstimate(1, ImmutableMap.of());
+      }
+      if (childStats.isOutputRowCountUnknown()) {
+        return PlanNodeStatsEstimate.unknown();
+      }
+
+      double groupCount = 1;
+      ImmutableMap.Builder<Symbol, SymbolStatsEstimate> builder = ImmutableMap.builder();
+      for (Symbol groupingKey : node.getGroupingKeys()) {
+        SymbolStatsEstimate keyStats = childStats.getSymbolStatistics(groupingKey);
+        groupCount *= distinctValuesCount(keyStats, childStats.getOutputRowCount());
+        builder.put(groupingKey, keyStats);
+      }
+      return new PlanNodeStatsEstimate(
+          Math.min(groupCount, childStats.getOutputRowCount()), builder.build());
+    }
+
+    @Override
+    public PlanNodeStatsEstimate visitJoin(JoinNode node, Void context) {
+      PlanNodeStatsEstimate leftStats = calculateStats(node.getLeftChild());
+      PlanNodeStatsEstimate rightStats = calculateStats(node.getRightChild());
+      if (leftStats.isOutputRowCountUnknown() || rightStats.isOutputRowCountUnknown()) {
+        return PlanNodeStatsEstimate.unknown();
+      }
+
+      double leftRowCount = leftStats.getOutputRowCount();
+      double rightRowCount = rightStats.getOutputRowCount();
+      List<SymbolStatsEstimate> leftKeyStats = new ArrayList<>();
+      List<SymbolStatsEstimate> rightKeyStats = new ArrayList<>();
+      for (JoinNode.EquiJoinClause clause : node.getCriteria()) {
+        leftKeyStats.add(leftStats.getSymbolStatistics(clause.getLeft()));
+        rightKeyStats.add(rightStats.getSymbolStatistics(clause.getRight()));
+      }
+      double rowCount =
+          estimateEquiJoinRowCount(leftRowCount, rightRowCount, leftKeyStats, rightKeyStats);
+      if (node.getFilter().isPresent()) {
+        rowCount *= UNKNOWN_FILTER_COEFFICIENT;
+      }
+      if (node.getJoinType() == JoinNode.JoinType.FULL) {
+        rowCount = Math.max(rowCount, Math.max(leftRowCount, rightRowCount));
+      }
+
+      Map<Symbol, SymbolStatsEstimate> symbolStatistics = new HashMap<>();
+      symbolStatistics.putAll(leftStats.getSymbolStatistics());
+      symbolStatistics.putAll(rightStats.getSymbolStatistics());
+      return new PlanNodeStatsEstimate(rowCount, symbolStatistics).withOutputRowCount(rowCount);
+    }
+
+    @Override
+    public PlanNodeStatsEstimate visitDeviceTableScan(DeviceTableScanNode node, Void context) {
+      List<DeviceEntry> deviceEntries = node.getDeviceEntries();
+      DataPartition dataPartition = analysis.getDataPartition();
+      if (deviceEntries == null || dataPartition == null) {
+        return PlanNodeStatsEstimate.unknown();
+      }
+
+      String database = node.getQualifiedObjectName().getDatabaseName();
+      Filter timeFilter = node.getTimeFilter();
+      List<TimeRange> timeRanges = timeFilter == null ? null : timeFilter.getTimeRanges();
+      Map<Long, Double> coveredFractions = new HashMap<>();
+      double interval = TimePartitionUtils.getTimePartitionInterval();
+      double timePartitionNum = 0;
+      double lowTime = Double.POSITIVE_INFINITY;
+      double highTime = Double.NEGATIVE_INFINITY;
+      for (DeviceEntry deviceEntry : deviceEntries) {
+        for (TTimePartitionSlot slot :
+            dataPartition.getTimePartitionSlotsWithTimeFilter(
+                database, deviceEntry.getDeviceID(), timeFilter)) {
+          long startTime = slot.getStartTime();
+          timePartitionNum +=
+              coveredFractions.computeIfAbsent(startTime, k -> getCoveredFraction(k, timeRanges));
+          lowTime = Math.min(lowTime, startTime);
+          highTime = Math.max(highTime, startTime + interval - 1);
+        }
+      }
+      if (timeRanges != null && !timeRanges.isEmpty()) {
+        lowTime = Math.max(lowTime, timeRanges.get(0).getMin());
+        highTime = Math.min(highTime, timeRanges.get(timeRanges.size() - 1).getMax());
+      }
+
+      double rowCount = timePartitionNum * ROWS_PER_DEVICE_PER_TIME_PARTITION;
+      if (node.getPushDownPredicate() != null) {
+        rowCount *= UNKNOWN_FILTER_COEFFICIENT;
+      }
+
+      Map<Symbol, SymbolStatsEstimate> symbolStatistics = new HashMap<>();
+      for (Map.Entry<Symbol, ColumnSchema> entry : node.getAssignments().entrySet()) {
+        TsTableColumnCategory category = entry.getValue().getColumnCategory();
+        if (category == TsTableColumnCategory.TIME) {
+          // devices of the same table usually share the same timestamps
+          double distinctTimes = deviceEntries.isEmpty() ? 0 : rowCount / deviceEntries.size();
+          symbolStatistics.put(
+              entry.getKey(),
+              rowCount == 0
+                  ? new SymbolStatsEstimate(NaN, NaN, 0)
+                  : new SymbolStatsEstimate(lowTime, highTime, distinctTimes));
+        } else if (category == TsTableColumnCategory.TAG
+            || category == TsTableColumnCategory.ATTRIBUTE) {
+          Integer index = node.getIdAndAttributeIndexMap().get(entry.getKey());
+          if (index != null) {
+            int distinctValues = countDistinctValues(deviceEntries, category, index);
+            symbolStatistics.put(
+                entry.getKey(),
+                new SymbolStatsEstimate(NaN, NaN, distinctValues).capDistinctValuesCount(rowCount));
+          }
+        }
+      }
+      return new PlanNodeStatsEstimate(rowCount, symbolStatistics);
+    }
+  }
+
+  /** The fraction of the time partition starting at startTime that is selected by the ranges. */
+  private static double getCoveredFraction(long startTime, List<TimeRange> timeRanges) {
+    if (timeRanges == null) {
+      return 1;
+    }
+    double interval = TimePartitionUtils.getTimePartitionInterval();
+    double endTime = startTime + interval - 1;
+    double covered = 0;
+    for (TimeRange timeRange : timeRanges) {
+      double overlap =
+          Math.min(endTime, timeRange.getMax()) - Math.max(startTime, timeRange.getMin()) + 1;
+      if (overlap > 0) {
+        covered += overlap;
+      }
+    }
+    return Math.min(covered / interval, 1);
+  }
+
+  private static int countDistinctValues(
+      List<DeviceEntry> deviceEntries, TsTableColumnCategory category, int index) {
+    Set<Object> distinctValues = new HashSet<>();
+    for (DeviceEntry deviceEntry : deviceEntries) {
+      // segments[0] is always tableName
+      distinctValues.add(
+          category == TsTableColumnCategory.TAG
+              ? deviceEntry.getNthSegment(index + 1)
+              : deviceEntry.getAttributeColumnValues().get(index));
+    }
+    return distinctValues.size();
+  }
+}
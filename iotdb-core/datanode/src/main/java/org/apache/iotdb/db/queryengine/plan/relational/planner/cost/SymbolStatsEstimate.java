@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.planner.cost;
+
+import static java.lang.Double.NaN;
+import static java.lang.Double.isNaN;
+
+/**
+ * Estimated statistics of one output column of a plan node. Every field may be {@link Double#NaN},
+ * which means the value is unknown.
+ */
+public class SymbolStatsEstimate {
+
+  private static final SymbolStatsEstimate UNKNOWN = new SymbolStatsEstimate(NaN, NaN, NaN);
+
+  // for TIMESTAMP and numeric columns only
+  private final double lowValue;
+  private final double highValue;
+  private final double distinctValuesCount;
+
+  public SymbolStatsEstimate(double lowValue, double highValue, double distinctValuesCount) {
+    this.lowValue = lowValue;
+    this.highValue = highValue;
+    this.distinctValuesCount = distinctValuesCount;
+  }
+
+  public static SymbolStatsEstimate unknown() {
+    return UNKNOWN;
+  }
+
+  public double getLowValue() {
+    return lowValue;
+  }
+
+  public double getHighValue() {
+    return highValue;
+  }
+
+  public double getDistinctValuesCount() {
+    return distinctValuesCount;
+  }
+
+  public boolean isDistinctValuesCountUnknown() {
+    return isNaN(distinctValuesCount);
+  }
+
+  /** The distinct values count can never exceed the row count of the plan node. */
+  public SymbolStatsEstimate capDistinctValuesCount(double outputRowCount) {
+    if (isNaN(outputRowCount) || distinctValuesCount <= outputRowCount) {
+      return this;
+    }
+    return new SymbolStatsEstimate(lowValue, highValue, outputRowCount);
+  }
+
+  @Override
+  public String toString() {
+    return "SymbolStatsEstimate{"
+        + "lowValue="
+        + lowValue
+        + ", highValue="
+        + highValue
+        + ", distinctValuesCount="
+        + distinctValuesCount
+        + '}';
+  }
+}
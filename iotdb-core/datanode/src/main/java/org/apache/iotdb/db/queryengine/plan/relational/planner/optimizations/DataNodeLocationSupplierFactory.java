@@ -80,7 +80,9 @@ public class DataNodeLocationSupplierFactory {
 
     @Override
     public List<TDataNodeLocation> getDataNodeLocations(final String tableName) {
-      if (tableName.equals(InformationSchema.QUERIES)) {
+      if (tableName.equals(InformationSchema.QUERIES)
+          || tableName.equals(InformationSchema.QUERY_PROFILES)
+          || tableName.equals(InformationSchema.DRIVER_TASKS)) {
         return getRunningDataNodeLocations();
       } else {
         throw new UnsupportedOperationException("Unknown table: " + tableName);
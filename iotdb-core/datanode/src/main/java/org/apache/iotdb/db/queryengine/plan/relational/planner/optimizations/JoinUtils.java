@@ -19,23 +19,31 @@
 
 package org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations;
 
+import org.apache.iotdb.db.queryengine.common.QueryId;
 import org.apache.iotdb.db.queryengine.plan.relational.metadata.Metadata;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.EqualityInference;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.OrderingScheme;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.SortOrder;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.SortNode;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.ComparisonExpression;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.SortOrder.ASC_NULLS_LAST;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.SymbolsExtractor.extractUnique;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.DeterminismEvaluator.isDeterministic;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.IrUtils.combineConjuncts;
@@ -53,6 +61,31 @@ public class JoinUtils {
 
   private JoinUtils() {}
 
+  /** Both children of MergeSortJoin must be sorted by the join keys. */
+  static void appendSortNodeForMergeSortJoin(JoinNode joinNode, QueryId queryId) {
+    int size = joinNode.getCriteria().size();
+    List<Symbol> leftOrderBy = new ArrayList<>(size);
+    List<Symbol> rightOrderBy = new ArrayList<>(size);
+    Map<Symbol, SortOrder> leftOrderings = new HashMap<>(size);
+    Map<Symbol, SortOrder> rightOrderings = new HashMap<>(size);
+    for (JoinNode.EquiJoinClause equiJoinClause : joinNode.getCriteria()) {
+      leftOrderBy.add(equiJoinClause.getLeft());
+      leftOrderings.put(equiJoinClause.getLeft(), ASC_NULLS_LAST);
+      rightOrderBy.add(equiJoinClause.getRight());
+      rightOrderings.put(equiJoinClause.getRight(), ASC_NULLS_LAST);
+    }
+    OrderingScheme leftOrderingScheme = new OrderingScheme(leftOrderBy, leftOrderings);
+    OrderingScheme rightOrderingScheme = new OrderingScheme(rightOrderBy, rightOrderings);
+    SortNode leftSortNode =
+        new SortNode(
+            queryId.genPlanNodeId(), joinNode.getLeftChild(), leftOrderingScheme, false, false);
+    SortNode rightSortNode =
+        new SortNode(
+            queryId.genPlanNodeId(), joinNode.getRightChild(), rightOrderingScheme, false, false);
+    joinNode.setLeftChild(leftSortNode);
+    joinNode.setRightChild(rightSortNode);
+  }
+
   static Expression extractJoinPredicate(JoinNode joinNode) {
     ImmutableList.Builder<Expression> builder = ImmutableList.builder();
     for (JoinNode.EquiJoinClause equiJoinClause : joinNode.getCriteria()) {
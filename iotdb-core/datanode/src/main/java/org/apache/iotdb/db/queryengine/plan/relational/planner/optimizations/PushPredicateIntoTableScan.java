@@ -40,8 +40,6 @@ import org.apache.iotdb.db.queryengine.plan.relational.metadata.DeviceEntry;
 import org.apache.iotdb.db.queryengine.plan.relational.metadata.Metadata;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.Assignments;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.EqualityInference;
-import org.apache.iotdb.db.queryengine.plan.relational.planner.OrderingScheme;
-import org.apache.iotdb.db.queryengine.plan.relational.planner.SortOrder;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.SymbolAllocator;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.ir.ReplaceSymbolInExpression;
@@ -50,7 +48,6 @@ import org.apache.iotdb.db.queryengine.plan.relational.planner.node.DeviceTableS
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.FilterNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.ProjectNode;
-import org.apache.iotdb.db.queryengine.plan.relational.planner.node.SortNode;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.ComparisonExpression;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.FunctionCall;
@@ -67,7 +64,6 @@ import javax.annotation.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -85,7 +81,6 @@ import static org.apache.iotdb.db.queryengine.metric.QueryPlanCostMetricSet.PART
 import static org.apache.iotdb.db.queryengine.metric.QueryPlanCostMetricSet.SCHEMA_FETCHER;
 import static org.apache.iotdb.db.queryengine.metric.QueryPlanCostMetricSet.TABLE_TYPE;
 import static org.apache.iotdb.db.queryengine.plan.analyze.AnalyzeVisitor.getTimePartitionSlotList;
-import static org.apache.iotdb.db.queryengine.plan.relational.planner.SortOrder.ASC_NULLS_LAST;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.SymbolsExtractor.extractUnique;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.DeterminismEvaluator.isDeterministic;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.GlobalTimePredicateExtractVisitor.extractGlobalTimeFilter;
@@ -95,6 +90,7 @@ import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.IrUtils
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode.JoinType.FULL;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode.JoinType.INNER;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.JoinUtils.FULL_JOIN_ONLY_SUPPORT_EQUI_JOIN;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.JoinUtils.appendSortNodeForMergeSortJoin;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.JoinUtils.extractJoinPredicate;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.JoinUtils.joinEqualityExpression;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.JoinUtils.processInnerJoin;
@@ -666,7 +662,7 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
       JoinNode outputJoinNode = (JoinNode) output;
       if (!((JoinNode) output).isCrossJoin()) {
         // inner join or full join, use MergeSortJoinNode
-        appendSortNodeForMergeSortJoin(outputJoinNode);
+        appendSortNodeForMergeSortJoin(outputJoinNode, queryId);
       }
 
       if (!TRUE_LITERAL.equals(postJoinPredicate)) {
@@ -718,30 +714,6 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
       return symbolAllocator.newSymbol(expression, analysis.getType(expression));
     }
 
-    private void appendSortNodeForMergeSortJoin(JoinNode joinNode) {
-      int size = joinNode.getCriteria().size();
-      List<Symbol> leftOrderBy = new ArrayList<>(size);
-      List<Symbol> rightOrderBy = new ArrayList<>(size);
-      Map<Symbol, SortOrder> leftOrderings = new HashMap<>(size);
-      Map<Symbol, SortOrder> rightOrderings = new HashMap<>(size);
-      for (JoinNode.EquiJoinClause equiJoinClause : joinNode.getCriteria()) {
-        leftOrderBy.add(equiJoinClause.getLeft());
-        leftOrderings.put(equiJoinClause.getLeft(), ASC_NULLS_LAST);
-        rightOrderBy.add(equiJoinClause.getRight());
-        rightOrderings.put(equiJoinClause.getRight(), ASC_NULLS_LAST);
-      }
-      OrderingScheme leftOrderingScheme = new OrderingScheme(leftOrderBy, leftOrderings);
-      OrderingScheme rightOrderingScheme = new OrderingScheme(rightOrderBy, rightOrderings);
-      SortNode leftSortNode =
-          new SortNode(
-              queryId.genPlanNodeId(), joinNode.getLeftChild(), leftOrderingScheme, false, false);
-      SortNode rightSortNode =
-          new SortNode(
-              queryId.genPlanNodeId(), joinNode.getRightChild(), rightOrderingScheme, false, false);
-      joinNode.setLeftChild(leftSortNode);
-      joinNode.setRightChild(rightSortNode);
-    }
-
     @Override
     public PlanNode visitInsertTablet(InsertTabletNode node, RewriteContext context) {
       return node;
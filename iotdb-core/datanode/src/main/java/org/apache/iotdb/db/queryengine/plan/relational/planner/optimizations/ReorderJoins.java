@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations;
+
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanVisitor;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Assignments;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.cost.PlanNodeStatsEstimate;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.cost.StatsCalculator;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.cost.SymbolStatsEstimate;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.ProjectNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.SortNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode.JoinType.INNER;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.JoinUtils.appendSortNodeForMergeSortJoin;
+
+/**
+ * <b>Optimization phase:</b> Logical plan planning.
+ *
+ * <p>A tree of inner joins connected by equi-join clauses is reordered into the left-deep tree with
+ * the lowest estimated cost, where the cost of a join is the size of its inputs, which both have
+ * to be sorted for MergeSortJoin, plus the size of its output. The sizes come from {@link
+ * StatsCalculator}.
+ *
+ * <p>This optimizer must run after {@link PushPredicateIntoTableScan}, which fetches the device
+ * entries and DataPartition the statistics are derived from and normalizes the join clauses.
+ */
+public class ReorderJoins implements PlanOptimizer {
+
+  // left-deep trees are enumerated by dynamic programming in O(2^n * n)
+  private static final int MAX_REORDERED_JOIN_SOURCES = 10;
+
+  // joins of two tables are symmetric for MergeSortJoin
+  private static final int MIN_REORDERED_JOIN_SOURCES = 3;
+
+  @Override
+  public PlanNode optimize(PlanNode plan, Context context) {
+    if (!context.getAnalysis().hasJoinNode()) {
+      return plan;
+    }
+    return plan.accept(
+        new Rewriter(
+            new StatsCalculator(context.getAnalysis()), context.getQueryContext().getQueryId()),
+        null);
+  }
+
+  private static class Rewriter extends PlanVisitor<PlanNode, Void> {
+    private final StatsCalculator statsCalculator;
+    private final QueryId queryId;
+
+    private Rewriter(StatsCalculator statsCalculator, QueryId queryId) {
+      this.statsCalculator = statsCalculator;
+      this.queryId = queryId;
+    }
+
+    @Override
+    public PlanNode visitPlan(PlanNode node, Void context) {
+      PlanNode newNode = node.clone();
+      for (PlanNode child : node.getChildren()) {
+        newNode.addChild(child.accept(this, context));
+      }
+      return newNode;
+    }
+
+    @Override
+    public PlanNode visitJoin(JoinNode node, Void context) {
+      if (isReorderable(node)) {
+        MultiJoin multiJoin = new MultiJoin();
+        multiJoin.flatten(node);
+        int[] joinOrder = multiJoin.getJoinOrder();
+        if (joinOrder != null) {
+          PlanNode result = multiJoin.buildJoinTree(joinOrder);
+          if (!node.getOutputSymbols().equals(result.getOutputSymbols())) {
+            result =
+                new ProjectNode(
+                    queryId.genPlanNodeId(), result, Assignments.identity(node.getOutputSymbols()));
+          }
+          return result;
+        }
+      }
+
+      node.setLeftChild(node.getLeftChild().accept(this, context));
+      node.setRightChild(node.getRightChild().accept(this, context));
+      return node;
+    }
+
+    /** Statistics of an equivalence class produced by both sides of a join or by one source. */
+    private static SymbolStatsEstimate mergeKeyStats(
+        SymbolStatsEstimate left, SymbolStatsEstimate right) {
+      if (left.isDistinctValuesCountUnknown()) {
+        return right;
+      }
+      if (right.isDistinctValuesCountUnknown()) {
+        return left;
+      }
+      return left.getDistinctValuesCount() <= right.getDistinctValuesCount() ? left : right;
+    }
+
+    private boolean isReorderable(JoinNode node) {
+      return node.getJoinType() == INNER
+          && !node.getCriteria().isEmpty()
+          && !node.getFilter().isPresent();
+    }
+
+    /** The inner joins to reorder, flattened into their sources and equi-join clauses. */
+    private class MultiJoin {
+      private final List<PlanNode> sources = new ArrayList<>();
+      private final Map<Symbol, Symbol> equivalenceClasses = new HashMap<>();
+      private final Set<Symbol> joinKeys = new HashSet<>();
+      // source index -> (equivalence class -> members of the class produced by the source)
+      private final List<Map<Symbol, List<Symbol>>> sourceJoinKeys = new ArrayList<>();
+
+      private void flatten(JoinNode node) {
+        for (JoinNode.EquiJoinClause clause : node.getCriteria()) {
+          joinKeys.add(clause.getLeft());
+          joinKeys.add(clause.getRight());
+          union(clause.getLeft(), clause.getRight());
+        }
+        for (PlanNode child : node.getChildren()) {
+          PlanNode source = skipSortAndIdentityProjection(child);
+          if (source instanceof JoinNode && isReorderable((JoinNode) source)) {
+            flatten((JoinNode) source);
+          } else {
+            sources.add(source);
+          }
+        }
+      }
+
+      /**
+       * SortNodes below a MergeSortJoin are rebuilt for the new join order and identity
+       * projections only prune columns, which is redone by the following column pruning.
+       */
+      private PlanNode skipSortAndIdentityProjection(PlanNode node) {
+        while (node instanceof SortNode
+            || node instanceof ProjectNode && ((ProjectNode) node).getAssignments().isIdentity()) {
+          node = node.getChildren().get(0);
+        }
+        return node;
+      }
+
+      private void union(Symbol left, Symbol right) {
+        Symbol leftRoot = find(left);
+        Symbol rightRoot = find(right);
+        if (!leftRoot.equals(rightRoot)) {
+          equivalenceClasses.put(leftRoot, rightRoot);
+        }
+      }
+
+      private Symbol find(Symbol symbol) {
+        Symbol root = symbol;
+        Symbol parent;
+        while ((parent = equivalenceClasses.get(root)) != null) {
+          root = parent;
+        }
+        return root;
+      }
+
+      /**
+       * @return the indexes of the sources in the order they should be joined, or null if the
+       *     current order should be kept.
+       */
+      private int[] getJoinOrder() {
+        int sourceNum = sources.size();
+        if (sourceNum < MIN_REORDERED_JOIN_SOURCES || sourceNum > MAX_REORDERED_JOIN_SOURCES) {
+          return null;
+        }
+
+        double[] sourceRowCounts = new double[sourceNum];
+        List<Map<Symbol, SymbolStatsEstimate>> sourceKeyStats = new ArrayList<>(sourceNum);
+        for (PlanNode source : sources) {
+          PlanNodeStatsEstimate stats = statsCalculator.calculateStats(source);
+          if (stats.isOutputRowCountUnknown()) {
+            return null;
+          }
+          double rowCount = stats.getOutputRowCount();
+          Map<Symbol, List<Symbol>> sourceKeys = new LinkedHashMap<>();
+          Map<Symbol, SymbolStatsEstimate> keyStats = new HashMap<>();
+          for (Symbol symbol : source.getOutputSymbols()) {
+            if (!joinKeys.contains(symbol)) {
+              continue;
+            }
+            Symbol equivalenceClass = find(symbol);
+            sourceKeys.computeIfAbsent(equivalenceClass, k -> new ArrayList<>()).add(symbol);
+            keyStats.merge(
+                equivalenceClass,
+                stats.getSymbolStatistics(symbol).capDistinctValuesCount(rowCount),
+                Rewriter::mergeKeyStats);
+          }
+          sourceRowCounts[sourceJoinKeys.size()] = rowCount;
+          sourceJoinKeys.add(sourceKeys);
+          sourceKeyStats.add(keyStats);
+        }
+
+        // best left-deep tree for each subset of the sources, represented as a bit mask
+        int subsetNum = 1 << sourceNum;
+        double[] costs = new double[subsetNum];
+        double[] rowCounts = new double[subsetNum];
+        int[] lastSources = new int[subsetNum];
+        List<Map<Symbol, SymbolStatsEstimate>> keyStats = new ArrayList<>(subsetNum);
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        for (int subset = 0; subset < subsetNum; subset++) {
+          keyStats.add(null);
+        }
+        for (int i = 0; i < sourceNum; i++) {
+          costs[1 << i] = 0;
+          rowCounts[1 << i] = sourceRowCounts[i];
+          lastSources[1 << i] = i;
+          keyStats.set(1 << i, sourceKeyStats.get(i));
+        }
+
+        for (int subset = 1; subset < subsetNum; subset++) {
+          if (costs[subset] == Double.POSITIVE_INFINITY) {
+            continue;
+          }
+          Map<Symbol, SymbolStatsEstimate> leftKeyStats = keyStats.get(subset);
+          for (int next = 0; next < sourceNum; next++) {
+            if ((subset & (1 << next)) != 0) {
+              continue;
+            }
+            Map<Symbol, SymbolStatsEstimate> rightKeyStats = sourceKeyStats.get(next);
+            List<SymbolStatsEstimate> leftClauseStats = new ArrayList<>();
+            List<SymbolStatsEstimate> rightClauseStats = new ArrayList<>();
+            for (Map.Entry<Symbol, SymbolStatsEstimate> entry : rightKeyStats.entrySet()) {
+              SymbolStatsEstimate leftStats = leftKeyStats.get(entry.getKey());
+              if (leftStats != null) {
+                leftClauseStats.add(leftStats);
+                rightClauseStats.add(entry.getValue());
+              }
+            }
+            if (leftClauseStats.isEmpty()) {
+              // never introduce a cross join
+              continue;
+            }
+            double rowCount =
+                StatsCalculator.estimateEquiJoinRowCount(
+                    rowCounts[subset], sourceRowCounts[next], leftClauseStats, rightClauseStats);
+
+            int newSubset = subset | (1 << next);
+            double cost = costs[subset] + rowCounts[subset] + sourceRowCounts[next] + rowCount;
+            if (cost < costs[newSubset]) {
+              costs[newSubset] = cost;
+              rowCounts[newSubset] = rowCount;
+              lastSources[newSubset] = next;
+              // values of a join key in the output must appear on both sides
+              Map<Symbol, SymbolStatsEstimate> newKeyStats = new HashMap<>(leftKeyStats);
+              rightKeyStats.forEach(
+                  (key, value) -> newKeyStats.merge(key, value, Rewriter::mergeKeyStats));
+              newKeyStats.replaceAll((key, value) -> value.capDistinctValuesCount(rowCount));
+              keyStats.set(newSubset, newKeyStats);
+            }
+          }
+        }
+
+        int subset = subsetNum - 1;
+        if (costs[subset] == Double.POSITIVE_INFINITY) {
+          return null;
+        }
+        int[] joinOrder = new int[sourceNum];
+        boolean reordered = false;
+        for (int i = sourceNum - 1; i >= 0; i--) {
+          joinOrder[i] = lastSources[subset];
+          reordered |= joinOrder[i] != i;
+          subset &= ~(1 << joinOrder[i]);
+        }
+        return reordered ? joinOrder : null;
+      }
+
+      private PlanNode buildJoinTree(int[] joinOrder) {
+        PlanNode left = sources.get(joinOrder[0]).accept(Rewriter.this, null);
+        // equivalence class -> members of the class produced by the left side, which are all equal
+        // once the class is joined, so that only the first one is needed from then on
+        Map<Symbol, List<Symbol>> leftJoinKeys = new HashMap<>(sourceJoinKeys.get(joinOrder[0]));
+        for (int i = 1; i < joinOrder.length; i++) {
+          PlanNode right = sources.get(joinOrder[i]).accept(Rewriter.this, null);
+          List<JoinNode.EquiJoinClause> criteria = new ArrayList<>();
+          for (Map.Entry<Symbol, List<Symbol>> entry :
+              sourceJoinKeys.get(joinOrder[i]).entrySet()) {
+            List<Symbol> rightKeys = entry.getValue();
+            List<Symbol> leftKeys = leftJoinKeys.putIfAbsent(entry.getKey(), rightKeys);
+            if (leftKeys == null) {
+              continue;
+            }
+            // every member of the class on either side must equal the others, e.g., a.x = a.w is
+            // implied by a.x = b.y and a.w = b.y, so all of them take part in the join clauses
+            for (Symbol leftKey : leftKeys) {
+              criteria.add(new JoinNode.EquiJoinClause(leftKey, rightKeys.get(0)));
+            }
+            for (int j = 1; j < rightKeys.size(); j++) {
+              criteria.add(new JoinNode.EquiJoinClause(leftKeys.get(0), rightKeys.get(j)));
+            }
+            leftJoinKeys.put(entry.getKey(), leftKeys.subList(0, 1));
+          }
+          JoinNode joinNode =
+              new JoinNode(
+                  queryId.genPlanNodeId(),
+                  INNER,
+                  left,
+                  right,
+                  criteria,
+                  left.getOutputSymbols(),
+                  right.getOutputSymbols(),
+                  Optional.empty(),
+                  Optional.empty());
+          appendSortNodeForMergeSortJoin(joinNode, queryId);
+          left = joinNode;
+        }
+        return left;
+      }
+    }
+  }
+}
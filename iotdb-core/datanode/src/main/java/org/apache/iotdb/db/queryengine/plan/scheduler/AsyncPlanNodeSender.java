@@ -24,6 +24,7 @@ import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.client.IClientManager;
 import org.apache.iotdb.commons.client.async.AsyncDataNodeInternalServiceClient;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.FragmentInstance;
+import org.apache.iotdb.db.storageengine.dataregion.MinWrittenTimeTracker;
 import org.apache.iotdb.mpp.rpc.thrift.TPlanNode;
 import org.apache.iotdb.mpp.rpc.thrift.TSendBatchPlanNodeReq;
 import org.apache.iotdb.mpp.rpc.thrift.TSendSinglePlanNodeReq;
@@ -70,18 +71,25 @@ public class AsyncPlanNodeSender {
           .computeIfAbsent(
               instances.get(i).getHostDataNode().getInternalEndPoint(),
               x -> new BatchRequestWithIndex())
-          .addSinglePlanNodeReq(
-              i,
-              new TSendSinglePlanNodeReq(
-                  new TPlanNode(
-                      instances.get(i).getFragment().getPlanNodeTree().serializeToByteBuffer()),
-                  instances.get(i).getRegionReplicaSet().getRegionId()));
+          .addSinglePlanNodeReq(i, buildSendSinglePlanNodeReq(instances.get(i)));
     }
     this.instanceId2RespMap = new ConcurrentHashMap<>(instances.size() + 1, 1);
     this.needRetryInstanceIndex = Collections.synchronizedList(new ArrayList<>());
     this.pendingNumber = new AtomicLong(batchRequests.keySet().size());
   }
 
+  private static TSendSinglePlanNodeReq buildSendSinglePlanNodeReq(FragmentInstance instance) {
+    TSendSinglePlanNodeReq req =
+        new TSendSinglePlanNodeReq(
+            new TPlanNode(instance.getFragment().getPlanNodeTree().serializeToByteBuffer()),
+            instance.getRegionReplicaSet().getRegionId());
+    if (MinWrittenTimeTracker.getInstance()
+        .isGeneratedByContinuousQuery(instance.getSessionInfo())) {
+      req.setGeneratedByContinuousQuery(true);
+    }
+    return req;
+  }
+
   public void sendAll() {
     for (Map.Entry<TEndPoint, BatchRequestWithIndex> entry : batchRequests.entrySet()) {
       AsyncSendPlanNodeHandler handler =
@@ -170,14 +178,7 @@ public class AsyncPlanNodeSender {
               x -> new BatchRequestWithIndex())
           .addSinglePlanNodeReq(
               fragmentInstanceIndex,
-              new TSendSinglePlanNodeReq(
-                  new TPlanNode(
-                      instances
-                          .get(fragmentInstanceIndex)
-                          .getFragment()
-                          .getPlanNodeTree()
-                          .serializeToByteBuffer()),
-                  instances.get(fragmentInstanceIndex).getRegionReplicaSet().getRegionId()));
+              buildSendSinglePlanNodeReq(instances.get(fragmentInstanceIndex)));
     }
 
     // 2. reset the pendingNumber, needRetryInstanceIds and startSendTime
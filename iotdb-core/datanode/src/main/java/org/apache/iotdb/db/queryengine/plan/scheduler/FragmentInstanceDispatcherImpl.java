@@ -43,6 +43,7 @@ import org.apache.iotdb.db.queryengine.plan.planner.plan.FragmentInstance;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.schema.TableSchemaQuerySuccessfulCallbackVisitor;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.schema.TableSchemaQueryWriteVisitor;
+import org.apache.iotdb.db.storageengine.dataregion.MinWrittenTimeTracker;
 import org.apache.iotdb.db.utils.SetThreadName;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstance;
 import org.apache.iotdb.mpp.rpc.thrift.TPlanNode;
@@ -357,13 +358,16 @@ public class FragmentInstanceDispatcherImpl implements IFragInstanceDispatcher {
           }
           break;
         case WRITE:
+          final TSendSinglePlanNodeReq sendSinglePlanNodeReq =
+              new TSendSinglePlanNodeReq(
+                  new TPlanNode(instance.getFragment().getPlanNodeTree().serializeToByteBuffer()),
+                  instance.getRegionReplicaSet().getRegionId());
+          if (MinWrittenTimeTracker.getInstance()
+              .isGeneratedByContinuousQuery(instance.getSessionInfo())) {
+            sendSinglePlanNodeReq.setGeneratedByContinuousQuery(true);
+          }
           final TSendBatchPlanNodeReq sendPlanNodeReq =
-              new TSendBatchPlanNodeReq(
-                  Collections.singletonList(
-                      new TSendSinglePlanNodeReq(
-                          new TPlanNode(
-                              instance.getFragment().getPlanNodeTree().serializeToByteBuffer()),
-                          instance.getRegionReplicaSet().getRegionId())));
+              new TSendBatchPlanNodeReq(Collections.singletonList(sendSinglePlanNodeReq));
           final TSendSinglePlanNodeResp sendPlanNodeResp =
               client.sendBatchPlanNode(sendPlanNodeReq).getResponses().get(0);
           if (!sendPlanNodeResp.accepted) {
@@ -498,7 +502,12 @@ public class FragmentInstanceDispatcherImpl implements IFragInstanceDispatcher {
       case WRITE:
         final PlanNode planNode = instance.getFragment().getPlanNodeTree();
         final RegionWriteExecutor writeExecutor = new RegionWriteExecutor();
-        final RegionExecutionResult writeResult = writeExecutor.execute(groupId, planNode);
+        final RegionExecutionResult writeResult =
+            writeExecutor.execute(
+                groupId,
+                planNode,
+                MinWrittenTimeTracker.getInstance()
+                    .isGeneratedByContinuousQuery(instance.getSessionInfo()));
         if (!writeResult.isAccepted()) {
           if (writeResult.getStatus() == null) {
             throw new FragmentInstanceDispatchException(
@@ -28,6 +28,7 @@ import org.apache.iotdb.db.exception.sql.SemanticException;
 import org.apache.iotdb.db.queryengine.execution.operator.window.WindowType;
 import org.apache.iotdb.db.queryengine.execution.operator.window.ainode.InferenceWindow;
 import org.apache.iotdb.db.queryengine.plan.analyze.ExpressionAnalyzer;
+import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.PreparedSchemaTreeCache;
 import org.apache.iotdb.db.queryengine.plan.expression.Expression;
 import org.apache.iotdb.db.queryengine.plan.expression.leaf.TimeSeriesOperand;
 import org.apache.iotdb.db.queryengine.plan.expression.multi.FunctionExpression;
@@ -136,6 +137,9 @@ public class QueryStatement extends AuthorityInformationStatement {
   // we can skip the query
   private boolean isResultSetEmpty = false;
 
+  // the schema tree cache of the prepared statement that this query is bound from, if any
+  private PreparedSchemaTreeCache preparedSchemaTreeCache;
+
   // [IoTDB-AI] used for model inference, which will be removed in the future
   private String modelName;
   private boolean hasModelInference = false;
@@ -542,6 +546,14 @@ public class QueryStatement extends AuthorityInformationStatement {
     return intoComponent != null;
   }
 
+  public PreparedSchemaTreeCache getPreparedSchemaTreeCache() {
+    return preparedSchemaTreeCache;
+  }
+
+  public void setPreparedSchemaTreeCache(PreparedSchemaTreeCache preparedSchemaTreeCache) {
+    this.preparedSchemaTreeCache = preparedSchemaTreeCache;
+  }
+
   public boolean isCqQueryBody() {
     return isCqQueryBody;
   }
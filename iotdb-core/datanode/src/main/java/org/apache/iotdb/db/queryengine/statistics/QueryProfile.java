@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.statistics;
+
+/**
+ * Resource usage of one query on this DataNode, merged from its finished fragment instances and
+ * kept by {@link QueryProfileManager}.
+ */
+public class QueryProfile {
+
+  private final String queryId;
+  private final int dataNodeId;
+  private final int fragmentInstanceNum;
+  private final long startTime;
+  private final long endTime;
+  private final long cpuTimeInNanos;
+  private final long readBytes;
+  private final long diskChunkNum;
+  private final long chunkCacheHitNum;
+  private final long timeSeriesMetadataCacheHitNum;
+  private final long bloomFilterCacheHitNum;
+  private final long decodedPageNum;
+  private final long peakMemoryInBytes;
+
+  @SuppressWarnings("squid:S107")
+  public QueryProfile(
+      String queryId,
+      int dataNodeId,
+      int fragmentInstanceNum,
+      long startTime,
+      long endTime,
+      long cpuTimeInNanos,
+      long readBytes,
+      long diskChunkNum,
+      long chunkCacheHitNum,
+      long timeSeriesMetadataCacheHitNum,
+      long bloomFilterCacheHitNum,
+      long decodedPageNum,
+      long peakMemoryInBytes) {
+    this.queryId = queryId;
+    this.dataNodeId = dataNodeId;
+    this.fragmentInstanceNum = fragmentInstanceNum;
+    this.startTime = startTime;
+    this.endTime = endTime;
+    this.cpuTimeInNanos = cpuTimeInNanos;
+    this.readBytes = readBytes;
+    this.diskChunkNum = diskChunkNum;
+    this.chunkCacheHitNum = chunkCacheHitNum;
+    this.timeSeriesMetadataCacheHitNum = timeSeriesMetadataCacheHitNum;
+    this.bloomFilterCacheHitNum = bloomFilterCacheHitNum;
+    this.decodedPageNum = decodedPageNum;
+    this.peakMemoryInBytes = peakMemoryInBytes;
+  }
+
+  /**
+   * Merge the profile of other fragment instances of the same query. The counters are added up, the
+   * time range covers both, and the peak memory is the sum of both peaks, which is an upper bound
+   * since the fragment instances may not run at the same time.
+   */
+  public QueryProfile merge(QueryProfile other) {
+    return new QueryProfile(
+        queryId,
+        dataNodeId,
+        fragmentInstanceNum + other.fragmentInstanceNum,
+        Math.min(startTime, other.startTime),
+        Math.max(endTime, other.endTime),
+        cpuTimeInNanos + other.cpuTimeInNanos,
+        readBytes + other.readBytes,
+        diskChunkNum + other.diskChunkNum,
+        chunkCacheHitNum + other.chunkCacheHitNum,
+        timeSeriesMetadataCacheHitNum + other.timeSeriesMetadataCacheHitNum,
+        bloomFilterCacheHitNum + other.bloomFilterCacheHitNum,
+        decodedPageNum + other.decodedPageNum,
+        peakMemoryInBytes + other.peakMemoryInBytes);
+  }
+
+  public String getQueryId() {
+    return queryId;
+  }
+
+  public int getDataNodeId() {
+    return dataNodeId;
+  }
+
+  public int getFragmentInstanceNum() {
+    return fragmentInstanceNum;
+  }
+
+  public long getStartTime() {
+    return startTime;
+  }
+
+  public long getEndTime() {
+    return endTime;
+  }
+
+  /** From the start of the first fragment instance to the end of the last one. */
+  public long getElapsedTimeInMs() {
+    return endTime - startTime;
+  }
+
+  public long getCpuTimeInNanos() {
+    return cpuTimeInNanos;
+  }
+
+  public long getReadBytes() {
+    return readBytes;
+  }
+
+  public long getDiskChunkNum() {
+    return diskChunkNum;
+  }
+
+  public long getChunkCacheHitNum() {
+    return chunkCacheHitNum;
+  }
+
+  public long getTimeSeriesMetadataCacheHitNum() {
+    return timeSeriesMetadataCacheHitNum;
+  }
+
+  public long getBloomFilterCacheHitNum() {
+    return bloomFilterCacheHitNum;
+  }
+
+  public long getDecodedPageNum() {
+    return decodedPageNum;
+  }
+
+  public long getPeakMemoryInBytes() {
+    return peakMemoryInBytes;
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.statistics;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.QueryStatistics;
+import org.apache.iotdb.db.queryengine.metric.QueryProfileMetricSet;
+import org.apache.iotdb.db.queryengine.plan.planner.memory.MemoryReservationManager;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the resource profiles of the most recent queries whose execution time on this DataNode
+ * exceeds {@link IoTDBConfig#getQueryProfileThreshold()}. The profiles of the fragment instances of
+ * a query are merged by query id as they finish, so a query is profiled once its fragment
+ * instances span the threshold, even if none of them does alone. The profiles are shown in
+ * information_schema.query_profiles, and the fragment instances exceeding the threshold are
+ * reported to {@link QueryProfileMetricSet}.
+ */
+public class QueryProfileManager {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private final int maxRetainedNum;
+
+  /** The queries which have not exceeded the threshold yet, the oldest first. */
+  @GuardedBy("this")
+  private final Map<String, QueryProfile> pendingProfiles;
+
+  /** The retained profiles, the oldest first. */
+  @GuardedBy("this")
+  private final Map<String, QueryProfile> profiles;
+
+  private QueryProfileManager() {
+    this(CONFIG.getQueryProfileRetainedNum());
+  }
+
+  @TestOnly
+  QueryProfileManager(int maxRetainedNum) {
+    this.maxRetainedNum = maxRetainedNum;
+    this.pendingProfiles = createBoundedMap();
+    this.profiles = createBoundedMap();
+  }
+
+  private Map<String, QueryProfile> createBoundedMap() {
+    return new LinkedHashMap<String, QueryProfile>() {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, QueryProfile> eldest) {
+        return size() > maxRetainedNum;
+      }
+    };
+  }
+
+  /**
+   * Merge the profile of a finished fragment instance into the profile of its query. Called once
+   * when the resources of the fragment instance are released.
+   */
+  public void tryRecord(FragmentInstanceContext context, long elapsedTimeInMs) {
+    long threshold = CONFIG.getQueryProfileThreshold();
+    if (threshold < 0) {
+      return;
+    }
+
+    QueryStatistics statistics = context.getQueryStatistics();
+    MemoryReservationManager memoryReservationManager = context.getMemoryReservationContext();
+    QueryProfile profile =
+        new QueryProfile(
+            context.getId().getQueryId().getId(),
+            CONFIG.getDataNodeId(),
+            1,
+            context.getStartTime(),
+            context.getStartTime() + elapsedTimeInMs,
+            context.getCpuTimeInNanos(),
+            statistics.getLoadBloomFilterActualIOSize().get()
+                + statistics.getLoadTimeSeriesMetadataActualIOSize().get()
+                + statistics.getLoadChunkActualIOSize().get(),
+            statistics.getLoadChunkFromDiskCount().get(),
+            statistics.getLoadChunkFromCacheCount().get(),
+            statistics.getLoadTimeSeriesMetadataFromCacheCount().get(),
+            statistics.getLoadBloomFilterFromCacheCount().get(),
+            statistics.getPageReadersDecodeAlignedMemCount().get()
+                + statistics.getPageReadersDecodeAlignedDiskCount().get()
+                + statistics.getPageReadersDecodeNonAlignedMemCount().get()
+                + statistics.getPageReadersDecodeNonAlignedDiskCount().get(),
+            memoryReservationManager == null ? 0 : memoryReservationManager.getPeakReservedBytes());
+
+    if (elapsedTimeInMs >= threshold) {
+      QueryProfileMetricSet.getInstance().recordProfile(profile);
+    }
+    record(profile, threshold);
+  }
+
+  /**
+   * Merge the profile into the one of the same query. A pending query is retained once its elapsed
+   * time exceeds the threshold, and the profiles of the later fragment instances are merged into
+   * it. The oldest pending and retained queries are evicted when there are too many.
+   */
+  synchronized void record(QueryProfile profile, long threshold) {
+    String queryId = profile.getQueryId();
+    QueryProfile retained = profiles.get(queryId);
+    if (retained != null) {
+      // replacing the value keeps the insertion order
+      profiles.put(queryId, retained.merge(profile));
+      return;
+    }
+    QueryProfile pending = pendingProfiles.remove(queryId);
+    QueryProfile merged = pending == null ? profile : pending.merge(profile);
+    if (merged.getElapsedTimeInMs() >= threshold) {
+      profiles.put(queryId, merged);
+    } else {
+      pendingProfiles.put(queryId, merged);
+    }
+  }
+
+  /** Get a snapshot of all retained profiles, the oldest first. */
+  public synchronized List<QueryProfile> getAllProfiles() {
+    return new ArrayList<>(profiles.values());
+  }
+
+  public static QueryProfileManager getInstance() {
+    return QueryProfileManagerHolder.INSTANCE;
+  }
+
+  private static class QueryProfileManagerHolder {
+
+    private static final QueryProfileManager INSTANCE = new QueryProfileManager();
+
+    private QueryProfileManagerHolder() {
+      // empty constructor
+    }
+  }
+}
@@ -103,6 +103,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.Compacti
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.flush.FlushManager;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessor;
+import org.apache.iotdb.db.storageengine.dataregion.migration.TierMigrationService;
 import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALMode;
 import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
@@ -792,6 +793,9 @@ public class DataNode extends ServerCommandLine implements DataNodeMBean {
     // Must init before StorageEngine
     registerManager.register(CompactionScheduleTaskManager.getInstance());
 
+    // Must recover before StorageEngine, so that no TsFile is loaded from two tiers
+    TierMigrationService.getInstance().recover();
+
     // In mpp mode we need to start some other services
     registerManager.register(StorageEngine.getInstance());
     registerManager.register(MPPDataExchangeService.getInstance());
@@ -820,6 +824,7 @@ public class DataNode extends ServerCommandLine implements DataNodeMBean {
     registerManager.register(RegionMigrateService.getInstance());
 
     registerManager.register(CompactionTaskManager.getInstance());
+    registerManager.register(TierMigrationService.getInstance());
 
     // Register subscription agent before pipe agent
     registerManager.register(SubscriptionAgent.runtime());
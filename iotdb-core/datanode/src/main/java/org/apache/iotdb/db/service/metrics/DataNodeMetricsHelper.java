@@ -36,6 +36,7 @@ import org.apache.iotdb.db.queryengine.metric.DataExchangeCountMetricSet;
 import org.apache.iotdb.db.queryengine.metric.DriverSchedulerMetricSet;
 import org.apache.iotdb.db.queryengine.metric.QueryExecutionMetricSet;
 import org.apache.iotdb.db.queryengine.metric.QueryPlanCostMetricSet;
+import org.apache.iotdb.db.queryengine.metric.QueryProfileMetricSet;
 import org.apache.iotdb.db.queryengine.metric.QueryRelatedResourceMetricSet;
 import org.apache.iotdb.db.queryengine.metric.QueryResourceMetricSet;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
@@ -83,6 +84,7 @@ public class DataNodeMetricsHelper {
     metricService.addMetricSet(DataExchangeCountMetricSet.getInstance());
     metricService.addMetricSet(DriverSchedulerMetricSet.getInstance());
     metricService.addMetricSet(QueryRelatedResourceMetricSet.getInstance());
+    metricService.addMetricSet(QueryProfileMetricSet.getInstance());
 
     // bind performance overview related metrics
     metricService.addMetricSet(PerformanceOverviewMetrics.getInstance());
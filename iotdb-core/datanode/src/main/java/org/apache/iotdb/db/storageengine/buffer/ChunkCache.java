@@ -44,6 +44,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.LongConsumer;
 
@@ -70,6 +71,10 @@ public class ChunkCache {
   // to save memory footprint, we don't save measurementId in ChunkHeader of Chunk
   private final Cache<ChunkCacheKey, Chunk> lruCache;
 
+  // chunks consumed by queries after being prefetched, and those already loaded among them
+  private final AtomicLong prefetchedChunkRequestCount = new AtomicLong(0);
+  private final AtomicLong prefetchedChunkHitCount = new AtomicLong(0);
+
   private ChunkCache() {
     if (CACHE_ENABLE) {
       LOGGER.info("ChunkCache size = {}", MEMORY_THRESHOLD_IN_CHUNK_CACHE);
@@ -172,6 +177,39 @@ public class ChunkCache {
     }
   }
 
+  /**
+   * Load the chunk into the cache ahead of the query. Does nothing if the chunk has been cached or
+   * the cache is disabled. A concurrent {@link #get} of the same chunk waits for this load instead
+   * of reading the chunk again.
+   */
+  public void prefetch(ChunkCacheKey chunkCacheKey, QueryContext queryContext) throws IOException {
+    if (!CACHE_ENABLE) {
+      return;
+    }
+    try {
+      lruCache.get(
+          chunkCacheKey,
+          new ChunkLoader(queryContext.getQueryStatistics().getLoadChunkActualIOSize()::addAndGet));
+    } catch (IoTDBIORuntimeException e) {
+      throw e.getCause();
+    }
+  }
+
+  public void recordPrefetchedChunkConsumed(boolean hit) {
+    prefetchedChunkRequestCount.incrementAndGet();
+    if (hit) {
+      prefetchedChunkHitCount.incrementAndGet();
+    }
+  }
+
+  public long getPrefetchedChunkRequestCount() {
+    return prefetchedChunkRequestCount.get();
+  }
+
+  public long getPrefetchedChunkHitCount() {
+    return prefetchedChunkHitCount.get();
+  }
+
   private Chunk constructChunk(
       Chunk chunk, List<TimeRange> timeRangeList, Statistics chunkStatistic) {
     return new Chunk(
@@ -0,0 +1,327 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.apache.tsfile.read.reader.TsFileInput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class caches the TsFiles on the last tier, which is usually a remote object storage, in
+ * blocks of {@link #BLOCK_SIZE} bytes on the local disk. A block is read from the remote tier on
+ * the first access and read from the local disk afterwards, until it is evicted. The caching
+ * strategy is LRU and the total size of the cached blocks is limited by {@code
+ * tier_cache_size_in_bytes}.
+ */
+public class TierCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TierCache.class);
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  public static final int BLOCK_SIZE = 1 << 20;
+
+  private static class ExecutorHolder {
+
+    private static final ExecutorService EXECUTOR =
+        IoTDBThreadPoolFactory.newSingleThreadExecutor(ThreadName.TIER_CACHE_PREFETCH.getName());
+
+    private ExecutorHolder() {
+      // Empty constructor
+    }
+  }
+
+  private final File cacheDir;
+  private final long capacityInBytes;
+
+  // value is the length of the block
+  private final Cache<BlockKey, Integer> blocks;
+  // the blocks of a file are stored with the id of the file instead of its path
+  private final Map<String, Long> fileIds = new ConcurrentHashMap<>();
+  private final AtomicLong nextFileId = new AtomicLong(0);
+
+  private final AtomicLong hitCount = new AtomicLong(0);
+  private final AtomicLong missCount = new AtomicLong(0);
+
+  private TierCache() {
+    this(new File(CONFIG.getTierCacheDir()), CONFIG.getTierCacheSizeInBytes());
+  }
+
+  @TestOnly
+  public TierCache(File cacheDir, long capacityInBytes) {
+    this.cacheDir = cacheDir;
+    this.capacityInBytes = capacityInBytes;
+    if (capacityInBytes > 0) {
+      // the blocks left by the last run can not be mapped to their files any more
+      FileUtils.deleteFileOrDirectory(cacheDir, true);
+      if (!cacheDir.mkdirs()) {
+        LOGGER.warn("Failed to create tier cache dir {}", cacheDir);
+      }
+      LOGGER.info("TierCache dir = {}, size = {}", cacheDir, capacityInBytes);
+    }
+    this.blocks =
+        Caffeine.newBuilder()
+            .maximumWeight(Math.max(capacityInBytes, 0))
+            .weigher((Weigher<BlockKey, Integer>) (key, length) -> length)
+            // delete the evicted blocks in the caller thread, so the disk usage follows the cache
+            .executor(Runnable::run)
+            .removalListener(
+                (BlockKey key, Integer length, RemovalCause cause) -> {
+                  // a replaced block has been overwritten by the new one
+                  if (key != null && cause != RemovalCause.REPLACED) {
+                    deleteBlockFile(key);
+                  }
+                })
+            .build();
+  }
+
+  public static TierCache getInstance() {
+    return TierCacheHolder.INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return capacityInBytes > 0;
+  }
+
+  /** Whether the reads of the TsFile should go through this cache. */
+  public boolean shouldCache(String filePath) {
+    if (!isEnabled()) {
+      return false;
+    }
+    TierManager tierManager = TierManager.getInstance();
+    int tiersNum = tierManager.getTiersNum();
+    return tiersNum > 1 && tierManager.getFileTierLevel(new File(filePath)) == tiersNum - 1;
+  }
+
+  /**
+   * @return the block of the file starting at {@code blockIndex * BLOCK_SIZE}, read from the local
+   *     disk if it is cached, or else read from the input and cached
+   */
+  public ByteBuffer getBlock(TsFileInput input, long fileSize, int blockIndex) throws IOException {
+    BlockKey key = new BlockKey(getFileId(input.getFilePath()), blockIndex);
+    if (blocks.getIfPresent(key) != null) {
+      ByteBuffer block = readLocalBlock(key);
+      if (block != null) {
+        hitCount.incrementAndGet();
+        return block;
+      }
+    }
+    missCount.incrementAndGet();
+    ByteBuffer block = readRemoteBlock(input, fileSize, blockIndex);
+    writeLocalBlock(key, block.duplicate());
+    return block;
+  }
+
+  /** Caches the blocks of the file from {@code position} to the end in the background. */
+  public void prefetch(TsFileInput input, long fileSize, long position) {
+    if (!isEnabled() || position >= fileSize) {
+      return;
+    }
+    ExecutorHolder.EXECUTOR.submit(
+        () -> {
+          long fileId = getFileId(input.getFilePath());
+          int lastBlockIndex = (int) ((fileSize - 1) / BLOCK_SIZE);
+          try {
+            for (int i = (int) (position / BLOCK_SIZE); i <= lastBlockIndex; i++) {
+              if (blocks.getIfPresent(new BlockKey(fileId, i)) == null) {
+                writeLocalBlock(new BlockKey(fileId, i), readRemoteBlock(input, fileSize, i));
+              }
+            }
+          } catch (IOException | RuntimeException e) {
+            // the blocks will be read again by the queries, and the error reported if there is any
+            LOGGER.debug("Failed to prefetch {} into tier cache", input.getFilePath(), e);
+          }
+        });
+  }
+
+  /** Removes the cached blocks of the file, called when the file is deleted. */
+  public void invalidate(String filePath) {
+    Long fileId = fileIds.remove(filePath);
+    if (fileId != null) {
+      blocks.asMap().keySet().removeIf(key -> key.fileId == fileId);
+    }
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  @TestOnly
+  public long getUsedBytes() {
+    blocks.cleanUp();
+    return blocks.asMap().values().stream().mapToLong(Integer::longValue).sum();
+  }
+
+  @TestOnly
+  public void clear() {
+    blocks.invalidateAll();
+    blocks.cleanUp();
+    fileIds.clear();
+  }
+
+  private long getFileId(String filePath) {
+    return fileIds.computeIfAbsent(filePath, k -> nextFileId.getAndIncrement());
+  }
+
+  private ByteBuffer readLocalBlock(BlockKey key) {
+    try {
+      return ByteBuffer.wrap(Files.readAllBytes(getBlockPath(key)));
+    } catch (NoSuchFileException e) {
+      // evicted and deleted after being looked up
+      return null;
+    } catch (IOException e) {
+      LOGGER.warn("Failed to read block {} from tier cache", getBlockPath(key), e);
+      blocks.invalidate(key);
+      return null;
+    }
+  }
+
+  private static ByteBuffer readRemoteBlock(TsFileInput input, long fileSize, int blockIndex)
+      throws IOException {
+    long blockStart = (long) blockIndex * BLOCK_SIZE;
+    ByteBuffer block = ByteBuffer.allocate((int) Math.min(BLOCK_SIZE, fileSize - blockStart));
+    while (block.hasRemaining()) {
+      if (input.read(block, blockStart + block.position()) < 0) {
+        throw new EOFException(
+            String.format(
+                "Reached the end of %s at %d while reading block %d",
+                input.getFilePath(), blockStart + block.position(), blockIndex));
+      }
+    }
+    block.flip();
+    return block;
+  }
+
+  private void writeLocalBlock(BlockKey key, ByteBuffer block) {
+    Path tmpPath = null;
+    try {
+      // written to a temporary file first so that a reader never sees a partial block
+      tmpPath = Files.createTempFile(cacheDir.toPath(), key.toString(), ".tmp");
+      int length = block.remaining();
+      Files.write(tmpPath, toArray(block));
+      Files.move(
+          tmpPath,
+          getBlockPath(key),
+          StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+      blocks.put(key, length);
+    } catch (IOException e) {
+      LOGGER.warn("Failed to write block {} into tier cache", key, e);
+      if (tmpPath != null) {
+        FileUtils.deleteFileOrDirectory(tmpPath.toFile(), true);
+      }
+    }
+  }
+
+  private static byte[] toArray(ByteBuffer buffer) {
+    if (buffer.hasArray()
+        && buffer.arrayOffset() == 0
+        && buffer.position() == 0
+        && buffer.remaining() == buffer.array().length) {
+      return buffer.array();
+    }
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private void deleteBlockFile(BlockKey key) {
+    try {
+      Files.deleteIfExists(getBlockPath(key));
+    } catch (IOException e) {
+      LOGGER.warn("Failed to delete block {} of tier cache", key, e);
+    }
+  }
+
+  private Path getBlockPath(BlockKey key) {
+    return new File(cacheDir, key.toString()).toPath();
+  }
+
+  private static class BlockKey {
+
+    private final long fileId;
+    private final int blockIndex;
+
+    private BlockKey(long fileId, int blockIndex) {
+      this.fileId = fileId;
+      this.blockIndex = blockIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      BlockKey that = (BlockKey) o;
+      return fileId == that.fileId && blockIndex == that.blockIndex;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(fileId, blockIndex);
+    }
+
+    @Override
+    public String toString() {
+      return fileId + "-" + blockIndex;
+    }
+  }
+
+  private static class TierCacheHolder {
+
+    private static final TierCache INSTANCE = new TierCache();
+
+    private TierCacheHolder() {
+      // Empty constructor
+    }
+  }
+}
@@ -44,11 +44,14 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.LongConsumer;
@@ -78,6 +81,12 @@ public class TimeSeriesMetadataCache {
 
   private final AtomicLong entryAverageSize = new AtomicLong(0);
 
+  // checks of the series presence filters of TsFiles, and how many of them skipped the file or
+  // turned out to be false positives
+  private final AtomicLong seriesPresenceFilterRequestCount = new AtomicLong(0);
+  private final AtomicLong seriesPresenceFilterNegativeCount = new AtomicLong(0);
+  private final AtomicLong seriesPresenceFilterFalsePositiveCount = new AtomicLong(0);
+
   private final Map<String, WeakReference<String>> devices =
       Collections.synchronizedMap(new WeakHashMap<>());
   private static final String SEPARATOR = "$";
@@ -248,6 +257,182 @@ public class TimeSeriesMetadataCache {
     }
   }
 
+  /**
+   * Get the TimeseriesMetadata of several measurements of one device in one file. Different from
+   * calling {@link #get} for each measurement, all the cache misses are resolved together under one
+   * lock: each leaf node of the metadata index containing any of the missed measurements is
+   * traversed and read only once, and the measurements that don't exist in the file are not looked
+   * up again for every one of them.
+   *
+   * @return the TimeseriesMetadata in the order of measurements, null for a measurement which
+   *     doesn't exist in the file or has no data
+   */
+  @SuppressWarnings({"squid:S1860", "squid:S3776"}) // Suppress synchronize warning
+  public List<TimeseriesMetadata> get(
+      String filePath,
+      TsFileID tsFileID,
+      IDeviceID device,
+      List<String> measurements,
+      Set<String> allSensors,
+      boolean ignoreNotExists,
+      boolean debug,
+      QueryContext queryContext)
+      throws IOException {
+    if (!CACHE_ENABLE) {
+      List<TimeseriesMetadata> result = new ArrayList<>(measurements.size());
+      for (String measurement : measurements) {
+        result.add(
+            get(
+                filePath,
+                new TimeSeriesMetadataCacheKey(tsFileID, device, measurement),
+                allSensors,
+                ignoreNotExists,
+                debug,
+                queryContext));
+      }
+      return result;
+    }
+
+    long startTime = System.nanoTime();
+    long loadBloomFilterTime = 0;
+    TimeseriesMetadata[] result = new TimeseriesMetadata[measurements.size()];
+    List<Integer> missedIndexes = new ArrayList<>();
+    for (int i = 0; i < measurements.size(); i++) {
+      result[i] =
+          lruCache.getIfPresent(
+              new TimeSeriesMetadataCacheKey(tsFileID, device, measurements.get(i)));
+      if (result[i] == null) {
+        missedIndexes.add(i);
+      }
+    }
+    int hitCount = measurements.size() - missedIndexes.size();
+
+    try {
+      if (missedIndexes.isEmpty()) {
+        return copyOf(result);
+      }
+      if (debug) {
+        DEBUG_LOGGER.info(
+            "Cache miss: {} sensors of {} in file: {}", missedIndexes.size(), device, filePath);
+      }
+
+      String deviceStringFormat = device.toString();
+      // allow for the parallelism of different devices
+      synchronized (
+          devices.computeIfAbsent(deviceStringFormat + SEPARATOR + filePath, WeakReference::new)) {
+        // double check
+        Set<String> measurementsToRead = new TreeSet<>();
+        for (int i : missedIndexes) {
+          result[i] =
+              lruCache.getIfPresent(
+                  new TimeSeriesMetadataCacheKey(tsFileID, device, measurements.get(i)));
+          if (result[i] == null) {
+            measurementsToRead.add(measurements.get(i));
+          } else {
+            hitCount++;
+          }
+        }
+        if (measurementsToRead.isEmpty()) {
+          return copyOf(result);
+        }
+
+        long loadBloomFilterStartTime = System.nanoTime();
+        BloomFilter bloomFilter =
+            BloomFilterCache.getInstance()
+                .get(
+                    new BloomFilterCache.BloomFilterCacheKey(filePath, tsFileID),
+                    debug,
+                    queryContext.getQueryStatistics().getLoadBloomFilterActualIOSize()::addAndGet,
+                    queryContext.getQueryStatistics().getLoadBloomFilterFromCacheCount()
+                        ::addAndGet,
+                    queryContext.getQueryStatistics().getLoadBloomFilterFromDiskCount()
+                        ::addAndGet);
+        if (bloomFilter != null) {
+          measurementsToRead.removeIf(
+              measurement ->
+                  !bloomFilter.contains(
+                      deviceStringFormat + TsFileConstant.PATH_SEPARATOR + measurement));
+        }
+        loadBloomFilterTime = System.nanoTime() - loadBloomFilterStartTime;
+
+        Map<String, TimeseriesMetadata> readTimeseriesMetadata =
+            readTimeseriesMetadata(
+                filePath, tsFileID, device, measurementsToRead, ignoreNotExists, queryContext);
+        for (int i : missedIndexes) {
+          if (result[i] == null) {
+            result[i] = readTimeseriesMetadata.get(measurements.get(i));
+          }
+        }
+        return copyOf(result);
+      }
+    } finally {
+      int missCount = measurements.size() - hitCount;
+      queryContext.getQueryStatistics().getLoadBloomFilterTime().getAndAdd(loadBloomFilterTime);
+      queryContext
+          .getQueryStatistics()
+          .getLoadTimeSeriesMetadataFromCacheCount()
+          .addAndGet(hitCount);
+      queryContext
+          .getQueryStatistics()
+          .getLoadTimeSeriesMetadataFromDiskCount()
+          .addAndGet(missCount);
+      // in metric panel, loading BloomFilter time is included in loading TimeSeriesMetadata
+      SERIES_SCAN_COST_METRIC_SET.recordSeriesScanCost(
+          missCount == 0 ? READ_TIMESERIES_METADATA_CACHE : READ_TIMESERIES_METADATA_FILE,
+          System.nanoTime() - startTime);
+    }
+  }
+
+  /**
+   * Read the TimeseriesMetadata of the measurements from the file and put them into the cache. Each
+   * read resolves all the remaining measurements located in the same leaf node of the metadata
+   * index as the smallest remaining one, so each leaf node is read once.
+   */
+  private Map<String, TimeseriesMetadata> readTimeseriesMetadata(
+      String filePath,
+      TsFileID tsFileID,
+      IDeviceID device,
+      Set<String> measurements,
+      boolean ignoreNotExists,
+      QueryContext queryContext)
+      throws IOException {
+    Map<String, TimeseriesMetadata> result = new HashMap<>();
+    if (measurements.isEmpty()) {
+      return result;
+    }
+
+    LongConsumer ioSizeRecorder =
+        queryContext.getQueryStatistics().getLoadTimeSeriesMetadataActualIOSize()::addAndGet;
+    TsFileSequenceReader reader =
+        FileReaderManager.getInstance().get(filePath, true, ioSizeRecorder);
+    TreeSet<String> remaining = new TreeSet<>(measurements);
+    while (!remaining.isEmpty()) {
+      String measurement = remaining.pollFirst();
+      List<TimeseriesMetadata> timeseriesMetadataList =
+          reader.readTimeseriesMetadata(
+              device, measurement, remaining, ignoreNotExists, ioSizeRecorder);
+      for (TimeseriesMetadata metadata : timeseriesMetadataList) {
+        String measurementId = metadata.getMeasurementId();
+        remaining.remove(measurementId);
+        if (metadata.getStatistics().getCount() != 0) {
+          lruCache.put(new TimeSeriesMetadataCacheKey(tsFileID, device, measurementId), metadata);
+          if (measurements.contains(measurementId)) {
+            result.put(measurementId, metadata);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  private static List<TimeseriesMetadata> copyOf(TimeseriesMetadata[] timeseriesMetadataArray) {
+    List<TimeseriesMetadata> result = new ArrayList<>(timeseriesMetadataArray.length);
+    for (TimeseriesMetadata timeseriesMetadata : timeseriesMetadataArray) {
+      result.add(timeseriesMetadata == null ? null : new TimeseriesMetadata(timeseriesMetadata));
+    }
+    return result;
+  }
+
   public double calculateTimeSeriesMetadataHitRatio() {
     return lruCache.stats().hitRate();
   }
@@ -272,6 +457,29 @@ public class TimeSeriesMetadataCache {
     return BloomFilterCache.getInstance().calculateBloomFilterHitRatio();
   }
 
+  public void recordSeriesPresenceFilterResult(boolean mayContain) {
+    seriesPresenceFilterRequestCount.incrementAndGet();
+    if (!mayContain) {
+      seriesPresenceFilterNegativeCount.incrementAndGet();
+    }
+  }
+
+  public void recordSeriesPresenceFilterFalsePositive() {
+    seriesPresenceFilterFalsePositiveCount.incrementAndGet();
+  }
+
+  public long getSeriesPresenceFilterRequestCount() {
+    return seriesPresenceFilterRequestCount.get();
+  }
+
+  public long getSeriesPresenceFilterNegativeCount() {
+    return seriesPresenceFilterNegativeCount.get();
+  }
+
+  public long getSeriesPresenceFilterFalsePositiveCount() {
+    return seriesPresenceFilterFalsePositiveCount.get();
+  }
+
   /** clear LRUCache. */
   public void clear() {
     lruCache.invalidateAll();
@@ -56,6 +56,7 @@ import org.apache.iotdb.db.queryengine.common.DeviceContext;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.metric.QueryResourceMetricSet;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeTTLCache;
+import org.apache.iotdb.db.queryengine.plan.execution.QueryResultCache;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.ContinuousSameSearchIndexSeparatorNode;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.DeleteDataNode;
@@ -1493,6 +1494,9 @@ public class DataRegion implements IDataRegionForQuery {
   }
 
   private TsFileProcessor getOrCreateTsFileProcessor(long timeRangeId, boolean sequence) {
+    // called by the writes holding the write lock, so a query caching its result either reads the
+    // written points or sees the bumped version of the time partition
+    QueryResultCache.getInstance().invalidate(databaseName, timeRangeId);
     TsFileProcessor tsFileProcessor = null;
     int retryCnt = 0;
     do {
@@ -2244,6 +2248,8 @@ public class DataRegion implements IDataRegionForQuery {
       if (!hasReleasedLock) {
         writeUnlock();
       }
+      // after the sealed files are handled without the lock
+      QueryResultCache.getInstance().invalidate(databaseName);
     }
   }
 
@@ -2313,6 +2319,8 @@ public class DataRegion implements IDataRegionForQuery {
       if (!hasReleasedLock) {
         writeUnlock();
       }
+      // after the sealed files are handled without the lock
+      QueryResultCache.getInstance().invalidate(databaseName);
     }
   }
 
@@ -2366,6 +2374,8 @@ public class DataRegion implements IDataRegionForQuery {
       if (!releasedLock) {
         writeUnlock();
       }
+      // after the sealed files are handled without the lock
+      QueryResultCache.getInstance().invalidate(databaseName);
     }
   }
 
@@ -2936,6 +2946,7 @@ public class DataRegion implements IDataRegionForQuery {
 
     writeLock("loadNewTsFile");
     try {
+      QueryResultCache.getInstance().invalidate(databaseName, newFilePartitionId);
       newTsFileResource.setSeq(false);
       final String newFileName =
           getNewTsFileName(
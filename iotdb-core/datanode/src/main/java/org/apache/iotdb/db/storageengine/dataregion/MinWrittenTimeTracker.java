@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion;
+
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.db.queryengine.common.SessionInfo;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the minimum time of the points written into each user database of this DataNode since it
+ * is last polled. It is reported to the ConfigNode by heartbeat, so that the continuous queries
+ * reading the database recompute the windows of their earlier executions which receive late data.
+ *
+ * <p>The points are tracked once by the region leader executing the write. The points written by
+ * the continuous queries themselves are not tracked, otherwise the results of each execution would
+ * be late data for the next one.
+ */
+public class MinWrittenTimeTracker {
+
+  // database -> the minimum time of the points written since the last poll
+  private final Map<String, Long> minWrittenTimes = new ConcurrentHashMap<>();
+
+  // sessions executing continuous queries on this DataNode, including their SELECT INTO sessions
+  private final Set<Long> continuousQuerySessionIds = ConcurrentHashMap.newKeySet();
+
+  private MinWrittenTimeTracker() {
+    // singleton
+  }
+
+  public static boolean isEnabled() {
+    return CommonDescriptor.getInstance().getConfig().getContinuousQueryLateDataLookbackInMs() > 0;
+  }
+
+  public void update(String databaseName, long time, boolean isGeneratedByContinuousQuery) {
+    if (isGeneratedByContinuousQuery || time == Long.MAX_VALUE) {
+      return;
+    }
+    // most points are later than the tracked one, which are checked without any write
+    Long minWrittenTime = minWrittenTimes.get(databaseName);
+    if (minWrittenTime != null && time >= minWrittenTime) {
+      return;
+    }
+    minWrittenTimes.merge(databaseName, time, Math::min);
+  }
+
+  /**
+   * Returns the minimum time of the points written into each database since the last call. The
+   * databases without any written point are absent.
+   */
+  public Map<String, Long> poll() {
+    if (minWrittenTimes.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    Map<String, Long> result = new HashMap<>();
+    for (String database : minWrittenTimes.keySet()) {
+      Long minWrittenTime = minWrittenTimes.remove(database);
+      if (minWrittenTime != null) {
+        DataRegion.getNonSystemDatabaseName(database)
+            .ifPresent(name -> result.merge(name, minWrittenTime, Math::min));
+      }
+    }
+    return result;
+  }
+
+  public void registerContinuousQuerySession(long sessionId) {
+    continuousQuerySessionIds.add(sessionId);
+  }
+
+  public void deregisterContinuousQuerySession(long sessionId) {
+    continuousQuerySessionIds.remove(sessionId);
+  }
+
+  /** Whether the statements of the session are issued by a continuous query. */
+  public boolean isGeneratedByContinuousQuery(SessionInfo sessionInfo) {
+    return sessionInfo != null && continuousQuerySessionIds.contains(sessionInfo.getSessionId());
+  }
+
+  public static MinWrittenTimeTracker getInstance() {
+    return MinWrittenTimeTrackerHolder.INSTANCE;
+  }
+
+  private static class MinWrittenTimeTrackerHolder {
+
+    private static final MinWrittenTimeTracker INSTANCE = new MinWrittenTimeTracker();
+  }
+}
@@ -457,6 +457,10 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
 
     CompactionUtils.combineModsInInnerCompaction(
         filesView.sourceFilesInCompactionPerformer, filesView.targetFilesInPerformer);
+    if (filesView.sequence) {
+      CompactionUtils.mergeRollupsInInnerCompaction(
+          filesView.sourceFilesInCompactionPerformer, filesView.targetFilesInPerformer);
+    }
   }
 
   public void recover() {
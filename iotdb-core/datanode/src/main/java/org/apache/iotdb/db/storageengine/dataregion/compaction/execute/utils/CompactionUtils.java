@@ -26,6 +26,7 @@ import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.service.metrics.CompactionMetrics;
 import org.apache.iotdb.db.service.metrics.FileMetrics;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
@@ -38,6 +39,7 @@ import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFil
 import org.apache.iotdb.db.storageengine.dataregion.modification.TableDeletionEntry;
 import org.apache.iotdb.db.storageengine.dataregion.modification.TreeDeletionEntry;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileRollup;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ArrayDeviceTimeIndex;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.SystemMetric;
@@ -245,6 +247,46 @@ public class CompactionUtils {
     }
   }
 
+  /**
+   * Merge the rollups of the source files of an inner space sequence compaction as the rollups of
+   * the target file. Nothing is written if there are several targets, a source is modified or has
+   * no rollups, or the merged rollups take more memory than a TsFile being written may take.
+   */
+  public static void mergeRollupsInInnerCompaction(
+      List<TsFileResource> sourceFiles, List<TsFileResource> targetFiles) {
+    if (targetFiles.size() != 1 || targetFiles.get(0).isDeleted() || sourceFiles.isEmpty()) {
+      return;
+    }
+    TsFileResource targetFile = targetFiles.get(0);
+    long maxRollupMemCost =
+        IoTDBDescriptor.getInstance().getConfig().getRollupMaxMemoryInBytesPerTsFile();
+    TsFileRollup targetRollup = null;
+    try {
+      for (TsFileResource sourceFile : sourceFiles) {
+        if (sourceFile.anyModFileExists()) {
+          return;
+        }
+        TsFileRollup sourceRollup = TsFileRollup.deserialize(sourceFile.getTsFile());
+        if (sourceRollup == null
+            || (targetRollup != null && targetRollup.getInterval() != sourceRollup.getInterval())) {
+          return;
+        }
+        if (targetRollup == null) {
+          targetRollup = sourceRollup;
+        } else {
+          targetRollup.merge(sourceRollup);
+        }
+        if (targetRollup.ramBytesUsed() > maxRollupMemCost) {
+          return;
+        }
+      }
+      targetRollup.serialize(targetFile.getTsFile());
+    } catch (IOException e) {
+      // the rollups are optional, queries read the file itself without them
+      logger.warn("Failed to merge the rollups of the target file {}", targetFile, e);
+    }
+  }
+
   public static void addFilesToFileMetrics(TsFileResource resource) {
     FileMetrics.getInstance()
         .addTsFile(
@@ -95,7 +95,7 @@ public abstract class AbstractInnerCompactionWriter extends AbstractCompactionWr
   private void useNewWriter() throws IOException {
     fileWriter =
         new CompactionTsFileWriter(
-            targetResources.get(currentFileIndex).getTsFile(),
+            targetResources.get(currentFileIndex),
             memoryBudgetForFileWriter,
             targetResources.get(currentFileIndex).isSeq()
                 ? CompactionType.INNER_SEQ_COMPACTION
@@ -19,10 +19,13 @@
 
 package org.apache.iotdb.db.storageengine.dataregion.compaction.io;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.service.metrics.CompactionMetrics;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionIoDataType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.SeriesPresenceFilter;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
@@ -37,7 +40,6 @@ import org.apache.tsfile.write.chunk.IChunkWriter;
 import org.apache.tsfile.write.record.Tablet.ColumnCategory;
 import org.apache.tsfile.write.writer.TsFileIOWriter;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Iterator;
@@ -51,10 +53,19 @@ public class CompactionTsFileWriter extends TsFileIOWriter {
   private boolean isEmptyTargetFile = true;
   private IDeviceID currentDeviceId;
 
-  public CompactionTsFileWriter(File file, long maxMetadataSize, CompactionType type)
+  private final TsFileResource targetResource;
+  private final SeriesPresenceFilter.Builder seriesPresenceFilterBuilder;
+
+  public CompactionTsFileWriter(
+      TsFileResource targetResource, long maxMetadataSize, CompactionType type)
       throws IOException {
-    super(file, maxMetadataSize);
+    super(targetResource.getTsFile(), maxMetadataSize);
     this.type = type;
+    this.targetResource = targetResource;
+    this.seriesPresenceFilterBuilder =
+        IoTDBDescriptor.getInstance().getConfig().isSeriesPresenceFilterEnable()
+            ? new SeriesPresenceFilter.Builder()
+            : null;
     super.out =
         new CompactionTsFileOutput(
             super.out, CompactionTaskManager.getInstance().getMergeWriteRateLimiter());
@@ -136,6 +147,9 @@ public class CompactionTsFileWriter extends TsFileIOWriter {
     TableSchema tableSchema = getSchema().getTableSchemaMap().get(tableName);
     boolean generateTableSchemaForCurrentChunkGroup = tableSchema != null;
     setGenerateTableSchema(generateTableSchemaForCurrentChunkGroup);
+    if (seriesPresenceFilterBuilder != null) {
+      seriesPresenceFilterBuilder.add(currentDeviceId, chunkMetadataList);
+    }
     super.endChunkGroup();
     currentDeviceId = null;
   }
@@ -148,6 +162,9 @@ public class CompactionTsFileWriter extends TsFileIOWriter {
     long writtenDataSize = this.getPos() - beforeSize;
     CompactionMetrics.getInstance()
         .recordWriteInfo(type, CompactionIoDataType.METADATA, writtenDataSize);
+    if (seriesPresenceFilterBuilder != null) {
+      targetResource.setSeriesPresenceFilter(seriesPresenceFilterBuilder.build());
+    }
   }
 
   public boolean isEmptyTargetFile() {
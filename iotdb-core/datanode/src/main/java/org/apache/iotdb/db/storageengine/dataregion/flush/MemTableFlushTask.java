@@ -30,6 +30,8 @@ import org.apache.iotdb.db.storageengine.dataregion.flush.pool.FlushSubTaskPoolM
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IMemTable;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IWritableMemChunk;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IWritableMemChunkGroup;
+import org.apache.iotdb.db.storageengine.dataregion.memtable.WritableMemChunk;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileRollup;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 
@@ -78,6 +80,9 @@ public class MemTableFlushTask {
 
   private IMemTable memTable;
 
+  // the rollups of the flushed series, null if they are not collected
+  private final TsFileRollup rollup;
+
   private volatile long memSerializeTime = 0L;
   private volatile long ioTime = 0L;
 
@@ -91,10 +96,26 @@ public class MemTableFlushTask {
       RestorableTsFileIOWriter writer,
       String storageGroup,
       String dataRegionId) {
+    this(memTable, writer, storageGroup, dataRegionId, null);
+  }
+
+  /**
+   * @param memTable the memTable to flush
+   * @param writer the writer where memTable will be flushed to (current tsfile writer or vm writer)
+   * @param storageGroup current database
+   * @param rollup where the rollups of the non-aligned series are collected, null if not needed
+   */
+  public MemTableFlushTask(
+      IMemTable memTable,
+      RestorableTsFileIOWriter writer,
+      String storageGroup,
+      String dataRegionId,
+      TsFileRollup rollup) {
     this.memTable = memTable;
     this.writer = writer;
     this.storageGroup = storageGroup;
     this.dataRegionId = dataRegionId;
+    this.rollup = rollup;
     this.encodingTaskFuture = SUB_TASK_POOL_MANAGER.submit(encodingTask);
     this.ioTaskFuture = SUB_TASK_POOL_MANAGER.submit(ioTask);
     LOGGER.debug(
@@ -218,6 +239,7 @@ public class MemTableFlushTask {
               "Database {} memtable flushing to file {} starts to encoding data.",
               storageGroup,
               writer.getFile().getName());
+          IDeviceID currentDeviceId = null;
           while (true) {
 
             Object task;
@@ -229,6 +251,9 @@ public class MemTableFlushTask {
               break;
             }
             if (task instanceof StartFlushGroupIOTask || task instanceof EndChunkGroupIoTask) {
+              if (task instanceof StartFlushGroupIOTask) {
+                currentDeviceId = ((StartFlushGroupIOTask) task).deviceId;
+              }
               try {
                 ioTaskQueue.put(task);
               } catch (
@@ -251,6 +276,9 @@ public class MemTableFlushTask {
               writableMemChunk.encode(seriesWriter);
               seriesWriter.sealCurrentPage();
               seriesWriter.clearPageWriter();
+              if (rollup != null && writableMemChunk instanceof WritableMemChunk) {
+                rollup.collect(currentDeviceId, (WritableMemChunk) writableMemChunk);
+              }
               try {
                 ioTaskQueue.put(seriesWriter);
               } catch (InterruptedException e) {
@@ -34,6 +34,7 @@ import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
 import org.apache.tsfile.read.common.TimeRange;
 import org.apache.tsfile.read.reader.IPointReader;
+import org.apache.tsfile.write.UnSupportedDataTypeException;
 import org.apache.tsfile.write.schema.IMeasurementSchema;
 
 import java.util.ArrayList;
@@ -46,6 +47,13 @@ public class AlignedReadOnlyMemChunk extends ReadOnlyMemChunk {
 
   private final List<TSDataType> dataTypes;
 
+  // the read view of the TVList and the parameters to build the TsBlock, null once it is built
+  private AlignedTVList tvList;
+  private final int floatPrecision;
+  private final List<TSEncoding> encodingList;
+  private List<TimeRange> timeColumnDeletion;
+  private List<List<TimeRange>> valueColumnsDeletionList;
+
   /**
    * The constructor for Aligned type.
    *
@@ -65,20 +73,29 @@ public class AlignedReadOnlyMemChunk extends ReadOnlyMemChunk {
     this.timeChunkName = schema.getMeasurementName();
     this.valueChunkNames = schema.getSubMeasurementsList();
     this.dataTypes = schema.getSubMeasurementsTSDataTypeList();
-    int floatPrecision = TSFileDescriptor.getInstance().getConfig().getFloatPrecision();
-    List<TSEncoding> encodingList = schema.getSubMeasurementsTSEncodingList();
-    this.tsBlock =
-        ((AlignedTVList) tvList)
-            .buildTsBlock(
-                floatPrecision,
-                encodingList,
-                timeColumnDeletion,
-                valueColumnsDeletionList,
-                context.isIgnoreAllNullRows());
+    this.floatPrecision = TSFileDescriptor.getInstance().getConfig().getFloatPrecision();
+    this.encodingList = schema.getSubMeasurementsTSEncodingList();
+    this.tvList = (AlignedTVList) tvList;
+    this.timeColumnDeletion = timeColumnDeletion;
+    this.valueColumnsDeletionList = valueColumnsDeletionList;
+  }
+
+  @Override
+  protected void build() {
+    tsBlock =
+        tvList.buildTsBlock(
+            floatPrecision,
+            encodingList,
+            timeColumnDeletion,
+            valueColumnsDeletionList,
+            context.isIgnoreAllNullRows());
+    tvList = null;
+    timeColumnDeletion = null;
+    valueColumnsDeletionList = null;
     initAlignedChunkMetaFromTsBlock();
   }
 
-  private void initAlignedChunkMetaFromTsBlock() throws QueryProcessException {
+  private void initAlignedChunkMetaFromTsBlock() {
     // Time chunk
     Statistics timeStatistics = Statistics.getStatsByType(TSDataType.VECTOR);
     IChunkMetadata timeChunkMetadata =
@@ -147,7 +164,7 @@ public class AlignedReadOnlyMemChunk extends ReadOnlyMemChunk {
           }
           break;
         default:
-          throw new QueryProcessException("Unsupported data type:" + dataTypes.get(column));
+          throw new UnSupportedDataTypeException("Unsupported data type:" + dataTypes.get(column));
       }
       if (valueStatistics.getCount() > 0) {
         IChunkMetadata valueChunkMetadata =
@@ -168,11 +185,11 @@ public class AlignedReadOnlyMemChunk extends ReadOnlyMemChunk {
 
   @Override
   public boolean isEmpty() {
-    return tsBlock.isEmpty();
+    return getTsBlock().isEmpty();
   }
 
   @Override
   public IPointReader getPointReader() {
-    return tsBlock.getTsBlockAlignedRowIterator();
+    return getTsBlock().getTsBlockAlignedRowIterator();
   }
 }
@@ -272,7 +272,7 @@ public class AlignedWritableMemChunk implements IWritableMemChunk {
     sortTVList();
     // increase reference count
     list.increaseReferenceCount();
-    return list;
+    return list.getReadView();
   }
 
   @Override
@@ -292,12 +292,9 @@ public class AlignedWritableMemChunk implements IWritableMemChunk {
   }
 
   private void sortTVList() {
-    // check reference count
-    if ((list.getReferenceCount() > 0 && !list.isSorted())) {
-      list = list.clone();
-    }
-
     if (!list.isSorted()) {
+      // the rows read by queries must not be moved, copy the shared arrays the sorting writes into
+      list.copySharedArraysForSort();
       list.sort();
     }
   }
@@ -308,20 +305,20 @@ public class AlignedWritableMemChunk implements IWritableMemChunk {
   }
 
   @Override
-  public int delete(long lowerBound, long upperBound) {
+  public synchronized int delete(long lowerBound, long upperBound) {
     return list.delete(lowerBound, upperBound);
   }
 
-  public int deleteTime(long lowerBound, long upperBound) {
+  public synchronized int deleteTime(long lowerBound, long upperBound) {
     return list.deleteTime(lowerBound, upperBound);
   }
 
-  public Pair<Integer, Boolean> deleteDataFromAColumn(
+  public synchronized Pair<Integer, Boolean> deleteDataFromAColumn(
       long lowerBound, long upperBound, String measurementId) {
     return list.delete(lowerBound, upperBound, measurementIndexMap.get(measurementId));
   }
 
-  public void removeColumn(String measurementId) {
+  public synchronized void removeColumn(String measurementId) {
     list.deleteColumn(measurementIndexMap.get(measurementId));
     IMeasurementSchema schemaToBeRemoved = schemaList.get(measurementIndexMap.get(measurementId));
     schemaList.remove(schemaToBeRemoved);
@@ -486,7 +483,7 @@ public class AlignedWritableMemChunk implements IWritableMemChunk {
 
   @Override
   public void release() {
-    if (list.getReferenceCount() == 0) {
+    if (!list.isShared()) {
       list.clear();
     }
   }
@@ -34,6 +34,7 @@ import org.apache.tsfile.file.metadata.statistics.Statistics;
 import org.apache.tsfile.read.common.TimeRange;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.reader.IPointReader;
+import org.apache.tsfile.write.UnSupportedDataTypeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,6 +45,11 @@ import java.util.Map;
 /**
  * ReadOnlyMemChunk is a snapshot of the working MemTable and flushing memtable in the memory used
  * for querying.
+ *
+ * <p>The snapshot is a read view of the TVList sharing its arrays, the TsBlock and the chunk
+ * metadata are built from it on first access instead of in the constructor, which is called while
+ * holding the locks of the data region and the TsFileProcessor, so that the rows are copied without
+ * blocking the writers.
  */
 public class ReadOnlyMemChunk {
 
@@ -59,6 +65,12 @@ public class ReadOnlyMemChunk {
 
   protected TsBlock tsBlock;
 
+  // the read view of the TVList and the parameters to build the TsBlock, null once it is built
+  private TVList tvList;
+  private int floatPrecision;
+  private TSEncoding encoding;
+  private List<TimeRange> deletionList;
+
   protected ReadOnlyMemChunk(QueryContext context) {
     this.context = context;
   }
@@ -92,15 +104,31 @@ public class ReadOnlyMemChunk {
         floatPrecision = TSFileDescriptor.getInstance().getConfig().getFloatPrecision();
       }
     }
-    this.tsBlock = tvList.buildTsBlock(floatPrecision, encoding, deletionList);
+    this.tvList = tvList;
+    this.floatPrecision = floatPrecision;
+    this.encoding = encoding;
+    this.deletionList = deletionList;
+  }
+
+  /** Builds the TsBlock and the chunk metadata if they are not built yet. */
+  protected final synchronized void buildIfNecessary() {
+    if (tsBlock == null) {
+      build();
+    }
+  }
+
+  protected void build() {
+    tsBlock = tvList.buildTsBlock(floatPrecision, encoding, deletionList);
+    tvList = null;
+    deletionList = null;
     initChunkMetaFromTsBlock();
   }
 
-  private void initChunkMetaFromTsBlock() throws QueryProcessException {
+  private void initChunkMetaFromTsBlock() {
     Statistics statsByType = Statistics.getStatsByType(dataType);
     IChunkMetadata metaData =
         new ChunkMetadata(measurementUid, dataType, null, null, 0, statsByType);
-    if (!isEmpty()) {
+    if (!tsBlock.isEmpty()) {
       switch (dataType) {
         case BOOLEAN:
           for (int i = 0; i < tsBlock.getPositionCount(); i++) {
@@ -137,10 +165,10 @@ public class ReadOnlyMemChunk {
           }
           break;
         default:
-          throw new QueryProcessException("Unsupported data type:" + dataType);
+          throw new UnSupportedDataTypeException("Unsupported data type:" + dataType);
       }
     }
-    statsByType.setEmpty(isEmpty());
+    statsByType.setEmpty(tsBlock.isEmpty());
     metaData.setChunkLoader(new MemChunkLoader(context, this));
     metaData.setVersion(Long.MAX_VALUE);
     cachedMetaData = metaData;
@@ -151,18 +179,20 @@ public class ReadOnlyMemChunk {
   }
 
   public boolean isEmpty() {
-    return tsBlock.isEmpty();
+    return getTsBlock().isEmpty();
   }
 
   public IChunkMetadata getChunkMetaData() {
+    buildIfNecessary();
     return cachedMetaData;
   }
 
   public IPointReader getPointReader() {
-    return tsBlock.getTsBlockSingleColumnIterator();
+    return getTsBlock().getTsBlockSingleColumnIterator();
   }
 
   public TsBlock getTsBlock() {
+    buildIfNecessary();
     return tsBlock;
   }
 }
@@ -62,7 +62,9 @@ import org.apache.iotdb.db.storageengine.dataregion.read.filescan.IFileScanHandl
 import org.apache.iotdb.db.storageengine.dataregion.read.filescan.impl.DiskAlignedChunkHandleImpl;
 import org.apache.iotdb.db.storageengine.dataregion.read.filescan.impl.DiskChunkHandleImpl;
 import org.apache.iotdb.db.storageengine.dataregion.read.filescan.impl.UnclosedFileScanHandleImpl;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.SeriesPresenceFilter;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileRollup;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeIndexCacheRecorder;
 import org.apache.iotdb.db.storageengine.dataregion.utils.SharedTimeDataBuffer;
 import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
@@ -74,6 +76,7 @@ import org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.db.utils.MemUtils;
 import org.apache.iotdb.db.utils.ModificationUtils;
+import org.apache.iotdb.db.utils.TimestampPrecisionUtils;
 import org.apache.iotdb.db.utils.datastructure.AlignedTVList;
 import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.rpc.RpcUtils;
@@ -81,6 +84,7 @@ import org.apache.iotdb.rpc.TSStatusCode;
 
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.AlignedChunkMetadata;
+import org.apache.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
 import org.apache.tsfile.file.metadata.IDeviceID;
@@ -182,6 +186,15 @@ public class TsFileProcessor {
   /** Total memtable size for mem control. */
   private long totalMemTableSize;
 
+  /**
+   * The rollups of the flushed memtables, null if they are not collected, which is the case for
+   * unsequence files and files reopened during recovery.
+   */
+  private TsFileRollup tsFileRollup;
+
+  /** The memory of {@link #tsFileRollup} charged to the data region. */
+  private long tsFileRollupMemCost;
+
   private static final String FLUSH_QUERY_WRITE_LOCKED = "{}: {} get flushQueryLock write lock";
   private static final String FLUSH_QUERY_WRITE_RELEASE =
       "{}: {} get flushQueryLock write lock released";
@@ -222,6 +235,12 @@ public class TsFileProcessor {
     flushListeners.add(FlushListener.DefaultMemTableFLushListener.INSTANCE);
     flushListeners.add(this.walNode);
     closeFileListeners.add(closeUnsealedTsFileProcessor);
+    if (sequence && config.getRollupIntervalInMs() > 0) {
+      this.tsFileRollup =
+          new TsFileRollup(
+              TimestampPrecisionUtils.convertToCurrPrecision(
+                  config.getRollupIntervalInMs(), TimeUnit.MILLISECONDS));
+    }
     logger.info("create a new tsfile processor {}", tsfile.getAbsolutePath());
   }
 
@@ -1516,13 +1535,21 @@ public class TsFileProcessor {
       } else {
         try {
           writer.mark();
+          TsFileRollup memTableRollup =
+              tsFileRollup == null ? null : new TsFileRollup(tsFileRollup.getInterval());
           MemTableFlushTask flushTask =
               new MemTableFlushTask(
                   memTableToFlush,
                   writer,
                   dataRegionName,
-                  dataRegionInfo.getDataRegion().getDataRegionId());
+                  dataRegionInfo.getDataRegion().getDataRegionId(),
+                  memTableRollup);
           flushTask.syncFlushMemTable();
+          if (memTableRollup != null) {
+            // merged only after the memtable is flushed, as a failed flush is truncated
+            tsFileRollup.merge(memTableRollup);
+            updateRollupMemCost();
+          }
           memTableFlushPointCount = memTableToFlush.getTotalPointsNum();
         } catch (Throwable e) {
           if (writer == null) {
@@ -1718,7 +1745,23 @@ public class TsFileProcessor {
     if (logger.isDebugEnabled()) {
       logger.debug("Start to end file {}", tsFileResource);
     }
+    if (config.isSeriesPresenceFilterEnable()) {
+      // built before ending the file, which releases the chunk group metadata of the writer
+      SeriesPresenceFilter.Builder builder = new SeriesPresenceFilter.Builder();
+      for (ChunkGroupMetadata chunkGroupMetadata : writer.getChunkGroupMetadataList()) {
+        builder.add(chunkGroupMetadata.getDevice(), chunkGroupMetadata.getChunkMetadataList());
+      }
+      tsFileResource.setSeriesPresenceFilter(builder.build());
+    }
     writer.endFile();
+    if (tsFileRollup != null && !tsFileRollup.isEmpty()) {
+      try {
+        tsFileRollup.serialize(tsFileResource.getTsFile());
+      } catch (IOException e) {
+        // the rollups are optional, queries read the file itself without them
+        logger.warn("{}: failed to write the rollups of {}", dataRegionName, tsFileResource, e);
+      }
+    }
     tsFileResource.serialize();
     FileTimeIndexCacheRecorder.getInstance().logFileTimeIndex(tsFileResource);
     if (logger.isDebugEnabled()) {
@@ -1730,6 +1773,7 @@ public class TsFileProcessor {
       closeFileListener.onClosed(this);
     }
 
+    releaseRollup();
     tsFileProcessorInfo.clear();
     dataRegionInfo.closeTsFileProcessorAndReportToSystem(this);
 
@@ -1746,6 +1790,7 @@ public class TsFileProcessor {
     for (CloseFileListener closeFileListener : closeFileListeners) {
       closeFileListener.onClosed(this);
     }
+    releaseRollup();
     tsFileProcessorInfo.clear();
     dataRegionInfo.closeTsFileProcessorAndReportToSystem(this);
     logger.info(
@@ -2202,6 +2247,33 @@ public class TsFileProcessor {
     this.timeRangeId = timeRangeId;
   }
 
+  /**
+   * Charges the memory of the rollups to the data region like the chunk metadata, which is only
+   * released when the TsFile is sealed. The rollups are dropped once they exceed the limit, then
+   * the TsFile is sealed without rollups.
+   */
+  private void updateRollupMemCost() {
+    long memCost = tsFileRollup.ramBytesUsed();
+    if (memCost > config.getRollupMaxMemoryInBytesPerTsFile()) {
+      logger.info(
+          "{}: the rollups of {} take {} bytes, more than {}, the file is sealed without rollups",
+          dataRegionName,
+          tsFileResource.getTsFile().getName(),
+          memCost,
+          config.getRollupMaxMemoryInBytesPerTsFile());
+      releaseRollup();
+      return;
+    }
+    dataRegionInfo.addStorageGroupMemCost(memCost - tsFileRollupMemCost);
+    tsFileRollupMemCost = memCost;
+  }
+
+  private void releaseRollup() {
+    tsFileRollup = null;
+    dataRegionInfo.releaseStorageGroupMemCost(tsFileRollupMemCost);
+    tsFileRollupMemCost = 0;
+  }
+
   /** Release resource of a memtable */
   public void putMemTableBackAndClose() throws TsFileProcessorException {
     if (workMemTable != null) {
@@ -2214,6 +2286,7 @@ public class TsFileProcessor {
     } catch (IOException e) {
       throw new TsFileProcessorException(e);
     }
+    releaseRollup();
     tsFileProcessorInfo.clear();
     dataRegionInfo.closeTsFileProcessorAndReportToSystem(this);
   }
@@ -220,7 +220,7 @@ public class WritableMemChunk implements IWritableMemChunk {
     sortTVList();
     // increase reference count
     list.increaseReferenceCount();
-    return list;
+    return list.getReadView();
   }
 
   @Override
@@ -230,12 +230,9 @@ public class WritableMemChunk implements IWritableMemChunk {
   }
 
   private void sortTVList() {
-    // check reference count
-    if ((list.getReferenceCount() > 0 && !list.isSorted())) {
-      list = list.clone();
-    }
-
     if (!list.isSorted()) {
+      // the rows read by queries must not be moved, copy the shared arrays the sorting writes into
+      list.copySharedArraysForSort();
       list.sort();
     }
   }
@@ -289,7 +286,7 @@ public class WritableMemChunk implements IWritableMemChunk {
   }
 
   @Override
-  public int delete(long lowerBound, long upperBound) {
+  public synchronized int delete(long lowerBound, long upperBound) {
     return list.delete(lowerBound, upperBound);
   }
 
@@ -382,7 +379,7 @@ public class WritableMemChunk implements IWritableMemChunk {
 
   @Override
   public void release() {
-    if (list.getReferenceCount() == 0) {
+    if (!list.isShared()) {
       list.clear();
     }
   }
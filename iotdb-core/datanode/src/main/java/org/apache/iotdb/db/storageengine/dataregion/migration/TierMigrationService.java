@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.migration;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.ScheduledExecutorUtil;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.service.IService;
+import org.apache.iotdb.commons.service.ServiceType;
+import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.StorageEngine;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This service moves the sealed TsFiles whose data have outlived the TTL of their tier to the next
+ * tier in the background. The files are checked every {@code tier_migration_check_interval_in_ms},
+ * the files opened by many queries since the last check stay where they are, and the copying is
+ * limited by {@code tier_migration_throughput_mb_per_sec}.
+ */
+public class TierMigrationService implements IService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TierMigrationService.class);
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private ScheduledExecutorService executor;
+  private RateLimiter rateLimiter;
+
+  private TierMigrationService() {
+    // singleton
+  }
+
+  public static TierMigrationService getInstance() {
+    return TierMigrationServiceHolder.INSTANCE;
+  }
+
+  @Override
+  public void start() {
+    long checkIntervalInMs = CONFIG.getTierMigrationCheckIntervalInMs();
+    if (checkIntervalInMs <= 0 || TierManager.getInstance().getTiersNum() <= 1) {
+      LOGGER.info("Tier migration is disabled");
+      return;
+    }
+    int throughputMbPerSec = CONFIG.getTierMigrationThroughputMbPerSec();
+    rateLimiter =
+        RateLimiter.create(
+            throughputMbPerSec <= 0 ? Double.MAX_VALUE : throughputMbPerSec * 1024.0 * 1024.0);
+    executor =
+        IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+            ThreadName.TIER_MIGRATION.getName());
+    ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+        executor, this::migrate, checkIntervalInMs, checkIntervalInMs, TimeUnit.MILLISECONDS);
+    LOGGER.info("Tier migration is started, check interval = {}ms", checkIntervalInMs);
+  }
+
+  @Override
+  public void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  @Override
+  public ServiceType getID() {
+    return ServiceType.TIER_MIGRATION_SERVICE;
+  }
+
+  /** Looks through the TsFiles of all the data regions and migrates those due once. */
+  void migrate() {
+    for (DataRegion dataRegion : StorageEngine.getInstance().getAllDataRegions()) {
+      for (boolean sequence : new boolean[] {true, false}) {
+        for (TsFileResource resource : dataRegion.getTsFileManager().getTsFileList(sequence)) {
+          if (Thread.currentThread().isInterrupted()) {
+            return;
+          }
+          // only the accesses since the last check count, so a file cools down once not queried
+          int accessCount = resource.getAndResetAccessCount();
+          if (shouldMigrate(resource, accessCount)) {
+            new TierMigrationTask(dataRegion, resource, rateLimiter).migrate();
+          }
+        }
+      }
+    }
+  }
+
+  static boolean shouldMigrate(TsFileResource resource, int accessCount) {
+    int tierLevel = resource.getTierLevel();
+    long[] tierTTLInMs = CommonDescriptor.getInstance().getConfig().getTierTTLInMs();
+    if (resource.getStatus() != TsFileResourceStatus.NORMAL
+        || tierLevel >= TierManager.getInstance().getTiersNum() - 1
+        || tierLevel >= tierTTLInMs.length
+        || tierTTLInMs[tierLevel] == Long.MAX_VALUE) {
+      return false;
+    }
+    int hotFileAccessCount = CONFIG.getTierMigrationHotFileAccessCount();
+    if (hotFileAccessCount > 0 && accessCount >= hotFileAccessCount) {
+      return false;
+    }
+    // a shared mod file belongs to several TsFiles, which can not be moved with one of them
+    if (resource.sharedModFileExists()) {
+      return false;
+    }
+    long tierTTL =
+        CommonDateTimeUtils.convertMilliTimeWithPrecision(
+            tierTTLInMs[tierLevel],
+            CommonDescriptor.getInstance().getConfig().getTimestampPrecision());
+    return CommonDateTimeUtils.currentTime() - resource.getFileEndTime() > tierTTL;
+  }
+
+  /**
+   * Resolves the migrations interrupted by the last shutdown. Must be called before the data
+   * regions are recovered, so that no TsFile is loaded from two tiers.
+   */
+  public void recover() {
+    if (TierManager.getInstance().getTiersNum() <= 1) {
+      return;
+    }
+    deleteMigratingFiles();
+  }
+
+  /**
+   * Resolves the migrations by their markers, and deletes the partial copies left by the migrations
+   * interrupted by the last shutdown.
+   */
+  private static void deleteMigratingFiles() {
+    for (String folder : TierManager.getInstance().getAllLocalFilesFolders()) {
+      if (!new File(folder).exists()) {
+        continue;
+      }
+      List<Path> markerFiles;
+      List<Path> migratingFiles;
+      try (Stream<Path> paths = Files.walk(new File(folder).toPath())) {
+        Map<Boolean, List<Path>> files =
+            paths
+                .filter(
+                    p ->
+                        p.toString().endsWith(TierMigrationTask.MARKER_SUFFIX)
+                            || p.toString().endsWith(TierMigrationTask.MIGRATING_SUFFIX))
+                .collect(
+                    Collectors.partitioningBy(
+                        p -> p.toString().endsWith(TierMigrationTask.MARKER_SUFFIX)));
+        markerFiles = files.get(true);
+        migratingFiles = files.get(false);
+      } catch (IOException e) {
+        LOGGER.warn("Failed to look for the migrating files in {}", folder, e);
+        continue;
+      }
+      for (Path markerFile : markerFiles) {
+        try {
+          TierMigrationTask.recover(markerFile.toFile());
+        } catch (IOException e) {
+          LOGGER.warn("Failed to recover the migration of marker {}", markerFile, e);
+        }
+      }
+      for (Path migratingFile : migratingFiles) {
+        try {
+          Files.deleteIfExists(migratingFile);
+        } catch (IOException e) {
+          LOGGER.warn("Failed to delete the migrating file {}", migratingFile, e);
+        }
+      }
+    }
+  }
+
+  private static class TierMigrationServiceHolder {
+
+    private static final TierMigrationService INSTANCE = new TierMigrationService();
+
+    private TierMigrationServiceHolder() {
+      // Empty constructor
+    }
+  }
+}
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.migration;
+
+import org.apache.iotdb.db.exception.DiskSpaceInsufficientException;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
+import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileRollup;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.apache.tsfile.fileSystem.FSType;
+import org.apache.tsfile.utils.FSUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Moves one sealed TsFile to the next tier. The file is copied to the target directory with a
+ * temporary name without blocking the queries and writes, and then the region and the file are
+ * locked shortly to move the small companion files, rename the copy and delete the source. The
+ * migration is given up and retried in the next round if the file is compacted, deleted or being
+ * read in the meantime.
+ *
+ * <p>A marker naming the source file is written beside the target file before any file is moved
+ * into the target directory, and deleted once the source files are deleted. The source TsFile is
+ * deleted right after the copy is renamed, which completes the migration. So a restart in between
+ * deletes the target files if the source TsFile still exists, or the remaining source files
+ * otherwise, and the TsFile is never loaded from both tiers.
+ */
+public class TierMigrationTask {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TierMigrationTask.class);
+
+  static final String MIGRATING_SUFFIX = ".migrating";
+  static final String MARKER_SUFFIX = ".migration";
+
+  private static final int COPY_BUFFER_SIZE = 1 << 20;
+
+  private final DataRegion dataRegion;
+  private final TsFileResource resource;
+  private final RateLimiter rateLimiter;
+
+  public TierMigrationTask(
+      DataRegion dataRegion, TsFileResource resource, RateLimiter rateLimiter) {
+    this.dataRegion = dataRegion;
+    this.resource = resource;
+    this.rateLimiter = rateLimiter;
+  }
+
+  /** @return whether the file is moved to the next tier */
+  public boolean migrate() {
+    File sourceFile = resource.getTsFile();
+    File targetDir;
+    try {
+      targetDir =
+          new File(
+              TsFileNameGenerator.generateTsFileDir(
+                  resource.isSeq(),
+                  resource.getDatabaseName(),
+                  resource.getDataRegionId(),
+                  resource.getTimePartition(),
+                  resource.getTierLevel() + 1));
+    } catch (DiskSpaceInsufficientException e) {
+      LOGGER.warn("No space on tier {} to migrate {}", resource.getTierLevel() + 1, sourceFile);
+      return false;
+    }
+    if (FSUtils.getFSType(targetDir) != FSType.LOCAL) {
+      // writing TsFiles to a remote file system is not supported by the data regions yet
+      LOGGER.debug("Skip migrating {} to non-local directory {}", sourceFile, targetDir);
+      return false;
+    }
+    if (!targetDir.exists() && !targetDir.mkdirs()) {
+      LOGGER.warn("Failed to create directory {} to migrate {}", targetDir, sourceFile);
+      return false;
+    }
+
+    File targetFile = new File(targetDir, sourceFile.getName());
+    File migratingFile = new File(targetDir, sourceFile.getName() + MIGRATING_SUFFIX);
+    try {
+      return copy(sourceFile, migratingFile) && switchTo(sourceFile, targetFile, migratingFile);
+    } catch (IOException e) {
+      LOGGER.warn("Failed to migrate {} to {}", sourceFile, targetDir, e);
+      return false;
+    } finally {
+      try {
+        Files.deleteIfExists(migratingFile.toPath());
+      } catch (IOException e) {
+        LOGGER.warn("Failed to delete the migrating file {}", migratingFile, e);
+      }
+    }
+  }
+
+  /** @return false if the source file is no longer available to be migrated */
+  private boolean copy(File sourceFile, File targetFile) throws IOException {
+    try (FileChannel source = FileChannel.open(sourceFile.toPath(), StandardOpenOption.READ);
+        FileChannel target =
+            FileChannel.open(
+                targetFile.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+      long size = source.size();
+      long position = 0;
+      while (position < size) {
+        if (resource.getStatus() != TsFileResourceStatus.NORMAL
+            || Thread.currentThread().isInterrupted()) {
+          return false;
+        }
+        long length = Math.min(COPY_BUFFER_SIZE, size - position);
+        rateLimiter.acquire((int) length);
+        position += source.transferTo(position, length, target);
+      }
+      target.force(true);
+    }
+    return true;
+  }
+
+  private boolean switchTo(File sourceFile, File targetFile, File migratingFile)
+      throws IOException {
+    // the same locks as a deletion, so no modification is written to the source meanwhile
+    dataRegion.writeLock("tierMigration");
+    try {
+      // the file is being read by some queries, try again in the next round
+      if (!resource.tryWriteLock()) {
+        return false;
+      }
+      try {
+        if (resource.getStatus() != TsFileResourceStatus.NORMAL) {
+          return false;
+        }
+        File markerFile = getMarkerFile(targetFile);
+        writeMarker(markerFile, sourceFile);
+        try {
+          moveCompanionFiles(sourceFile, targetFile, migratingFile);
+          FileReaderManager.getInstance().closeFileAndRemoveReader(sourceFile.getPath());
+          Files.delete(sourceFile.toPath());
+        } catch (IOException e) {
+          // the marker is kept if the target files are not deleted, then a restart deletes them
+          deleteTsFileAndCompanionFiles(targetFile);
+          Files.deleteIfExists(markerFile.toPath());
+          throw e;
+        }
+        resource.resetModFile();
+        resource.setFile(targetFile);
+        resource.increaseTierLevel();
+        deleteTsFileAndCompanionFiles(sourceFile);
+        Files.delete(markerFile.toPath());
+      } finally {
+        resource.writeUnlock();
+      }
+    } finally {
+      dataRegion.writeUnlock();
+    }
+    LOGGER.info("{} is migrated to tier {}", targetFile, resource.getTierLevel());
+    return true;
+  }
+
+  private void moveCompanionFiles(File sourceFile, File targetFile, File migratingFile)
+      throws IOException {
+    // the companion files are ready before the TsFile appears, so a restart never sees the
+    // target TsFile without its resource file
+    File sourceRollupFile = TsFileRollup.getRollupFile(sourceFile);
+    if (sourceRollupFile.exists()) {
+      Files.copy(
+          sourceRollupFile.toPath(),
+          TsFileRollup.getRollupFile(targetFile).toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+    }
+    if (resource.exclusiveModFileExists()) {
+      Files.copy(
+          ModificationFile.getExclusiveMods(sourceFile).toPath(),
+          ModificationFile.getExclusiveMods(targetFile).toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+    }
+    resource.serialize(targetFile.getPath() + TsFileResource.RESOURCE_SUFFIX);
+    Files.move(migratingFile.toPath(), targetFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  static File getMarkerFile(File targetFile) {
+    return new File(targetFile.getPath() + MARKER_SUFFIX);
+  }
+
+  private static void writeMarker(File markerFile, File sourceFile) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            markerFile.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      ByteBuffer buffer =
+          ByteBuffer.wrap(sourceFile.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(true);
+    }
+  }
+
+  /**
+   * Resolves a migration interrupted by a restart according to its marker, see {@link
+   * TierMigrationTask}. Must be called before the data regions are recovered.
+   */
+  static void recover(File markerFile) throws IOException {
+    String markerPath = markerFile.getPath();
+    File targetFile =
+        new File(markerPath.substring(0, markerPath.length() - MARKER_SUFFIX.length()));
+    // the marker is empty if the restart happened while writing it, before any file is moved
+    String sourcePath = new String(Files.readAllBytes(markerFile.toPath()), StandardCharsets.UTF_8);
+    if (sourcePath.isEmpty() || new File(sourcePath).exists()) {
+      LOGGER.info("Roll back the migration of {} to {}", sourcePath, targetFile);
+      deleteTsFileAndCompanionFiles(targetFile);
+    } else {
+      LOGGER.info("Finish the migration of {} to {}", sourcePath, targetFile);
+      deleteTsFileAndCompanionFiles(new File(sourcePath));
+    }
+    Files.delete(markerFile.toPath());
+  }
+
+  private static void deleteTsFileAndCompanionFiles(File tsFile) throws IOException {
+    Files.deleteIfExists(tsFile.toPath());
+    Files.deleteIfExists(new File(tsFile.getPath() + TsFileResource.RESOURCE_SUFFIX).toPath());
+    Files.deleteIfExists(TsFileRollup.getRollupFile(tsFile).toPath());
+    Files.deleteIfExists(ModificationFile.getExclusiveMods(tsFile).toPath());
+  }
+}
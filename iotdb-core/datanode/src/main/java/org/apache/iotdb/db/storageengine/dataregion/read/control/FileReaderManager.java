@@ -20,6 +20,8 @@
 package org.apache.iotdb.db.storageengine.dataregion.read.control;
 
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.buffer.TierCache;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 
 import org.apache.tsfile.read.TsFileSequenceReader;
@@ -147,7 +149,7 @@ public class FileReaderManager {
         tsFileReader = new UnClosedTsFileReader(filePath, ioSizeRecorder);
       } else {
         // already do the version check in TsFileSequenceReader's constructor
-        tsFileReader = new TsFileSequenceReader(filePath, ioSizeRecorder);
+        tsFileReader = createClosedFileReader(filePath, ioSizeRecorder);
       }
       readerMap.put(filePath, tsFileReader);
       return tsFileReader;
@@ -156,12 +158,29 @@ public class FileReaderManager {
     return readerMap.get(filePath);
   }
 
+  private TsFileSequenceReader createClosedFileReader(String filePath, LongConsumer ioSizeRecorder)
+      throws IOException {
+    if (TierCache.getInstance().shouldCache(filePath)) {
+      return new TierCachedTsFileSequenceReader(filePath, ioSizeRecorder);
+    }
+    if (IoTDBDescriptor.getInstance().getConfig().isMmapReadForSealedTsFileEnable()) {
+      try {
+        return new MmapTsFileSequenceReader(filePath, ioSizeRecorder);
+      } catch (IOException e) {
+        // e.g. the number of mappings exceeds vm.max_map_count
+        logger.warn("Failed to map TsFile {}, read it without mmap.", filePath, e);
+      }
+    }
+    return new TsFileSequenceReader(filePath, ioSizeRecorder);
+  }
+
   /**
    * Increase the reference count of the reader specified by filePath. Only when the reference count
    * of a reader equals zero, the reader can be closed and removed.
    */
   public void increaseFileReaderReference(TsFileResource tsFile, boolean isClosed) {
     tsFile.readLock();
+    tsFile.recordAccess();
     synchronized (this) {
       if (!isClosed) {
         unclosedReferenceMap
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.read.control;
+
+import org.apache.tsfile.read.reader.TsFileInput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link TsFileInput} of a sealed TsFile whose positional reads are served from memory-mapped
+ * buffers. The file is mapped in segments of at most {@link #SEGMENT_SIZE} bytes, and a read
+ * crossing two segments falls back to the underlying input.
+ */
+public class MmapTsFileInput implements TsFileInput {
+
+  static final long SEGMENT_SIZE = 1L << 30;
+
+  private final TsFileInput tsFileInput;
+  private final long size;
+  private final MappedByteBuffer[] segments;
+
+  public MmapTsFileInput(TsFileInput tsFileInput) throws IOException {
+    this.tsFileInput = tsFileInput;
+    // the mapping stays valid after the channel is closed, so no extra file handle is held
+    try (FileChannel channel =
+        FileChannel.open(Paths.get(tsFileInput.getFilePath()), StandardOpenOption.READ)) {
+      this.size = channel.size();
+      this.segments = new MappedByteBuffer[(int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+      for (int i = 0; i < segments.length; i++) {
+        long segmentStart = i * SEGMENT_SIZE;
+        segments[i] =
+            channel.map(
+                FileChannel.MapMode.READ_ONLY,
+                segmentStart,
+                Math.min(SEGMENT_SIZE, size - segmentStart));
+      }
+    }
+  }
+
+  /**
+   * @return a read-only view of [position, position + length) of the file without copying, or
+   *     null if the range is out of the file or crosses two segments
+   */
+  public ByteBuffer slice(long position, int length) {
+    if (position < 0 || length < 0 || position + length > size) {
+      return null;
+    }
+    int segmentIndex = (int) (position / SEGMENT_SIZE);
+    int offsetInSegment = (int) (position % SEGMENT_SIZE);
+    MappedByteBuffer segment = segments[segmentIndex];
+    if (offsetInSegment + length > segment.capacity()) {
+      return null;
+    }
+    ByteBuffer slice = segment.asReadOnlyBuffer();
+    slice.position(offsetInSegment);
+    slice.limit(offsetInSegment + length);
+    return slice.slice();
+  }
+
+  @Override
+  public long size() throws IOException {
+    return tsFileInput.size();
+  }
+
+  @Override
+  public long position() throws IOException {
+    return tsFileInput.position();
+  }
+
+  @Override
+  public TsFileInput position(long newPosition) throws IOException {
+    tsFileInput.position(newPosition);
+    return this;
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    return tsFileInput.read(dst);
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    if (position >= size) {
+      return -1;
+    }
+    ByteBuffer slice = slice(position, (int) Math.min(dst.remaining(), size - position));
+    if (slice == null) {
+      return tsFileInput.read(dst, position);
+    }
+    int length = slice.remaining();
+    dst.put(slice);
+    return length;
+  }
+
+  @Override
+  public InputStream wrapAsInputStream() throws IOException {
+    return tsFileInput.wrapAsInputStream();
+  }
+
+  @Override
+  public void close() throws IOException {
+    // the mapped buffers are released by GC once no chunk or metadata refers to them any more
+    tsFileInput.close();
+  }
+
+  @Override
+  public String getFilePath() {
+    return tsFileInput.getFilePath();
+  }
+}
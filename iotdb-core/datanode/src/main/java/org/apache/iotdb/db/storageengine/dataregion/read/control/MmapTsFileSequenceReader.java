@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.read.control;
+
+import org.apache.tsfile.read.TsFileSequenceReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.LongConsumer;
+
+/**
+ * A {@link TsFileSequenceReader} of a sealed TsFile which reads through {@link MmapTsFileInput}.
+ * Chunk data, metadata index nodes and timeseries metadata are returned as slices of the mapped
+ * file instead of copies, and chunk headers are decoded from the mapped file directly, so a file
+ * in the page cache is read without a system call or a buffer allocation per read.
+ */
+public class MmapTsFileSequenceReader extends TsFileSequenceReader {
+
+  private final MmapTsFileInput mmapTsFileInput;
+
+  public MmapTsFileSequenceReader(String file, LongConsumer ioSizeRecorder) throws IOException {
+    super(file, ioSizeRecorder);
+    try {
+      this.mmapTsFileInput = new MmapTsFileInput(tsFileInput);
+    } catch (IOException | RuntimeException e) {
+      close();
+      throw e;
+    }
+    this.tsFileInput = mmapTsFileInput;
+  }
+
+  @Override
+  protected ByteBuffer readData(long position, int totalSize, LongConsumer ioSizeRecorder)
+      throws IOException {
+    // mmapTsFileInput is null while the super constructor is reading the file
+    ByteBuffer slice =
+        mmapTsFileInput == null || position < 0 ? null : mmapTsFileInput.slice(position, totalSize);
+    if (slice == null) {
+      return super.readData(position, totalSize, ioSizeRecorder);
+    }
+    if (ioSizeRecorder != null) {
+      ioSizeRecorder.accept(totalSize);
+    }
+    return slice;
+  }
+}
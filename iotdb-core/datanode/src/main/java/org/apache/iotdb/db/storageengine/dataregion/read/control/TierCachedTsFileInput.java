@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.read.control;
+
+import org.apache.iotdb.db.storageengine.buffer.TierCache;
+
+import org.apache.tsfile.read.reader.TsFileInput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link TsFileInput} of a TsFile on the last tier whose positional reads are served by the
+ * blocks of {@link TierCache}, so that only the blocks not cached yet are read from the remote
+ * storage.
+ */
+public class TierCachedTsFileInput implements TsFileInput {
+
+  private final TsFileInput tsFileInput;
+  private final TierCache tierCache;
+  private final long size;
+
+  public TierCachedTsFileInput(TsFileInput tsFileInput, TierCache tierCache) throws IOException {
+    this.tsFileInput = tsFileInput;
+    this.tierCache = tierCache;
+    // a sealed file never changes, so its size is fetched from the remote storage only once
+    this.size = tsFileInput.size();
+  }
+
+  @Override
+  public long size() {
+    return size;
+  }
+
+  @Override
+  public long position() throws IOException {
+    return tsFileInput.position();
+  }
+
+  @Override
+  public TsFileInput position(long newPosition) throws IOException {
+    tsFileInput.position(newPosition);
+    return this;
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    long position = tsFileInput.position();
+    int length = read(dst, position);
+    if (length > 0) {
+      tsFileInput.position(position + length);
+    }
+    return length;
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    if (position >= size) {
+      return -1;
+    }
+    int totalLength = 0;
+    while (dst.hasRemaining() && position < size) {
+      int blockIndex = (int) (position / TierCache.BLOCK_SIZE);
+      ByteBuffer block = tierCache.getBlock(tsFileInput, size, blockIndex);
+      block.position((int) (position - (long) blockIndex * TierCache.BLOCK_SIZE));
+      int length = Math.min(block.remaining(), dst.remaining());
+      block.limit(block.position() + length);
+      dst.put(block);
+      position += length;
+      totalLength += length;
+    }
+    return totalLength;
+  }
+
+  @Override
+  public InputStream wrapAsInputStream() throws IOException {
+    return tsFileInput.wrapAsInputStream();
+  }
+
+  @Override
+  public void close() throws IOException {
+    tsFileInput.close();
+  }
+
+  @Override
+  public String getFilePath() {
+    return tsFileInput.getFilePath();
+  }
+
+  /** Caches the blocks from {@code position} to the end of the file in the background. */
+  public void prefetch(long position) {
+    tierCache.prefetch(tsFileInput, size, position);
+  }
+}
@@ -125,4 +125,8 @@ public class DiskAlignedChunkLoader implements IChunkLoader {
   public TsFileID getTsFileID() {
     return resource.getTsFileID();
   }
+
+  public TsFileResource getTsFileResource() {
+    return resource;
+  }
 }
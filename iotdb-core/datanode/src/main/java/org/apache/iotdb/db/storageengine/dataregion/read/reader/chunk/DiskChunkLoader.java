@@ -101,4 +101,8 @@ public class DiskChunkLoader implements IChunkLoader {
   public TsFileID getTsFileID() {
     return resource.getTsFileID();
   }
+
+  public TsFileResource getTsFileResource() {
+    return resource;
+  }
 }
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.read.reader.common;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.reader.IPointReader;
+import org.apache.tsfile.utils.TsPrimitiveType;
+
+/**
+ * An {@link IPointReader} over the rows of a {@link TsBlock}. Besides reading the rows one by one,
+ * it lets {@link PriorityMergeReader} copy a run of rows into a {@link TsBlockBuilder} column by
+ * column, without creating a {@link TimeValuePair} for each of them.
+ */
+public class ColumnarPointReader implements IPointReader {
+
+  private final TsBlock tsBlock;
+  private final Column timeColumn;
+  private final Column[] valueColumns;
+  // whether the rows are returned as vectors, i.e. the TsBlock is of an aligned device
+  private final boolean aligned;
+
+  // index of the row returned by the next call of nextTimeValuePair
+  private int rowIndex = 0;
+
+  public ColumnarPointReader(TsBlock tsBlock, boolean aligned) {
+    this.tsBlock = tsBlock;
+    this.timeColumn = tsBlock.getTimeColumn();
+    this.valueColumns = tsBlock.getValueColumns();
+    this.aligned = aligned;
+  }
+
+  @Override
+  public boolean hasNextTimeValuePair() {
+    return rowIndex < tsBlock.getPositionCount();
+  }
+
+  @Override
+  public TimeValuePair nextTimeValuePair() {
+    return getTimeValuePair(rowIndex++);
+  }
+
+  @Override
+  public TimeValuePair currentTimeValuePair() {
+    return getTimeValuePair(rowIndex);
+  }
+
+  private TimeValuePair getTimeValuePair(int row) {
+    if (!aligned) {
+      return new TimeValuePair(timeColumn.getLong(row), valueColumns[0].getTsPrimitiveType(row));
+    }
+    TsPrimitiveType[] values = new TsPrimitiveType[valueColumns.length];
+    for (int i = 0; i < valueColumns.length; i++) {
+      if (!valueColumns[i].isNull(row)) {
+        values[i] = valueColumns[i].getTsPrimitiveType(row);
+      }
+    }
+    return new TimeValuePair(timeColumn.getLong(row), new TsPrimitiveType.TsVector(values));
+  }
+
+  int getRowIndex() {
+    return rowIndex;
+  }
+
+  void setRowIndex(int rowIndex) {
+    this.rowIndex = rowIndex;
+  }
+
+  int getRowCount() {
+    return tsBlock.getPositionCount();
+  }
+
+  long getTime(int row) {
+    return timeColumn.getLong(row);
+  }
+
+  /** Write the rows in [from, to) into the builder, whose columns are the same as the TsBlock. */
+  void writeRows(int from, int to, TsBlockBuilder builder) {
+    ColumnBuilder timeColumnBuilder = builder.getTimeColumnBuilder();
+    for (int row = from; row < to; row++) {
+      timeColumnBuilder.writeLong(timeColumn.getLong(row));
+    }
+    for (int i = 0; i < valueColumns.length; i++) {
+      Column valueColumn = valueColumns[i];
+      ColumnBuilder valueColumnBuilder = builder.getColumnBuilder(i);
+      for (int row = from; row < to; row++) {
+        if (valueColumn.isNull(row)) {
+          valueColumnBuilder.appendNull();
+        } else {
+          valueColumnBuilder.write(valueColumn, row);
+        }
+      }
+    }
+    builder.declarePositions(to - from);
+  }
+
+  @Override
+  public long getUsedMemorySize() {
+    return tsBlock.getRetainedSizeInBytes();
+  }
+
+  @Override
+  public void close() {
+    // nothing to close, the TsBlock is released with this reader
+  }
+}
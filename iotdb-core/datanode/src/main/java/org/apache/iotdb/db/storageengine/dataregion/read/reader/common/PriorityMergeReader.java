@@ -21,11 +21,15 @@ package org.apache.iotdb.db.storageengine.dataregion.read.reader.common;
 
 import org.apache.iotdb.db.queryengine.plan.planner.memory.MemoryReservationManager;
 
+import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.tsfile.read.reader.IPointReader;
+import org.apache.tsfile.utils.TsPrimitiveType;
 
 import java.io.IOException;
 import java.util.PriorityQueue;
+import java.util.function.LongSupplier;
 
 /** This class implements {@link IPointReader} for data sources with different priorities. */
 @SuppressWarnings("ConstantConditions") // heap is ensured by hasNext non-empty
@@ -113,6 +117,84 @@ public class PriorityMergeReader implements IPointReader {
     return heap.peek().getTimeValuePair();
   }
 
+  /**
+   * Write the points of the top reader into the builder as a run, as long as they are before the
+   * current points of all the other readers and not after the run end time. The first point is
+   * written as {@link #nextTimeValuePair()} returns it, the following ones are copied from the
+   * columns of the {@link ColumnarPointReader} directly, without creating a TimeValuePair or
+   * updating the heap for each of them.
+   *
+   * @param runEndTimeSupplier supplies the time which the points of the run can't be after
+   * @return the number of points written, 0 if the top reader is not a {@link
+   *     ColumnarPointReader} or its current point has the same time as other readers', in which
+   *     case {@link #nextTimeValuePair()} shall be used
+   */
+  public int nextRun(TsBlockBuilder builder, LongSupplier runEndTimeSupplier) throws IOException {
+    Element top = heap.peek();
+    if (!(top.getReader() instanceof ColumnarPointReader)) {
+      return 0;
+    }
+    heap.poll();
+    Element second = heap.peek();
+    if (second != null && second.currTime() == top.currTime()) {
+      heap.add(top);
+      return 0;
+    }
+
+    writeTimeValuePair(top.getTimeValuePair(), builder);
+    ColumnarPointReader reader = (ColumnarPointReader) top.getReader();
+    long runEndTime = runEndTimeSupplier.getAsLong();
+    int from = reader.getRowIndex();
+    int to = from;
+    int rowCount = reader.getRowCount();
+    while (to < rowCount) {
+      long time = reader.getTime(to);
+      if (isBefore(runEndTime, time) || (second != null && !isBefore(time, second.currTime()))) {
+        break;
+      }
+      to++;
+    }
+    if (to > from) {
+      reader.writeRows(from, to, builder);
+      reader.setRowIndex(to);
+    }
+
+    if (top.hasNext()) {
+      top.next();
+      heap.add(top);
+    } else {
+      long size = reader.getUsedMemorySize();
+      usedMemorySize -= size;
+      if (memoryReservationManager != null) {
+        memoryReservationManager.releaseMemoryCumulatively(size);
+      }
+    }
+    return 1 + to - from;
+  }
+
+  /** Whether the time is strictly before the other time in the order of this reader. */
+  protected boolean isBefore(long time, long otherTime) {
+    return time < otherTime;
+  }
+
+  private static void writeTimeValuePair(TimeValuePair timeValuePair, TsBlockBuilder builder) {
+    builder.getTimeColumnBuilder().writeLong(timeValuePair.getTimestamp());
+    TsPrimitiveType value = timeValuePair.getValue();
+    if (value.getDataType() == TSDataType.VECTOR) {
+      TsPrimitiveType[] values = value.getVector();
+      for (int i = 0; i < values.length; i++) {
+        if (values[i] == null) {
+          builder.getColumnBuilder(i).appendNull();
+        } else {
+          builder.getColumnBuilder(i).writeTsPrimitiveType(values[i]);
+        }
+      }
+    } else {
+      builder.getColumnBuilder(0).writeTsPrimitiveType(value);
+    }
+    builder.declarePosition();
+  }
+
   /**
    * remove all the TimeValuePair that shares the same timestamp if it's an aligned path we may need
    * to use those records that share the same timestamp to fill the null sub sensor value in current
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.tsfile;
+
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.utils.BloomFilter;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An in-memory filter of the devices and series contained in a sealed TsFile, which is built from
+ * the chunk metadata written by flush or compaction and kept in the {@link TsFileResource}. A
+ * negative answer is exact, so the file can be skipped without reading its bloom filter or
+ * metadata, while a positive answer may be false with the bloom filter error rate of TsFile.
+ */
+public class SeriesPresenceFilter {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(SeriesPresenceFilter.class);
+
+  private final BloomFilter bloomFilter;
+
+  private SeriesPresenceFilter(BloomFilter bloomFilter) {
+    this.bloomFilter = bloomFilter;
+  }
+
+  public boolean mayContainDevice(IDeviceID deviceId) {
+    return bloomFilter.contains(deviceId.toString());
+  }
+
+  public boolean mayContainSeries(IDeviceID deviceId, String measurement) {
+    return bloomFilter.contains(deviceId.toString() + TsFileConstant.PATH_SEPARATOR + measurement);
+  }
+
+  public long getRetainedSizeInBytes() {
+    return INSTANCE_SIZE + bloomFilter.getRetainedSizeInBytes();
+  }
+
+  /** Collects the devices and series written into a TsFile. This class is not thread-safe. */
+  public static class Builder {
+
+    private final Set<String> keys = new HashSet<>();
+
+    /** Called for each chunk group written, with the chunk metadata of the chunk group. */
+    public void add(IDeviceID deviceId, List<ChunkMetadata> chunkMetadataList) {
+      String device = deviceId.toString();
+      keys.add(device);
+      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+        keys.add(device + TsFileConstant.PATH_SEPARATOR + chunkMetadata.getMeasurementUid());
+      }
+    }
+
+    public SeriesPresenceFilter build() {
+      BloomFilter bloomFilter =
+          BloomFilter.getEmptyBloomFilter(
+              TSFileDescriptor.getInstance().getConfig().getBloomFilterErrorRate(),
+              Math.max(keys.size(), 1));
+      for (String key : keys) {
+        bloomFilter.add(key);
+      }
+      return new SeriesPresenceFilter(bloomFilter);
+    }
+  }
+}
@@ -32,6 +32,7 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.load.PartitionViolationException;
 import org.apache.iotdb.db.pipe.extractor.dataregion.realtime.assigner.PipeTimePartitionProgressIndexKeeper;
 import org.apache.iotdb.db.schemaengine.schemaregion.utils.ResourceByPathUtils;
+import org.apache.iotdb.db.storageengine.buffer.TierCache;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.InsertionCompactionCandidateStatus;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.ReadOnlyMemChunk;
@@ -165,8 +166,14 @@ public class TsFileResource implements PersistentResource {
 
   private long ramSize;
 
+  /** devices and series of the sealed file, null if not built by flush or compaction */
+  private volatile SeriesPresenceFilter seriesPresenceFilter;
+
   private AtomicInteger tierLevel;
 
+  /** the number of the queries opening the file since it is checked by the tier migration */
+  private final AtomicInteger accessCount = new AtomicInteger(0);
+
   private volatile long tsFileSize = -1L;
 
   private TsFileProcessor processor;
@@ -242,7 +249,6 @@ public class TsFileResource implements PersistentResource {
     this.timeIndex = originTsFileResource.timeIndex;
     this.pathToReadOnlyMemChunkMap = pathToReadOnlyMemChunkMap;
     this.pathToChunkMetadataListMap = pathToChunkMetadataListMap;
-    generatePathToTimeSeriesMetadataMap();
     this.originTsFileResource = originTsFileResource;
     this.tsFileID = originTsFileResource.tsFileID;
     this.isSeq = originTsFileResource.isSeq;
@@ -385,6 +391,11 @@ public class TsFileResource implements PersistentResource {
     Files.createLink(
         new File(target.getTsFilePath() + TsFileResource.RESOURCE_SUFFIX).toPath(),
         new File(this.getTsFilePath() + TsFileResource.RESOURCE_SUFFIX).toPath());
+    File rollupFile = TsFileRollup.getRollupFile(getTsFile());
+    if (rollupFile.exists()) {
+      Files.createLink(
+          TsFileRollup.getRollupFile(target.getTsFile()).toPath(), rollupFile.toPath());
+    }
     linkModFile(target);
   }
 
@@ -528,7 +539,6 @@ public class TsFileResource implements PersistentResource {
     compactionModFile = null;
   }
 
-  @TestOnly
   public void resetModFile() throws IOException {
     if (exclusiveModFile != null) {
       synchronized (this) {
@@ -559,6 +569,14 @@ public class TsFileResource implements PersistentResource {
     return tierLevel.get();
   }
 
+  public void recordAccess() {
+    accessCount.incrementAndGet();
+  }
+
+  public int getAndResetAccessCount() {
+    return accessCount.getAndSet(0);
+  }
+
   public long getTsFileSize() {
     if (isClosed()) {
       if (tsFileSize == -1) {
@@ -667,7 +685,28 @@ public class TsFileResource implements PersistentResource {
    * you really understand the meaning!!!!!
    */
   public boolean definitelyNotContains(IDeviceID device) {
-    return timeIndex.definitelyNotContains(device);
+    if (timeIndex.definitelyNotContains(device)) {
+      return true;
+    }
+    SeriesPresenceFilter filter = seriesPresenceFilter;
+    return filter != null && !filter.mayContainDevice(device);
+  }
+
+  /**
+   * Whether this TsFile definitely not contains this series. Always false if the series presence
+   * filter of this file is not built.
+   */
+  public boolean definitelyNotContains(IDeviceID device, String measurement) {
+    SeriesPresenceFilter filter = seriesPresenceFilter;
+    return filter != null && !filter.mayContainSeries(device, measurement);
+  }
+
+  public boolean hasSeriesPresenceFilter() {
+    return seriesPresenceFilter != null;
+  }
+
+  public void setSeriesPresenceFilter(SeriesPresenceFilter seriesPresenceFilter) {
+    this.seriesPresenceFilter = seriesPresenceFilter;
   }
 
   /**
@@ -779,8 +818,8 @@ public class TsFileResource implements PersistentResource {
   }
 
   /**
-   * Remove the data file, its resource file, its chunk metadata temp file, and its modification
-   * file physically.
+   * Remove the data file, its resource file, its chunk metadata temp file, its rollup file and its
+   * modification file physically.
    */
   public boolean remove() {
     forceMarkDeleted();
@@ -788,10 +827,12 @@ public class TsFileResource implements PersistentResource {
       fsFactory.deleteIfExists(file);
       fsFactory.deleteIfExists(
           new File(file.getAbsolutePath() + TsFileIOWriter.CHUNK_METADATA_TEMP_FILE_SUFFIX));
+      fsFactory.deleteIfExists(TsFileRollup.getRollupFile(file));
     } catch (IOException e) {
       LOGGER.error("TsFile {} cannot be deleted: {}", file, e.getMessage());
       return false;
     }
+    TierCache.getInstance().invalidate(file.getPath());
     if (!removeResourceFile()) {
       return false;
     }
@@ -820,6 +861,11 @@ public class TsFileResource implements PersistentResource {
     fsFactory.moveFile(
         fsFactory.getFile(file.getPath() + RESOURCE_SUFFIX),
         fsFactory.getFile(targetDir, file.getName() + RESOURCE_SUFFIX));
+    File rollupFile = TsFileRollup.getRollupFile(file);
+    if (rollupFile.exists()) {
+      fsFactory.moveFile(
+          rollupFile, fsFactory.getFile(targetDir, file.getName() + TsFileRollup.ROLLUP_SUFFIX));
+    }
 
     if (exclusiveModFileExists()) {
       fsFactory.moveFile(
@@ -1006,8 +1052,20 @@ public class TsFileResource implements PersistentResource {
    *
    * @return TimeseriesMetadata or the first ValueTimeseriesMetadata in VectorTimeseriesMetadata
    */
-  public ITimeSeriesMetadata getTimeSeriesMetadata(IFullPath seriesPath) {
-    return pathToTimeSeriesMetadataMap.get(seriesPath);
+  public synchronized ITimeSeriesMetadata getTimeSeriesMetadata(IFullPath seriesPath)
+      throws IOException {
+    ITimeSeriesMetadata timeSeriesMetadata = pathToTimeSeriesMetadataMap.get(seriesPath);
+    if (timeSeriesMetadata == null && pathToChunkMetadataListMap.containsKey(seriesPath)) {
+      // generated on first access rather than when this resource is created under the lock of the
+      // data region, as it builds the TsBlocks of the ReadOnlyMemChunks
+      timeSeriesMetadata =
+          ResourceByPathUtils.getResourceInstance(seriesPath)
+              .generateTimeSeriesMetadata(
+                  pathToReadOnlyMemChunkMap.get(seriesPath),
+                  pathToChunkMetadataListMap.get(seriesPath));
+      pathToTimeSeriesMetadataMap.put(seriesPath, timeSeriesMetadata);
+    }
+    return timeSeriesMetadata;
   }
 
   public DataRegion.SettleTsFileCallBack getSettleTsFileCallBack() {
@@ -1049,7 +1107,7 @@ public class TsFileResource implements PersistentResource {
    */
   public long calculateRamSize() {
     if (ramSize == 0) {
-      ramSize = INSTANCE_SIZE + timeIndex.calculateRamSize();
+      ramSize = INSTANCE_SIZE + timeIndex.calculateRamSize() + getSeriesPresenceFilterRamSize();
       return ramSize;
     } else {
       return ramSize;
@@ -1277,19 +1335,14 @@ public class TsFileResource implements PersistentResource {
 
     long beforeRamSize = ramSize;
 
-    ramSize = INSTANCE_SIZE + timeIndex.calculateRamSize();
+    ramSize = INSTANCE_SIZE + timeIndex.calculateRamSize() + getSeriesPresenceFilterRamSize();
 
     return beforeRamSize - ramSize;
   }
 
-  private void generatePathToTimeSeriesMetadataMap() throws IOException {
-    for (IFullPath path : pathToChunkMetadataListMap.keySet()) {
-      pathToTimeSeriesMetadataMap.put(
-          path,
-          ResourceByPathUtils.getResourceInstance(path)
-              .generateTimeSeriesMetadata(
-                  pathToReadOnlyMemChunkMap.get(path), pathToChunkMetadataListMap.get(path)));
-    }
+  private long getSeriesPresenceFilterRamSize() {
+    SeriesPresenceFilter filter = seriesPresenceFilter;
+    return filter == null ? 0 : filter.getRetainedSizeInBytes();
   }
 
   public void deleteRemovedDeviceAndUpdateEndTime(Map<IDeviceID, Long> lastTimeForEachDevice) {
@@ -0,0 +1,519 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.tsfile;
+
+import org.apache.iotdb.commons.exception.IoTDBIORuntimeException;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.memtable.WritableMemChunk;
+import org.apache.iotdb.db.utils.datastructure.TVList;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.utils.PublicBAOS;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * The rollups of a sequence TsFile, i.e. the statistics of every non-aligned series per bucket of
+ * {@code interval} ms, with bucket boundaries aligned to multiples of the interval. They are
+ * collected while the memtables are flushed, merged by inner space compaction and stored in a
+ * sidecar file beside the TsFile, so that a GROUP BY time query aligned with the interval reads
+ * the buckets instead of the chunks of the file.
+ *
+ * <p>The sidecar file is laid out as:
+ *
+ * <pre>
+ * tsFileLength | interval | (blockSize | device | measurement | dataType | bucketCount |
+ * statistics * bucketCount) * seriesCount | slot * slotCount | slotCount | slotsOffset
+ * </pre>
+ *
+ * where the slots form an open addressing hash table from series to the offset of its block, so
+ * that the buckets of one series are read with a few positional reads. The length of the TsFile
+ * is recorded to detect a stale sidecar file. The rollups of the series read by queries are kept in
+ * an LRU cache, so that a series is not read from the sidecar file again by every query.
+ */
+public class TsFileRollup {
+
+  public static final String ROLLUP_SUFFIX = ".rollup";
+
+  private static final int HEADER_SIZE = 2 * Long.BYTES;
+  private static final int FOOTER_SIZE = Integer.BYTES + Long.BYTES;
+
+  // a TreeMap entry, i.e. its key, value, left, right, parent and color
+  private static final long TREE_MAP_ENTRY_SIZE =
+      RamUsageEstimator.alignObjectSize(
+          RamUsageEstimator.NUM_BYTES_OBJECT_HEADER
+              + 5L * RamUsageEstimator.NUM_BYTES_OBJECT_REF
+              + 1);
+  private static final long BUCKET_SIZE =
+      TREE_MAP_ENTRY_SIZE + RamUsageEstimator.shallowSizeOfInstance(Long.class);
+  private static final long SERIES_ROLLUP_SIZE =
+      TREE_MAP_ENTRY_SIZE
+          + RamUsageEstimator.shallowSizeOfInstance(SeriesRollup.class)
+          + RamUsageEstimator.shallowSizeOfInstance(TreeMap.class);
+
+  private static final Cache<SeriesRollupCacheKey, Optional<SeriesRollup>> CACHE =
+      Caffeine.newBuilder()
+          .maximumWeight(IoTDBDescriptor.getInstance().getConfig().getRollupCacheSizeInBytes())
+          .weigher(
+              (Weigher<SeriesRollupCacheKey, Optional<SeriesRollup>>)
+                  (key, rollup) ->
+                      (int)
+                          (key.ramBytesUsed()
+                              + rollup.map(SeriesRollup::ramBytesUsed).orElse(0L)))
+          .build();
+
+  private final long interval;
+  private final Map<IDeviceID, Map<String, SeriesRollup>> seriesRollups = new TreeMap<>();
+
+  public TsFileRollup(long interval) {
+    this.interval = interval;
+  }
+
+  public long getInterval() {
+    return interval;
+  }
+
+  public boolean isEmpty() {
+    return seriesRollups.isEmpty();
+  }
+
+  /**
+   * Estimates the memory taken by the rollups, which grows with the number of series and buckets
+   * of the TsFile.
+   */
+  public long ramBytesUsed() {
+    long size = 0;
+    for (Map.Entry<IDeviceID, Map<String, SeriesRollup>> deviceEntry : seriesRollups.entrySet()) {
+      size += TREE_MAP_ENTRY_SIZE + deviceEntry.getKey().ramBytesUsed();
+      for (Map.Entry<String, SeriesRollup> entry : deviceEntry.getValue().entrySet()) {
+        size += RamUsageEstimator.sizeOf(entry.getKey()) + entry.getValue().ramBytesUsed();
+      }
+    }
+    return size;
+  }
+
+  public static File getRollupFile(File tsFile) {
+    return new File(tsFile.getPath() + ROLLUP_SUFFIX);
+  }
+
+  /** Collects the points of a sorted memtable chunk in the order they are flushed. */
+  public void collect(IDeviceID deviceId, WritableMemChunk memChunk) {
+    TSDataType dataType = memChunk.getSchema().getType();
+    SeriesRollup seriesRollup =
+        seriesRollups
+            .computeIfAbsent(deviceId, k -> new TreeMap<>())
+            .computeIfAbsent(
+                memChunk.getSchema().getMeasurementName(),
+                k -> new SeriesRollup(dataType, interval));
+    if (seriesRollup.dataType != dataType) {
+      // the series is recreated with another type, its buckets are not reliable any more
+      seriesRollup.valid = false;
+      return;
+    }
+
+    TVList list = memChunk.getTVList();
+    long bucketStart = Long.MIN_VALUE;
+    Statistics<? extends Serializable> bucket = null;
+    for (int i = 0; i < list.rowCount(); i++) {
+      long time = list.getTime(i);
+      // skip duplicated data like the encoding of the memtable chunk
+      if (i + 1 < list.rowCount() && time == list.getTime(i + 1)) {
+        continue;
+      }
+      if (bucket == null || time - bucketStart >= interval) {
+        bucketStart = Math.floorDiv(time, interval) * interval;
+        bucket = seriesRollup.getOrCreateBucket(bucketStart);
+      }
+      switch (dataType) {
+        case BOOLEAN:
+          bucket.update(time, list.getBoolean(i));
+          break;
+        case INT32:
+        case DATE:
+          bucket.update(time, list.getInt(i));
+          break;
+        case INT64:
+        case TIMESTAMP:
+          bucket.update(time, list.getLong(i));
+          break;
+        case FLOAT:
+          bucket.update(time, list.getFloat(i));
+          break;
+        case DOUBLE:
+          bucket.update(time, list.getDouble(i));
+          break;
+        case TEXT:
+        case BLOB:
+        case STRING:
+          bucket.update(time, list.getBinary(i));
+          break;
+        default:
+          seriesRollup.valid = false;
+          return;
+      }
+    }
+  }
+
+  /**
+   * Merges the rollups of another TsFile or memtable. The points of the same series in the two
+   * rollups must not overlap, which holds for the memtables of a sequence TsFile and for the files
+   * of an inner space sequence compaction.
+   */
+  public void merge(TsFileRollup other) {
+    if (interval != other.interval) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Rollups of interval %d can not be merged into ones of interval %d",
+              other.interval, interval));
+    }
+    for (Map.Entry<IDeviceID, Map<String, SeriesRollup>> deviceEntry :
+        other.seriesRollups.entrySet()) {
+      Map<String, SeriesRollup> deviceRollups =
+          seriesRollups.computeIfAbsent(deviceEntry.getKey(), k -> new TreeMap<>());
+      for (Map.Entry<String, SeriesRollup> entry : deviceEntry.getValue().entrySet()) {
+        SeriesRollup otherRollup = entry.getValue();
+        SeriesRollup seriesRollup = deviceRollups.get(entry.getKey());
+        if (seriesRollup == null) {
+          deviceRollups.put(entry.getKey(), otherRollup);
+        } else if (seriesRollup.dataType != otherRollup.dataType || !otherRollup.valid) {
+          seriesRollup.valid = false;
+        } else {
+          for (Statistics<? extends Serializable> bucket : otherRollup.buckets.values()) {
+            seriesRollup
+                .getOrCreateBucket(Math.floorDiv(bucket.getStartTime(), interval) * interval)
+                .mergeStatistics(bucket);
+          }
+        }
+      }
+    }
+  }
+
+  /** Writes the rollups into the sidecar file of the sealed TsFile. */
+  public void serialize(File tsFile) throws IOException {
+    List<Long> blockOffsets = new ArrayList<>();
+    List<Integer> blockHashes = new ArrayList<>();
+    File rollupFile = getRollupFile(tsFile);
+    try (DataOutputStream outputStream =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(rollupFile)))) {
+      outputStream.writeLong(tsFile.length());
+      outputStream.writeLong(interval);
+      long offset = HEADER_SIZE;
+
+      PublicBAOS block = new PublicBAOS();
+      for (Map.Entry<IDeviceID, Map<String, SeriesRollup>> deviceEntry :
+          seriesRollups.entrySet()) {
+        for (Map.Entry<String, SeriesRollup> entry : deviceEntry.getValue().entrySet()) {
+          SeriesRollup seriesRollup = entry.getValue();
+          if (!seriesRollup.valid) {
+            continue;
+          }
+          block.reset();
+          deviceEntry.getKey().serialize(block);
+          ReadWriteIOUtils.write(entry.getKey(), block);
+          ReadWriteIOUtils.write(seriesRollup.dataType, block);
+          ReadWriteIOUtils.write(seriesRollup.buckets.size(), block);
+          for (Statistics<? extends Serializable> bucket : seriesRollup.buckets.values()) {
+            bucket.serialize(block);
+          }
+
+          blockOffsets.add(offset);
+          blockHashes.add(hash(deviceEntry.getKey(), entry.getKey()));
+          outputStream.writeInt(block.size());
+          outputStream.write(block.getBuf(), 0, block.size());
+          offset += Integer.BYTES + block.size();
+        }
+      }
+
+      // an open addressing hash table whose load factor is at most 0.5
+      int slotCount = Integer.highestOneBit(Math.max(blockOffsets.size(), 1)) << 2;
+      long[] slots = new long[slotCount];
+      for (int i = 0; i < blockOffsets.size(); i++) {
+        int slot = blockHashes.get(i) & (slotCount - 1);
+        while (slots[slot] != 0) {
+          slot = (slot + 1) & (slotCount - 1);
+        }
+        slots[slot] = blockOffsets.get(i);
+      }
+      for (long slot : slots) {
+        outputStream.writeLong(slot);
+      }
+      outputStream.writeInt(slotCount);
+      outputStream.writeLong(offset);
+    } catch (IOException e) {
+      Files.deleteIfExists(rollupFile.toPath());
+      throw e;
+    }
+  }
+
+  /**
+   * Reads all the rollups of the TsFile, or returns null if the file has no rollups or the rollups
+   * are stale.
+   */
+  public static TsFileRollup deserialize(File tsFile) throws IOException {
+    File rollupFile = getRollupFile(tsFile);
+    if (!rollupFile.exists()) {
+      return null;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(rollupFile.toPath()));
+    if (buffer.remaining() < HEADER_SIZE + FOOTER_SIZE || buffer.getLong() != tsFile.length()) {
+      return null;
+    }
+    TsFileRollup rollup = new TsFileRollup(buffer.getLong());
+    long slotsOffset = buffer.getLong(buffer.limit() - Long.BYTES);
+    while (buffer.position() < slotsOffset) {
+      int blockSize = buffer.getInt();
+      ByteBuffer block = buffer.slice();
+      block.limit(blockSize);
+      buffer.position(buffer.position() + blockSize);
+
+      IDeviceID deviceId = IDeviceID.Deserializer.DEFAULT_DESERIALIZER.deserializeFrom(block);
+      String measurement = ReadWriteIOUtils.readString(block);
+      rollup
+          .seriesRollups
+          .computeIfAbsent(deviceId, k -> new TreeMap<>())
+          .put(measurement, deserializeSeriesRollup(block, rollup.interval));
+    }
+    return rollup;
+  }
+
+  /**
+   * Reads the rollups of one series of the TsFile through the cache, or returns null if the series
+   * has no rollups of the given type or the rollups are stale. The returned rollups are shared and
+   * must not be modified.
+   */
+  public static SeriesRollup read(
+      File tsFile, IDeviceID deviceId, String measurement, TSDataType dataType) throws IOException {
+    // a changed TsFile has another length, whose rollups are read again and found stale
+    SeriesRollupCacheKey key =
+        new SeriesRollupCacheKey(tsFile.getPath(), tsFile.length(), deviceId, measurement);
+    Optional<SeriesRollup> seriesRollup;
+    try {
+      seriesRollup =
+          CACHE.get(
+              key,
+              k -> {
+                try {
+                  return Optional.ofNullable(readFromFile(tsFile, deviceId, measurement));
+                } catch (IOException e) {
+                  throw new IoTDBIORuntimeException(e);
+                }
+              });
+    } catch (IoTDBIORuntimeException e) {
+      throw e.getCause();
+    }
+    return seriesRollup.filter(rollup -> rollup.dataType == dataType).orElse(null);
+  }
+
+  /** Removes all the cached rollups. */
+  public static void clearCache() {
+    CACHE.invalidateAll();
+    CACHE.cleanUp();
+  }
+
+  private static SeriesRollup readFromFile(File tsFile, IDeviceID deviceId, String measurement)
+      throws IOException {
+    File rollupFile = getRollupFile(tsFile);
+    if (!rollupFile.exists()) {
+      return null;
+    }
+    try (FileChannel channel = FileChannel.open(rollupFile.toPath(), StandardOpenOption.READ)) {
+      long fileSize = channel.size();
+      if (fileSize < HEADER_SIZE + FOOTER_SIZE) {
+        return null;
+      }
+      ByteBuffer header = read(channel, 0, HEADER_SIZE);
+      if (header.getLong() != tsFile.length()) {
+        return null;
+      }
+      long interval = header.getLong();
+      ByteBuffer footer = read(channel, fileSize - FOOTER_SIZE, FOOTER_SIZE);
+      int slotCount = footer.getInt();
+      long slotsOffset = footer.getLong();
+
+      int slot = hash(deviceId, measurement) & (slotCount - 1);
+      for (int probe = 0; probe < slotCount; probe++) {
+        long blockOffset =
+            read(channel, slotsOffset + (long) slot * Long.BYTES, Long.BYTES).getLong();
+        if (blockOffset == 0) {
+          return null;
+        }
+        int blockSize = read(channel, blockOffset, Integer.BYTES).getInt();
+        ByteBuffer block = read(channel, blockOffset + Integer.BYTES, blockSize);
+        if (deviceId.equals(IDeviceID.Deserializer.DEFAULT_DESERIALIZER.deserializeFrom(block))
+            && measurement.equals(ReadWriteIOUtils.readString(block))) {
+          return deserializeSeriesRollup(block, interval);
+        }
+        slot = (slot + 1) & (slotCount - 1);
+      }
+      return null;
+    }
+  }
+
+  private static SeriesRollup deserializeSeriesRollup(ByteBuffer block, long interval)
+      throws IOException {
+    TSDataType dataType = ReadWriteIOUtils.readDataType(block);
+    int bucketCount = ReadWriteIOUtils.readInt(block);
+    SeriesRollup seriesRollup = new SeriesRollup(dataType, interval);
+    InputStream inputStream =
+        new ByteArrayInputStream(
+            block.array(), block.arrayOffset() + block.position(), block.remaining());
+    for (int i = 0; i < bucketCount; i++) {
+      Statistics<? extends Serializable> bucket = Statistics.deserialize(inputStream, dataType);
+      seriesRollup.buckets.put(Math.floorDiv(bucket.getStartTime(), interval) * interval, bucket);
+    }
+    return seriesRollup;
+  }
+
+  private static ByteBuffer read(FileChannel channel, long position, int size) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of rollup file");
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  private static int hash(IDeviceID deviceId, String measurement) {
+    int hash = (deviceId.toString() + TsFileConstant.PATH_SEPARATOR + measurement).hashCode();
+    // spread the high bits like HashMap, as only the low bits choose the slot
+    return hash ^ (hash >>> 16);
+  }
+
+  /** The buckets of one series, keyed and ordered by the start time of the buckets. */
+  public static class SeriesRollup {
+
+    private final TSDataType dataType;
+    private final long interval;
+    private final TreeMap<Long, Statistics<? extends Serializable>> buckets = new TreeMap<>();
+    private boolean valid = true;
+
+    private SeriesRollup(TSDataType dataType, long interval) {
+      this.dataType = dataType;
+      this.interval = interval;
+    }
+
+    public long getInterval() {
+      return interval;
+    }
+
+    /** Returns the number of points in all the buckets. */
+    public long getCount() {
+      long count = 0;
+      for (Statistics<? extends Serializable> bucket : buckets.values()) {
+        count += bucket.getCount();
+      }
+      return count;
+    }
+
+    private long ramBytesUsed() {
+      long size = SERIES_ROLLUP_SIZE;
+      for (Statistics<? extends Serializable> bucket : buckets.values()) {
+        size +=
+            BUCKET_SIZE
+                + RamUsageEstimator.shallowSizeOfInstance(bucket.getClass())
+                + bucket.getSerializedSize();
+      }
+      return size;
+    }
+
+    private Statistics<? extends Serializable> getOrCreateBucket(long bucketStart) {
+      return buckets.computeIfAbsent(bucketStart, k -> Statistics.getStatsByType(dataType));
+    }
+
+    /** Returns the buckets in the ascending order of time. */
+    public Collection<Statistics<? extends Serializable>> getBuckets() {
+      return buckets.values();
+    }
+  }
+
+  private static class SeriesRollupCacheKey {
+
+    private static final long INSTANCE_SIZE =
+        RamUsageEstimator.shallowSizeOfInstance(SeriesRollupCacheKey.class);
+
+    private final String tsFilePath;
+    private final long tsFileLength;
+    private final IDeviceID deviceId;
+    private final String measurement;
+
+    private SeriesRollupCacheKey(
+        String tsFilePath, long tsFileLength, IDeviceID deviceId, String measurement) {
+      this.tsFilePath = tsFilePath;
+      this.tsFileLength = tsFileLength;
+      this.deviceId = deviceId;
+      this.measurement = measurement;
+    }
+
+    private long ramBytesUsed() {
+      return INSTANCE_SIZE
+          + RamUsageEstimator.sizeOf(tsFilePath)
+          + deviceId.ramBytesUsed()
+          + RamUsageEstimator.sizeOf(measurement);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      SeriesRollupCacheKey that = (SeriesRollupCacheKey) o;
+      return tsFileLength == that.tsFileLength
+          && tsFilePath.equals(that.tsFilePath)
+          && deviceId.equals(that.deviceId)
+          && measurement.equals(that.measurement);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(tsFilePath, tsFileLength, deviceId, measurement);
+    }
+  }
+}
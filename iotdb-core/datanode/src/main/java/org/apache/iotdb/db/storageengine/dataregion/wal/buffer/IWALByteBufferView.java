@@ -21,6 +21,10 @@ package org.apache.iotdb.db.storageengine.dataregion.wal.buffer;
 
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 
 /**
  * This ByteBuffer view provides blocking writing interface for wal to serialize huge object with
@@ -52,6 +56,34 @@ public abstract class IWALByteBufferView extends OutputStream {
   /** Like {@link ByteBuffer#putDouble(double)}. */
   public abstract void putDouble(double value);
 
+  /** Like {@link IntBuffer#put(int[], int, int)}. */
+  public void putInts(int[] src, int offset, int length) {
+    for (int i = offset; i < offset + length; i++) {
+      putInt(src[i]);
+    }
+  }
+
+  /** Like {@link LongBuffer#put(long[], int, int)}. */
+  public void putLongs(long[] src, int offset, int length) {
+    for (int i = offset; i < offset + length; i++) {
+      putLong(src[i]);
+    }
+  }
+
+  /** Like {@link FloatBuffer#put(float[], int, int)}. */
+  public void putFloats(float[] src, int offset, int length) {
+    for (int i = offset; i < offset + length; i++) {
+      putFloat(src[i]);
+    }
+  }
+
+  /** Like {@link DoubleBuffer#put(double[], int, int)}. */
+  public void putDoubles(double[] src, int offset, int length) {
+    for (int i = offset; i < offset + length; i++) {
+      putDouble(src[i]);
+    }
+  }
+
   /** Like {@link ByteBuffer#position()}. */
   public abstract int position();
 }
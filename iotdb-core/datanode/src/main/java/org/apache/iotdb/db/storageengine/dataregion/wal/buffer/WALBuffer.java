@@ -468,6 +468,63 @@ public class WALBuffer extends AbstractWALBuffer {
       workingBuffer.putDouble(value);
     }
 
+    /**
+     * Returns how many values of the given size can be put into the working buffer right now,
+     * rolling the working buffer first if not even one value fits.
+     */
+    private int ensureEnoughSpaceForValues(int valueBytes, int valueNum) {
+      ensureEnoughSpace(valueBytes);
+      return Math.min(valueNum, workingBuffer.remaining() / valueBytes);
+    }
+
+    private void skipWorkingBuffer(int bytesNum) {
+      workingBuffer.position(workingBuffer.position() + bytesNum);
+    }
+
+    @Override
+    public void putInts(int[] src, int offset, int length) {
+      while (length > 0) {
+        int num = ensureEnoughSpaceForValues(Integer.BYTES, length);
+        workingBuffer.asIntBuffer().put(src, offset, num);
+        skipWorkingBuffer(num * Integer.BYTES);
+        offset += num;
+        length -= num;
+      }
+    }
+
+    @Override
+    public void putLongs(long[] src, int offset, int length) {
+      while (length > 0) {
+        int num = ensureEnoughSpaceForValues(Long.BYTES, length);
+        workingBuffer.asLongBuffer().put(src, offset, num);
+        skipWorkingBuffer(num * Long.BYTES);
+        offset += num;
+        length -= num;
+      }
+    }
+
+    @Override
+    public void putFloats(float[] src, int offset, int length) {
+      while (length > 0) {
+        int num = ensureEnoughSpaceForValues(Float.BYTES, length);
+        workingBuffer.asFloatBuffer().put(src, offset, num);
+        skipWorkingBuffer(num * Float.BYTES);
+        offset += num;
+        length -= num;
+      }
+    }
+
+    @Override
+    public void putDoubles(double[] src, int offset, int length) {
+      while (length > 0) {
+        int num = ensureEnoughSpaceForValues(Double.BYTES, length);
+        workingBuffer.asDoubleBuffer().put(src, offset, num);
+        skipWorkingBuffer(num * Double.BYTES);
+        offset += num;
+        length -= num;
+      }
+    }
+
     @Override
     public int position() {
       return flushedBytesNum + workingBuffer.position();
@@ -687,6 +687,9 @@ public class WALNode implements IWALNode {
     /** last broken wal file's version id */
     private long brokenFileId = -1;
 
+    /** the first time isNextReady() found the next element not ready, -1 if it was ready */
+    private long notReadySinceMs = -1;
+
     public PlanNodeIterator(long startIndex) {
       this.nextSearchIndex = startIndex;
     }
@@ -855,6 +858,30 @@ public class WALNode implements IWALNode {
       }
     }
 
+    @Override
+    public boolean isNextReady() {
+      if (hasNext()) {
+        notReadySinceMs = -1;
+        return true;
+      }
+      long currentTime = System.currentTimeMillis();
+      if (notReadySinceMs < 0) {
+        notReadySinceMs = currentTime;
+        return false;
+      }
+      if (currentTime - notReadySinceMs
+          < TimeUnit.SECONDS.toMillis(WAIT_FOR_NEXT_WAL_ENTRY_TIMEOUT_IN_SEC)) {
+        return false;
+      }
+      logger.info(
+          "timeout when checking for next WAL entry ready, execute rollWALFile. Current search index in wal buffer is {}, and next target index is {}",
+          buffer.getCurrentSearchIndex(),
+          nextSearchIndex);
+      rollWALFile();
+      notReadySinceMs = currentTime;
+      return hasNext();
+    }
+
     @Override
     public void skipTo(long targetIndex) {
       if (targetIndex < nextSearchIndex) {
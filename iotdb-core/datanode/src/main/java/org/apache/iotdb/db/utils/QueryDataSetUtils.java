@@ -638,9 +638,7 @@ public class QueryDataSetUtils {
 
   public static long[] readTimesFromBuffer(ByteBuffer buffer, int size) {
     long[] times = new long[size];
-    for (int i = 0; i < size; i++) {
-      times[i] = buffer.getLong();
-    }
+    readLongsFromBuffer(buffer, times);
     return times;
   }
 
@@ -661,9 +659,7 @@ public class QueryDataSetUtils {
       boolean hasBitMap = BytesUtils.byteToBool(buffer.get());
       if (hasBitMap) {
         byte[] bytes = new byte[BitMap.getSizeOfBytes(size)];
-        for (int j = 0; j < bytes.length; j++) {
-          bytes[j] = buffer.get();
-        }
+        buffer.get(bytes);
         bitMaps[i] = new BitMap(size, bytes);
       }
     }
@@ -723,31 +719,26 @@ public class QueryDataSetUtils {
         case INT32:
         case DATE:
           int[] intValues = new int[size];
-          for (int index = 0; index < size; index++) {
-            intValues[index] = buffer.getInt();
-          }
+          buffer.asIntBuffer().get(intValues);
+          buffer.position(buffer.position() + size * Integer.BYTES);
           values[i] = intValues;
           break;
         case INT64:
         case TIMESTAMP:
           long[] longValues = new long[size];
-          for (int index = 0; index < size; index++) {
-            longValues[index] = buffer.getLong();
-          }
+          readLongsFromBuffer(buffer, longValues);
           values[i] = longValues;
           break;
         case FLOAT:
           float[] floatValues = new float[size];
-          for (int index = 0; index < size; index++) {
-            floatValues[index] = buffer.getFloat();
-          }
+          buffer.asFloatBuffer().get(floatValues);
+          buffer.position(buffer.position() + size * Float.BYTES);
           values[i] = floatValues;
           break;
         case DOUBLE:
           double[] doubleValues = new double[size];
-          for (int index = 0; index < size; index++) {
-            doubleValues[index] = buffer.getDouble();
-          }
+          buffer.asDoubleBuffer().get(doubleValues);
+          buffer.position(buffer.position() + size * Double.BYTES);
           values[i] = doubleValues;
           break;
         case TEXT:
@@ -770,6 +761,15 @@ public class QueryDataSetUtils {
     return values;
   }
 
+  /**
+   * Copies the longs at the position of the buffer into the array in bulk instead of one by one,
+   * and advances the position of the buffer accordingly.
+   */
+  private static void readLongsFromBuffer(ByteBuffer buffer, long[] dest) {
+    buffer.asLongBuffer().get(dest);
+    buffer.position(buffer.position() + dest.length * Long.BYTES);
+  }
+
   public static Object[] readTabletValuesFromStream(
       DataInputStream stream, TSDataType[] types, int columns, int size) throws IOException {
     Object[] values = new Object[columns];
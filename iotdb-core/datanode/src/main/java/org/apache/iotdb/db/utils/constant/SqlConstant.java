@@ -67,6 +67,8 @@ public class SqlConstant {
   public static final String COUNT_IF = "count_if";
   public static final String TIME_DURATION = "time_duration";
   public static final String MODE = "mode";
+  public static final String APPROX_COUNT_DISTINCT = "approx_count_distinct";
+  public static final String APPROX_PERCENTILE = "approx_percentile";
   public static final String STDDEV = "stddev";
   public static final String STDDEV_POP = "stddev_pop";
   public static final String STDDEV_SAMP = "stddev_samp";
@@ -88,6 +88,12 @@ public abstract class AlignedTVList extends TVList {
 
   protected int timeDeletedCnt = 0;
 
+  // the number of the leading value arrays and bitmaps shared with the read views. Sorting only
+  // moves the timestamps and the indices, so they stay shared after the time and index arrays are
+  // copied, and only the bitmaps are copied before deletion
+  private int sharedValueArrayNum;
+  private int sharedBitMapNum;
+
   AlignedTVList(List<TSDataType> types) {
     super();
     indices = new ArrayList<>(types.size());
@@ -115,6 +121,7 @@ public abstract class AlignedTVList extends TVList {
   @Override
   public TVList getTvListByColumnIndex(
       List<Integer> columnIndex, List<TSDataType> dataTypeList, boolean ignoreAllNullRows) {
+    markArraysShared();
     List<List<Object>> values = new ArrayList<>();
     List<List<BitMap>> bitMaps = null;
     for (int i = 0; i < columnIndex.size(); i++) {
@@ -122,7 +129,8 @@ public abstract class AlignedTVList extends TVList {
       if (columnIndex.get(i) == -1) {
         values.add(null);
       } else {
-        values.add(this.values.get(columnIndex.get(i)));
+        // copy the lists of arrays so that the view is not affected by the arrays appended later
+        values.add(new ArrayList<>(this.values.get(columnIndex.get(i))));
         if (this.bitMaps != null && this.bitMaps.get(columnIndex.get(i)) != null) {
           if (bitMaps == null) {
             bitMaps = new ArrayList<>(columnIndex.size());
@@ -130,19 +138,21 @@ public abstract class AlignedTVList extends TVList {
               bitMaps.add(null);
             }
           }
-          bitMaps.set(i, this.bitMaps.get(columnIndex.get(i)));
+          bitMaps.set(i, new ArrayList<>(this.bitMaps.get(columnIndex.get(i))));
         }
       }
     }
     AlignedTVList alignedTvList = AlignedTVList.newAlignedList(dataTypeList);
-    alignedTvList.timestamps = this.timestamps;
-    alignedTvList.indices = this.indices;
+    alignedTvList.timestamps = new ArrayList<>(this.timestamps);
+    alignedTvList.indices = new ArrayList<>(this.indices);
     alignedTvList.values = values;
     alignedTvList.bitMaps = bitMaps;
     alignedTvList.rowCount = this.rowCount;
+    alignedTvList.markArraysShared();
     // for table model, we won't discard any row even if all value columns are null
     alignedTvList.allValueColDeletedMap = ignoreAllNullRows ? getAllValueColDeletedMap() : null;
-    alignedTvList.timeColDeletedMap = this.timeColDeletedMap;
+    // the deletion bitmap of the time column is modified in place, so it is not shared
+    alignedTvList.timeColDeletedMap = timeColDeletedMap == null ? null : timeColDeletedMap.clone();
     alignedTvList.timeDeletedCnt = this.timeDeletedCnt;
 
     return alignedTvList;
@@ -150,18 +160,30 @@ public abstract class AlignedTVList extends TVList {
 
   @Override
   public AlignedTVList clone() {
-    AlignedTVList cloneList = AlignedTVList.newAlignedList(dataTypes);
-    cloneAs(cloneList);
+    return cloneSharingArrays(0);
+  }
+
+  @Override
+  protected AlignedTVList cloneSharingArrays(int shareArrayNum) {
+    AlignedTVList cloneList = AlignedTVList.newAlignedList(new ArrayList<>(dataTypes));
+    cloneAs(cloneList, shareArrayNum);
+    cloneList.sharedValueArrayNum = shareArrayNum;
+    cloneList.sharedBitMapNum = shareArrayNum;
     cloneList.timeDeletedCnt = this.timeDeletedCnt;
+    cloneList.timeColDeletedMap = timeColDeletedMap == null ? null : timeColDeletedMap.clone();
     System.arraycopy(
         memoryBinaryChunkSize, 0, cloneList.memoryBinaryChunkSize, 0, dataTypes.size());
-    for (int[] indicesArray : indices) {
-      cloneList.indices.add(cloneIndex(indicesArray));
+    for (int i = 0; i < indices.size(); i++) {
+      cloneList.indices.add(i < shareArrayNum ? indices.get(i) : cloneIndex(indices.get(i)));
     }
     for (int i = 0; i < values.size(); i++) {
       List<Object> columnValues = values.get(i);
-      for (Object valueArray : columnValues) {
-        cloneList.values.get(i).add(cloneValue(dataTypes.get(i), valueArray));
+      for (int j = 0; j < columnValues.size(); j++) {
+        Object valueArray = columnValues.get(j);
+        cloneList
+            .values
+            .get(i)
+            .add(j < shareArrayNum ? valueArray : cloneValue(dataTypes.get(i), valueArray));
       }
       // Clone bitmap in columnIndex
       if (bitMaps != null && bitMaps.get(i) != null) {
@@ -174,8 +196,9 @@ public abstract class AlignedTVList extends TVList {
         }
         if (cloneList.bitMaps.get(i) == null) {
           List<BitMap> cloneColumnBitMaps = new ArrayList<>();
-          for (BitMap bitMap : columnBitMaps) {
-            cloneColumnBitMaps.add(bitMap == null ? null : bitMap.clone());
+          for (int j = 0; j < columnBitMaps.size(); j++) {
+            BitMap bitMap = columnBitMaps.get(j);
+            cloneColumnBitMaps.add(bitMap == null || j < shareArrayNum ? bitMap : bitMap.clone());
           }
           cloneList.bitMaps.set(i, cloneColumnBitMaps);
         }
@@ -184,6 +207,45 @@ public abstract class AlignedTVList extends TVList {
     return cloneList;
   }
 
+  @Override
+  public boolean isShared() {
+    return super.isShared() || sharedValueArrayNum > 0;
+  }
+
+  @Override
+  protected void markArraysShared() {
+    super.markArraysShared();
+    sharedValueArrayNum = timestamps.size();
+    sharedBitMapNum = timestamps.size();
+  }
+
+  /** Replaces the index array at the given array index with a copy, as sorting only moves them. */
+  @Override
+  protected void copyValueArray(int arrayIndex) {
+    indices.set(arrayIndex, cloneIndex(indices.get(arrayIndex)));
+  }
+
+  /** Replaces the shared bitmaps with copies owned by this list before marking deleted values. */
+  private void copySharedBitMaps() {
+    if (sharedBitMapNum == 0) {
+      return;
+    }
+    if (bitMaps != null) {
+      for (List<BitMap> columnBitMaps : bitMaps) {
+        if (columnBitMaps == null) {
+          continue;
+        }
+        for (int i = 0; i < sharedBitMapNum && i < columnBitMaps.size(); i++) {
+          BitMap bitMap = columnBitMaps.get(i);
+          if (bitMap != null) {
+            columnBitMaps.set(i, bitMap.clone());
+          }
+        }
+      }
+    }
+    sharedBitMapNum = 0;
+  }
+
   @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   @Override
   public void putAlignedValue(long timestamp, Object[] value) {
@@ -240,9 +302,7 @@ public abstract class AlignedTVList extends TVList {
     }
     indices.get(arrayIndex)[elementIndex] = rowCount;
     rowCount++;
-    if (sorted && rowCount > 1 && timestamp < getTime(rowCount - 2)) {
-      sorted = false;
-    }
+    updateSorted(timestamp);
   }
 
   @Override
@@ -575,6 +635,7 @@ public abstract class AlignedTVList extends TVList {
    * @return Delete info pair. Left: deletedNumber int; right: ifDeleteColumn boolean
    */
   public Pair<Integer, Boolean> delete(long lowerBound, long upperBound, int columnIndex) {
+    copySharedBitMaps();
     int deletedNumber = 0;
     boolean deleteColumn = true;
     for (int i = 0; i < rowCount; i++) {
@@ -611,8 +672,10 @@ public abstract class AlignedTVList extends TVList {
       memoryBinaryChunkSize[copyIndex++] = tmpValueChunkRawSize[i];
     }
 
-    for (Object array : values.get(columnIndex)) {
-      PrimitiveArrayManager.release(array);
+    List<Object> columnValues = values.get(columnIndex);
+    // the shared value arrays are still read by the views
+    for (int i = sharedValueArrayNum; i < columnValues.size(); i++) {
+      PrimitiveArrayManager.release(columnValues.get(i));
     }
     values.remove(columnIndex);
     bitMaps.remove(columnIndex);
@@ -44,6 +44,7 @@ public class BackAlignedTVList extends QuickAlignedTVList implements BackwardSor
       clearTmp();
     }
     sorted = true;
+    sortedRunStarts = null;
   }
 
   @Override
@@ -40,6 +40,7 @@ public class BackBinaryTVList extends QuickBinaryTVList implements BackwardSort
       clearTmp();
     }
     sorted = true;
+    sortedRunStarts = null;
   }
 
   @Override
@@ -40,6 +40,7 @@ public class BackBooleanTVList extends QuickBooleanTVList implements BackwardSor
       clearTmp();
     }
     sorted = true;
+    sortedRunStarts = null;
   }
 
   @Override
@@ -40,6 +40,7 @@ public class BackDoubleTVList extends QuickDoubleTVList implements BackwardSort
       clearTmp();
     }
     sorted = true;
+    sortedRunStarts = null;
   }
 
   @Override
@@ -40,6 +40,7 @@ public class BackFloatTVList extends QuickFloatTVList implements BackwardSort {
       clearTmp();
     }
     sorted = true;
+    sortedRunStarts = null;
   }
 
   @Override
@@ -41,6 +41,7 @@ public class BackIntTVList extends QuickIntTVList implements BackwardSort {
       clearTmp();
     }
     sorted = true;
+    sortedRunStarts = null;
   }
 
   @Override
@@ -39,6 +39,7 @@ public class BackLongTVList extends QuickLongTVList implements BackwardSort {
       clearTmp();
     }
     sorted = true;
+    sortedRunStarts = null;
   }
 
   @Override
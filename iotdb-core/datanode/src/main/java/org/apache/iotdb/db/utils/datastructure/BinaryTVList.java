@@ -69,15 +69,25 @@ public abstract class BinaryTVList extends TVList {
 
   @Override
   public TimBinaryTVList clone() {
+    return cloneSharingArrays(0);
+  }
+
+  @Override
+  protected TimBinaryTVList cloneSharingArrays(int shareArrayNum) {
     TimBinaryTVList cloneList = new TimBinaryTVList();
-    cloneAs(cloneList);
+    cloneAs(cloneList, shareArrayNum);
     cloneList.memoryBinaryChunkSize = memoryBinaryChunkSize;
-    for (Binary[] valueArray : values) {
-      cloneList.values.add(cloneValue(valueArray));
+    for (int i = 0; i < values.size(); i++) {
+      cloneList.values.add(i < shareArrayNum ? values.get(i) : cloneValue(values.get(i)));
     }
     return cloneList;
   }
 
+  @Override
+  protected void copyValueArray(int arrayIndex) {
+    values.set(arrayIndex, cloneValue(values.get(arrayIndex)));
+  }
+
   private Binary[] cloneValue(Binary[] array) {
     Binary[] cloneArray = new Binary[array.length];
     System.arraycopy(array, 0, cloneArray, 0, array.length);
@@ -93,9 +103,7 @@ public abstract class BinaryTVList extends TVList {
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
     values.get(arrayIndex)[elementIndex] = value;
     rowCount++;
-    if (sorted && rowCount > 1 && timestamp < getTime(rowCount - 2)) {
-      sorted = false;
-    }
+    updateSorted(timestamp);
     memoryBinaryChunkSize += getBinarySize(value);
   }
 
@@ -114,6 +122,10 @@ public abstract class BinaryTVList extends TVList {
         set(i, newSize++);
         maxTime = Math.max(maxTime, time);
       } else {
+        if (newSize == i) {
+          // the rows from the first deleted one on are moved
+          copySharedArrays(i / ARRAY_SIZE);
+        }
         memoryBinaryChunkSize -= getBinarySize(getBinary(i));
       }
     }
@@ -280,7 +292,7 @@ public abstract class BinaryTVList extends TVList {
       }
     }
 
-    sorted = sorted && inputSorted && (rowCount == 0 || inPutMinTime >= getTime(rowCount - 1));
+    updateSorted(inputSorted, inPutMinTime);
     return nullCnt;
   }
 
@@ -63,14 +63,24 @@ public abstract class DoubleTVList extends TVList {
 
   @Override
   public DoubleTVList clone() {
+    return cloneSharingArrays(0);
+  }
+
+  @Override
+  protected DoubleTVList cloneSharingArrays(int shareArrayNum) {
     DoubleTVList cloneList = DoubleTVList.newList();
-    cloneAs(cloneList);
-    for (double[] valueArray : values) {
-      cloneList.values.add(cloneValue(valueArray));
+    cloneAs(cloneList, shareArrayNum);
+    for (int i = 0; i < values.size(); i++) {
+      cloneList.values.add(i < shareArrayNum ? values.get(i) : cloneValue(values.get(i)));
     }
     return cloneList;
   }
 
+  @Override
+  protected void copyValueArray(int arrayIndex) {
+    values.set(arrayIndex, cloneValue(values.get(arrayIndex)));
+  }
+
   private double[] cloneValue(double[] array) {
     double[] cloneArray = new double[array.length];
     System.arraycopy(array, 0, cloneArray, 0, array.length);
@@ -86,9 +96,7 @@ public abstract class DoubleTVList extends TVList {
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
     values.get(arrayIndex)[elementIndex] = value;
     rowCount++;
-    if (sorted && rowCount > 1 && timestamp < getTime(rowCount - 2)) {
-      sorted = false;
-    }
+    updateSorted(timestamp);
   }
 
   @Override
@@ -239,7 +247,7 @@ public abstract class DoubleTVList extends TVList {
       }
     }
 
-    sorted = sorted && inputSorted && (rowCount == 0 || inPutMinTime >= getTime(rowCount - 1));
+    updateSorted(inputSorted, inPutMinTime);
     return nullCnt;
   }
 
@@ -62,14 +62,24 @@ public abstract class IntTVList extends TVList {
 
   @Override
   public IntTVList clone() {
+    return cloneSharingArrays(0);
+  }
+
+  @Override
+  protected IntTVList cloneSharingArrays(int shareArrayNum) {
     IntTVList cloneList = IntTVList.newList();
-    cloneAs(cloneList);
-    for (int[] valueArray : values) {
-      cloneList.values.add(cloneValue(valueArray));
+    cloneAs(cloneList, shareArrayNum);
+    for (int i = 0; i < values.size(); i++) {
+      cloneList.values.add(i < shareArrayNum ? values.get(i) : cloneValue(values.get(i)));
     }
     return cloneList;
   }
 
+  @Override
+  protected void copyValueArray(int arrayIndex) {
+    values.set(arrayIndex, cloneValue(values.get(arrayIndex)));
+  }
+
   private int[] cloneValue(int[] array) {
     int[] cloneArray = new int[array.length];
     System.arraycopy(array, 0, cloneArray, 0, array.length);
@@ -85,9 +95,7 @@ public abstract class IntTVList extends TVList {
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
     values.get(arrayIndex)[elementIndex] = value;
     rowCount++;
-    if (sorted && rowCount > 1 && timestamp < getTime(rowCount - 2)) {
-      sorted = false;
-    }
+    updateSorted(timestamp);
   }
 
   @Override
@@ -232,7 +240,7 @@ public abstract class IntTVList extends TVList {
       }
     }
 
-    sorted = sorted && inputSorted && (rowCount == 0 || inPutMinTime >= getTime(rowCount - 1));
+    updateSorted(inputSorted, inPutMinTime);
     return nullCnt;
   }
 
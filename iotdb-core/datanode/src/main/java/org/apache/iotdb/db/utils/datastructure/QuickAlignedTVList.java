@@ -33,6 +33,7 @@ public class QuickAlignedTVList extends AlignedTVList implements QuickSort {
       qsort(0, rowCount - 1);
     }
     sorted = true;
+    sortedRunStarts = null;
   }
 
   @Override
@@ -45,6 +45,7 @@ public class QuickBinaryTVList extends BinaryTVList implements QuickSort {
       qsort(0, rowCount - 1);
     }
     sorted = true;
+    sortedRunStarts = null;
   }
 
   @Override
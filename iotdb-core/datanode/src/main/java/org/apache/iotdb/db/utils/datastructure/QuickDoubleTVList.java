@@ -42,6 +42,7 @@ public class QuickDoubleTVList extends DoubleTVList implements QuickSort {
       qsort(0, rowCount - 1);
     }
     sorted = true;
+    sortedRunStarts = null;
   }
 
   @Override
@@ -25,6 +25,7 @@ public class QuickIntTVList extends IntTVList implements QuickSort {
       qsort(0, rowCount - 1);
     }
     sorted = true;
+    sortedRunStarts = null;
   }
 
   @Override
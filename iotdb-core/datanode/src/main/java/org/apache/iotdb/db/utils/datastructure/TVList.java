@@ -39,6 +39,7 @@ import org.apache.tsfile.utils.ReadWriteIOUtils;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -53,16 +54,27 @@ public abstract class TVList implements WALEntryValue {
       IoTDBDescriptor.getInstance().getConfig().getTargetChunkSize();
   protected static final long MAX_SERIES_POINT_NUMBER =
       IoTDBDescriptor.getInstance().getConfig().getAvgSeriesPointNumberThreshold();
+  // beyond which the runs are too short to be worth merging one by one
+  private static final int MAX_SORTED_RUN_NUM = 1024;
+  private static final int INITIAL_SORTED_RUN_NUM = 16;
   // list of timestamp array, add 1 when expanded -> data point timestamp array
   // index relation: arrayIndex -> elementIndex
   protected List<long[]> timestamps;
   protected int rowCount;
 
   protected boolean sorted = true;
+  // when the list is not sorted, the rows may still consist of several runs sorted by themselves,
+  // e.g., tablets that are sorted but arrive out of order, so that sorting only needs to merge the
+  // runs. These are the start indexes of the runs, or null if some appended rows are not sorted
+  protected int[] sortedRunStarts;
+  protected int sortedRunNum;
   protected long maxTime;
   // record reference count of this tv list
   // currently this reference will only be increase because we can't know when to decrease it
   protected AtomicInteger referenceCount;
+  // the number of the leading time and value arrays shared with the read views taken by queries,
+  // they are copied before the rows in them are modified in place
+  protected int sharedArrayNum;
   private long version;
 
   protected TVList() {
@@ -123,6 +135,84 @@ public abstract class TVList implements WALEntryValue {
     return referenceCount.get();
   }
 
+  /**
+   * Whether some arrays of this list are shared with read views, so that they must not be released
+   * to be reused. Appending rows is always allowed.
+   */
+  public boolean isShared() {
+    return sharedArrayNum > 0;
+  }
+
+  /**
+   * Returns a read view of the current rows of this list. The view shares the arrays of this list
+   * instead of copying them, and its row count is the watermark of the rows visible to it. It is
+   * not affected by the rows appended to this list later, which are written beyond the watermark,
+   * and each array it shares is copied by this list before the rows in it are modified in place.
+   */
+  public TVList getReadView() {
+    markArraysShared();
+    return cloneSharingArrays(timestamps.size());
+  }
+
+  /** Marks all the current arrays of this list as shared with a read view. */
+  protected void markArraysShared() {
+    sharedArrayNum = timestamps.size();
+  }
+
+  /**
+   * Copies the shared arrays that sorting writes into. Tim sort never moves the leading rows that
+   * are not greater than any row after them, so the arrays holding only such rows stay shared,
+   * i.e., sorting a large list with a few late rows only copies the arrays from the first late row
+   * on.
+   */
+  public void copySharedArraysForSort() {
+    if (sharedArrayNum > 0) {
+      copySharedArrays(this instanceof TimSort ? getUnmovedRowCount() / ARRAY_SIZE : 0);
+    }
+  }
+
+  /** Replaces the shared arrays from the given array index on with copies owned by this list. */
+  protected void copySharedArrays(int fromArrayIndex) {
+    for (int i = fromArrayIndex; i < sharedArrayNum; i++) {
+      timestamps.set(i, cloneTime(timestamps.get(i)));
+      copyValueArray(i);
+    }
+    sharedArrayNum = Math.min(sharedArrayNum, fromArrayIndex);
+  }
+
+  /** Returns the number of the leading rows that a stable sort of this list does not move. */
+  private int getUnmovedRowCount() {
+    int sortedPrefixLength;
+    if (sortedRunStarts != null && sortedRunNum > 1) {
+      sortedPrefixLength = sortedRunStarts[1];
+    } else {
+      sortedPrefixLength = 1;
+      while (sortedPrefixLength < rowCount
+          && getTime(sortedPrefixLength) >= getTime(sortedPrefixLength - 1)) {
+        sortedPrefixLength++;
+      }
+    }
+    if (sortedPrefixLength >= rowCount) {
+      return rowCount;
+    }
+    long minTimeAfterPrefix = Long.MAX_VALUE;
+    for (int i = sortedPrefixLength; i < rowCount; i++) {
+      minTimeAfterPrefix = Math.min(minTimeAfterPrefix, getTime(i));
+    }
+    // the rows of the prefix not greater than any row after it stay in place
+    int left = 0;
+    int right = sortedPrefixLength;
+    while (left < right) {
+      int mid = (left + right) >>> 1;
+      if (getTime(mid) <= minTimeAfterPrefix) {
+        left = mid + 1;
+      } else {
+        right = mid;
+      }
+    }
+    return left;
+  }
+
   public int rowCount() {
     return rowCount;
   }
@@ -249,6 +339,12 @@ public abstract class TVList implements WALEntryValue {
   @Override
   public abstract TVList clone();
 
+  /** Clones this list sharing its first shareArrayNum arrays instead of copying them. */
+  protected abstract TVList cloneSharingArrays(int shareArrayNum);
+
+  /** Replaces the value array at the given array index with a copy owned by this list. */
+  protected abstract void copyValueArray(int arrayIndex);
+
   public TVList clone(long version) {
     this.version = version;
     return clone();
@@ -268,10 +364,15 @@ public abstract class TVList implements WALEntryValue {
       if (time < lowerBound || time > upperBound) {
         set(i, newSize++);
         maxTime = Math.max(time, maxTime);
+      } else if (newSize == i) {
+        // the rows from the first deleted one on are moved
+        copySharedArrays(i / ARRAY_SIZE);
       }
     }
     int deletedNumber = rowCount - newSize;
     rowCount = newSize;
+    // the runs are shifted by the deleted rows
+    sortedRunStarts = null;
     // release primitive arrays that are empty
     int newArrayNum = newSize / ARRAY_SIZE;
     if (newSize % ARRAY_SIZE != 0) {
@@ -286,17 +387,28 @@ public abstract class TVList implements WALEntryValue {
   }
 
   protected void cloneAs(TVList cloneList) {
-    for (long[] timestampArray : timestamps) {
-      cloneList.timestamps.add(cloneTime(timestampArray));
+    cloneAs(cloneList, 0);
+  }
+
+  protected void cloneAs(TVList cloneList, int shareArrayNum) {
+    for (int i = 0; i < timestamps.size(); i++) {
+      cloneList.timestamps.add(
+          i < shareArrayNum ? timestamps.get(i) : cloneTime(timestamps.get(i)));
     }
+    cloneList.sharedArrayNum = shareArrayNum;
     cloneList.rowCount = rowCount;
     cloneList.sorted = sorted;
+    if (sortedRunStarts != null) {
+      cloneList.sortedRunStarts = Arrays.copyOf(sortedRunStarts, sortedRunNum);
+      cloneList.sortedRunNum = sortedRunNum;
+    }
     cloneList.maxTime = maxTime;
   }
 
   public void clear() {
     rowCount = 0;
     sorted = true;
+    sortedRunStarts = null;
     maxTime = Long.MIN_VALUE;
     clearTime();
     clearValue();
@@ -331,17 +443,55 @@ public abstract class TVList implements WALEntryValue {
   }
 
   void updateMaxTimeAndSorted(long[] time, int start, int end) {
-    int length = time.length;
     long inPutMinTime = Long.MAX_VALUE;
     boolean inputSorted = true;
     for (int i = start; i < end; i++) {
       inPutMinTime = Math.min(inPutMinTime, time[i]);
       maxTime = Math.max(maxTime, time[i]);
-      if (inputSorted && i < length - 1 && time[i] > time[i + 1]) {
+      if (inputSorted && i < end - 1 && time[i] > time[i + 1]) {
         inputSorted = false;
       }
     }
-    sorted = sorted && inputSorted && (rowCount == 0 || inPutMinTime >= getTime(rowCount - 1));
+    updateSorted(inputSorted, inPutMinTime);
+  }
+
+  /**
+   * Updates whether the list is sorted before a block of rows is appended at {@link #rowCount}. A
+   * block sorted by itself but out of order with the existing rows starts a new sorted run.
+   *
+   * @param inputSorted whether the appended rows are sorted by themselves
+   * @param inputMinTime the minimum time of the appended rows
+   */
+  protected void updateSorted(boolean inputSorted, long inputMinTime) {
+    if (!inputSorted) {
+      sorted = false;
+      sortedRunStarts = null;
+    } else if (rowCount > 0 && inputMinTime < getTime(rowCount - 1)) {
+      startSortedRun(rowCount);
+    }
+  }
+
+  /** Updates whether the list is sorted after a row with the given time is appended. */
+  protected void updateSorted(long time) {
+    if ((sorted || sortedRunStarts != null) && rowCount > 1 && time < getTime(rowCount - 2)) {
+      startSortedRun(rowCount - 1);
+    }
+  }
+
+  private void startSortedRun(int runStart) {
+    if (sorted) {
+      sorted = false;
+      sortedRunStarts = new int[INITIAL_SORTED_RUN_NUM];
+      sortedRunNum = 1;
+    } else if (sortedRunStarts == null) {
+      return;
+    } else if (sortedRunNum == MAX_SORTED_RUN_NUM) {
+      sortedRunStarts = null;
+      return;
+    } else if (sortedRunNum == sortedRunStarts.length) {
+      sortedRunStarts = Arrays.copyOf(sortedRunStarts, sortedRunNum * 2);
+    }
+    sortedRunStarts[sortedRunNum++] = runStart;
   }
 
   /** for log */
@@ -51,11 +51,12 @@ public class TimAlignedTVList extends AlignedTVList implements TimSort {
           (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, rowCount);
     }
     if (!sorted) {
-      sort(0, rowCount);
+      sort(0, rowCount, sortedRunStarts, sortedRunNum);
     }
     clearSortedValue();
     clearSortedTime();
     sorted = true;
+    sortedRunStarts = null;
   }
 
   @Override
@@ -45,10 +45,11 @@ public class TimBinaryTVList extends BinaryTVList implements TimSort {
       sortedValues =
           (Binary[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.TEXT, rowCount);
     }
-    sort(0, rowCount);
+    sort(0, rowCount, sortedRunStarts, sortedRunNum);
     clearSortedValue();
     clearSortedTime();
     sorted = true;
+    sortedRunStarts = null;
   }
 
   @Override
@@ -44,11 +44,12 @@ public class TimBooleanTVList extends BooleanTVList implements TimSort {
           (boolean[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.BOOLEAN, rowCount);
     }
     if (!sorted) {
-      sort(0, rowCount);
+      sort(0, rowCount, sortedRunStarts, sortedRunNum);
     }
     clearSortedValue();
     clearSortedTime();
     sorted = true;
+    sortedRunStarts = null;
   }
 
   @Override
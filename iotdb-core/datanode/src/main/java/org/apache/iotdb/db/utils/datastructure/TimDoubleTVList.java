@@ -44,11 +44,12 @@ public class TimDoubleTVList extends DoubleTVList implements TimSort {
           (double[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.DOUBLE, rowCount);
     }
     if (!sorted) {
-      sort(0, rowCount);
+      sort(0, rowCount, sortedRunStarts, sortedRunNum);
     }
     clearSortedValue();
     clearSortedTime();
     sorted = true;
+    sortedRunStarts = null;
   }
 
   @Override
@@ -45,11 +45,12 @@ public class TimFloatTVList extends FloatTVList implements TimSort {
           (float[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.FLOAT, rowCount);
     }
     if (!sorted) {
-      sort(0, rowCount);
+      sort(0, rowCount, sortedRunStarts, sortedRunNum);
     }
     clearSortedValue();
     clearSortedTime();
     sorted = true;
+    sortedRunStarts = null;
   }
 
   @Override
@@ -45,11 +45,12 @@ public class TimIntTVList extends IntTVList implements TimSort {
           (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, rowCount);
     }
     if (!sorted) {
-      sort(0, rowCount);
+      sort(0, rowCount, sortedRunStarts, sortedRunNum);
     }
     clearSortedValue();
     clearSortedTime();
     sorted = true;
+    sortedRunStarts = null;
   }
 
   @Override
@@ -18,6 +18,8 @@
  */
 package org.apache.iotdb.db.utils.datastructure;
 
+import java.util.Arrays;
+
 /**
  * The interface refers to TimSort.java, and is used for sort the TVList Functions for tim_sort like
  * merge, sort, binary_sort is implemented here as default, reuse code whenever possible.
@@ -131,13 +133,67 @@ public interface TimSort {
       }
       setPivotTo(left);
     }
-    for (int i = lo; i < hi; i++) {
-      setToSorted(i, i);
+  }
+
+  /**
+   * Sorts [lo, hi) by merging its sorted runs pairwise if they are known, instead of sorting it
+   * from scratch.
+   *
+   * @param runStarts the start indexes of the sorted runs in ascending order, the first of which is
+   *     lo, or null if the runs are unknown
+   * @param runNum the number of the sorted runs
+   */
+  default void sort(int lo, int hi, int[] runStarts, int runNum) {
+    if (runStarts == null) {
+      sort(lo, hi);
+      return;
+    }
+    int[] bounds = Arrays.copyOf(runStarts, runNum + 1);
+    bounds[runNum] = hi;
+    while (runNum > 1) {
+      int mergedRunNum = 0;
+      for (int i = 0; i < runNum; i += 2) {
+        if (i + 1 < runNum) {
+          merge(bounds[i], bounds[i + 1], bounds[i + 2]);
+        }
+        bounds[mergedRunNum++] = bounds[i];
+      }
+      bounds[mergedRunNum] = hi;
+      runNum = mergedRunNum;
     }
   }
 
   /** merge arrays [lo, mid) [mid, hi] */
   default void merge(int lo, int mid, int hi) {
+    if (compare(mid - 1, mid) <= 0) {
+      // already in order, which is the common case of nearly sorted data
+      return;
+    }
+    // the elements of [lo, mid) not greater than the first one of [mid, hi) stay in place
+    int left = lo;
+    int right = mid;
+    while (left < right) {
+      int m = (left + right) >>> 1;
+      if (compare(m, mid) <= 0) {
+        left = m + 1;
+      } else {
+        right = m;
+      }
+    }
+    lo = left;
+    // the elements of [mid, hi) not less than the last one of [lo, mid) stay in place
+    left = mid;
+    right = hi;
+    while (left < right) {
+      int m = (left + right) >>> 1;
+      if (compare(m, mid - 1) < 0) {
+        left = m + 1;
+      } else {
+        right = m;
+      }
+    }
+    hi = left;
+
     // end of sorting buffer
     int tmpIdx = 0;
 
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.pipe.connector;
 
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeRequestType;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.response.PipeTransferFilePieceResp;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferDataNodeHandshakeV1Req;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferPlanNodeReq;
@@ -34,6 +35,7 @@ import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransfer
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferTabletRawReq;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferTabletRawReqV2;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferTsFilePieceReq;
+import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferTsFilePieceStreamReq;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferTsFilePieceWithModReq;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferTsFileSealReq;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
@@ -42,6 +44,7 @@ import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowNod
 import org.apache.iotdb.db.queryengine.plan.statement.Statement;
 import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertBaseStatement;
 import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.service.rpc.thrift.TPipeTransferReq;
 
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.enums.TSDataType;
@@ -510,6 +513,29 @@ public class PipeDataNodeThriftRequestTest {
     Assert.assertArrayEquals(req.getFilePiece(), deserializeReq.getFilePiece());
   }
 
+  @Test
+  public void testPipeTransferTsFilePieceStreamReq() throws IOException {
+    final String fileName = "1.tsfile";
+
+    final ByteBuffer buffer =
+        ByteBuffer.wrap(
+            PipeTransferTsFilePieceStreamReq.toTPipeTransferBytes(fileName, 1024, 4096, true));
+    final TPipeTransferReq req =
+        new TPipeTransferReq()
+            .setVersion(ReadWriteIOUtils.readByte(buffer))
+            .setType(ReadWriteIOUtils.readShort(buffer))
+            .setBody(buffer.slice());
+    final PipeTransferTsFilePieceStreamReq deserializeReq =
+        PipeTransferTsFilePieceStreamReq.fromTPipeTransferReq(req);
+
+    Assert.assertEquals(
+        PipeRequestType.TRANSFER_TS_FILE_PIECE_STREAM.getType(), deserializeReq.getType());
+    Assert.assertEquals(fileName, deserializeReq.getFileName());
+    Assert.assertEquals(1024, deserializeReq.getStartWritingOffset());
+    Assert.assertEquals(4096, deserializeReq.getPieceLength());
+    Assert.assertTrue(deserializeReq.isSingleFile());
+  }
+
   @Test
   public void testPipeTransferSchemaSnapshotPieceReq() throws IOException {
     final byte[] body = "testPipeTransferSchemaSnapshotPieceReq".getBytes();
@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.db.pipe.event;
 
+import org.apache.iotdb.commons.conf.CommonConfig;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.pipe.datastructure.pattern.IoTDBTreePattern;
@@ -28,7 +30,11 @@ import org.apache.iotdb.db.pipe.event.common.tablet.PipeRawTabletInsertionEvent;
 import org.apache.iotdb.db.pipe.event.common.tsfile.PipeTsFileInsertionEvent;
 import org.apache.iotdb.db.pipe.event.common.tsfile.parser.TsFileInsertionEventParser;
 import org.apache.iotdb.db.pipe.event.common.tsfile.parser.query.TsFileInsertionEventQueryParser;
+import org.apache.iotdb.db.pipe.event.common.tsfile.parser.scan.SharedTsFileScanner;
 import org.apache.iotdb.db.pipe.event.common.tsfile.parser.scan.TsFileInsertionEventScanParser;
+import org.apache.iotdb.db.pipe.event.common.tsfile.parser.scan.TsFileInsertionEventSharedScanParser;
+import org.apache.iotdb.db.pipe.resource.PipeDataNodeResourceManager;
+import org.apache.iotdb.db.pipe.resource.memory.PipeMemoryWeightUtil;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.utils.CompactionTestFileWriter;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
@@ -37,6 +43,7 @@ import org.apache.iotdb.pipe.api.access.Row;
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.read.TsFileSequenceReader;
@@ -110,6 +117,227 @@ public class TsFileInsertionEventParserTest {
     System.out.println(System.currentTimeMillis() - startTime);
   }
 
+  @Test
+  public void testSharedScanContainer() throws Exception {
+    testPartialNullValue(false);
+
+    final PipeTsFileInsertionEvent tsFileInsertionEvent =
+        new PipeTsFileInsertionEvent(
+            false,
+            "",
+            new TsFileResource(alignedTsFile),
+            true,
+            false,
+            false,
+            false,
+            null,
+            0,
+            null,
+            null,
+            null,
+            Long.MIN_VALUE,
+            Long.MAX_VALUE);
+    // Both pipes subscribe before parsing, so the tsfile is decoded once for them
+    try (final TsFileInsertionEventParser rootParser =
+            TsFileInsertionEventSharedScanParser.tryCreate(
+                alignedTsFile, new PrefixTreePattern("root"), null, tsFileInsertionEvent);
+        final TsFileInsertionEventParser measurementParser =
+            TsFileInsertionEventSharedScanParser.tryCreate(
+                alignedTsFile,
+                new PrefixTreePattern("root.sg.d.s1"),
+                null,
+                tsFileInsertionEvent)) {
+      Assert.assertNotNull(rootParser);
+      Assert.assertNotNull(measurementParser);
+      Assert.assertEquals(1, countNonNullPoints(measurementParser));
+      Assert.assertEquals(4, countNonNullPoints(rootParser));
+    }
+  }
+
+  private int countNonNullPoints(final TsFileInsertionEventParser parser) {
+    final AtomicInteger count = new AtomicInteger(0);
+    parser
+        .toTabletInsertionEvents()
+        .forEach(
+            event ->
+                event.processRowByRow((row, collector) -> count.addAndGet(getNonNullSize(row))));
+    return count.get();
+  }
+
+  @Test
+  public void testSharedScanDecodesOnce() throws Exception {
+    alignedTsFile = generateMultiTabletTsFile();
+    final List<Pair<Tablet, Boolean>> expectedTablets = scanPrivately(alignedTsFile);
+
+    try (final SharedTsFileScanner.Subscription first =
+            SharedTsFileScanner.subscribe(alignedTsFile);
+        final SharedTsFileScanner.Subscription second =
+            SharedTsFileScanner.subscribe(alignedTsFile)) {
+      Assert.assertNotNull(first);
+      Assert.assertNotNull(second);
+      Assert.assertEquals(expectedTablets, drain(first));
+      Assert.assertEquals(expectedTablets, drain(second));
+      // The second subscription only reads the tablets retained for it
+      Assert.assertFalse(first.isDetached());
+      Assert.assertFalse(second.isDetached());
+      Assert.assertEquals(expectedTablets.size(), first.getSharedDecodedTabletNum());
+    }
+  }
+
+  @Test
+  public void testSharedScanDetachSlowSubscription() throws Exception {
+    alignedTsFile = generateMultiTabletTsFile();
+    final List<Pair<Tablet, Boolean>> expectedTablets = scanPrivately(alignedTsFile);
+    Assert.assertTrue(expectedTablets.size() > 4);
+    long maxTabletSize = 0;
+    for (final Pair<Tablet, Boolean> tablet : expectedTablets) {
+      maxTabletSize =
+          Math.max(
+              maxTabletSize, PipeMemoryWeightUtil.calculateTabletSizeInBytes(tablet.getLeft()));
+    }
+
+    final CommonConfig config = CommonDescriptor.getInstance().getConfig();
+    final long originalMaxRetainedMemory =
+        config.getPipeTsFileSharedParsingMaxRetainedMemoryInBytes();
+    // Retain about 2 tablets, so that the slow subscription is detached once it falls behind
+    config.setPipeTsFileSharedParsingMaxRetainedMemoryInBytes(2 * maxTabletSize);
+    try {
+      try (final SharedTsFileScanner.Subscription fast =
+              SharedTsFileScanner.subscribe(alignedTsFile);
+          final SharedTsFileScanner.Subscription slow =
+              SharedTsFileScanner.subscribe(alignedTsFile)) {
+        Assert.assertNotNull(fast);
+        Assert.assertNotNull(slow);
+        final List<Pair<Tablet, Boolean>> fastTablets = new ArrayList<>();
+        final List<Pair<Tablet, Boolean>> slowTablets = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+          fastTablets.add(fast.next());
+          slowTablets.add(slow.next());
+        }
+        Assert.assertFalse(slow.isDetached());
+
+        fastTablets.addAll(drain(fast));
+        Assert.assertTrue(slow.isDetached());
+        Assert.assertFalse(fast.isDetached());
+        slowTablets.addAll(drain(slow));
+
+        Assert.assertEquals(expectedTablets, fastTablets);
+        Assert.assertEquals(expectedTablets, slowTablets);
+      }
+
+      // The subscriptions may also be detached while the other one is decoding
+      try (final SharedTsFileScanner.Subscription fast =
+              SharedTsFileScanner.subscribe(alignedTsFile);
+          final SharedTsFileScanner.Subscription slow =
+              SharedTsFileScanner.subscribe(alignedTsFile)) {
+        final AtomicReference<List<Pair<Tablet, Boolean>>> fastTablets = new AtomicReference<>();
+        final AtomicReference<Exception> exception = new AtomicReference<>();
+        final Thread fastThread =
+            new Thread(
+                () -> {
+                  try {
+                    fastTablets.set(drain(fast));
+                  } catch (final Exception e) {
+                    exception.set(e);
+                  }
+                });
+        fastThread.start();
+        final List<Pair<Tablet, Boolean>> slowTablets = new ArrayList<>();
+        for (Pair<Tablet, Boolean> tablet = slow.next(); tablet != null; tablet = slow.next()) {
+          slowTablets.add(tablet);
+          Thread.yield();
+        }
+        fastThread.join();
+
+        Assert.assertNull(exception.get());
+        Assert.assertEquals(expectedTablets, fastTablets.get());
+        Assert.assertEquals(expectedTablets, slowTablets);
+      }
+    } finally {
+      config.setPipeTsFileSharedParsingMaxRetainedMemoryInBytes(originalMaxRetainedMemory);
+    }
+  }
+
+  private File generateMultiTabletTsFile() throws Exception {
+    return TsFileGeneratorUtils.generateAlignedTsFile(
+        "aligned.tsfile", 3, 5, 2000, (int) TSFILE_START_TIME, 10000, 700, 50);
+  }
+
+  private List<Pair<Tablet, Boolean>> scanPrivately(final File tsFile) throws IOException {
+    final List<Pair<Tablet, Boolean>> tablets = new ArrayList<>();
+    try (final TsFileInsertionEventScanParser parser =
+        new TsFileInsertionEventScanParser(
+            tsFile, new PrefixTreePattern(null), Long.MIN_VALUE, Long.MAX_VALUE, null, null)) {
+      parser.toTabletWithIsAligneds().forEach(tablets::add);
+    }
+    return tablets;
+  }
+
+  private List<Pair<Tablet, Boolean>> drain(final SharedTsFileScanner.Subscription subscription)
+      throws IOException {
+    final List<Pair<Tablet, Boolean>> tablets = new ArrayList<>();
+    for (Pair<Tablet, Boolean> tablet = subscription.next();
+        tablet != null;
+        tablet = subscription.next()) {
+      tablets.add(tablet);
+    }
+    return tablets;
+  }
+
+  @Test
+  public void testPrefetchTabletInsertionEvents() throws Exception {
+    testPartialNullValue(false);
+
+    final long usedMemory = PipeDataNodeResourceManager.memory().getUsedMemorySizeInBytes();
+    final PipeTsFileInsertionEvent consumedEvent = createPrefetchedEvent();
+    try {
+      final AtomicInteger count = new AtomicInteger(0);
+      consumedEvent
+          .toTabletInsertionEvents()
+          .forEach(
+              event ->
+                  event
+                      .processRowByRow((row, collector) -> count.addAndGet(getNonNullSize(row)))
+                      .forEach(tabletInsertionEvent -> {}));
+      Assert.assertEquals(4, count.get());
+    } finally {
+      consumedEvent.close();
+    }
+    Assert.assertEquals(
+        usedMemory, PipeDataNodeResourceManager.memory().getUsedMemorySizeInBytes());
+
+    // The prefetched tablets are released if the event is closed without being consumed
+    createPrefetchedEvent().close();
+    Assert.assertEquals(
+        usedMemory, PipeDataNodeResourceManager.memory().getUsedMemorySizeInBytes());
+  }
+
+  private PipeTsFileInsertionEvent createPrefetchedEvent() {
+    final TsFileResource tsFileResource = new TsFileResource(alignedTsFile);
+    tsFileResource.setStatusForTest(TsFileResourceStatus.NORMAL);
+    final IDeviceID deviceID = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d");
+    tsFileResource.updateStartTime(deviceID, 1000);
+    tsFileResource.updateEndTime(deviceID, 2000);
+    final PipeTsFileInsertionEvent tsFileInsertionEvent =
+        new PipeTsFileInsertionEvent(
+            false,
+            "",
+            tsFileResource,
+            true,
+            false,
+            false,
+            true,
+            null,
+            0,
+            null,
+            new PrefixTreePattern("root"),
+            null,
+            Long.MIN_VALUE,
+            Long.MAX_VALUE);
+    tsFileInsertionEvent.startPrefetchingTabletInsertionEvents();
+    return tsFileInsertionEvent;
+  }
+
   public void testToTabletInsertionEvents(final boolean isQuery) throws Exception {
     // Test empty chunk
     testMixedTsFileWithEmptyChunk(isQuery);
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.event.common.tsfile.parser;
+
+import org.apache.iotdb.db.pipe.event.common.tablet.PipeRawTabletInsertionEvent;
+import org.apache.iotdb.db.pipe.resource.PipeDataNodeResourceManager;
+import org.apache.iotdb.db.pipe.resource.memory.PipeMemoryWeightUtil;
+import org.apache.iotdb.pipe.api.event.dml.insertion.TabletInsertionEvent;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TsFileInsertionEventPrefetcherTest {
+
+  private static final int TABLET_NUM = 5;
+
+  private ExecutorService executor;
+  private List<TabletInsertionEvent> events;
+  private long tabletSizeInBytes;
+  private AtomicInteger decodedCount;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newSingleThreadExecutor();
+    final List<IMeasurementSchema> schemaList =
+        Collections.singletonList(new MeasurementSchema("s1", TSDataType.INT64));
+    events = new ArrayList<>();
+    for (int i = 0; i < TABLET_NUM; i++) {
+      events.add(new PipeRawTabletInsertionEvent(new Tablet("root.sg.d", schemaList, 100), false));
+    }
+    tabletSizeInBytes =
+        PipeMemoryWeightUtil.calculateTabletSizeInBytes(
+            ((PipeRawTabletInsertionEvent) events.get(0)).convertToTablet());
+    decodedCount = new AtomicInteger();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testPrefetchWholeFile() throws InterruptedException {
+    final long usedMemory = PipeDataNodeResourceManager.memory().getUsedMemorySizeInBytes();
+    final TsFileInsertionEventPrefetcher prefetcher =
+        new TsFileInsertionEventPrefetcher("test", this::parse, Long.MAX_VALUE, executor);
+    Assert.assertTrue(prefetcher.await());
+
+    // The parser is exhausted, so all the tablets are charged to the prefetcher
+    Assert.assertEquals(TABLET_NUM, decodedCount.get());
+    Assert.assertEquals(
+        usedMemory + TABLET_NUM * tabletSizeInBytes,
+        PipeDataNodeResourceManager.memory().getUsedMemorySizeInBytes());
+
+    assertEventsInOrder(prefetcher.toTabletInsertionEvents());
+    Assert.assertEquals(
+        usedMemory, PipeDataNodeResourceManager.memory().getUsedMemorySizeInBytes());
+  }
+
+  @Test
+  public void testPrefetchUpToLimit() throws InterruptedException {
+    final long usedMemory = PipeDataNodeResourceManager.memory().getUsedMemorySizeInBytes();
+    final TsFileInsertionEventPrefetcher prefetcher =
+        new TsFileInsertionEventPrefetcher("test", this::parse, tabletSizeInBytes, executor);
+    Assert.assertTrue(prefetcher.await());
+
+    // The second tablet is decoded after the first one is charged, and is still charged to the
+    // parser, so only one tablet is charged to the prefetcher
+    Assert.assertEquals(2, decodedCount.get());
+    Assert.assertEquals(
+        usedMemory + tabletSizeInBytes,
+        PipeDataNodeResourceManager.memory().getUsedMemorySizeInBytes());
+
+    // The rest are decoded by the consumer from the same iterator
+    assertEventsInOrder(prefetcher.toTabletInsertionEvents());
+    Assert.assertEquals(TABLET_NUM, decodedCount.get());
+    Assert.assertEquals(
+        usedMemory, PipeDataNodeResourceManager.memory().getUsedMemorySizeInBytes());
+  }
+
+  @Test
+  public void testCancel() {
+    final long usedMemory = PipeDataNodeResourceManager.memory().getUsedMemorySizeInBytes();
+    final TsFileInsertionEventPrefetcher prefetcher =
+        new TsFileInsertionEventPrefetcher("test", this::parse, Long.MAX_VALUE, executor);
+    prefetcher.cancel();
+    Assert.assertEquals(
+        usedMemory, PipeDataNodeResourceManager.memory().getUsedMemorySizeInBytes());
+  }
+
+  @Test
+  public void testFailure() throws InterruptedException {
+    final long usedMemory = PipeDataNodeResourceManager.memory().getUsedMemorySizeInBytes();
+    final TsFileInsertionEventPrefetcher prefetcher =
+        new TsFileInsertionEventPrefetcher(
+            "test",
+            () -> {
+              throw new IOException("test");
+            },
+            Long.MAX_VALUE,
+            executor);
+    Assert.assertFalse(prefetcher.await());
+    Assert.assertEquals(
+        usedMemory, PipeDataNodeResourceManager.memory().getUsedMemorySizeInBytes());
+  }
+
+  private Iterable<TabletInsertionEvent> parse() {
+    final Iterator<TabletInsertionEvent> iterator = events.iterator();
+    return () ->
+        new Iterator<TabletInsertionEvent>() {
+          @Override
+          public boolean hasNext() {
+            return iterator.hasNext();
+          }
+
+          @Override
+          public TabletInsertionEvent next() {
+            decodedCount.incrementAndGet();
+            return iterator.next();
+          }
+        };
+  }
+
+  private void assertEventsInOrder(final Iterable<TabletInsertionEvent> actualEvents) {
+    final List<TabletInsertionEvent> actual = new ArrayList<>();
+    actualEvents.forEach(actual::add);
+    Assert.assertEquals(events.size(), actual.size());
+    for (int i = 0; i < events.size(); i++) {
+      Assert.assertSame(events.get(i), actual.get(i));
+    }
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.receiver.protocol.airgap;
+
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.pipe.connector.payload.airgap.AirGapOneByteResponse;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferDataNodeHandshakeV1Req;
+import org.apache.iotdb.db.pipe.connector.payload.evolvable.request.PipeTransferTsFilePieceStreamReq;
+
+import org.apache.tsfile.utils.BytesUtils;
+import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.utils.TsFileGeneratorUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.apache.iotdb.commons.utils.BasicStructureSerDeUtil.INT_LEN;
+import static org.apache.iotdb.commons.utils.BasicStructureSerDeUtil.LONG_LEN;
+
+public class IoTDBAirGapReceiverTest {
+
+  private static final String TS_FILE_NAME = "air-gap-stream-0-0-0.tsfile";
+  private static final int TIMEOUT_MS = 30_000;
+
+  private ServerSocket serverSocket;
+  private final List<Thread> receiverThreads = new ArrayList<>();
+
+  private File tsFile;
+  private byte[] tsFileBytes;
+
+  @Before
+  public void setUp() throws Exception {
+    serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    tsFile =
+        TsFileGeneratorUtils.generateAlignedTsFile(TS_FILE_NAME, 2, 5, 1000, 0, 10000, 100, 10);
+    tsFileBytes = Files.readAllBytes(tsFile.toPath());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    serverSocket.close();
+    for (final Thread receiverThread : receiverThreads) {
+      receiverThread.join(TIMEOUT_MS);
+    }
+    Files.deleteIfExists(tsFile.toPath());
+  }
+
+  @Test
+  public void testTransferFilePieceStream() throws Exception {
+    final int pieceLength = tsFileBytes.length / 3 + 1;
+    try (final AirGapSender sender = connect()) {
+      Assert.assertTrue(sender.handshake());
+      for (int offset = 0; offset < tsFileBytes.length; offset += pieceLength) {
+        final int length = Math.min(pieceLength, tsFileBytes.length - offset);
+        final Pair<Boolean, Long> response = sender.sendPiece(offset, length);
+        Assert.assertTrue(response.getLeft());
+        Assert.assertEquals(offset + length, (long) response.getRight());
+      }
+      Assert.assertArrayEquals(tsFileBytes, readReceivedFile());
+
+      // The socket is still aligned after the raw bytes of the pieces
+      Assert.assertTrue(sender.handshake());
+    }
+  }
+
+  @Test
+  public void testResumeFilePieceStream() throws Exception {
+    final int half = tsFileBytes.length / 2;
+    try (final AirGapSender sender = connect()) {
+      Assert.assertTrue(sender.handshake());
+      Assert.assertTrue(sender.sendPiece(0, half).getLeft());
+
+      // A piece beyond the received bytes is rejected and drained, and the sender is told to
+      // resume from the end of the received bytes
+      Pair<Boolean, Long> response = sender.sendPiece(half + 10, 10);
+      Assert.assertFalse(response.getLeft());
+      Assert.assertEquals(half, (long) response.getRight());
+
+      // A piece resent from the middle of the received bytes overwrites them
+      response = sender.sendPiece(half / 2, tsFileBytes.length - half / 2);
+      Assert.assertTrue(response.getLeft());
+      Assert.assertEquals(tsFileBytes.length, (long) response.getRight());
+      Assert.assertArrayEquals(tsFileBytes, readReceivedFile());
+    }
+  }
+
+  @Test
+  public void testResumeAfterBrokenFilePieceStream() throws Exception {
+    final int half = tsFileBytes.length / 2;
+    try (final AirGapSender sender = connect()) {
+      Assert.assertTrue(sender.handshake());
+      Assert.assertTrue(sender.sendPiece(0, half).getLeft());
+
+      // The socket breaks in the middle of the next piece
+      sender.sendPieceHeader(half, tsFileBytes.length - half);
+      sender.sendRawBytes(half, (tsFileBytes.length - half) / 2);
+    }
+    // The receiver of the broken socket exits and deletes its files
+    receiverThreads.get(0).join(TIMEOUT_MS);
+    Assert.assertFalse(receiverThreads.get(0).isAlive());
+
+    try (final AirGapSender sender = connect()) {
+      Assert.assertTrue(sender.handshake());
+
+      // The sender resumes from its last acknowledged offset, and the new receiver tells it
+      // to start over
+      Pair<Boolean, Long> response = sender.sendPiece(half, tsFileBytes.length - half);
+      Assert.assertFalse(response.getLeft());
+      Assert.assertEquals(0, (long) response.getRight());
+
+      response = sender.sendPiece(0, tsFileBytes.length);
+      Assert.assertTrue(response.getLeft());
+      Assert.assertEquals(tsFileBytes.length, (long) response.getRight());
+      Assert.assertArrayEquals(tsFileBytes, readReceivedFile());
+    }
+  }
+
+  private AirGapSender connect() throws IOException {
+    final Socket socket = new Socket(serverSocket.getInetAddress(), serverSocket.getLocalPort());
+    final IoTDBAirGapReceiver receiver =
+        new IoTDBAirGapReceiver(serverSocket.accept(), receiverThreads.size());
+    final Thread receiverThread = new Thread(receiver);
+    receiverThread.start();
+    receiverThreads.add(receiverThread);
+    return new AirGapSender(socket);
+  }
+
+  /** The receiver file is deleted when the receiver exits, so read it before the socket closes. */
+  private byte[] readReceivedFile() throws IOException {
+    final List<Path> receivedFiles = new ArrayList<>();
+    for (final String receiverFileDir :
+        IoTDBDescriptor.getInstance().getConfig().getPipeReceiverFileDirs()) {
+      if (!new File(receiverFileDir).exists()) {
+        continue;
+      }
+      try (final Stream<Path> paths = Files.walk(new File(receiverFileDir).toPath())) {
+        receivedFiles.addAll(
+            paths
+                .filter(path -> path.getFileName().toString().equals(TS_FILE_NAME))
+                .collect(Collectors.toList()));
+      }
+    }
+    Assert.assertEquals(1, receivedFiles.size());
+    return Files.readAllBytes(receivedFiles.get(0));
+  }
+
+  /** Sends the pieces like the zero copy TsFile client, with the raw bytes after each header. */
+  private class AirGapSender implements AutoCloseable {
+
+    private final Socket socket;
+    private final OutputStream outputStream;
+    private final InputStream inputStream;
+
+    private AirGapSender(final Socket socket) throws IOException {
+      this.socket = socket;
+      socket.setSoTimeout(TIMEOUT_MS);
+      outputStream = socket.getOutputStream();
+      inputStream = socket.getInputStream();
+    }
+
+    private boolean handshake() throws IOException {
+      writeWithLengthAndChecksum(
+          PipeTransferDataNodeHandshakeV1Req.toTPipeTransferBytes(
+              CommonDescriptor.getInstance().getConfig().getTimestampPrecision()));
+      return readTillFull(1)[0] == AirGapOneByteResponse.OK[0];
+    }
+
+    /** @return whether the piece is accepted, and the end writing offset of the receiver */
+    private Pair<Boolean, Long> sendPiece(final int offset, final int length) throws IOException {
+      sendPieceHeader(offset, length);
+      sendRawBytes(offset, length);
+      final ByteBuffer response = ByteBuffer.wrap(readTillFull(1 + LONG_LEN));
+      return new Pair<>(response.get() == AirGapOneByteResponse.OK[0], response.getLong());
+    }
+
+    private void sendPieceHeader(final long offset, final long length) throws IOException {
+      writeWithLengthAndChecksum(
+          PipeTransferTsFilePieceStreamReq.toTPipeTransferBytes(
+              TS_FILE_NAME, offset, length, true));
+    }
+
+    private void sendRawBytes(final int offset, final int length) throws IOException {
+      outputStream.write(tsFileBytes, offset, length);
+      outputStream.flush();
+    }
+
+    private void writeWithLengthAndChecksum(final byte[] bytes) throws IOException {
+      final CRC32 crc32 = new CRC32();
+      crc32.update(bytes, 0, bytes.length);
+
+      final ByteBuffer buffer = ByteBuffer.allocate(2 * INT_LEN + LONG_LEN + bytes.length);
+      buffer.putInt(bytes.length + LONG_LEN);
+      buffer.putInt(bytes.length + LONG_LEN);
+      buffer.put(BytesUtils.longToBytes(crc32.getValue()));
+      buffer.put(bytes);
+      outputStream.write(buffer.array());
+      outputStream.flush();
+    }
+
+    private byte[] readTillFull(final int length) throws IOException {
+      final byte[] buffer = new byte[length];
+      int readLength = 0;
+      while (readLength < length) {
+        final int read = inputStream.read(buffer, readLength, length - readLength);
+        Assert.assertNotEquals(-1, read);
+        readLength += read;
+      }
+      return buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+      socket.close();
+    }
+  }
+}
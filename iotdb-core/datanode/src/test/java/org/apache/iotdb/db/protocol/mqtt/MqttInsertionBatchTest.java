@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.mqtt;
+
+import org.apache.iotdb.db.protocol.session.MqttClientSession;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowsStatement;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MqttInsertionBatchTest {
+
+  @Test
+  public void testFlush() {
+    MqttInsertionBatch batch = new MqttInsertionBatch(new MqttClientSession("client"));
+    List<InsertRowsStatement> flushed = new ArrayList<>();
+
+    // nothing to insert
+    batch.flush(flushed::add);
+    assertTrue(flushed.isEmpty());
+
+    InsertRowStatement row1 = new InsertRowStatement();
+    InsertRowStatement row2 = new InsertRowStatement();
+    assertEquals(1, batch.add(row1));
+    assertEquals(2, batch.add(row2));
+    batch.flush(flushed::add);
+    assertEquals(1, flushed.size());
+    assertEquals(Arrays.asList(row1, row2), flushed.get(0).getInsertRowStatementList());
+
+    // the flushed rows are not inserted again
+    InsertRowStatement row3 = new InsertRowStatement();
+    assertEquals(1, batch.add(row3));
+    batch.flush(flushed::add);
+    assertEquals(2, flushed.size());
+    assertEquals(Arrays.asList(row3), flushed.get(1).getInsertRowStatementList());
+  }
+
+  @Test
+  public void testClose() {
+    MqttInsertionBatch batch = new MqttInsertionBatch(new MqttClientSession("client"));
+    List<InsertRowsStatement> flushed = new ArrayList<>();
+
+    InsertRowStatement row1 = new InsertRowStatement();
+    assertEquals(1, batch.add(row1));
+    batch.close(flushed::add);
+    assertEquals(1, flushed.size());
+    assertEquals(Arrays.asList(row1), flushed.get(0).getInsertRowStatementList());
+
+    // rows can not be buffered once the batch is closed, the caller has to insert them itself
+    assertEquals(0, batch.add(new InsertRowStatement()));
+    batch.flush(flushed::add);
+    assertEquals(1, flushed.size());
+  }
+}
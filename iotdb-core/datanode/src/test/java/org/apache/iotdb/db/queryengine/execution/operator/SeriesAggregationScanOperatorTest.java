@@ -23,6 +23,8 @@ import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.path.NonAlignedFullPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
 import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
 import org.apache.iotdb.db.queryengine.common.QueryId;
@@ -37,9 +39,11 @@ import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.AggregationSt
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.GroupByTimeParameter;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.SeriesScanOptions;
 import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
+import org.apache.iotdb.db.storageengine.dataregion.memtable.WritableMemChunk;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.series.SeriesReaderTestUtil;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileRollup;
 
 import com.google.common.collect.Sets;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
@@ -623,6 +627,74 @@ public class SeriesAggregationScanOperatorTest {
     assertEquals(timeColumn.length, count);
   }
 
+  @Test
+  public void testGroupByFromRollups() throws Exception {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    long rollupInterval = config.getRollupIntervalInMs();
+    config.setRollupIntervalInMs(10);
+    try {
+      // the last sequence file [400, 500) is not overlapped, the values of its rollups are ten
+      // times of its data, which shows that the windows are made of the rollups
+      WritableMemChunk memChunk =
+          new WritableMemChunk(new MeasurementSchema("sensor0", TSDataType.INT32));
+      for (int time = 400; time < 500; time++) {
+        memChunk.putIntWithFlushCheck(time, time * 10);
+      }
+      memChunk.sortTvListForFlush();
+      TsFileRollup rollup = new TsFileRollup(10);
+      rollup.collect(
+          IDeviceID.Factory.DEFAULT_FACTORY.create(SERIES_SCAN_OPERATOR_TEST_SG + ".device0"),
+          memChunk);
+      rollup.serialize(seqResources.get(4).getTsFile());
+
+      long[] timeColumn = new long[] {400, 450};
+      long[] counts = new long[] {50, 50};
+      double[] sums = new double[] {212250, 237250};
+      int[] firstValues = new int[] {4000, 4500};
+      int[] lastValues = new int[] {4490, 4990};
+      List<TAggregationType> aggregationTypes = new ArrayList<>();
+      aggregationTypes.add(TAggregationType.COUNT);
+      aggregationTypes.add(TAggregationType.SUM);
+      aggregationTypes.add(TAggregationType.FIRST_VALUE);
+      aggregationTypes.add(TAggregationType.LAST_VALUE);
+      aggregationTypes.add(TAggregationType.MAX_VALUE);
+      GroupByTimeParameter groupByTimeParameter =
+          new GroupByTimeParameter(
+              400, 500, new TimeDuration(0, 50), new TimeDuration(0, 50), true);
+      Filter timeFilter = FilterFactory.and(TimeFilterApi.gtEq(400), TimeFilterApi.ltEq(499));
+
+      List<TreeAggregator> aggregators = new ArrayList<>();
+      AccumulatorFactory.createBuiltinAccumulators(
+              aggregationTypes,
+              TSDataType.INT32,
+              Collections.emptyList(),
+              Collections.emptyMap(),
+              true)
+          .forEach(o -> aggregators.add(new TreeAggregator(o, AggregationStep.SINGLE)));
+      SeriesAggregationScanOperator seriesAggregationScanOperator =
+          initSeriesAggregationScanOperator(aggregators, timeFilter, true, groupByTimeParameter);
+      int count = 0;
+
+      while (seriesAggregationScanOperator.hasNext()) {
+        TsBlock resultTsBlock = seriesAggregationScanOperator.next();
+        int positionCount = resultTsBlock.getPositionCount();
+        for (int pos = 0; pos < positionCount; pos++) {
+          assertEquals(timeColumn[count], resultTsBlock.getTimeColumn().getLong(pos));
+          assertEquals(counts[count], resultTsBlock.getColumn(0).getLong(pos));
+          assertEquals(sums[count], resultTsBlock.getColumn(1).getDouble(pos), 0.0001);
+          assertEquals(firstValues[count], resultTsBlock.getColumn(2).getInt(pos));
+          assertEquals(lastValues[count], resultTsBlock.getColumn(3).getInt(pos));
+          assertEquals(lastValues[count], resultTsBlock.getColumn(4).getInt(pos));
+          count++;
+        }
+      }
+
+      assertEquals(timeColumn.length, count);
+    } finally {
+      config.setRollupIntervalInMs(rollupInterval);
+    }
+  }
+
   public SeriesAggregationScanOperator initSeriesAggregationScanOperator(
       List<TreeAggregator> aggregators,
       Filter timeFilter,
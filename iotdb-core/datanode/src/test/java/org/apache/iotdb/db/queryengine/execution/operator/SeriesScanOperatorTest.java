@@ -33,6 +33,7 @@ import org.apache.iotdb.db.queryengine.execution.operator.source.SeriesScanOpera
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.SeriesScanOptions;
 import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
+import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.series.SeriesReaderTestUtil;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
@@ -84,6 +85,36 @@ public class SeriesScanOperatorTest {
 
   @Test
   public void batchTest() throws Exception {
+    scanAndCheck(0, false);
+  }
+
+  @Test
+  public void batchWithChunkPrefetchTest() throws Exception {
+    List<String> expected = scanAndCheck(0, false);
+    ChunkCache.getInstance().clear();
+    long prefetchedChunkRequestCount = ChunkCache.getInstance().getPrefetchedChunkRequestCount();
+    assertEquals(expected, scanAndCheck(2, false));
+    assertTrue(
+        ChunkCache.getInstance().getPrefetchedChunkRequestCount() > prefetchedChunkRequestCount);
+  }
+
+  @Test
+  public void chunkPrefetchAfterFinishedTest() throws Exception {
+    List<String> expected = scanAndCheck(0, false);
+    ChunkCache.getInstance().clear();
+    long prefetchedChunkRequestCount = ChunkCache.getInstance().getPrefetchedChunkRequestCount();
+    long prefetchedChunkHitCount = ChunkCache.getInstance().getPrefetchedChunkHitCount();
+    // no chunk is prefetched for a finished fragment instance, but the scan still reads them all
+    assertEquals(expected, scanAndCheck(2, true));
+    assertEquals(
+        prefetchedChunkRequestCount, ChunkCache.getInstance().getPrefetchedChunkRequestCount());
+    assertEquals(prefetchedChunkHitCount, ChunkCache.getInstance().getPrefetchedChunkHitCount());
+  }
+
+  /** Scan device0.sensor0 and check the values, returns the scanned points. */
+  private List<String> scanAndCheck(int chunkPrefetchDepth, boolean finishBeforeScan)
+      throws Exception {
+    List<String> points = new ArrayList<>();
     ExecutorService instanceNotificationExecutor =
         IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
     try {
@@ -99,12 +130,16 @@ public class SeriesScanOperatorTest {
           new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
       FragmentInstanceContext fragmentInstanceContext =
           createFragmentInstanceContext(instanceId, stateMachine);
+      if (finishBeforeScan) {
+        stateMachine.finished();
+      }
       DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
       PlanNodeId planNodeId = new PlanNodeId("1");
       driverContext.addOperatorContext(1, planNodeId, SeriesScanOperator.class.getSimpleName());
 
       SeriesScanOptions.Builder scanOptionsBuilder = new SeriesScanOptions.Builder();
       scanOptionsBuilder.withAllSensors(allSensors);
+      scanOptionsBuilder.withChunkPrefetchDepth(chunkPrefetchDepth);
       SeriesScanOperator seriesScanOperator =
           new SeriesScanOperator(
               driverContext.getOperatorContexts().get(0),
@@ -123,6 +158,7 @@ public class SeriesScanOperatorTest {
         assertEquals(1, tsBlock.getValueColumnCount());
         assertTrue(tsBlock.getColumn(0) instanceof IntColumn);
         for (int i = 0; i < tsBlock.getPositionCount(); i++, count++) {
+          points.add(tsBlock.getTimeByIndex(i) + "," + tsBlock.getColumn(0).getInt(i));
           assertEquals(count, tsBlock.getTimeByIndex(i));
           if ((long) count < 200) {
             assertEquals(20000 + (long) count, tsBlock.getColumn(0).getInt(i));
@@ -142,5 +178,6 @@ public class SeriesScanOperatorTest {
     } finally {
       instanceNotificationExecutor.shutdown();
     }
+    return points;
   }
 }
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation;
+
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedAccumulator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedApproxCountDistinctAccumulator;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.column.BinaryColumnBuilder;
+import org.apache.tsfile.read.common.block.column.LongColumn;
+import org.apache.tsfile.read.common.block.column.LongColumnBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Optional;
+
+public class ApproxCountDistinctAccumulatorTest {
+
+  @Test
+  public void testPartialAndFinalAggregation() {
+    // two partial aggregations with overlapping inputs, every tenth value is null
+    TableAccumulator left = new TableApproxCountDistinctAccumulator(TSDataType.INT64);
+    left.addInput(new Column[] {createColumn(0, 6000)}, AggregationMask.createSelectAll(6000));
+    TableAccumulator right = new TableApproxCountDistinctAccumulator(TSDataType.INT64);
+    right.addInput(new Column[] {createColumn(4000, 10000)}, AggregationMask.createSelectAll(6000));
+    TableAccumulator empty = new TableApproxCountDistinctAccumulator(TSDataType.INT64);
+
+    ColumnBuilder intermediateBuilder = new BinaryColumnBuilder(null, 4);
+    left.evaluateIntermediate(intermediateBuilder);
+    right.evaluateIntermediate(intermediateBuilder);
+    empty.evaluateIntermediate(intermediateBuilder);
+    intermediateBuilder.appendNull();
+    Column intermediate = intermediateBuilder.build();
+    Assert.assertFalse(intermediate.isNull(2));
+
+    TableAccumulator result = new TableApproxCountDistinctAccumulator(TSDataType.INT64);
+    result.addIntermediate(intermediate);
+    Assert.assertEquals(9000, evaluateFinal(result), 9000 * 0.05);
+    Assert.assertEquals(0, evaluateFinal(empty));
+
+    result.reset();
+    Assert.assertEquals(0, evaluateFinal(result));
+  }
+
+  @Test
+  public void testAddInputWithMask() {
+    TableAccumulator accumulator = new TableApproxCountDistinctAccumulator(TSDataType.INT64);
+    int[] selectedPositions = new int[500];
+    for (int i = 0; i < selectedPositions.length; i++) {
+      selectedPositions[i] = i * 2;
+    }
+    accumulator.addInput(
+        new Column[] {createColumn(0, 1000)},
+        AggregationMask.createSelectedPositions(1000, selectedPositions, 500));
+    // the even values which are not multiples of ten
+    Assert.assertEquals(400, evaluateFinal(accumulator), 400 * 0.05);
+  }
+
+  @Test
+  public void testGroupedPartialAndFinalAggregation() {
+    GroupedAccumulator left = new GroupedApproxCountDistinctAccumulator(TSDataType.INT64);
+    addGroupedInput(left, 0, 6000);
+    GroupedAccumulator right = new GroupedApproxCountDistinctAccumulator(TSDataType.INT64);
+    addGroupedInput(right, 4000, 10000);
+
+    GroupedAccumulator result = new GroupedApproxCountDistinctAccumulator(TSDataType.INT64);
+    result.setGroupCount(4);
+    int[] groupIds = new int[] {0, 1, 2, 3};
+    result.addIntermediate(groupIds, evaluateGroupedIntermediate(left));
+    result.addIntermediate(groupIds, evaluateGroupedIntermediate(right));
+
+    ColumnBuilder finalBuilder = new LongColumnBuilder(null, 4);
+    for (int groupId = 0; groupId < 4; groupId++) {
+      result.evaluateFinal(groupId, finalBuilder);
+    }
+    Column finalResult = finalBuilder.build();
+    // even and odd values which are not multiples of ten
+    Assert.assertEquals(4000, finalResult.getLong(0), 4000 * 0.05);
+    Assert.assertEquals(5000, finalResult.getLong(1), 5000 * 0.05);
+    // group 2 only sees nulls and group 3 sees no input
+    Assert.assertEquals(0, finalResult.getLong(2));
+    Assert.assertEquals(0, finalResult.getLong(3));
+  }
+
+  /** Values in [start, end), the multiples of ten are null. */
+  private static Column createColumn(int start, int end) {
+    int positionCount = end - start;
+    boolean[] isNull = new boolean[positionCount];
+    long[] values = new long[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      values[i] = start + i;
+      isNull[i] = values[i] % 10 == 0;
+    }
+    return new LongColumn(positionCount, Optional.of(isNull), values);
+  }
+
+  /** The nulls go to group 2, the other values are grouped by parity. */
+  private static void addGroupedInput(GroupedAccumulator accumulator, int start, int end) {
+    int positionCount = end - start;
+    int[] groupIds = new int[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      int value = start + i;
+      groupIds[i] = value % 10 == 0 ? 2 : value % 2;
+    }
+    accumulator.setGroupCount(4);
+    accumulator.addInput(
+        groupIds,
+        new Column[] {createColumn(start, end)},
+        AggregationMask.createSelectAll(positionCount));
+  }
+
+  private static Column evaluateGroupedIntermediate(GroupedAccumulator accumulator) {
+    ColumnBuilder intermediateBuilder = new BinaryColumnBuilder(null, 4);
+    for (int groupId = 0; groupId < 4; groupId++) {
+      accumulator.evaluateIntermediate(groupId, intermediateBuilder);
+    }
+    Column intermediate = intermediateBuilder.build();
+    Assert.assertFalse(intermediate.isNull(0));
+    Assert.assertFalse(intermediate.isNull(1));
+    Assert.assertTrue(intermediate.isNull(2));
+    Assert.assertTrue(intermediate.isNull(3));
+    return intermediate;
+  }
+
+  private static long evaluateFinal(TableAccumulator accumulator) {
+    ColumnBuilder finalBuilder = new LongColumnBuilder(null, 1);
+    accumulator.evaluateFinal(finalBuilder);
+    return finalBuilder.build().getLong(0);
+  }
+}
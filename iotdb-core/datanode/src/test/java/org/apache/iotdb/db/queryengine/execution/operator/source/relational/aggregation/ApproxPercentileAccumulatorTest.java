@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation;
+
+import org.apache.iotdb.db.exception.sql.SemanticException;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedAccumulator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedApproxPercentileAccumulator;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.column.BinaryColumnBuilder;
+import org.apache.tsfile.read.common.block.column.DoubleColumn;
+import org.apache.tsfile.read.common.block.column.DoubleColumnBuilder;
+import org.apache.tsfile.read.common.block.column.IntColumn;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Optional;
+
+public class ApproxPercentileAccumulatorTest {
+
+  @Test
+  public void testPartialAndFinalAggregation() {
+    // two partial aggregations of [0, 6000) and [6000, 10000), every tenth value is null
+    TableAccumulator left = new TableApproxPercentileAccumulator(TSDataType.INT32);
+    left.addInput(createArguments(0, 6000, 0.9), AggregationMask.createSelectAll(6000));
+    TableAccumulator right = new TableApproxPercentileAccumulator(TSDataType.INT32);
+    right.addInput(createArguments(6000, 10000, 0.9), AggregationMask.createSelectAll(4000));
+    TableAccumulator empty = new TableApproxPercentileAccumulator(TSDataType.INT32);
+
+    ColumnBuilder intermediateBuilder = new BinaryColumnBuilder(null, 3);
+    left.evaluateIntermediate(intermediateBuilder);
+    empty.evaluateIntermediate(intermediateBuilder);
+    right.evaluateIntermediate(intermediateBuilder);
+    Column intermediate = intermediateBuilder.build();
+    Assert.assertTrue(intermediate.isNull(1));
+
+    // the percentile is carried by the intermediate result
+    TableAccumulator result = new TableApproxPercentileAccumulator(TSDataType.INT32);
+    result.addIntermediate(intermediate);
+    ColumnBuilder finalBuilder = new DoubleColumnBuilder(null, 2);
+    result.evaluateFinal(finalBuilder);
+    empty.evaluateFinal(finalBuilder);
+    Column finalResult = finalBuilder.build();
+    Assert.assertEquals(9000, finalResult.getDouble(0), 100);
+    Assert.assertTrue(finalResult.isNull(1));
+  }
+
+  @Test
+  public void testAddInputWithMask() {
+    TableAccumulator accumulator = new TableApproxPercentileAccumulator(TSDataType.INT32);
+    int[] selectedPositions = new int[500];
+    for (int i = 0; i < selectedPositions.length; i++) {
+      selectedPositions[i] = i;
+    }
+    accumulator.addInput(
+        createArguments(0, 1000, 1),
+        AggregationMask.createSelectedPositions(1000, selectedPositions, 500));
+    ColumnBuilder finalBuilder = new DoubleColumnBuilder(null, 1);
+    accumulator.evaluateFinal(finalBuilder);
+    Assert.assertEquals(499, finalBuilder.build().getDouble(0), 0);
+  }
+
+  @Test
+  public void testNullOnlyInput() {
+    TableAccumulator accumulator = new TableApproxPercentileAccumulator(TSDataType.INT32);
+    // the percentile of null rows is not checked
+    Column[] arguments =
+        new Column[] {
+          new IntColumn(2, Optional.of(new boolean[] {true, true}), new int[2]),
+          new DoubleColumn(2, Optional.of(new boolean[] {true, true}), new double[2])
+        };
+    accumulator.addInput(arguments, AggregationMask.createSelectAll(2));
+    ColumnBuilder intermediateBuilder = new BinaryColumnBuilder(null, 1);
+    accumulator.evaluateIntermediate(intermediateBuilder);
+    Assert.assertTrue(intermediateBuilder.build().isNull(0));
+  }
+
+  @Test
+  public void testInvalidPercentile() {
+    TableAccumulator accumulator = new TableApproxPercentileAccumulator(TSDataType.INT32);
+    try {
+      accumulator.addInput(createArguments(0, 10, 1.5), AggregationMask.createSelectAll(10));
+      Assert.fail();
+    } catch (SemanticException e) {
+      Assert.assertTrue(e.getMessage().contains("[0, 1]"));
+    }
+
+    accumulator.reset();
+    accumulator.addInput(createArguments(0, 10, 0.5), AggregationMask.createSelectAll(10));
+    try {
+      accumulator.addInput(createArguments(0, 10, 0.6), AggregationMask.createSelectAll(10));
+      Assert.fail();
+    } catch (SemanticException e) {
+      Assert.assertTrue(e.getMessage().contains("constant"));
+    }
+  }
+
+  @Test
+  public void testGroupedPartialAndFinalAggregation() {
+    GroupedAccumulator left = new GroupedApproxPercentileAccumulator(TSDataType.INT32);
+    addGroupedInput(left, 0, 6000);
+    GroupedAccumulator right = new GroupedApproxPercentileAccumulator(TSDataType.INT32);
+    addGroupedInput(right, 6000, 10000);
+
+    GroupedAccumulator result = new GroupedApproxPercentileAccumulator(TSDataType.INT32);
+    result.setGroupCount(3);
+    int[] groupIds = new int[] {0, 1, 2};
+    result.addIntermediate(groupIds, evaluateGroupedIntermediate(left));
+    result.addIntermediate(groupIds, evaluateGroupedIntermediate(right));
+
+    ColumnBuilder finalBuilder = new DoubleColumnBuilder(null, 3);
+    for (int groupId = 0; groupId < 3; groupId++) {
+      result.evaluateFinal(groupId, finalBuilder);
+    }
+    Column finalResult = finalBuilder.build();
+    // the even and odd values of [0, 10000) which are not multiples of ten
+    Assert.assertEquals(5000, finalResult.getDouble(0), 100);
+    Assert.assertEquals(5000, finalResult.getDouble(1), 100);
+    // group 2 sees no input
+    Assert.assertTrue(finalResult.isNull(2));
+  }
+
+  /** Values in [start, end) with a constant percentile, the multiples of ten are null. */
+  private static Column[] createArguments(int start, int end, double percentile) {
+    int positionCount = end - start;
+    boolean[] isNull = new boolean[positionCount];
+    int[] values = new int[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      values[i] = start + i;
+      isNull[i] = values[i] % 10 == 0;
+    }
+    return new Column[] {
+      new IntColumn(positionCount, Optional.of(isNull), values),
+      new RunLengthEncodedColumn(
+          new DoubleColumn(1, Optional.empty(), new double[] {percentile}), positionCount)
+    };
+  }
+
+  private static void addGroupedInput(GroupedAccumulator accumulator, int start, int end) {
+    int positionCount = end - start;
+    int[] groupIds = new int[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      groupIds[i] = (start + i) % 2;
+    }
+    accumulator.setGroupCount(3);
+    accumulator.addInput(
+        groupIds, createArguments(start, end, 0.5), AggregationMask.createSelectAll(positionCount));
+  }
+
+  private static Column evaluateGroupedIntermediate(GroupedAccumulator accumulator) {
+    ColumnBuilder intermediateBuilder = new BinaryColumnBuilder(null, 3);
+    for (int groupId = 0; groupId < 3; groupId++) {
+      accumulator.evaluateIntermediate(groupId, intermediateBuilder);
+    }
+    Column intermediate = intermediateBuilder.build();
+    Assert.assertTrue(intermediate.isNull(2));
+    return intermediate;
+  }
+}
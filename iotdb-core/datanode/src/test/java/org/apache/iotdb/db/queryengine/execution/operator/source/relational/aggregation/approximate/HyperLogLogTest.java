@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate;
+
+import org.apache.tsfile.utils.Binary;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class HyperLogLogTest {
+
+  @Test
+  public void testCardinality() {
+    HyperLogLog hyperLogLog = new HyperLogLog();
+    Assert.assertTrue(hyperLogLog.isEmpty());
+    Assert.assertEquals(0, hyperLogLog.cardinality());
+
+    for (int round = 0; round < 3; round++) {
+      for (long i = 0; i < 100_000; i++) {
+        hyperLogLog.add(HyperLogLog.hash(i));
+      }
+    }
+    assertWithinError(100_000, hyperLogLog.cardinality(), 0.05);
+
+    HyperLogLog small = new HyperLogLog();
+    for (int i = 0; i < 10; i++) {
+      small.add(HyperLogLog.hash(new Binary("s" + i, StandardCharsets.UTF_8)));
+    }
+    Assert.assertEquals(10, small.cardinality());
+  }
+
+  @Test
+  public void testMergeAndSerialize() {
+    HyperLogLog left = new HyperLogLog();
+    HyperLogLog right = new HyperLogLog();
+    for (long i = 0; i < 60_000; i++) {
+      left.add(HyperLogLog.hash(i));
+    }
+    for (long i = 40_000; i < 100_000; i++) {
+      right.add(HyperLogLog.hash(i));
+    }
+
+    HyperLogLog merged = HyperLogLog.deserialize(left.serialize());
+    Assert.assertEquals(left.cardinality(), merged.cardinality());
+    merged.merge(HyperLogLog.deserialize(right.serialize()));
+    assertWithinError(100_000, merged.cardinality(), 0.05);
+  }
+
+  private static void assertWithinError(long expected, long actual, double error) {
+    Assert.assertTrue(
+        String.format("expected %d but was %d", expected, actual),
+        Math.abs(actual - expected) <= expected * error);
+  }
+}
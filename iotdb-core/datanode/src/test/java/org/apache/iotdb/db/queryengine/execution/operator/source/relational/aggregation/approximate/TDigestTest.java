@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class TDigestTest {
+
+  @Test
+  public void testQuantile() {
+    TDigest digest = new TDigest();
+    Assert.assertTrue(Double.isNaN(digest.quantile(0.5)));
+
+    for (int i = 1; i <= 100; i++) {
+      digest.add(i);
+    }
+    Assert.assertEquals(1, digest.quantile(0), 0);
+    Assert.assertEquals(100, digest.quantile(1), 0);
+    Assert.assertEquals(50.5, digest.quantile(0.5), 1);
+
+    TDigest uniform = new TDigest();
+    Random random = new Random(0);
+    for (int i = 0; i < 1_000_000; i++) {
+      uniform.add(random.nextDouble());
+    }
+    Assert.assertEquals(0.5, uniform.quantile(0.5), 0.01);
+    Assert.assertEquals(0.95, uniform.quantile(0.95), 0.005);
+    Assert.assertEquals(0.99, uniform.quantile(0.99), 0.002);
+  }
+
+  @Test
+  public void testMergeAndSerialize() {
+    TDigest left = new TDigest();
+    TDigest right = new TDigest();
+    for (int i = 0; i < 50_000; i++) {
+      left.add(i);
+      right.add(50_000 + i);
+    }
+
+    TDigest merged = TDigest.deserialize(left.serialize());
+    Assert.assertEquals(left.quantile(0.5), merged.quantile(0.5), 0);
+    merged.merge(TDigest.deserialize(right.serialize()));
+    Assert.assertEquals(0, merged.quantile(0), 0);
+    Assert.assertEquals(99_999, merged.quantile(1), 0);
+    Assert.assertEquals(50_000, merged.quantile(0.5), 500);
+    Assert.assertEquals(99_000, merged.quantile(0.99), 200);
+  }
+}
@@ -177,6 +177,27 @@ public class MultilevelPriorityQueueTest {
     }
   }
 
+  @Test
+  public void testLevelWaitingTaskCount() throws InterruptedException {
+    MultilevelPriorityQueue queue = new MultilevelPriorityQueue(2, 1000, new DriverTask());
+    queue.push(mockDriverTask(mockDriverTaskId(), true));
+    queue.push(
+        mockDriverTask(
+            new DriverTaskId(
+                new FragmentInstanceId(new PlanFragmentId(new QueryId("test"), 0), "inst-1"), 0),
+            false));
+    Assert.assertEquals(1, queue.getHighestPriorityLevelWaitingTaskCount());
+    Assert.assertEquals(1, queue.getLevelWaitingTaskCount(0));
+    for (int level = 1; level < MultilevelPriorityQueue.getNumOfPriorityLevels(); level++) {
+      Assert.assertEquals(0, queue.getLevelWaitingTaskCount(level));
+    }
+
+    queue.poll();
+    Assert.assertEquals(0, queue.getHighestPriorityLevelWaitingTaskCount());
+    queue.poll();
+    Assert.assertEquals(0, queue.getLevelWaitingTaskCount(0));
+  }
+
   private DriverTask mockDriverTask(DriverTaskId driverTaskID, boolean isHighestPriority) {
     DriverScheduler manager = DriverScheduler.getInstance();
     IDriver mockDriver = Mockito.mock(IDriver.class);
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.execution;
+
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.common.rpc.thrift.TSeriesPartitionSlot;
+import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.partition.DataPartition;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.header.DatasetHeader;
+
+import org.apache.tsfile.read.common.TimeRange;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+
+public class QueryResultCacheTest {
+
+  private static final String DATABASE = "root.sg";
+
+  private final DataPartition dataPartition =
+      new DataPartition(
+          Collections.singletonMap(
+              DATABASE,
+              Collections.singletonMap(
+                  new TSeriesPartitionSlot(0),
+                  Collections.singletonMap(
+                      new TTimePartitionSlot(0),
+                      Collections.singletonList(new TRegionReplicaSet())))),
+          IoTDBDescriptor.getInstance().getConfig().getSeriesPartitionExecutorClass(),
+          IoTDBDescriptor.getInstance().getConfig().getSeriesPartitionSlotNum());
+
+  private final DatasetHeader datasetHeader = new DatasetHeader(Collections.emptyList(), false);
+
+  // within the time partition 0
+  private final List<TimeRange> timeRanges = Collections.singletonList(new TimeRange(0, 10));
+
+  @Test
+  public void testInvalidate() {
+    QueryResultCache cache = new QueryResultCache(1024);
+    cacheResult(cache, "q", 100);
+    Assert.assertEquals(2, cache.get("q").getSerializedTsBlocks().size());
+    Assert.assertEquals(100, cache.getUsedMemoryInBytes());
+
+    // other time partitions and databases don't affect the result
+    cache.invalidate(DATABASE, 1);
+    cache.invalidate("root.other");
+    Assert.assertNotNull(cache.get("q"));
+
+    cache.invalidate(DATABASE, 0);
+    Assert.assertNull(cache.get("q"));
+    Assert.assertEquals(0, cache.getUsedMemoryInBytes());
+
+    cacheResult(cache, "q", 100);
+    cache.invalidate(DATABASE);
+    Assert.assertNull(cache.get("q"));
+
+    // the time partition is written while the query is running
+    QueryResultCache.ResultCollector collector =
+        cache.newCollector("q", dataPartition, timeRanges, datasetHeader);
+    collector.collect(ByteBuffer.allocate(100));
+    cache.invalidate(DATABASE, 0);
+    collector.finish();
+    Assert.assertNull(cache.get("q"));
+
+    Assert.assertEquals(2, cache.getHitCount());
+    Assert.assertEquals(5, cache.getRequestCount());
+  }
+
+  @Test
+  public void testInvalidateByNewTimePartition() {
+    QueryResultCache cache = new QueryResultCache(1024);
+    // the query reads the time partitions 0 and 1, but only 0 has data when it runs
+    long timePartitionInterval =
+        CommonDescriptor.getInstance().getConfig().getTimePartitionInterval();
+    List<TimeRange> twoPartitions =
+        Collections.singletonList(new TimeRange(0, 2 * timePartitionInterval - 1));
+    QueryResultCache.ResultCollector collector =
+        cache.newCollector("q", dataPartition, twoPartitions, datasetHeader);
+    collector.collect(ByteBuffer.allocate(100));
+    collector.finish();
+    Assert.assertNotNull(cache.get("q"));
+
+    // the time partition 2 is out of the range of the query
+    cache.invalidate(DATABASE, 2);
+    Assert.assertNotNull(cache.get("q"));
+
+    // the time partition 1 is created by a later write
+    cache.invalidate(DATABASE, 1);
+    Assert.assertNull(cache.get("q"));
+  }
+
+  @Test
+  public void testEviction() {
+    QueryResultCache cache = new QueryResultCache(1024);
+    for (int i = 0; i < 5; i++) {
+      cacheResult(cache, "q" + i, 200);
+    }
+    Assert.assertEquals(1000, cache.getUsedMemoryInBytes());
+
+    // q0 is the least recently used one after q1 is accessed
+    Assert.assertNotNull(cache.get("q1"));
+    cacheResult(cache, "q5", 200);
+    Assert.assertNull(cache.get("q0"));
+    Assert.assertNotNull(cache.get("q1"));
+    Assert.assertNotNull(cache.get("q5"));
+    Assert.assertEquals(1000, cache.getUsedMemoryInBytes());
+
+    // larger than a quarter of the cache
+    cacheResult(cache, "q6", 300);
+    Assert.assertNull(cache.get("q6"));
+  }
+
+  @Test
+  public void testRemovePartitionVersions() {
+    QueryResultCache cache = new QueryResultCache(1024);
+    long timePartitionInterval =
+        CommonDescriptor.getInstance().getConfig().getTimePartitionInterval();
+    List<TimeRange> partition1 =
+        Collections.singletonList(new TimeRange(timePartitionInterval, timePartitionInterval));
+    cacheResult(cache, "q0", 100);
+    cacheResult(
+        cache,
+        "q1",
+        100,
+        Collections.singletonList(new TimeRange(0, 2 * timePartitionInterval - 1)));
+    Assert.assertEquals(2, cache.getPartitionVersionNum());
+
+    // the time partition 0 is still read by q0
+    cache.invalidate(DATABASE, 1);
+    Assert.assertNull(cache.get("q1"));
+    Assert.assertEquals(1, cache.getPartitionVersionNum());
+    Assert.assertNotNull(cache.get("q0"));
+
+    // the evicted results release their versions too
+    cacheResult(cache, "q2", 250, partition1);
+    Assert.assertEquals(2, cache.getPartitionVersionNum());
+    for (int i = 3; i < 7; i++) {
+      cacheResult(cache, "q" + i, 250);
+    }
+    Assert.assertNull(cache.get("q2"));
+    Assert.assertEquals(1, cache.getPartitionVersionNum());
+
+    // the versions recorded by the queries not cached in the end are removed as they pile up
+    QueryResultCache.ResultCollector running =
+        cache.newCollector("q7", dataPartition, partition1, datasetHeader);
+    for (int i = 2; i < 5000; i++) {
+      cache.newCollector(
+          "q8",
+          dataPartition,
+          Collections.singletonList(
+              new TimeRange(i * timePartitionInterval, i * timePartitionInterval)),
+          datasetHeader);
+      Assert.assertTrue(cache.getPartitionVersionNum() <= 2 + 1024 + 1);
+    }
+    Assert.assertNotNull(cache.get("q6"));
+
+    // the version of the time partition 1 is recreated after being removed, which never matches
+    // the one recorded by the running query
+    cacheResult(cache, "q8", 100, partition1);
+    running.finish();
+    Assert.assertNull(cache.get("q7"));
+    Assert.assertNotNull(cache.get("q8"));
+  }
+
+  private void cacheResult(QueryResultCache cache, String key, int size) {
+    cacheResult(cache, key, size, timeRanges);
+  }
+
+  private void cacheResult(
+      QueryResultCache cache, String key, int size, List<TimeRange> timeRanges) {
+    QueryResultCache.ResultCollector collector =
+        cache.newCollector(key, dataPartition, timeRanges, datasetHeader);
+    collector.collect(ByteBuffer.allocate(size / 2));
+    collector.collect(ByteBuffer.allocate(size - size / 2));
+    collector.finish();
+  }
+}
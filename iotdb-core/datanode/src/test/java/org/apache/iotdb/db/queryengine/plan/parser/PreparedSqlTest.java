@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.parser;
+
+import org.apache.iotdb.db.exception.sql.SemanticException;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.QueryStatement;
+
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PreparedSqlTest {
+
+  private static final ZoneId ZONE_ID = ZoneId.systemDefault();
+
+  @Test
+  public void testBind() {
+    PreparedSql preparedSql =
+        new PreparedSql("select s1 from root.sg.d1 where s1 > ? and s2 = '?' and `s?` = ?");
+    assertEquals(2, preparedSql.getParameterCount());
+    assertEquals(
+        "select s1 from root.sg.d1 where s1 > 1 and s2 = '?' and `s?` = 'a'",
+        preparedSql.bind(Arrays.asList("1", "'a'")));
+
+    try {
+      preparedSql.bind(Collections.singletonList("1"));
+      fail();
+    } catch (SemanticException e) {
+      assertEquals("The prepared statement expects 2 parameters, but 1 are given", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testBindLiteralsOnly() {
+    PreparedSql preparedSql = new PreparedSql("select s1 from root.sg.d1 where s1 > ?");
+    for (String parameter :
+        new String[] {"-1", "+2", "20.5", ".5", "1e3", "-2.5e3", "'str'", "true", "null", "NaN"}) {
+      assertEquals(
+          "select s1 from root.sg.d1 where s1 > " + parameter,
+          preparedSql.bind(Collections.singletonList(parameter)));
+    }
+    for (String parameter :
+        new String[] {"", "s1", "1 or 1=1", "1) --", "'a' or '1'='1'", "'a", "1;delete"}) {
+      try {
+        preparedSql.bind(Collections.singletonList(parameter));
+        fail(parameter);
+      } catch (SemanticException e) {
+        assertTrue(e.getMessage().startsWith("The parameter " + parameter + " is not a literal"));
+      }
+    }
+  }
+
+  @Test
+  public void testCreateStatementSharesSchemaTreeCache() {
+    PreparedSql preparedSql = new PreparedSql("select s1 from root.sg.d1 where s1 > ?");
+    QueryStatement first =
+        (QueryStatement)
+            preparedSql.createStatement(
+                preparedSql.bind(Collections.singletonList("1")), ZONE_ID);
+    QueryStatement second =
+        (QueryStatement)
+            preparedSql.createStatement(
+                preparedSql.bind(Collections.singletonList("2")), ZONE_ID);
+    assertNotNull(first.getPreparedSchemaTreeCache());
+    assertSame(first.getPreparedSchemaTreeCache(), second.getPreparedSchemaTreeCache());
+  }
+
+  @Test
+  public void testCreateStatement() {
+    PreparedSql preparedSql =
+        new PreparedSql("select s1 from root.sg.d1 where time >= ? and s1 < ? limit ?");
+    String[][] parametersList = {
+      {"1", "10", "5"}, {"2", "20.5", "6"}, {"3", "30", "7"}, {"4", "'str'", "8"}
+    };
+    for (String[] parameters : parametersList) {
+      String boundSql = preparedSql.bind(Arrays.asList(parameters));
+      QueryStatement expected =
+          (QueryStatement) StatementGenerator.createStatement(boundSql, ZONE_ID);
+      QueryStatement actual = (QueryStatement) preparedSql.createStatement(boundSql, ZONE_ID);
+      assertEquals(
+          expected.getWhereCondition().getPredicate().getExpressionString(),
+          actual.getWhereCondition().getPredicate().getExpressionString());
+      assertEquals(expected.getRowLimit(), actual.getRowLimit());
+    }
+  }
+}
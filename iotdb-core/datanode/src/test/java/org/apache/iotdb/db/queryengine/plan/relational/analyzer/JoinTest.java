@@ -50,9 +50,12 @@ import com.google.common.collect.ImmutableSet;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.AnalyzerTest.analyzeSQL;
 import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.TestUtils.ALL_DEVICE_ENTRIES;
@@ -70,6 +73,7 @@ import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.TestUtils
 import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.TestUtils.assertTableScan;
 import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.TestUtils.buildSymbols;
 import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.TestUtils.getChildrenNode;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.PlanNodeSearcher.searchFrom;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.assertions.PlanAssert.assertPlan;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.assertions.PlanMatchPattern.aggregation;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.assertions.PlanMatchPattern.aggregationFunction;
@@ -573,6 +577,83 @@ public class JoinTest {
         false);
   }
 
+  // ========== join of more than two tables ===============
+  @Test
+  public void reorderJoinTest() {
+    PlanTester planTester = new PlanTester();
+    logicalQueryPlan =
+        planTester.createPlan(
+            "SELECT t1.s1, t2.s2, t3.s3 FROM table1 t1 JOIN table1 t2 ON t1.time = t2.time "
+                + "JOIN (SELECT * FROM table1 WHERE tag1='beijing' AND tag2='A1') t3 "
+                + "ON t2.time = t3.time");
+
+    // t3 only has one device, so it is joined with t1 before t2
+    joinNode =
+        searchFrom(logicalQueryPlan.getRootNode())
+            .where(JoinNode.class::isInstance)
+            .<JoinNode>findFirst()
+            .get();
+    List<DeviceTableScanNode> leftTableScans =
+        searchFrom(joinNode.getLeftChild()).where(DeviceTableScanNode.class::isInstance).findAll();
+    List<DeviceTableScanNode> rightTableScans =
+        searchFrom(joinNode.getRightChild()).where(DeviceTableScanNode.class::isInstance).findAll();
+    assertEquals(2, leftTableScans.size());
+    assertEquals(1, leftTableScans.get(1).getDeviceEntries().size());
+    assertEquals(1, rightTableScans.size());
+    assertEquals(ALL_DEVICE_ENTRIES.size(), rightTableScans.get(0).getDeviceEntries().size());
+  }
+
+  @Test
+  public void reorderJoinKeepImpliedEqualityTest() {
+    PlanTester planTester = new PlanTester();
+    // t1.s1 = t2.s1 AND t1.s2 = t2.s1 implies t1.s1 = t1.s2, which must survive the reordering
+    logicalQueryPlan =
+        planTester.createPlan(
+            "SELECT t1.s1, t2.s2, t3.s3 FROM table1 t1 JOIN table1 t2 "
+                + "ON t1.time = t2.time AND t1.s1 = t2.s1 AND t1.s2 = t2.s1 "
+                + "JOIN (SELECT * FROM table1 WHERE tag1='beijing' AND tag2='A1') t3 "
+                + "ON t2.time = t3.time");
+
+    List<JoinNode> joinNodes =
+        searchFrom(logicalQueryPlan.getRootNode()).where(JoinNode.class::isInstance).findAll();
+    assertEquals(2, joinNodes.size());
+    List<JoinNode.EquiJoinClause> criteria = new ArrayList<>();
+    joinNodes.forEach(node -> criteria.addAll(node.getCriteria()));
+    // two clauses connect the three time columns and two connect t1.s1, t1.s2 and t2.s1
+    assertEquals(4, criteria.size());
+    Set<Symbol> valueKeys = new HashSet<>();
+    for (JoinNode.EquiJoinClause clause : criteria) {
+      for (Symbol symbol : ImmutableList.of(clause.getLeft(), clause.getRight())) {
+        if (!symbol.getName().startsWith("time")) {
+          valueKeys.add(symbol);
+        }
+      }
+    }
+    assertEquals(3, valueKeys.size());
+  }
+
+  @Test
+  public void reorderJoinWithoutCrossJoinTest() {
+    PlanTester planTester = new PlanTester();
+    // t1 and t3 are not connected directly, so t2 must be joined before either of them is joined
+    // with the other one
+    logicalQueryPlan =
+        planTester.createPlan(
+            "SELECT t1.s1, t2.s2, t3.s3 FROM table1 t1 JOIN table1 t2 ON t1.time = t2.time "
+                + "JOIN (SELECT * FROM table1 WHERE tag1='beijing' AND tag2='A1') t3 "
+                + "ON t2.s1 = t3.s1");
+
+    List<JoinNode> joinNodes =
+        searchFrom(logicalQueryPlan.getRootNode()).where(JoinNode.class::isInstance).findAll();
+    assertEquals(2, joinNodes.size());
+    for (JoinNode node : joinNodes) {
+      assertEquals(1, node.getCriteria().size());
+    }
+    assertEquals(
+        ImmutableList.of("s1", "s2", "s3"),
+        logicalQueryPlan.getRootNode().getOutputColumnNames());
+  }
+
   // ========== unsupported test ===============
   @Test
   public void unsupportedJoinTest() {
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.statistics;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.QueryStatistics;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class QueryProfileManagerTest {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  @Test
+  public void testMergeByQueryId() {
+    QueryProfileManager manager = new QueryProfileManager(10);
+    // none of the fragment instances exceeds the threshold alone, but the query does
+    manager.record(profile("q1", 0, 60, 1), 100);
+    manager.record(profile("q2", 0, 10, 1), 100);
+    manager.record(profile("q1", 50, 120, 2), 100);
+    manager.record(profile("q1", 90, 200, 4), 100);
+
+    List<QueryProfile> profiles = manager.getAllProfiles();
+    assertEquals(1, profiles.size());
+    QueryProfile profile = profiles.get(0);
+    assertEquals("q1", profile.getQueryId());
+    assertEquals(3, profile.getFragmentInstanceNum());
+    assertEquals(0, profile.getStartTime());
+    assertEquals(200, profile.getElapsedTimeInMs());
+    assertEquals(7, profile.getCpuTimeInNanos());
+  }
+
+  @Test
+  public void testEviction() {
+    QueryProfileManager manager = new QueryProfileManager(2);
+    manager.record(profile("q1", 0, 100, 1), 100);
+    manager.record(profile("q2", 0, 100, 1), 100);
+    // merging into a retained query does not make it the newest
+    manager.record(profile("q1", 0, 100, 1), 100);
+    manager.record(profile("q3", 0, 100, 1), 100);
+    assertEquals(
+        "q2,q3",
+        manager.getAllProfiles().stream()
+            .map(QueryProfile::getQueryId)
+            .collect(Collectors.joining(",")));
+
+    // an evicted pending query starts over
+    manager.record(profile("q4", 0, 60, 1), 100);
+    manager.record(profile("q5", 0, 10, 1), 100);
+    manager.record(profile("q6", 0, 10, 1), 100);
+    manager.record(profile("q4", 50, 120, 1), 100);
+    assertEquals(
+        "q2,q3",
+        manager.getAllProfiles().stream()
+            .map(QueryProfile::getQueryId)
+            .collect(Collectors.joining(",")));
+  }
+
+  @Test
+  public void testTryRecord() {
+    long threshold = CONFIG.getQueryProfileThreshold();
+    try {
+      CONFIG.setQueryProfileThreshold(100);
+      QueryStatistics statistics = new QueryStatistics();
+      statistics.getLoadChunkFromDiskCount().set(2);
+      statistics.getLoadChunkActualIOSize().set(1024);
+      statistics.getLoadChunkFromCacheCount().set(3);
+      FragmentInstanceContext first = mockContext("testTryRecord", "0", 1000, statistics);
+      FragmentInstanceContext second = mockContext("testTryRecord", "1", 1050, statistics);
+
+      QueryProfileManager manager = QueryProfileManager.getInstance();
+      manager.tryRecord(first, 80);
+      assertTrue(findProfile(manager, "testTryRecord").isEmpty());
+      manager.tryRecord(second, 80);
+      List<QueryProfile> profiles = findProfile(manager, "testTryRecord");
+      assertEquals(1, profiles.size());
+      QueryProfile profile = profiles.get(0);
+      assertEquals(2, profile.getFragmentInstanceNum());
+      assertEquals(1000, profile.getStartTime());
+      assertEquals(130, profile.getElapsedTimeInMs());
+      assertEquals(4, profile.getDiskChunkNum());
+      assertEquals(2048, profile.getReadBytes());
+      assertEquals(6, profile.getChunkCacheHitNum());
+    } finally {
+      CONFIG.setQueryProfileThreshold(threshold);
+    }
+  }
+
+  private static List<QueryProfile> findProfile(QueryProfileManager manager, String queryId) {
+    return manager.getAllProfiles().stream()
+        .filter(profile -> profile.getQueryId().equals(queryId))
+        .collect(Collectors.toList());
+  }
+
+  private static FragmentInstanceContext mockContext(
+      String queryId, String instanceId, long startTime, QueryStatistics statistics) {
+    FragmentInstanceContext context = Mockito.mock(FragmentInstanceContext.class);
+    Mockito.when(context.getId())
+        .thenReturn(new FragmentInstanceId(new PlanFragmentId(queryId, 0), instanceId));
+    Mockito.when(context.getStartTime()).thenReturn(startTime);
+    Mockito.when(context.getQueryStatistics()).thenReturn(statistics);
+    return context;
+  }
+
+  private static QueryProfile profile(String queryId, long startTime, long endTime, long cpuTime) {
+    return new QueryProfile(queryId, 1, 1, startTime, endTime, cpuTime, 0, 0, 0, 0, 0, 0, 0);
+  }
+}
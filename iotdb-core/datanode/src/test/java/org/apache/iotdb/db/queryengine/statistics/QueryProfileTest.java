@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.statistics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class QueryProfileTest {
+
+  @Test
+  public void testMerge() {
+    QueryProfile first = new QueryProfile("q", 1, 1, 100, 300, 10, 20, 3, 4, 5, 6, 7, 1000);
+    QueryProfile second = new QueryProfile("q", 1, 2, 200, 500, 1, 2, 3, 4, 5, 6, 7, 500);
+
+    QueryProfile merged = first.merge(second);
+    assertEquals("q", merged.getQueryId());
+    assertEquals(1, merged.getDataNodeId());
+    assertEquals(3, merged.getFragmentInstanceNum());
+    assertEquals(100, merged.getStartTime());
+    assertEquals(500, merged.getEndTime());
+    assertEquals(400, merged.getElapsedTimeInMs());
+    assertEquals(11, merged.getCpuTimeInNanos());
+    assertEquals(22, merged.getReadBytes());
+    assertEquals(6, merged.getDiskChunkNum());
+    assertEquals(8, merged.getChunkCacheHitNum());
+    assertEquals(10, merged.getTimeSeriesMetadataCacheHitNum());
+    assertEquals(12, merged.getBloomFilterCacheHitNum());
+    assertEquals(14, merged.getDecodedPageNum());
+    assertEquals(1500, merged.getPeakMemoryInBytes());
+
+    // merging is symmetric and leaves the merged profiles unchanged
+    QueryProfile reversed = second.merge(first);
+    assertEquals(merged.getStartTime(), reversed.getStartTime());
+    assertEquals(merged.getEndTime(), reversed.getEndTime());
+    assertEquals(merged.getCpuTimeInNanos(), reversed.getCpuTimeInNanos());
+    assertEquals(1, first.getFragmentInstanceNum());
+    assertEquals(200, first.getElapsedTimeInMs());
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.db.storageengine.dataregion.read.control.TierCachedTsFileInput;
+import org.apache.iotdb.db.utils.constant.TestConstant;
+
+import org.apache.tsfile.read.reader.LocalTsFileInput;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+public class TierCacheTest {
+
+  // a local directory standing in for the object storage
+  private final File remoteDir = new File(TestConstant.OUTPUT_DATA_DIR, "tier_cache_remote");
+  private final File cacheDir = new File(TestConstant.OUTPUT_DATA_DIR, "tier_cache");
+
+  private File remoteFile;
+  private byte[] content;
+
+  @Before
+  public void setUp() throws IOException {
+    Assert.assertTrue(remoteDir.mkdirs());
+    remoteFile = new File(remoteDir, "1-1-0-0.tsfile");
+    content = new byte[TierCache.BLOCK_SIZE * 5 / 2];
+    new Random(0).nextBytes(content);
+    Files.write(remoteFile.toPath(), content);
+  }
+
+  @After
+  public void tearDown() {
+    FileUtils.deleteFileOrDirectory(remoteDir, true);
+    FileUtils.deleteFileOrDirectory(cacheDir, true);
+  }
+
+  @Test
+  public void testReadThrough() throws IOException {
+    TierCache tierCache = new TierCache(cacheDir, 4L * TierCache.BLOCK_SIZE);
+    try (TierCachedTsFileInput input =
+        new TierCachedTsFileInput(new LocalTsFileInput(remoteFile.toPath()), tierCache)) {
+      Assert.assertEquals(content.length, input.size());
+
+      // crosses the first two blocks
+      long position = TierCache.BLOCK_SIZE - 100;
+      assertRead(input, position, 200);
+      Assert.assertEquals(0, tierCache.getHitCount());
+      Assert.assertEquals(2, tierCache.getMissCount());
+
+      assertRead(input, position + 50, 100);
+      Assert.assertEquals(2, tierCache.getHitCount());
+      Assert.assertEquals(2, tierCache.getMissCount());
+
+      // the cached blocks are read even if the remote file is changed
+      Files.write(remoteFile.toPath(), new byte[content.length]);
+      assertRead(input, 0, 1000);
+      Assert.assertEquals(3, tierCache.getHitCount());
+
+      // reads beyond the end of the file
+      ByteBuffer buffer = ByteBuffer.allocate(100);
+      Assert.assertEquals(-1, input.read(buffer, content.length));
+      tierCache.clear();
+    }
+  }
+
+  @Test
+  public void testReadToEnd() throws IOException {
+    TierCache tierCache = new TierCache(cacheDir, 4L * TierCache.BLOCK_SIZE);
+    try (TierCachedTsFileInput input =
+        new TierCachedTsFileInput(new LocalTsFileInput(remoteFile.toPath()), tierCache)) {
+      ByteBuffer buffer = ByteBuffer.allocate(content.length + 100);
+      Assert.assertEquals(content.length, input.read(buffer, 0));
+      buffer.flip();
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      Assert.assertArrayEquals(content, bytes);
+      Assert.assertEquals(content.length, tierCache.getUsedBytes());
+
+      tierCache.invalidate(remoteFile.getPath());
+      Assert.assertEquals(0, tierCache.getUsedBytes());
+      Assert.assertEquals(0, countBlockFiles());
+    }
+  }
+
+  @Test
+  public void testEviction() throws IOException {
+    TierCache tierCache = new TierCache(cacheDir, 2L * TierCache.BLOCK_SIZE);
+    try (TierCachedTsFileInput input =
+        new TierCachedTsFileInput(new LocalTsFileInput(remoteFile.toPath()), tierCache)) {
+      for (int i = 0; i < 3; i++) {
+        assertRead(input, (long) i * TierCache.BLOCK_SIZE, 100);
+      }
+      Assert.assertTrue(tierCache.getUsedBytes() <= 2L * TierCache.BLOCK_SIZE);
+      Assert.assertTrue(countBlockFiles() < 3);
+
+      // the evicted blocks are read from the remote file again
+      long missCount = tierCache.getMissCount();
+      for (int i = 0; i < 3; i++) {
+        assertRead(input, (long) i * TierCache.BLOCK_SIZE, 100);
+      }
+      Assert.assertTrue(tierCache.getMissCount() > missCount);
+      tierCache.clear();
+      Assert.assertEquals(0, countBlockFiles());
+    }
+  }
+
+  @Test
+  public void testDisabled() {
+    TierCache tierCache = new TierCache(cacheDir, 0);
+    Assert.assertFalse(tierCache.isEnabled());
+    Assert.assertFalse(tierCache.shouldCache(remoteFile.getPath()));
+    Assert.assertFalse(cacheDir.exists());
+  }
+
+  private void assertRead(TierCachedTsFileInput input, long position, int length)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    Assert.assertEquals(length, input.read(buffer, position));
+    Assert.assertArrayEquals(
+        Arrays.copyOfRange(content, (int) position, (int) position + length), buffer.array());
+  }
+
+  private int countBlockFiles() {
+    String[] files = cacheDir.list();
+    return files == null ? 0 : files.length;
+  }
+}
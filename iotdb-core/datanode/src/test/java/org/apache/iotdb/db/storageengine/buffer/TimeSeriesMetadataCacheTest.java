@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.commons.path.AlignedFullPath;
+import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
+import org.apache.iotdb.db.queryengine.execution.operator.AlignedSeriesTestUtil;
+import org.apache.iotdb.db.queryengine.execution.operator.source.FileLoaderUtils;
+import org.apache.iotdb.db.storageengine.buffer.TimeSeriesMetadataCache.TimeSeriesMetadataCacheKey;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.AbstractAlignedTimeSeriesMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class TimeSeriesMetadataCacheTest {
+
+  private static final String SG_NAME = "root.TimeSeriesMetadataCacheTest";
+  private static final IDeviceID DEVICE =
+      IDeviceID.Factory.DEFAULT_FACTORY.create(SG_NAME + ".device0");
+
+  private final TimeSeriesMetadataCache cache = TimeSeriesMetadataCache.getInstance();
+
+  private final List<IMeasurementSchema> measurementSchemas = new ArrayList<>();
+  private final List<TsFileResource> seqResources = new ArrayList<>();
+  private final List<TsFileResource> unseqResources = new ArrayList<>();
+
+  @Before
+  public void setUp() throws MetadataException, IOException, WriteProcessException {
+    AlignedSeriesTestUtil.setUp(measurementSchemas, seqResources, unseqResources, SG_NAME);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    AlignedSeriesTestUtil.tearDown(seqResources, unseqResources);
+  }
+
+  @Test
+  public void testBatchGetPartialHit() throws IOException {
+    TsFileResource resource = seqResources.get(0);
+    Set<String> allSensors = new HashSet<>(Arrays.asList("sensor0", "sensor1", "sensor2"));
+    // a single get also caches the other sensors of allSensors it reads
+    assertNotNull(
+        getOne(resource, "sensor1", Collections.singleton("sensor1"), new QueryContext(1)));
+
+    QueryContext context = new QueryContext(2);
+    List<TimeseriesMetadata> result =
+        cache.get(
+            resource.getTsFilePath(),
+            resource.getTsFileID(),
+            DEVICE,
+            Arrays.asList("sensor0", "sensor1", "sensor2"),
+            allSensors,
+            false,
+            false,
+            context);
+    assertEquals(1, context.getQueryStatistics().getLoadTimeSeriesMetadataFromCacheCount().get());
+    assertEquals(2, context.getQueryStatistics().getLoadTimeSeriesMetadataFromDiskCount().get());
+    assertEquals(3, result.size());
+    for (int i = 0; i < result.size(); i++) {
+      TimeseriesMetadata metadata = result.get(i);
+      assertEquals("sensor" + i, metadata.getMeasurementId());
+      assertEquals(100, metadata.getStatistics().getCount());
+      assertEquals(0, metadata.getStatistics().getStartTime());
+      assertEquals(99, metadata.getStatistics().getEndTime());
+    }
+
+    // all the measurements read by the batch are cached
+    context = new QueryContext(3);
+    result =
+        cache.get(
+            resource.getTsFilePath(),
+            resource.getTsFileID(),
+            DEVICE,
+            Arrays.asList("sensor2", "sensor0"),
+            allSensors,
+            false,
+            false,
+            context);
+    assertEquals(2, context.getQueryStatistics().getLoadTimeSeriesMetadataFromCacheCount().get());
+    assertEquals(0, context.getQueryStatistics().getLoadTimeSeriesMetadataFromDiskCount().get());
+    assertEquals("sensor2", result.get(0).getMeasurementId());
+    assertEquals("sensor0", result.get(1).getMeasurementId());
+  }
+
+  @Test
+  public void testBatchGetNotExists() throws IOException {
+    TsFileResource resource = seqResources.get(0);
+    Set<String> allSensors = new HashSet<>(Arrays.asList("sensor1", "not_exist"));
+
+    QueryContext context = new QueryContext(1);
+    List<TimeseriesMetadata> result =
+        cache.get(
+            resource.getTsFilePath(),
+            resource.getTsFileID(),
+            DEVICE,
+            Arrays.asList("not_exist", "sensor1"),
+            allSensors,
+            true,
+            false,
+            context);
+    assertNull(result.get(0));
+    assertEquals("sensor1", result.get(1).getMeasurementId());
+    assertEquals(2, context.getQueryStatistics().getLoadTimeSeriesMetadataFromDiskCount().get());
+
+    // the bloom filter rejects all the measurements of a device which is not in the file
+    context = new QueryContext(2);
+    result =
+        cache.get(
+            resource.getTsFilePath(),
+            resource.getTsFileID(),
+            IDeviceID.Factory.DEFAULT_FACTORY.create(SG_NAME + ".not_exist"),
+            Arrays.asList("sensor0", "sensor1"),
+            allSensors,
+            true,
+            false,
+            context);
+    assertEquals(Arrays.asList(null, null), result);
+    assertEquals(2, context.getQueryStatistics().getLoadTimeSeriesMetadataFromDiskCount().get());
+  }
+
+  @Test
+  public void testLoadAlignedTimeSeriesMetadataPartialHit() throws IOException {
+    TsFileResource resource = seqResources.get(0);
+    // only the time column is in allSensors, so that loading it caches no value column
+    AlignedFullPath alignedPath =
+        new AlignedFullPath(
+            DEVICE,
+            Arrays.asList("sensor1", "not_exist", "sensor3"),
+            Arrays.asList(
+                measurementSchemas.get(1), measurementSchemas.get(2), measurementSchemas.get(3)),
+            Collections.singleton(""));
+    assertNotNull(
+        getOne(resource, "sensor3", Collections.singleton("sensor3"), new QueryContext(1)));
+
+    QueryContext context = new QueryContext(2);
+    AbstractAlignedTimeSeriesMetadata metadata =
+        FileLoaderUtils.loadAlignedTimeSeriesMetadata(
+            resource, alignedPath, context, null, true, false);
+    assertNotNull(metadata);
+    assertEquals(0, metadata.getTimeseriesMetadata().getStatistics().getStartTime());
+    assertEquals(99, metadata.getTimeseriesMetadata().getStatistics().getEndTime());
+    // sensor3 is hit, the time column, sensor1 and not_exist are missed
+    assertEquals(1, context.getQueryStatistics().getLoadTimeSeriesMetadataFromCacheCount().get());
+    assertEquals(3, context.getQueryStatistics().getLoadTimeSeriesMetadataFromDiskCount().get());
+
+    // sensor1 has been cached by the batch
+    context = new QueryContext(3);
+    assertNotNull(getOne(resource, "sensor1", Collections.singleton("sensor1"), context));
+    assertEquals(1, context.getQueryStatistics().getLoadTimeSeriesMetadataFromCacheCount().get());
+  }
+
+  @Test
+  public void testLoadAlignedTimeSeriesMetadataNotExists() throws IOException {
+    TsFileResource resource = seqResources.get(0);
+    AlignedFullPath alignedPath =
+        new AlignedFullPath(
+            DEVICE,
+            Collections.singletonList("not_exist"),
+            Collections.singletonList(measurementSchemas.get(1)));
+
+    // all the queried sensors are rejected by the bloom filter
+    assertNull(
+        FileLoaderUtils.loadAlignedTimeSeriesMetadata(
+            resource, alignedPath, new QueryContext(1), null, true, true));
+  }
+
+  private TimeseriesMetadata getOne(
+      TsFileResource resource, String measurement, Set<String> allSensors, QueryContext context)
+      throws IOException {
+    return cache.get(
+        resource.getTsFilePath(),
+        new TimeSeriesMetadataCacheKey(resource.getTsFileID(), DEVICE, measurement),
+        allSensors,
+        false,
+        false,
+        context);
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion;
+
+import org.apache.iotdb.db.queryengine.common.SessionInfo;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MinWrittenTimeTrackerTest {
+
+  private final MinWrittenTimeTracker tracker = MinWrittenTimeTracker.getInstance();
+
+  private final SessionInfo cqSession = new SessionInfo(100L, "root", ZoneId.systemDefault());
+
+  private final SessionInfo userSession = new SessionInfo(101L, "root", ZoneId.systemDefault());
+
+  @After
+  public void tearDown() {
+    tracker.deregisterContinuousQuerySession(cqSession.getSessionId());
+    tracker.poll();
+  }
+
+  @Test
+  public void testTrackPerDatabase() {
+    tracker.update("root.sg1", 100L, false);
+    tracker.update("root.sg1", 50L, false);
+    tracker.update("root.sg1", 80L, false);
+    tracker.update("root.sg2", 200L, false);
+    tracker.update("root.__system", 10L, false);
+
+    Map<String, Long> expected = new HashMap<>();
+    expected.put("root.sg1", 50L);
+    expected.put("root.sg2", 200L);
+    assertEquals(expected, tracker.poll());
+    // polled times are reset
+    assertEquals(Collections.emptyMap(), tracker.poll());
+  }
+
+  @Test
+  public void testContinuousQueryOutputNotTracked() {
+    tracker.registerContinuousQuerySession(cqSession.getSessionId());
+    assertTrue(tracker.isGeneratedByContinuousQuery(cqSession));
+    assertFalse(tracker.isGeneratedByContinuousQuery(userSession));
+    assertFalse(tracker.isGeneratedByContinuousQuery(null));
+
+    // the cq executed [0, 100) and writes its result at the start of the window, which is earlier
+    // than the start time 100 of its next execution, so it must not be reported as late data
+    tracker.update("root.target", 0L, tracker.isGeneratedByContinuousQuery(cqSession));
+    tracker.update("root.source", 150L, tracker.isGeneratedByContinuousQuery(userSession));
+    assertEquals(Collections.singletonMap("root.source", 150L), tracker.poll());
+
+    // a user write into the target database is still late data
+    tracker.update("root.target", 20L, tracker.isGeneratedByContinuousQuery(userSession));
+    assertEquals(Collections.singletonMap("root.target", 20L), tracker.poll());
+
+    tracker.deregisterContinuousQuerySession(cqSession.getSessionId());
+    assertFalse(tracker.isGeneratedByContinuousQuery(cqSession));
+  }
+}
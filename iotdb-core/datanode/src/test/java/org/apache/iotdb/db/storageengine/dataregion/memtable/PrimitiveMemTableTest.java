@@ -33,6 +33,8 @@ import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
 import org.apache.iotdb.db.storageengine.dataregion.modification.TreeDeletionEntry;
 import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALByteBufferForTest;
 import org.apache.iotdb.db.utils.MathUtils;
+import org.apache.iotdb.db.utils.datastructure.AlignedTVList;
+import org.apache.iotdb.db.utils.datastructure.TVList;
 
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
@@ -114,6 +116,105 @@ public class PrimitiveMemTableTest {
     Assert.assertEquals(count, i);
   }
 
+  @Test
+  public void memSeriesReadViewTest() {
+    TSDataType dataType = TSDataType.INT32;
+    WritableMemChunk series =
+        new WritableMemChunk(new MeasurementSchema("s1", dataType, TSEncoding.PLAIN));
+    int count = 1000;
+    for (int i = 0; i < count; i++) {
+      series.writeWithFlushCheck(i, i);
+    }
+    TVList firstView = series.getSortedTvListForQuery();
+
+    // the appended rows are out of order, so the shared arrays holding them are copied for sorting
+    for (int i = count; i < 2 * count; i++) {
+      series.writeWithFlushCheck(i, i);
+    }
+    series.writeWithFlushCheck(count / 2, -1);
+    TVList secondView = series.getSortedTvListForQuery();
+    // the rows read by the views are moved in copies of the shared arrays
+    Assert.assertEquals(count / 2, series.delete(0, count / 2 - 1));
+
+    Assert.assertEquals(count, firstView.rowCount());
+    for (int i = 0; i < count; i++) {
+      Assert.assertEquals(i, firstView.getTime(i));
+      Assert.assertEquals(i, firstView.getInt(i));
+    }
+    Assert.assertEquals(2 * count + 1, secondView.rowCount());
+    for (int i = 0; i < secondView.rowCount(); i++) {
+      long expectedTime = i <= count / 2 ? i : i - 1;
+      Assert.assertEquals(expectedTime, secondView.getTime(i));
+    }
+    Assert.assertEquals(-1, secondView.getInt(count / 2 + 1));
+    Assert.assertEquals(count + count / 2 + 1, series.getTVList().rowCount());
+  }
+
+  @Test
+  public void alignedMemSeriesReadViewTest() {
+    List<IMeasurementSchema> schemaList =
+        Arrays.asList(
+            new MeasurementSchema("s1", TSDataType.INT32, TSEncoding.PLAIN),
+            new MeasurementSchema("s2", TSDataType.INT64, TSEncoding.PLAIN));
+    AlignedWritableMemChunk series = new AlignedWritableMemChunk(schemaList, false);
+    int count = 1000;
+    for (int i = 0; i < count; i++) {
+      // s1 has nulls so that its bitmaps are shared with the first view
+      Object s1 = i % 100 == 99 ? null : i;
+      series.writeAlignedValueWithFlushCheck(i, new Object[] {s1, (long) i}, schemaList);
+    }
+    AlignedTVList firstView = (AlignedTVList) series.getSortedTvListForQuery(schemaList, false);
+
+    // the appended rows are out of order, so the shared time and index arrays holding them are
+    // copied for sorting
+    for (int i = count; i < 2 * count; i++) {
+      series.writeAlignedValueWithFlushCheck(i, new Object[] {i, (long) i}, schemaList);
+    }
+    series.writeAlignedValueWithFlushCheck(count / 2, new Object[] {-1, null}, schemaList);
+    AlignedTVList secondView = (AlignedTVList) series.getSortedTvListForQuery(schemaList, false);
+    // the values read by the views are marked deleted in copies of the shared bitmaps
+    Assert.assertEquals(
+        count / 2, (int) series.deleteDataFromAColumn(0, count / 2 - 1, "s1").left);
+    Assert.assertEquals(10, series.deleteTime(count, count + 9));
+
+    Assert.assertEquals(count, firstView.rowCount());
+    for (int i = 0; i < count; i++) {
+      Assert.assertEquals(i, firstView.getTime(i));
+      int valueIndex = firstView.getValueIndex(i);
+      Assert.assertEquals(i % 100 == 99, firstView.isNullValue(valueIndex, 0));
+      if (i % 100 != 99) {
+        Assert.assertEquals(i, firstView.getIntByValueIndex(valueIndex, 0));
+      }
+      Assert.assertEquals(i, firstView.getLongByValueIndex(valueIndex, 1));
+    }
+
+    Assert.assertEquals(2 * count + 1, secondView.rowCount());
+    for (int i = 0; i < secondView.rowCount(); i++) {
+      long expectedTime = i <= count / 2 ? i : i - 1;
+      Assert.assertEquals(expectedTime, secondView.getTime(i));
+      Assert.assertFalse(secondView.isTimeDeleted(i));
+      int valueIndex = secondView.getValueIndex(i);
+      if (i == count / 2 + 1) {
+        Assert.assertEquals(-1, secondView.getIntByValueIndex(valueIndex, 0));
+        Assert.assertTrue(secondView.isNullValue(valueIndex, 1));
+      } else {
+        Assert.assertEquals(
+            expectedTime < count && expectedTime % 100 == 99,
+            secondView.isNullValue(valueIndex, 0));
+      }
+    }
+
+    AlignedTVList list = (AlignedTVList) series.getTVList();
+    Assert.assertEquals(2 * count + 1, list.rowCount());
+    for (int i = 0; i < list.rowCount(); i++) {
+      long time = list.getTime(i);
+      boolean timeDeleted = time >= count && time < count + 10;
+      boolean s1Null = time < count / 2 || (time < count && time % 100 == 99) || timeDeleted;
+      Assert.assertEquals(s1Null, list.isNullValue(list.getValueIndex(i), 0));
+      Assert.assertEquals(timeDeleted, list.isTimeDeleted(i));
+    }
+  }
+
   @Test
   public void memSeriesToStringTest() throws IOException {
     TSDataType dataType = TSDataType.INT32;
@@ -0,0 +1,319 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.migration;
+
+import org.apache.iotdb.commons.conf.CommonConfig;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileRollup;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.utils.TsFileGeneratorUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+public class TierMigrationTaskTest {
+
+  private static final String DATABASE = "root.testsg";
+  private static final String DATA_REGION_ID = "0";
+  private static final IDeviceID DEVICE =
+      IDeviceID.Factory.DEFAULT_FACTORY.create(DATABASE + ".d0");
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private final CommonConfig commonConfig = CommonDescriptor.getInstance().getConfig();
+
+  private String[][] originTierDataDirs;
+  private long[] originTierTTLInMs;
+  private int originHotFileAccessCount;
+
+  private final DataRegion dataRegion = Mockito.mock(DataRegion.class);
+  private final RateLimiter rateLimiter = RateLimiter.create(Double.MAX_VALUE);
+
+  @Before
+  public void setUp() {
+    originTierDataDirs = config.getTierDataDirs();
+    originTierTTLInMs = commonConfig.getTierTTLInMs();
+    originHotFileAccessCount = config.getTierMigrationHotFileAccessCount();
+    config.setTierDataDirs(new String[][] {{"target/tier0"}, {"target/tier1"}});
+    TierManager.getInstance().resetFolders();
+    commonConfig.setTierTTLInMs(new long[] {1000L, Long.MAX_VALUE});
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    config.setTierDataDirs(originTierDataDirs);
+    TierManager.getInstance().resetFolders();
+    commonConfig.setTierTTLInMs(originTierTTLInMs);
+    config.setTierMigrationHotFileAccessCount(originHotFileAccessCount);
+    FileUtils.recursivelyDeleteFolder("target" + File.separator + "tier0");
+    FileUtils.recursivelyDeleteFolder("target" + File.separator + "tier1");
+  }
+
+  @Test
+  public void testMigrate() throws Exception {
+    TsFileResource resource = createSealedTsFile();
+    File sourceFile = resource.getTsFile();
+    byte[] sourceBytes = Files.readAllBytes(sourceFile.toPath());
+
+    Assert.assertTrue(new TierMigrationTask(dataRegion, resource, rateLimiter).migrate());
+
+    File targetFile = getTargetFile(sourceFile);
+    Assert.assertEquals(targetFile.getPath(), resource.getTsFilePath());
+    Assert.assertEquals(1, resource.getTierLevel());
+    Assert.assertEquals(1, TierManager.getInstance().getFileTierLevel(targetFile));
+    Assert.assertArrayEquals(sourceBytes, Files.readAllBytes(targetFile.toPath()));
+    Assert.assertTrue(new File(targetFile.getPath() + TsFileResource.RESOURCE_SUFFIX).exists());
+    Assert.assertTrue(TsFileRollup.getRollupFile(targetFile).exists());
+    Assert.assertTrue(ModificationFile.getExclusiveMods(targetFile).exists());
+    Assert.assertTrue(resource.exclusiveModFileExists());
+    Assert.assertFalse(TierMigrationTask.getMarkerFile(targetFile).exists());
+    Assert.assertFalse(
+        new File(targetFile.getPath() + TierMigrationTask.MIGRATING_SUFFIX).exists());
+    assertNoTsFileOrCompanionFiles(sourceFile);
+  }
+
+  @Test
+  public void testGiveUpReadLockedFile() throws Exception {
+    TsFileResource resource = createSealedTsFile();
+    File sourceFile = resource.getTsFile();
+
+    // a query is reading the file
+    resource.readLock();
+    try {
+      Assert.assertFalse(new TierMigrationTask(dataRegion, resource, rateLimiter).migrate());
+    } finally {
+      resource.readUnlock();
+    }
+
+    assertNotMigrated(resource, sourceFile);
+  }
+
+  @Test
+  public void testGiveUpFileChangedDuringCopy() throws Exception {
+    TsFileResource resource = createSealedTsFile();
+    File sourceFile = resource.getTsFile();
+
+    // the file is selected by a compaction while it is being copied
+    RateLimiter compactingRateLimiter = Mockito.mock(RateLimiter.class);
+    Mockito.doAnswer(
+            invocation -> {
+              resource.setStatusForTest(TsFileResourceStatus.COMPACTING);
+              return 0.0;
+            })
+        .when(compactingRateLimiter)
+        .acquire(Mockito.anyInt());
+    Assert.assertFalse(
+        new TierMigrationTask(dataRegion, resource, compactingRateLimiter).migrate());
+
+    assertNotMigrated(resource, sourceFile);
+  }
+
+  @Test
+  public void testRecoverBeforeRename() throws Exception {
+    TsFileResource resource = createSealedTsFile();
+    File sourceFile = resource.getTsFile();
+    File targetFile = getTargetFile(sourceFile);
+    // the marker is written and the companion files are copied, the TsFile is still migrating
+    writeMarker(targetFile, sourceFile);
+    copyCompanionFiles(sourceFile, targetFile);
+    Files.copy(
+        sourceFile.toPath(),
+        new File(targetFile.getPath() + TierMigrationTask.MIGRATING_SUFFIX).toPath());
+
+    TierMigrationService.getInstance().recover();
+
+    assertNoTsFileOrCompanionFiles(targetFile);
+    Assert.assertFalse(
+        new File(targetFile.getPath() + TierMigrationTask.MIGRATING_SUFFIX).exists());
+    assertTsFileAndCompanionFiles(sourceFile);
+    Assert.assertFalse(TierMigrationTask.getMarkerFile(targetFile).exists());
+  }
+
+  @Test
+  public void testRecoverEmptyMarker() throws Exception {
+    TsFileResource resource = createSealedTsFile();
+    File sourceFile = resource.getTsFile();
+    File targetFile = getTargetFile(sourceFile);
+    // the restart happened while writing the marker
+    Files.createFile(TierMigrationTask.getMarkerFile(targetFile).toPath());
+
+    TierMigrationService.getInstance().recover();
+
+    assertNoTsFileOrCompanionFiles(targetFile);
+    assertTsFileAndCompanionFiles(sourceFile);
+    Assert.assertFalse(TierMigrationTask.getMarkerFile(targetFile).exists());
+  }
+
+  @Test
+  public void testRecoverAfterRename() throws Exception {
+    TsFileResource resource = createSealedTsFile();
+    File sourceFile = resource.getTsFile();
+    File targetFile = getTargetFile(sourceFile);
+    // the TsFile is renamed into place, but the source TsFile is not deleted yet
+    writeMarker(targetFile, sourceFile);
+    copyCompanionFiles(sourceFile, targetFile);
+    Files.copy(sourceFile.toPath(), targetFile.toPath());
+
+    TierMigrationService.getInstance().recover();
+
+    assertNoTsFileOrCompanionFiles(targetFile);
+    assertTsFileAndCompanionFiles(sourceFile);
+    Assert.assertFalse(TierMigrationTask.getMarkerFile(targetFile).exists());
+  }
+
+  @Test
+  public void testRecoverAfterSourceDeleted() throws Exception {
+    TsFileResource resource = createSealedTsFile();
+    File sourceFile = resource.getTsFile();
+    File targetFile = getTargetFile(sourceFile);
+    // the source TsFile is deleted, which completes the migration, but not its companion files
+    writeMarker(targetFile, sourceFile);
+    copyCompanionFiles(sourceFile, targetFile);
+    Files.copy(sourceFile.toPath(), targetFile.toPath());
+    Files.delete(sourceFile.toPath());
+
+    TierMigrationService.getInstance().recover();
+
+    assertNoTsFileOrCompanionFiles(sourceFile);
+    assertTsFileAndCompanionFiles(targetFile);
+    Assert.assertFalse(TierMigrationTask.getMarkerFile(targetFile).exists());
+  }
+
+  @Test
+  public void testShouldMigrate() throws Exception {
+    TsFileResource resource = createSealedTsFile();
+    // the data ended long before the ttl of tier 0
+    Assert.assertTrue(TierMigrationService.shouldMigrate(resource, 0));
+
+    // the file being compacted is migrated later
+    resource.setStatusForTest(TsFileResourceStatus.COMPACTING);
+    Assert.assertFalse(TierMigrationService.shouldMigrate(resource, 0));
+    resource.setStatusForTest(TsFileResourceStatus.NORMAL);
+
+    // the recently accessed files stay where they are
+    config.setTierMigrationHotFileAccessCount(3);
+    Assert.assertFalse(TierMigrationService.shouldMigrate(resource, 3));
+    Assert.assertTrue(TierMigrationService.shouldMigrate(resource, 2));
+
+    // the shared mod file can not be moved with the file
+    TsFileResource sharedModResource = Mockito.spy(resource);
+    Mockito.doReturn(true).when(sharedModResource).sharedModFileExists();
+    Assert.assertFalse(TierMigrationService.shouldMigrate(sharedModResource, 0));
+
+    // the data is still in the ttl of tier 0
+    resource.updateEndTime(DEVICE, CommonDateTimeUtils.currentTime());
+    Assert.assertFalse(TierMigrationService.shouldMigrate(resource, 0));
+
+    // the files on the last tier are never migrated
+    TsFileResource lastTierResource = createSealedTsFile();
+    Assert.assertTrue(new TierMigrationTask(dataRegion, lastTierResource, rateLimiter).migrate());
+    Assert.assertFalse(TierMigrationService.shouldMigrate(lastTierResource, 0));
+  }
+
+  private TsFileResource createSealedTsFile() throws Exception {
+    File tsFile =
+        new File(
+            TsFileNameGenerator.generateTsFileDir(true, DATABASE, DATA_REGION_ID, 0, 0),
+            TsFileNameGenerator.generateNewTsFileName(System.nanoTime(), 1, 0, 0));
+    Assert.assertTrue(tsFile.getParentFile().exists() || tsFile.getParentFile().mkdirs());
+    TsFileGeneratorUtils.generateMixTsFile(tsFile.getPath(), 2, 2, 10, 0, 100, 10, 10);
+    TsFileResource resource = new TsFileResource(tsFile);
+    resource.updateStartTime(DEVICE, 0);
+    resource.updateEndTime(DEVICE, 100);
+    resource.setStatusForTest(TsFileResourceStatus.NORMAL);
+    resource.serialize();
+    // the companion files are moved with the TsFile
+    Files.write(TsFileRollup.getRollupFile(tsFile).toPath(), new byte[] {1, 2, 3});
+    Files.write(ModificationFile.getExclusiveMods(tsFile).toPath(), new byte[] {4, 5, 6});
+    Assert.assertEquals(0, resource.getTierLevel());
+    return resource;
+  }
+
+  private File getTargetFile(File sourceFile) throws Exception {
+    File targetDir =
+        new File(TsFileNameGenerator.generateTsFileDir(true, DATABASE, DATA_REGION_ID, 0, 1));
+    Assert.assertTrue(targetDir.exists() || targetDir.mkdirs());
+    return new File(targetDir, sourceFile.getName());
+  }
+
+  private static void writeMarker(File targetFile, File sourceFile) throws Exception {
+    Files.write(
+        TierMigrationTask.getMarkerFile(targetFile).toPath(),
+        sourceFile.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void copyCompanionFiles(File sourceFile, File targetFile) throws Exception {
+    Files.copy(
+        new File(sourceFile.getPath() + TsFileResource.RESOURCE_SUFFIX).toPath(),
+        new File(targetFile.getPath() + TsFileResource.RESOURCE_SUFFIX).toPath(),
+        StandardCopyOption.REPLACE_EXISTING);
+    Files.copy(
+        TsFileRollup.getRollupFile(sourceFile).toPath(),
+        TsFileRollup.getRollupFile(targetFile).toPath(),
+        StandardCopyOption.REPLACE_EXISTING);
+    Files.copy(
+        ModificationFile.getExclusiveMods(sourceFile).toPath(),
+        ModificationFile.getExclusiveMods(targetFile).toPath(),
+        StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  private void assertNotMigrated(TsFileResource resource, File sourceFile) throws Exception {
+    Assert.assertEquals(sourceFile, resource.getTsFile());
+    Assert.assertEquals(0, resource.getTierLevel());
+    assertTsFileAndCompanionFiles(sourceFile);
+    File targetFile = getTargetFile(sourceFile);
+    assertNoTsFileOrCompanionFiles(targetFile);
+    Assert.assertFalse(TierMigrationTask.getMarkerFile(targetFile).exists());
+    Assert.assertFalse(
+        new File(targetFile.getPath() + TierMigrationTask.MIGRATING_SUFFIX).exists());
+  }
+
+  private static void assertTsFileAndCompanionFiles(File tsFile) {
+    Assert.assertTrue(tsFile.exists());
+    Assert.assertTrue(new File(tsFile.getPath() + TsFileResource.RESOURCE_SUFFIX).exists());
+    Assert.assertTrue(TsFileRollup.getRollupFile(tsFile).exists());
+    Assert.assertTrue(ModificationFile.getExclusiveMods(tsFile).exists());
+  }
+
+  private static void assertNoTsFileOrCompanionFiles(File tsFile) {
+    Assert.assertFalse(tsFile.exists());
+    Assert.assertFalse(new File(tsFile.getPath() + TsFileResource.RESOURCE_SUFFIX).exists());
+    Assert.assertFalse(TsFileRollup.getRollupFile(tsFile).exists());
+    Assert.assertFalse(ModificationFile.getExclusiveMods(tsFile).exists());
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.read.control;
+
+import org.apache.iotdb.db.utils.constant.TestConstant;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.TSRecord;
+import org.apache.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+
+public class MmapTsFileSequenceReaderTest {
+
+  private static final String DEVICE = "root.sg.d1";
+  private static final String MEASUREMENT = "s1";
+
+  private final File file = new File(TestConstant.BASE_OUTPUT_PATH.concat("mmap-test.tsfile"));
+
+  @Before
+  public void setUp() throws Exception {
+    if (file.exists()) {
+      Assert.assertTrue(file.delete());
+    }
+    file.getParentFile().mkdirs();
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      writer.registerTimeseries(
+          new Path(DEVICE), new MeasurementSchema(MEASUREMENT, TSDataType.INT32, TSEncoding.PLAIN));
+      for (int chunk = 0; chunk < 3; chunk++) {
+        for (long time = chunk * 100L; time < (chunk + 1) * 100L; time++) {
+          TSRecord record = new TSRecord(DEVICE, time);
+          record.addTuple(new IntDataPoint(MEASUREMENT, (int) time));
+          writer.writeRecord(record);
+        }
+        writer.flush();
+      }
+    }
+  }
+
+  @After
+  public void tearDown() {
+    if (file.exists()) {
+      Assert.assertTrue(file.delete());
+    }
+  }
+
+  @Test
+  public void testReadMagic() throws Exception {
+    try (MmapTsFileSequenceReader reader = new MmapTsFileSequenceReader(file.getPath(), null)) {
+      Assert.assertEquals(TSFileConfig.MAGIC_STRING, reader.readHeadMagic());
+      Assert.assertEquals(TSFileConfig.MAGIC_STRING, reader.readTailMagic());
+    }
+  }
+
+  @Test
+  public void testReadSameChunksAsChannelReader() throws Exception {
+    try (TsFileSequenceReader expectedReader = new TsFileSequenceReader(file.getPath());
+        MmapTsFileSequenceReader actualReader =
+            new MmapTsFileSequenceReader(file.getPath(), null)) {
+      Path path = new Path(DEVICE, MEASUREMENT, true);
+      List<ChunkMetadata> expectedChunkMetadataList = expectedReader.getChunkMetadataList(path);
+      List<ChunkMetadata> actualChunkMetadataList = actualReader.getChunkMetadataList(path);
+      Assert.assertEquals(3, expectedChunkMetadataList.size());
+      Assert.assertEquals(expectedChunkMetadataList.size(), actualChunkMetadataList.size());
+
+      for (int i = 0; i < expectedChunkMetadataList.size(); i++) {
+        Assert.assertEquals(
+            expectedChunkMetadataList.get(i).getOffsetOfChunkHeader(),
+            actualChunkMetadataList.get(i).getOffsetOfChunkHeader());
+        Chunk expectedChunk = expectedReader.readMemChunk(expectedChunkMetadataList.get(i));
+        Chunk actualChunk = actualReader.readMemChunk(actualChunkMetadataList.get(i));
+        Assert.assertEquals(
+            expectedChunk.getHeader().getDataSize(), actualChunk.getHeader().getDataSize());
+        Assert.assertEquals(expectedChunk.getData(), actualChunk.getData());
+      }
+    }
+  }
+}
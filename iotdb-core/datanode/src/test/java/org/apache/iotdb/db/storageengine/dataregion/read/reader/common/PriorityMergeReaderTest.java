@@ -19,12 +19,17 @@
 
 package org.apache.iotdb.db.storageengine.dataregion.read.reader.common;
 
+import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class PriorityMergeReaderTest {
 
@@ -166,4 +171,75 @@ public class PriorityMergeReaderTest {
     }
     assertEquals(162, cnt);
   }
+
+  @Test
+  public void testNextRun() throws IOException {
+    long[][] sourceTimestamps =
+        new long[][] {
+          {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 40},
+          {5, 6, 20, 21, 22, 23},
+          {8, 9, 30, 31, 32, 40},
+          {}
+        };
+    testNextRun(new PriorityMergeReader(), new PriorityMergeReader(), true, sourceTimestamps);
+    testNextRun(
+        new DescPriorityMergeReader(), new DescPriorityMergeReader(), false, sourceTimestamps);
+  }
+
+  private void testNextRun(
+      PriorityMergeReader pointMergeReader,
+      PriorityMergeReader runMergeReader,
+      boolean ascending,
+      long[]... sourceTimestamps)
+      throws IOException {
+    for (int i = 0; i < sourceTimestamps.length; i++) {
+      MergeReaderPriority priority = new MergeReaderPriority(Long.MAX_VALUE, i + 1, 0, false);
+      pointMergeReader.addReader(
+          new ColumnarPointReader(buildTsBlock(sourceTimestamps[i], i, ascending), false),
+          priority,
+          ascending ? Long.MIN_VALUE : Long.MAX_VALUE);
+      runMergeReader.addReader(
+          new ColumnarPointReader(buildTsBlock(sourceTimestamps[i], i, ascending), false),
+          priority,
+          ascending ? Long.MIN_VALUE : Long.MAX_VALUE);
+    }
+
+    TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(TSDataType.INT64));
+    int runCount = 0;
+    while (runMergeReader.hasNextTimeValuePair()) {
+      // stop the runs at 21 to check the run end time is respected
+      int pointCount = runMergeReader.nextRun(builder, () -> 21);
+      if (pointCount == 0) {
+        TimeValuePair timeValuePair = runMergeReader.nextTimeValuePair();
+        builder.getTimeColumnBuilder().writeLong(timeValuePair.getTimestamp());
+        builder.getColumnBuilder(0).writeLong(timeValuePair.getValue().getLong());
+        builder.declarePosition();
+      } else {
+        runCount++;
+      }
+    }
+    assertEquals(0, runMergeReader.getUsedMemorySize());
+    TsBlock tsBlock = builder.build();
+
+    int index = 0;
+    while (pointMergeReader.hasNextTimeValuePair()) {
+      TimeValuePair timeValuePair = pointMergeReader.nextTimeValuePair();
+      assertEquals(timeValuePair.getTimestamp(), tsBlock.getTimeByIndex(index));
+      assertEquals(timeValuePair.getValue().getLong(), tsBlock.getColumn(0).getLong(index));
+      index++;
+    }
+    assertEquals(index, tsBlock.getPositionCount());
+    assertTrue(runCount > 0);
+  }
+
+  private TsBlock buildTsBlock(long[] timestamps, int sourceIndex, boolean ascending) {
+    TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(TSDataType.INT64));
+    for (int i = 0; i < timestamps.length; i++) {
+      long time = timestamps[ascending ? i : timestamps.length - 1 - i];
+      builder.getTimeColumnBuilder().writeLong(time);
+      builder.getColumnBuilder(0).writeLong(sourceIndex * 1000L + time);
+      builder.declarePosition();
+    }
+    return builder.build();
+  }
 }
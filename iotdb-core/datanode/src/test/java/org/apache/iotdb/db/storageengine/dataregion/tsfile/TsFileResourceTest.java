@@ -20,6 +20,7 @@ package org.apache.iotdb.db.storageengine.dataregion.tsfile;
 
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.db.storageengine.dataregion.memtable.WritableMemChunk;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
 import org.apache.iotdb.db.storageengine.dataregion.modification.TreeDeletionEntry;
@@ -32,7 +33,13 @@ import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ITimeIndex;
 import org.apache.iotdb.db.utils.constant.TestConstant;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.write.schema.MeasurementSchema;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -40,6 +47,8 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -95,6 +104,10 @@ public class TsFileResourceTest {
     if (resourceFile.exists()) {
       FileUtils.delete(resourceFile);
     }
+    File rollupFile = TsFileRollup.getRollupFile(file);
+    if (rollupFile.exists()) {
+      FileUtils.delete(rollupFile);
+    }
   }
 
   @Test
@@ -121,6 +134,88 @@ public class TsFileResourceTest {
     }
   }
 
+  @Test
+  public void testSeriesPresenceFilter() {
+    SeriesPresenceFilter.Builder builder = new SeriesPresenceFilter.Builder();
+    for (int i = 0; i < DEVICE_NUM; i += 2) {
+      builder.add(
+          IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d" + i),
+          Arrays.asList(
+              new ChunkMetadata(
+                  "s0", TSDataType.INT32, TSEncoding.RLE, CompressionType.LZ4, 0, null),
+              new ChunkMetadata(
+                  "s1", TSDataType.INT32, TSEncoding.RLE, CompressionType.LZ4, 0, null)));
+    }
+    IDeviceID presentDevice = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d0");
+    Assert.assertFalse(tsFileResource.definitelyNotContains(presentDevice, "s2"));
+
+    tsFileResource.setSeriesPresenceFilter(builder.build());
+    // the filter has no false negative
+    Assert.assertFalse(tsFileResource.definitelyNotContains(presentDevice));
+    Assert.assertFalse(tsFileResource.definitelyNotContains(presentDevice, "s0"));
+    Assert.assertFalse(tsFileResource.definitelyNotContains(presentDevice, "s1"));
+
+    // the filter still answers for the devices after the time index is degraded
+    tsFileResource.degradeTimeIndex();
+    Assert.assertEquals(ITimeIndex.FILE_TIME_INDEX_TYPE, tsFileResource.getTimeIndexType());
+    int filteredDeviceCount = 0;
+    int filteredSeriesCount = 0;
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      IDeviceID device = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d" + i);
+      if (i % 2 == 0) {
+        Assert.assertFalse(tsFileResource.definitelyNotContains(device));
+        Assert.assertFalse(tsFileResource.definitelyNotContains(device, "s0"));
+      } else if (tsFileResource.definitelyNotContains(device)) {
+        filteredDeviceCount++;
+      }
+      if (tsFileResource.definitelyNotContains(device, "s2")) {
+        filteredSeriesCount++;
+      }
+    }
+    // with the default error rate, most of the absent ones are filtered
+    Assert.assertTrue(filteredDeviceCount > DEVICE_NUM / 4);
+    Assert.assertTrue(filteredSeriesCount > DEVICE_NUM / 2);
+  }
+
+  @Test
+  public void testRollup() throws IOException {
+    FileUtils.writeByteArrayToFile(file, new byte[] {1, 2, 3});
+    TsFileRollup rollup = new TsFileRollup(10);
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      WritableMemChunk memChunk =
+          new WritableMemChunk(new MeasurementSchema("s0", TSDataType.INT64));
+      for (long time = 0; time < 25; time++) {
+        memChunk.putLongWithFlushCheck(time, time * i);
+      }
+      memChunk.sortTvListForFlush();
+      TsFileRollup memTableRollup = new TsFileRollup(10);
+      memTableRollup.collect(IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d" + i), memChunk);
+      rollup.merge(memTableRollup);
+    }
+    rollup.serialize(file);
+
+    IDeviceID device = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d3");
+    TsFileRollup.SeriesRollup seriesRollup =
+        TsFileRollup.read(file, device, "s0", TSDataType.INT64);
+    Assert.assertNotNull(seriesRollup);
+    Assert.assertEquals(10, seriesRollup.getInterval());
+    Assert.assertEquals(25, seriesRollup.getCount());
+    List<Statistics<? extends Serializable>> buckets = new ArrayList<>(seriesRollup.getBuckets());
+    Assert.assertEquals(3, buckets.size());
+    Assert.assertEquals(10, buckets.get(1).getStartTime());
+    Assert.assertEquals(19, buckets.get(1).getEndTime());
+    Assert.assertEquals(30L, buckets.get(1).getMinValue());
+    Assert.assertEquals(57L, buckets.get(1).getMaxValue());
+    Assert.assertNull(TsFileRollup.read(file, device, "s1", TSDataType.INT64));
+    Assert.assertNull(TsFileRollup.read(file, device, "s0", TSDataType.DOUBLE));
+    Assert.assertFalse(TsFileRollup.deserialize(file).isEmpty());
+
+    // the rollups are stale once the file is changed
+    FileUtils.writeByteArrayToFile(file, new byte[] {4}, true);
+    Assert.assertNull(TsFileRollup.read(file, device, "s0", TSDataType.INT64));
+    Assert.assertNull(TsFileRollup.deserialize(file));
+  }
+
   @Test
   public void testUpgradeModFileAsync()
       throws IllegalPathException, IOException, InterruptedException {
@@ -25,6 +25,7 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertTabletNode;
 import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALReader;
 import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALFileUtils;
 import org.apache.iotdb.db.utils.constant.TestConstant;
@@ -32,6 +33,7 @@ import org.apache.iotdb.db.utils.constant.TestConstant;
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BitMap;
 import org.apache.tsfile.write.schema.MeasurementSchema;
 import org.junit.After;
 import org.junit.Before;
@@ -39,6 +41,7 @@ import org.junit.Test;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -163,6 +166,77 @@ public abstract class WALBufferCommonTest {
     return node;
   }
 
+  @Test
+  public void testHugeInsertTabletWrite() throws Exception {
+    // each column is larger than the working buffer, so the bulk puts roll the buffer
+    int rowCount = WALBuffer.ONE_THIRD_WAL_BUFFER_SIZE / Long.BYTES + 1;
+    InsertTabletNode insertTabletNode = getInsertTabletNode(devicePath, rowCount);
+    // write two ranges to put the columns from non-zero offsets
+    walBuffer.write(
+        new WALInfoEntry(
+            0,
+            insertTabletNode,
+            Arrays.asList(new int[] {0, rowCount / 3}, new int[] {rowCount / 3, rowCount})));
+    while (!walBuffer.isAllWALEntriesConsumed()) {
+      Thread.sleep(1_000);
+    }
+    Thread.sleep(1_000);
+
+    File[] walFiles = WALFileUtils.listAllWALFiles(new File(logDirectory));
+    List<InsertTabletNode> actualInsertTabletNodes = new ArrayList<>();
+    if (walFiles != null) {
+      for (File walFile : walFiles) {
+        try (WALReader walReader = new WALReader(walFile)) {
+          while (walReader.hasNext()) {
+            actualInsertTabletNodes.add((InsertTabletNode) walReader.next().getValue());
+          }
+        }
+      }
+    }
+    assertEquals(1, actualInsertTabletNodes.size());
+    assertEquals(insertTabletNode, actualInsertTabletNodes.get(0));
+  }
+
+  private InsertTabletNode getInsertTabletNode(String devicePath, int rowCount)
+      throws IllegalPathException {
+    TSDataType[] dataTypes =
+        new TSDataType[] {TSDataType.DOUBLE, TSDataType.FLOAT, TSDataType.INT64, TSDataType.INT32};
+
+    long[] times = new long[rowCount];
+    Object[] columns = new Object[4];
+    columns[0] = new double[rowCount];
+    columns[1] = new float[rowCount];
+    columns[2] = new long[rowCount];
+    columns[3] = new int[rowCount];
+    for (int r = 0; r < rowCount; r++) {
+      times[r] = r;
+      ((double[]) columns[0])[r] = 1.0 + r;
+      ((float[]) columns[1])[r] = 2 + r;
+      ((long[]) columns[2])[r] = 10000L + r;
+      ((int[]) columns[3])[r] = 100 + r;
+    }
+
+    BitMap[] bitMaps = new BitMap[dataTypes.length];
+    MeasurementSchema[] schemas = new MeasurementSchema[dataTypes.length];
+    for (int i = 0; i < dataTypes.length; i++) {
+      bitMaps[i] = new BitMap(rowCount);
+      bitMaps[i].mark(i);
+      schemas[i] = new MeasurementSchema("s" + (i + 1), dataTypes[i]);
+    }
+
+    return new InsertTabletNode(
+        new PlanNodeId(""),
+        new PartialPath(devicePath),
+        false,
+        new String[] {"s1", "s2", "s3", "s4"},
+        dataTypes,
+        schemas,
+        times,
+        bitMaps,
+        columns,
+        rowCount);
+  }
+
   @Test
   public void testHugeWrite() throws Exception {
     // use small buffer (only 32 bytes) to simulate huge write request
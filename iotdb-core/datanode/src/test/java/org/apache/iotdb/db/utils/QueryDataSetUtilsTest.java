@@ -182,4 +182,48 @@ public class QueryDataSetUtilsTest {
         new Binary(BINARY_STR, TSFileConfig.STRING_CHARSET), tsBlock.getColumn(5).getBinary(0));
     assertTrue(tsBlock.getColumn(5).isNull(1));
   }
+
+  @Test
+  public void testReadTabletFromBuffer() {
+    final int size = 3;
+    ByteBuffer buffer = ByteBuffer.allocate(64 + size * (Long.BYTES * 3 + Integer.BYTES * 2));
+    // leading bytes make the values unaligned within the buffer
+    buffer.put((byte) 7);
+    for (int i = 0; i < size; i++) {
+      buffer.putLong(100L + i);
+    }
+    for (int i = 0; i < size; i++) {
+      buffer.putInt(i);
+    }
+    for (int i = 0; i < size; i++) {
+      buffer.putLong(-i);
+    }
+    for (int i = 0; i < size; i++) {
+      buffer.putFloat(i + 0.5f);
+    }
+    for (int i = 0; i < size; i++) {
+      buffer.putDouble(i + 0.25d);
+    }
+    buffer.flip();
+    buffer.get();
+
+    long[] times = QueryDataSetUtils.readTimesFromBuffer(buffer, size);
+    Object[] values =
+        QueryDataSetUtils.readTabletValuesFromBuffer(
+            buffer,
+            new TSDataType[] {
+              TSDataType.INT32, TSDataType.INT64, TSDataType.FLOAT, TSDataType.DOUBLE
+            },
+            4,
+            size);
+
+    assertFalse(buffer.hasRemaining());
+    for (int i = 0; i < size; i++) {
+      assertEquals(100L + i, times[i]);
+      assertEquals(i, ((int[]) values[0])[i]);
+      assertEquals(-i, ((long[]) values[1])[i]);
+      assertEquals(i + 0.5f, ((float[]) values[2])[i], 0);
+      assertEquals(i + 0.25d, ((double[]) values[3])[i], 0);
+    }
+  }
 }
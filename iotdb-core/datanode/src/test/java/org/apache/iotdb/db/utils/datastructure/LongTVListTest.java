@@ -26,8 +26,10 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class LongTVListTest {
 
@@ -76,6 +78,157 @@ public class LongTVListTest {
     }
   }
 
+  @Test
+  public void testSortOutOfOrderSortedBlocks() {
+    Random random = new Random();
+    int blockNum = 20;
+    int blockSize = 500;
+    long[][] blockTimes = new long[blockNum][blockSize];
+    long[][] blockValues = new long[blockNum][blockSize];
+    List<long[]> inputs = new ArrayList<>();
+    // every block is sorted by itself, while the blocks overlap and arrive out of order
+    for (int i = 0; i < blockNum; i++) {
+      long startTime = random.nextInt(blockNum * blockSize);
+      for (int j = 0; j < blockSize; j++) {
+        blockTimes[i][j] = startTime + j * 2L;
+        blockValues[i][j] = (long) i * blockSize + j;
+        inputs.add(new long[] {blockTimes[i][j], blockValues[i][j]});
+      }
+    }
+    // equal timestamps keep the order they are written in
+    inputs.sort((a, b) -> Long.compare(a[0], b[0]));
+
+    List<LongTVList> tvLists = new ArrayList<>();
+    tvLists.add(new TimLongTVList());
+    tvLists.add(new QuickLongTVList());
+    tvLists.add(new BackLongTVList());
+    for (LongTVList tvList : tvLists) {
+      for (int i = 0; i < blockNum; i++) {
+        tvList.putLongs(blockTimes[i], blockValues[i], null, 0, blockSize);
+      }
+      tvList.sort();
+      Assert.assertTrue(tvList.isSorted());
+      Assert.assertEquals(inputs.size(), tvList.rowCount());
+      for (int i = 0; i < tvList.rowCount(); i++) {
+        Assert.assertEquals(inputs.get(i)[0], tvList.getTime(i));
+        if (tvList instanceof TimLongTVList) {
+          Assert.assertEquals(inputs.get(i)[1], tvList.getLong(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCompareSortAlgorithms() {
+    int blockNum = 20;
+    int blockSize = 500;
+    long[] times = new long[blockNum * blockSize];
+    long[] values = new long[blockNum * blockSize];
+    // sorted blocks which overlap their neighbours and arrive out of order, like the tablets
+    // written by several clients
+    for (int i = 0; i < blockNum; i++) {
+      long startTime = (long) (i * 7 % blockNum) * blockSize;
+      for (int j = 0; j < blockSize; j++) {
+        times[i * blockSize + j] = startTime + j * 2L;
+        values[i * blockSize + j] = startTime + j * 2L;
+      }
+    }
+
+    // the number of comparisons is compared instead of the elapsed time, which is not stable
+    AtomicLong comparisons = new AtomicLong();
+    LongTVList timWithRuns =
+        new TimLongTVList() {
+          @Override
+          public int compare(int idx1, int idx2) {
+            comparisons.incrementAndGet();
+            return super.compare(idx1, idx2);
+          }
+        };
+    for (int i = 0; i < blockNum; i++) {
+      timWithRuns.putLongs(times, values, null, i * blockSize, (i + 1) * blockSize);
+    }
+    long timWithRunsComparisons = sortAndCount(timWithRuns, comparisons);
+
+    LongTVList timWithoutRuns =
+        new TimLongTVList() {
+          @Override
+          public int compare(int idx1, int idx2) {
+            comparisons.incrementAndGet();
+            return super.compare(idx1, idx2);
+          }
+        };
+    // the blocks are appended at once, so the sorted runs are unknown
+    timWithoutRuns.putLongs(times, values, null, 0, times.length);
+    long timWithoutRunsComparisons = sortAndCount(timWithoutRuns, comparisons);
+
+    LongTVList quick =
+        new QuickLongTVList() {
+          @Override
+          public int compare(int idx1, int idx2) {
+            comparisons.incrementAndGet();
+            return super.compare(idx1, idx2);
+          }
+        };
+    quick.putLongs(times, values, null, 0, times.length);
+    long quickComparisons = sortAndCount(quick, comparisons);
+
+    LongTVList backward =
+        new BackLongTVList() {
+          @Override
+          public int compare(int idx1, int idx2) {
+            comparisons.incrementAndGet();
+            return super.compare(idx1, idx2);
+          }
+
+          @Override
+          public int compareTmp(int idx, int tmpIdx) {
+            comparisons.incrementAndGet();
+            return super.compareTmp(idx, tmpIdx);
+          }
+        };
+    backward.putLongs(times, values, null, 0, times.length);
+    long backwardComparisons = sortAndCount(backward, comparisons);
+
+    long[] sortedTimes = times.clone();
+    Arrays.sort(sortedTimes);
+    for (LongTVList tvList : Arrays.asList(timWithRuns, timWithoutRuns, quick, backward)) {
+      Assert.assertEquals(sortedTimes.length, tvList.rowCount());
+      for (int i = 0; i < sortedTimes.length; i++) {
+        Assert.assertEquals(sortedTimes[i], tvList.getTime(i));
+        Assert.assertEquals(sortedTimes[i], tvList.getLong(i));
+      }
+    }
+    // merging the known runs beats sorting from scratch, which beats the other algorithms on
+    // the nearly sorted data
+    Assert.assertTrue(timWithRunsComparisons < timWithoutRunsComparisons);
+    Assert.assertTrue(timWithoutRunsComparisons < quickComparisons);
+    Assert.assertTrue(timWithoutRunsComparisons < backwardComparisons);
+  }
+
+  private long sortAndCount(LongTVList tvList, AtomicLong comparisons) {
+    comparisons.set(0);
+    tvList.sort();
+    return comparisons.get();
+  }
+
+  @Test
+  public void testSortAfterSortedRunsAbandoned() {
+    LongTVList tvList = new TimLongTVList();
+    long[] times = new long[] {5, 6, 7, 1, 2, 3, 10, 9, 8};
+    long[] values = new long[] {5, 6, 7, 1, 2, 3, 10, 9, 8};
+    tvList.putLongs(times, values, null, 0, 3);
+    tvList.putLongs(times, values, null, 3, 6);
+    Assert.assertFalse(tvList.isSorted());
+    // an unsorted block makes the list fall back to sorting from scratch
+    tvList.putLongs(times, values, null, 6, 9);
+    tvList.putLong(4, 4);
+    tvList.sort();
+    for (int i = 0; i < tvList.rowCount(); i++) {
+      Assert.assertEquals(i + 1, tvList.getTime(i));
+      Assert.assertEquals(i + 1, tvList.getLong(i));
+    }
+  }
+
   @Test
   public void testPutLongsWithoutBitMap() {
     LongTVList tvList = LongTVList.newList();
@@ -20,10 +20,14 @@
 package org.apache.iotdb.metrics.core;
 
 import org.apache.iotdb.metrics.AbstractMetricManager;
+import org.apache.iotdb.metrics.config.MetricConfig;
+import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
 import org.apache.iotdb.metrics.core.type.IoTDBAutoGauge;
 import org.apache.iotdb.metrics.core.type.IoTDBCounter;
 import org.apache.iotdb.metrics.core.type.IoTDBGauge;
 import org.apache.iotdb.metrics.core.type.IoTDBHistogram;
+import org.apache.iotdb.metrics.core.type.IoTDBLogLinearHistogram;
+import org.apache.iotdb.metrics.core.type.IoTDBLogLinearTimer;
 import org.apache.iotdb.metrics.core.type.IoTDBRate;
 import org.apache.iotdb.metrics.core.type.IoTDBTimer;
 import org.apache.iotdb.metrics.type.AutoGauge;
@@ -32,6 +36,7 @@ import org.apache.iotdb.metrics.type.Gauge;
 import org.apache.iotdb.metrics.type.Histogram;
 import org.apache.iotdb.metrics.type.Rate;
 import org.apache.iotdb.metrics.type.Timer;
+import org.apache.iotdb.metrics.utils.HistogramType;
 import org.apache.iotdb.metrics.utils.MetricInfo;
 import org.apache.iotdb.metrics.utils.MetricType;
 
@@ -48,6 +53,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.ToDoubleFunction;
 
 public class IoTDBMetricManager extends AbstractMetricManager {
+  private static final MetricConfig METRIC_CONFIG =
+      MetricConfigDescriptor.getInstance().getMetricConfig();
 
   /** The clock which is used in Metric system */
   private final Clock clock = Clock.SYSTEM;
@@ -94,6 +101,9 @@ public class IoTDBMetricManager extends AbstractMetricManager {
 
   @Override
   public Histogram createHistogram() {
+    if (METRIC_CONFIG.getHistogramType() == HistogramType.LOG_LINEAR) {
+      return new IoTDBLogLinearHistogram();
+    }
     // create distributionSummary
     io.micrometer.core.instrument.DistributionSummary distributionSummary =
         new CumulativeDistributionSummary(
@@ -109,6 +119,9 @@ public class IoTDBMetricManager extends AbstractMetricManager {
 
   @Override
   public Timer createTimer() {
+    if (METRIC_CONFIG.getHistogramType() == HistogramType.LOG_LINEAR) {
+      return new IoTDBLogLinearTimer();
+    }
     // set pauseDetector
     PauseDetector pauseDetector = new NoPauseDetector();
 
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.metrics.core.type;
+
+import org.apache.iotdb.metrics.core.utils.LogLinearBuckets;
+import org.apache.iotdb.metrics.type.Histogram;
+import org.apache.iotdb.metrics.type.HistogramSnapshot;
+import org.apache.iotdb.metrics.utils.AbstractMetricMBean;
+
+/** Histogram backed by {@link LogLinearBuckets}, whose update is lock-free and allocation-free. */
+public class IoTDBLogLinearHistogram extends AbstractMetricMBean
+    implements Histogram, IoTDBLogLinearHistogramMBean {
+
+  private final LogLinearBuckets buckets = new LogLinearBuckets();
+
+  @Override
+  public void update(long value) {
+    buckets.record(value);
+  }
+
+  @Override
+  public long getCount() {
+    return buckets.getCount();
+  }
+
+  @Override
+  public HistogramSnapshot takeSnapshot() {
+    return new IoTDBLogLinearHistogramSnapshot(buckets, 1.0);
+  }
+
+  /** Add all values recorded by another histogram into this one. */
+  public void merge(IoTDBLogLinearHistogram other) {
+    buckets.merge(other.buckets);
+  }
+
+  @Override
+  public double getMax() {
+    return buckets.getMax();
+  }
+
+  @Override
+  public double getMean() {
+    long count = buckets.getCount();
+    return count == 0 ? 0 : (double) buckets.getSum() / count;
+  }
+
+  @Override
+  public int getSize() {
+    return takeSnapshot().size();
+  }
+
+  @Override
+  public double get50thPercentile() {
+    return takeSnapshot().getValue(0.5);
+  }
+
+  @Override
+  public double get99thPercentile() {
+    return takeSnapshot().getValue(0.99);
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.metrics.core.type;
+
+import org.apache.iotdb.metrics.core.utils.LogLinearBuckets;
+import org.apache.iotdb.metrics.type.BucketedHistogramSnapshot;
+
+import javax.management.ObjectName;
+
+/** The snapshot of {@link LogLinearBuckets}, values are multiplied by scale when reported. */
+public class IoTDBLogLinearHistogramSnapshot implements BucketedHistogramSnapshot {
+
+  /**
+   * The groups exported as buckets, one per power of four. The set is fixed so that every scrape
+   * reports the same buckets, and the last groups are only counted by the +Inf bucket.
+   */
+  private static final int EXPORTED_GROUP_STEP = 2;
+
+  private static final int EXPORTED_BUCKET_NUM =
+      (LogLinearBuckets.GROUP_NUM - 1) / EXPORTED_GROUP_STEP;
+
+  private final long[] counts;
+  private final long count;
+  private final double sum;
+  private final double max;
+  private final double scale;
+
+  public IoTDBLogLinearHistogramSnapshot(LogLinearBuckets buckets, double scale) {
+    this.counts = buckets.copyCounts();
+    long total = 0;
+    for (long bucketCount : counts) {
+      total += bucketCount;
+    }
+    this.count = total;
+    this.sum = buckets.getSum() * scale;
+    this.max = buckets.getMax() * scale;
+    this.scale = scale;
+  }
+
+  @Override
+  public double getValue(double quantile) {
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(quantile * count));
+    long accumulated = 0;
+    for (int i = 0; i < counts.length; i++) {
+      accumulated += counts[i];
+      if (accumulated >= rank) {
+        return Math.min(LogLinearBuckets.upperBoundOf(i) * scale, max);
+      }
+    }
+    return max;
+  }
+
+  @Override
+  public double getSum() {
+    return sum;
+  }
+
+  @Override
+  public int size() {
+    return (int) Math.min(Integer.MAX_VALUE, count);
+  }
+
+  @Override
+  public double getMean() {
+    return count == 0 ? 0 : sum / count;
+  }
+
+  @Override
+  public double getMax() {
+    return max;
+  }
+
+  @Override
+  public long getCount() {
+    return count;
+  }
+
+  /** The same buckets for every snapshot, whatever values were recorded. */
+  @Override
+  public double[] getBucketUpperBounds() {
+    double[] upperBounds = new double[EXPORTED_BUCKET_NUM];
+    for (int bucket = 0; bucket < EXPORTED_BUCKET_NUM; bucket++) {
+      upperBounds[bucket] =
+          LogLinearBuckets.groupUpperBoundOf(bucket * EXPORTED_GROUP_STEP) * scale;
+    }
+    return upperBounds;
+  }
+
+  @Override
+  public long[] getCumulativeCounts() {
+    int subBucketNum = LogLinearBuckets.subBucketNum();
+    long[] cumulativeCounts = new long[EXPORTED_BUCKET_NUM];
+    long accumulated = 0;
+    int index = 0;
+    for (int bucket = 0; bucket < EXPORTED_BUCKET_NUM; bucket++) {
+      int end = (bucket * EXPORTED_GROUP_STEP + 1) * subBucketNum;
+      for (; index < end; index++) {
+        accumulated += counts[index];
+      }
+      cumulativeCounts[bucket] = accumulated;
+    }
+    return cumulativeCounts;
+  }
+
+  @Override
+  public void setObjectName(ObjectName objectName) {
+    // empty body
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.metrics.core.type;
+
+import org.apache.iotdb.metrics.core.utils.LogLinearBuckets;
+import org.apache.iotdb.metrics.type.HistogramSnapshot;
+import org.apache.iotdb.metrics.type.Timer;
+import org.apache.iotdb.metrics.utils.AbstractMetricMBean;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer backed by {@link LogLinearBuckets}. Durations are recorded in nanoseconds and reported in
+ * seconds, the same unit as {@link IoTDBTimer}.
+ */
+public class IoTDBLogLinearTimer extends AbstractMetricMBean
+    implements Timer, IoTDBLogLinearTimerMBean {
+
+  private static final double NANOS_TO_SECONDS = 1.0 / TimeUnit.SECONDS.toNanos(1);
+
+  private final LogLinearBuckets buckets = new LogLinearBuckets();
+
+  @Override
+  public void update(long duration, TimeUnit unit) {
+    buckets.record(unit.toNanos(duration));
+  }
+
+  @Override
+  public void updateNanos(long durationNanos) {
+    buckets.record(durationNanos);
+  }
+
+  @Override
+  public HistogramSnapshot takeSnapshot() {
+    return new IoTDBLogLinearHistogramSnapshot(buckets, NANOS_TO_SECONDS);
+  }
+
+  /** Add all durations recorded by another timer into this one. */
+  public void merge(IoTDBLogLinearTimer other) {
+    buckets.merge(other.buckets);
+  }
+
+  @Override
+  public long getCount() {
+    return buckets.getCount();
+  }
+
+  @Override
+  public double getSum() {
+    return buckets.getSum() * NANOS_TO_SECONDS;
+  }
+
+  @Override
+  public double getMax() {
+    return buckets.getMax() * NANOS_TO_SECONDS;
+  }
+
+  @Override
+  public double getMean() {
+    long count = buckets.getCount();
+    return count == 0 ? 0 : getSum() / count;
+  }
+
+  @Override
+  public int getSize() {
+    return takeSnapshot().size();
+  }
+
+  @Override
+  public double get50thPercentile() {
+    return takeSnapshot().getValue(0.5);
+  }
+
+  @Override
+  public double get99thPercentile() {
+    return takeSnapshot().getValue(0.99);
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.metrics.core.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free log-linear bucketed histogram of non-negative long values.
+ *
+ * <p>Values below 2^{@link #SUB_BUCKET_BITS} are counted exactly. Larger values are grouped by
+ * their highest set bit, and every group is split into 2^{@link #SUB_BUCKET_BITS} linear buckets,
+ * so the relative error of any recorded value is bounded by 2^-{@link #SUB_BUCKET_BITS} (about 3%)
+ * over the whole positive long range. The counters of a group are allocated when the first value
+ * falls into it, which bounds the memory to 59 groups of 32 counters and keeps {@link
+ * #record(long)} allocation-free once the recorded range is warmed up. Two instances can be merged
+ * by adding their counters.
+ */
+public class LogLinearBuckets {
+
+  public static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKET_NUM = 1 << SUB_BUCKET_BITS;
+
+  /** Group 0 holds [0, 2^5) exactly, group g >= 1 holds [2^(g+4), 2^(g+5)). */
+  public static final int GROUP_NUM = Long.SIZE - SUB_BUCKET_BITS;
+
+  private final AtomicReferenceArray<AtomicLongArray> groups =
+      new AtomicReferenceArray<>(GROUP_NUM);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong(0);
+
+  /** Record one value, negative values are recorded as 0. */
+  public void record(long value) {
+    if (value < 0) {
+      value = 0;
+    }
+    int group = groupOf(value);
+    counters(group).incrementAndGet(subBucketOf(value, group));
+    count.increment();
+    sum.add(value);
+    long currentMax;
+    while (value > (currentMax = max.get())) {
+      if (max.compareAndSet(currentMax, value)) {
+        break;
+      }
+    }
+  }
+
+  /** Add all values recorded by another instance into this one. */
+  public void merge(LogLinearBuckets other) {
+    for (int group = 0; group < GROUP_NUM; group++) {
+      AtomicLongArray otherCounters = other.groups.get(group);
+      if (otherCounters == null) {
+        continue;
+      }
+      AtomicLongArray counters = counters(group);
+      for (int i = 0; i < SUB_BUCKET_NUM; i++) {
+        long delta = otherCounters.get(i);
+        if (delta != 0) {
+          counters.addAndGet(i, delta);
+        }
+      }
+    }
+    count.add(other.count.sum());
+    sum.add(other.sum.sum());
+    long otherMax = other.max.get();
+    long currentMax;
+    while (otherMax > (currentMax = max.get())) {
+      if (max.compareAndSet(currentMax, otherMax)) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Copy the counters of all buckets, indexed by {@code group * 2^SUB_BUCKET_BITS + subBucket}.
+   * The copy is not atomic with respect to concurrent updates, which is acceptable for reporting.
+   */
+  public long[] copyCounts() {
+    long[] result = new long[GROUP_NUM * SUB_BUCKET_NUM];
+    for (int group = 0; group < GROUP_NUM; group++) {
+      AtomicLongArray counters = groups.get(group);
+      if (counters == null) {
+        continue;
+      }
+      for (int i = 0; i < SUB_BUCKET_NUM; i++) {
+        result[group * SUB_BUCKET_NUM + i] = counters.get(i);
+      }
+    }
+    return result;
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getSum() {
+    return sum.sum();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  private AtomicLongArray counters(int group) {
+    AtomicLongArray counters = groups.get(group);
+    if (counters == null) {
+      groups.compareAndSet(group, null, new AtomicLongArray(SUB_BUCKET_NUM));
+      counters = groups.get(group);
+    }
+    return counters;
+  }
+
+  public static int groupOf(long value) {
+    if (value < SUB_BUCKET_NUM) {
+      return 0;
+    }
+    return Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+  }
+
+  private static int subBucketOf(long value, int group) {
+    if (group == 0) {
+      return (int) value;
+    }
+    return (int) (value >>> (group - 1)) - SUB_BUCKET_NUM;
+  }
+
+  /** The smallest value that falls into the bucket with the given index. */
+  public static long lowerBoundOf(int index) {
+    int group = index / SUB_BUCKET_NUM;
+    long subBucket = index % SUB_BUCKET_NUM;
+    return group == 0 ? subBucket : (SUB_BUCKET_NUM + subBucket) << (group - 1);
+  }
+
+  /** The largest value that falls into the bucket with the given index. */
+  public static long upperBoundOf(int index) {
+    int group = index / SUB_BUCKET_NUM;
+    return group == 0 ? lowerBoundOf(index) : lowerBoundOf(index) + (1L << (group - 1)) - 1;
+  }
+
+  /** The largest value that falls into the given group. */
+  public static long groupUpperBoundOf(int group) {
+    return upperBoundOf(group * SUB_BUCKET_NUM + SUB_BUCKET_NUM - 1);
+  }
+
+  public static int subBucketNum() {
+    return SUB_BUCKET_NUM;
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.metrics.core.type;
+
+import org.apache.iotdb.metrics.core.utils.LogLinearBuckets;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IoTDBLogLinearHistogramSnapshotTest {
+
+  @Test
+  public void testQuantileError() {
+    int valueNum = 100_000;
+    LogLinearBuckets buckets = new LogLinearBuckets();
+    for (long value = 1; value <= valueNum; value++) {
+      buckets.record(value);
+    }
+    IoTDBLogLinearHistogramSnapshot snapshot = new IoTDBLogLinearHistogramSnapshot(buckets, 1.0);
+    for (double quantile : new double[] {0.01, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999}) {
+      double expected = Math.ceil(quantile * valueNum);
+      double actual = snapshot.getValue(quantile);
+      assertTrue(actual >= expected);
+      assertTrue(
+          quantile + ": " + actual,
+          (actual - expected) / expected <= 1.0 / LogLinearBuckets.subBucketNum());
+    }
+    assertEquals(valueNum, snapshot.getValue(1.0), 0);
+    assertEquals(valueNum, snapshot.getMax(), 0);
+    assertEquals(valueNum, snapshot.getCount());
+    assertEquals((valueNum + 1) / 2.0, snapshot.getMean(), 1e-9);
+  }
+
+  @Test
+  public void testFixedBuckets() {
+    LogLinearBuckets buckets = new LogLinearBuckets();
+    IoTDBLogLinearHistogramSnapshot empty = new IoTDBLogLinearHistogramSnapshot(buckets, 1.0);
+    buckets.record(0);
+    buckets.record(100);
+    buckets.record(1L << 40);
+    buckets.record(Long.MAX_VALUE);
+    IoTDBLogLinearHistogramSnapshot snapshot = new IoTDBLogLinearHistogramSnapshot(buckets, 1.0);
+
+    double[] upperBounds = snapshot.getBucketUpperBounds();
+    assertArrayEquals(empty.getBucketUpperBounds(), upperBounds, 0);
+    long[] cumulativeCounts = snapshot.getCumulativeCounts();
+    assertEquals(upperBounds.length, cumulativeCounts.length);
+    for (int i = 0; i < upperBounds.length; i++) {
+      long expected = 0;
+      for (long value : new long[] {0, 100, 1L << 40, Long.MAX_VALUE}) {
+        if (value <= upperBounds[i]) {
+          expected++;
+        }
+      }
+      assertEquals(expected, cumulativeCounts[i]);
+      assertEquals(0, empty.getCumulativeCounts()[i]);
+    }
+    // the largest values are only counted by the +Inf bucket
+    assertEquals(3, cumulativeCounts[cumulativeCounts.length - 1]);
+    assertEquals(4, snapshot.getCount());
+  }
+
+  @Test
+  public void testScale() {
+    LogLinearBuckets buckets = new LogLinearBuckets();
+    buckets.record(1000);
+    IoTDBLogLinearHistogramSnapshot snapshot = new IoTDBLogLinearHistogramSnapshot(buckets, 1e-3);
+    assertEquals(1.0, snapshot.getMax(), 1e-9);
+    assertEquals(1.0, snapshot.getSum(), 1e-9);
+    assertEquals(
+        LogLinearBuckets.groupUpperBoundOf(0) * 1e-3, snapshot.getBucketUpperBounds()[0], 1e-12);
+    assertTrue(snapshot.getValue(0.5) <= 1.0);
+  }
+}
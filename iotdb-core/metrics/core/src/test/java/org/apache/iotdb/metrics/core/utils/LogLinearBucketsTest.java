@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.metrics.core.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LogLinearBucketsTest {
+
+  private static final int BUCKET_NUM =
+      LogLinearBuckets.GROUP_NUM * LogLinearBuckets.subBucketNum();
+
+  @Test
+  public void testBucketBounds() {
+    assertEquals(0, LogLinearBuckets.lowerBoundOf(0));
+    assertEquals(Long.MAX_VALUE, LogLinearBuckets.upperBoundOf(BUCKET_NUM - 1));
+    for (int i = 0; i < BUCKET_NUM; i++) {
+      long lowerBound = LogLinearBuckets.lowerBoundOf(i);
+      long upperBound = LogLinearBuckets.upperBoundOf(i);
+      assertTrue(lowerBound <= upperBound);
+      if (i + 1 < BUCKET_NUM) {
+        assertEquals(upperBound + 1, LogLinearBuckets.lowerBoundOf(i + 1));
+      }
+      // the width of a bucket is at most 2^-SUB_BUCKET_BITS of its values
+      assertTrue(
+          (upperBound - lowerBound) * LogLinearBuckets.subBucketNum() <= Math.max(1, lowerBound));
+    }
+  }
+
+  @Test
+  public void testBucketIndex() {
+    List<Long> values = new ArrayList<>();
+    for (long value = 0; value < 1000; value++) {
+      values.add(value);
+    }
+    for (int bit = 5; bit < Long.SIZE - 1; bit++) {
+      values.add((1L << bit) - 1);
+      values.add(1L << bit);
+      values.add((1L << bit) + 1);
+    }
+    values.add(Long.MAX_VALUE);
+    for (long value : values) {
+      LogLinearBuckets buckets = new LogLinearBuckets();
+      buckets.record(value);
+      int index = indexOf(buckets);
+      assertEquals(LogLinearBuckets.groupOf(value), index / LogLinearBuckets.subBucketNum());
+      assertTrue(LogLinearBuckets.lowerBoundOf(index) <= value);
+      assertTrue(value <= LogLinearBuckets.upperBoundOf(index));
+    }
+  }
+
+  @Test
+  public void testRecordNegativeValue() {
+    LogLinearBuckets buckets = new LogLinearBuckets();
+    buckets.record(-10);
+    assertEquals(0, indexOf(buckets));
+    assertEquals(1, buckets.getCount());
+    assertEquals(0, buckets.getSum());
+    assertEquals(0, buckets.getMax());
+  }
+
+  @Test
+  public void testConcurrentRecord() throws InterruptedException {
+    int threadNum = 8;
+    int valueNum = 100_000;
+    LogLinearBuckets buckets = new LogLinearBuckets();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < threadNum; t++) {
+      Thread thread =
+          new Thread(
+              () -> {
+                try {
+                  start.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return;
+                }
+                for (int i = 0; i < valueNum; i++) {
+                  buckets.record(i);
+                }
+              });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    LogLinearBuckets expected = new LogLinearBuckets();
+    for (int i = 0; i < valueNum; i++) {
+      expected.record(i);
+    }
+    long[] expectedCounts = expected.copyCounts();
+    long[] counts = buckets.copyCounts();
+    for (int i = 0; i < BUCKET_NUM; i++) {
+      assertEquals(expectedCounts[i] * threadNum, counts[i]);
+    }
+    assertEquals((long) valueNum * threadNum, buckets.getCount());
+    assertEquals(expected.getSum() * threadNum, buckets.getSum());
+    assertEquals(valueNum - 1, buckets.getMax());
+  }
+
+  @Test
+  public void testMerge() {
+    LogLinearBuckets left = new LogLinearBuckets();
+    LogLinearBuckets right = new LogLinearBuckets();
+    for (long value = 0; value < 10_000; value++) {
+      left.record(value);
+      right.record(value * 1000);
+    }
+    long[] leftCounts = left.copyCounts();
+    long[] rightCounts = right.copyCounts();
+
+    left.merge(right);
+    long[] counts = left.copyCounts();
+    for (int i = 0; i < BUCKET_NUM; i++) {
+      assertEquals(leftCounts[i] + rightCounts[i], counts[i]);
+    }
+    assertEquals(20_000, left.getCount());
+    assertEquals(9999L * 10_000 / 2 * 1001, left.getSum());
+    assertEquals(9_999_000, left.getMax());
+    // the merged instance is unchanged
+    assertEquals(10_000, right.getCount());
+  }
+
+  private static int indexOf(LogLinearBuckets buckets) {
+    long[] counts = buckets.copyCounts();
+    int index = -1;
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] != 0) {
+        assertEquals(-1, index);
+        index = i;
+      }
+    }
+    return index;
+  }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.metrics.config;
 
+import org.apache.iotdb.metrics.utils.HistogramType;
 import org.apache.iotdb.metrics.utils.InternalReporterType;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.NodeType;
@@ -46,6 +47,9 @@ public class MetricConfig {
   /** The period of async collection of some metrics in second. */
   private Integer asyncCollectPeriodInSecond = 5;
 
+  /** The implementation of histograms and timers. */
+  private HistogramType histogramType = HistogramType.SAMPLING;
+
   /** The export port for prometheus to get metrics. */
   private Integer prometheusReporterPort = 9091;
 
@@ -119,6 +123,14 @@ public class MetricConfig {
     this.asyncCollectPeriodInSecond = asyncCollectPeriodInSecond;
   }
 
+  public HistogramType getHistogramType() {
+    return histogramType;
+  }
+
+  public void setHistogramType(HistogramType histogramType) {
+    this.histogramType = histogramType;
+  }
+
   public Integer getPrometheusReporterPort() {
     return prometheusReporterPort;
   }
@@ -180,6 +192,7 @@ public class MetricConfig {
     metricReporterList = newMetricConfig.getMetricReporterList();
     metricLevel = newMetricConfig.getMetricLevel();
     asyncCollectPeriodInSecond = newMetricConfig.getAsyncCollectPeriodInSecond();
+    histogramType = newMetricConfig.getHistogramType();
     prometheusReporterPort = newMetricConfig.getPrometheusReporterPort();
     internalReporterType = newMetricConfig.getInternalReportType();
 
@@ -195,6 +208,7 @@ public class MetricConfig {
     return metricReporterList.equals(anotherMetricConfig.getMetricReporterList())
         && metricLevel.equals(anotherMetricConfig.getMetricLevel())
         && asyncCollectPeriodInSecond.equals(anotherMetricConfig.getAsyncCollectPeriodInSecond())
+        && histogramType.equals(anotherMetricConfig.getHistogramType())
         && prometheusReporterPort.equals(anotherMetricConfig.getPrometheusReporterPort())
         && iotdbReporterConfig.equals(anotherMetricConfig.getIoTDBReporterConfig())
         && internalReporterType.equals(anotherMetricConfig.getInternalReportType());
@@ -206,6 +220,7 @@ public class MetricConfig {
         metricReporterList,
         metricLevel,
         asyncCollectPeriodInSecond,
+        histogramType,
         prometheusReporterPort,
         iotdbReporterConfig,
         internalReporterType);
@@ -20,6 +20,7 @@
 package org.apache.iotdb.metrics.config;
 
 import org.apache.iotdb.metrics.config.MetricConfig.IoTDBReporterConfig;
+import org.apache.iotdb.metrics.utils.HistogramType;
 import org.apache.iotdb.metrics.utils.InternalReporterType;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.ReporterType;
@@ -55,7 +56,8 @@ public class MetricConfigDescriptor {
       if (!metricConfig.getMetricLevel().equals(newMetricConfig.getMetricLevel())
           || !metricConfig
               .getAsyncCollectPeriodInSecond()
-              .equals(newMetricConfig.getAsyncCollectPeriodInSecond())) {
+              .equals(newMetricConfig.getAsyncCollectPeriodInSecond())
+          || !metricConfig.getHistogramType().equals(newMetricConfig.getHistogramType())) {
         // restart metric service
         reloadLevel = ReloadLevel.RESTART_METRIC;
       } else if (!metricConfig
@@ -104,6 +106,14 @@ public class MetricConfigDescriptor {
                 properties,
                 isConfigNode)));
 
+    loadConfig.setHistogramType(
+        HistogramType.valueOf(
+            getProperty(
+                "metric_histogram_type",
+                String.valueOf(loadConfig.getHistogramType()),
+                properties,
+                isConfigNode)));
+
     loadConfig.setPrometheusReporterPort(
         Integer.parseInt(
             getProperty(
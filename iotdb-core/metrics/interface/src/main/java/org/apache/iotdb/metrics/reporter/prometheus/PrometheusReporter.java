@@ -24,6 +24,7 @@ import org.apache.iotdb.metrics.config.MetricConfig;
 import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
 import org.apache.iotdb.metrics.reporter.Reporter;
 import org.apache.iotdb.metrics.type.AutoGauge;
+import org.apache.iotdb.metrics.type.BucketedHistogramSnapshot;
 import org.apache.iotdb.metrics.type.Counter;
 import org.apache.iotdb.metrics.type.Gauge;
 import org.apache.iotdb.metrics.type.Histogram;
@@ -185,6 +186,10 @@ public class PrometheusReporter implements Reporter {
       long count,
       PrometheusTextWriter prometheusTextWriter)
       throws IOException {
+    if (snapshot instanceof BucketedHistogramSnapshot) {
+      writeBuckets(name, tags, (BucketedHistogramSnapshot) snapshot, prometheusTextWriter);
+      return;
+    }
     prometheusTextWriter.writeHelp(name);
     prometheusTextWriter.writeType(name, type);
     prometheusTextWriter.writeSample(name + "_max", tags, snapshot.getMax());
@@ -197,6 +202,28 @@ public class PrometheusReporter implements Reporter {
         name, addTags(tags, "quantile", "0.99"), snapshot.getValue(0.99));
   }
 
+  private void writeBuckets(
+      String name,
+      Map<String, String> tags,
+      BucketedHistogramSnapshot snapshot,
+      PrometheusTextWriter prometheusTextWriter)
+      throws IOException {
+    prometheusTextWriter.writeHelp(name);
+    prometheusTextWriter.writeHistogramType(name);
+    double[] upperBounds = snapshot.getBucketUpperBounds();
+    long[] cumulativeCounts = snapshot.getCumulativeCounts();
+    for (int i = 0; i < upperBounds.length; i++) {
+      prometheusTextWriter.writeSample(
+          name + "_bucket",
+          addTags(tags, "le", String.valueOf(upperBounds[i])),
+          cumulativeCounts[i]);
+    }
+    prometheusTextWriter.writeSample(
+        name + "_bucket", addTags(tags, "le", "+Inf"), snapshot.getCount());
+    prometheusTextWriter.writeSample(name + "_sum", tags, snapshot.getSum());
+    prometheusTextWriter.writeSample(name + "_count", tags, snapshot.getCount());
+  }
+
   private Map<String, String> addTags(Map<String, String> tags, String key, String value) {
     HashMap<String, String> result = new HashMap<>(tags);
     result.put(key, value);
@@ -65,6 +65,13 @@ class PrometheusTextWriter extends FilterWriter {
     write('\n');
   }
 
+  /** Histograms and timers with bucketed snapshots are exported as prometheus histograms. */
+  public void writeHistogramType(String name) throws IOException {
+    write("# TYPE ");
+    write(name);
+    write(" histogram\n");
+  }
+
   public void writeSample(String name, Map<String, String> labels, Object value)
       throws IOException {
     write(name);
@@ -20,6 +20,7 @@
 package org.apache.iotdb.metrics.config;
 
 import org.apache.iotdb.metrics.config.MetricConfig.IoTDBReporterConfig;
+import org.apache.iotdb.metrics.utils.HistogramType;
 import org.apache.iotdb.metrics.utils.InternalReporterType;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 
@@ -74,6 +75,7 @@ public class MetricConfigTest {
     properties.setProperty("dn_metric_reporter_list", "JMX,PROMETHEUS,IOTDB");
     properties.setProperty("dn_metric_level", "ALL");
     properties.setProperty("dn_metric_async_collect_period", "10");
+    properties.setProperty("dn_metric_histogram_type", "LOG_LINEAR");
     properties.setProperty("dn_metric_prometheus_reporter_port", "9090");
     properties.setProperty("dn_metric_iotdb_reporter_host", "0.0.0.0");
     properties.setProperty("dn_metric_iotdb_reporter_port", "6669");
@@ -102,5 +104,6 @@ public class MetricConfigTest {
     assertEquals("metric", reporterConfig.getLocation());
     assertEquals(5, (int) reporterConfig.getPushPeriodInSecond());
     assertEquals(InternalReporterType.IOTDB, metricConfig.getInternalReportType());
+    assertEquals(HistogramType.LOG_LINEAR, metricConfig.getHistogramType());
   }
 }
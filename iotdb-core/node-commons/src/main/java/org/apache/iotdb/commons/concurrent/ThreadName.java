@@ -34,6 +34,8 @@ public enum ThreadName {
   FRAGMENT_INSTANCE_MANAGEMENT("Fragment-Instance-Management"),
   FRAGMENT_INSTANCE_NOTIFICATION("Fragment-Instance-Notification"),
   DRIVER_TASK_SCHEDULER_NOTIFICATION("Driver-Task-Scheduler-Notification"),
+  QUERY_CHUNK_PREFETCH("Query-Chunk-Prefetch"),
+  TIER_CACHE_PREFETCH("Tier-Cache-Prefetch"),
   // -------------------------- MPP --------------------------
   MPP_COORDINATOR_SCHEDULED_EXECUTOR("MPP-Coordinator-Scheduled-Executor"),
   MPP_DATA_EXCHANGE_TASK_EXECUTOR("MPP-Data-Exchange-Task-Executors"),
@@ -145,6 +147,7 @@ public enum ThreadName {
   PIPE_ASYNC_CONNECTOR_CLIENT_POOL("Pipe-Async-Connector-Client-Pool"),
   PIPE_RECEIVER_AIR_GAP_AGENT("Pipe-Receiver-Air-Gap-Agent"),
   PIPE_AIR_GAP_RECEIVER("Pipe-Air-Gap-Receiver"),
+  PIPE_TSFILE_PARALLEL_PARSER("Pipe-TsFile-Parallel-Parser"),
   SUBSCRIPTION_EXECUTOR_POOL("Subscription-Executor-Pool"),
   SUBSCRIPTION_RUNTIME_META_SYNCER("Subscription-Runtime-Meta-Syncer"),
   WINDOW_EVALUATION_SERVICE("WindowEvaluationTaskPoolManager"),
@@ -181,8 +184,10 @@ public enum ThreadName {
   ACTIVE_LOAD_DIR_SCANNER("Active-Load-Dir-Scanner"),
   ACTIVE_LOAD_METRICS_COLLECTOR("Active-Load-Metrics-Collector"),
   SETTLE("Settle"),
+  TIER_MIGRATION("Tier-Migration"),
   INFLUXDB_RPC_SERVICE("InfluxdbRPC-Service"),
   INFLUXDB_RPC_PROCESSOR("InfluxdbRPC-Processor"),
+  MQTT_BATCH_FLUSHER("MQTT-Batch-Flusher"),
   STORAGE_ENGINE_CACHED_POOL("StorageEngine"),
   AINODE_RPC_SERVICE("AINodeRpc-Service"),
   DATANODE_SHUTDOWN_HOOK("DataNode-Shutdown-Hook"),
@@ -206,7 +211,9 @@ public enum ThreadName {
               TIMED_QUERY_SQL_COUNT,
               FRAGMENT_INSTANCE_MANAGEMENT,
               FRAGMENT_INSTANCE_NOTIFICATION,
-              DRIVER_TASK_SCHEDULER_NOTIFICATION));
+              DRIVER_TASK_SCHEDULER_NOTIFICATION,
+              QUERY_CHUNK_PREFETCH,
+              TIER_CACHE_PREFETCH));
   private static final Set<ThreadName> mppThreadNames =
       new HashSet<>(
           Arrays.asList(
@@ -300,6 +307,7 @@ public enum ThreadName {
               PIPE_ASYNC_CONNECTOR_CLIENT_POOL,
               PIPE_RECEIVER_AIR_GAP_AGENT,
               PIPE_AIR_GAP_RECEIVER,
+              PIPE_TSFILE_PARALLEL_PARSER,
               SUBSCRIPTION_EXECUTOR_POOL,
               SUBSCRIPTION_RUNTIME_META_SYNCER,
               WINDOW_EVALUATION_SERVICE,
@@ -375,8 +383,10 @@ public enum ThreadName {
               ACTIVE_LOAD_DIR_SCANNER,
               ACTIVE_LOAD_METRICS_COLLECTOR,
               SETTLE,
+              TIER_MIGRATION,
               INFLUXDB_RPC_SERVICE,
               INFLUXDB_RPC_PROCESSOR,
+              MQTT_BATCH_FLUSHER,
               STORAGE_ENGINE_CACHED_POOL,
               AINODE_RPC_SERVICE,
               DATANODE_SHUTDOWN_HOOK,
@@ -277,6 +277,12 @@ public class CommonConfig {
   private PipeRemainingTimeRateAverageTime pipeRemainingTimeCommitRateAverageTime =
       PipeRemainingTimeRateAverageTime.MEAN;
   private double pipeTsFileScanParsingThreshold = 0.05;
+  private long pipeTsFileSharedParsingMaxRetainedMemoryInBytes = (long) 16 * 1024 * 1024; // 16MB
+  private int pipeHistoricalTsFileParallelParsingNum = 2;
+  private int pipeTsFileParallelParsingThreadNum =
+      Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+  private long pipeTsFileParallelParsingMaxPrefetchedMemoryInBytes =
+      (long) 32 * 1024 * 1024; // 32MB
 
   private long twoStageAggregateMaxCombinerLiveTimeInMs = 8 * 60 * 1000L; // 8 minutes
   private long twoStageAggregateDataRegionInfoCacheTimeInMs = 3 * 60 * 1000L; // 3 minutes
@@ -356,6 +362,12 @@ public class CommonConfig {
 
   private volatile Pattern trustedUriPattern = Pattern.compile("file:.*");
 
+  /**
+   * How far back in ms the points written late make continuous queries recompute the windows of
+   * their earlier executions. 0 means continuous queries only compute their own time ranges.
+   */
+  private long continuousQueryLateDataLookbackInMs = 0;
+
   CommonConfig() {
     // Empty constructor
   }
@@ -1201,6 +1213,43 @@ public class CommonConfig {
     this.pipeTsFileScanParsingThreshold = pipeTsFileScanParsingThreshold;
   }
 
+  public long getPipeTsFileSharedParsingMaxRetainedMemoryInBytes() {
+    return pipeTsFileSharedParsingMaxRetainedMemoryInBytes;
+  }
+
+  public void setPipeTsFileSharedParsingMaxRetainedMemoryInBytes(
+      long pipeTsFileSharedParsingMaxRetainedMemoryInBytes) {
+    this.pipeTsFileSharedParsingMaxRetainedMemoryInBytes =
+        pipeTsFileSharedParsingMaxRetainedMemoryInBytes;
+  }
+
+  public int getPipeHistoricalTsFileParallelParsingNum() {
+    return pipeHistoricalTsFileParallelParsingNum;
+  }
+
+  public void setPipeHistoricalTsFileParallelParsingNum(
+      int pipeHistoricalTsFileParallelParsingNum) {
+    this.pipeHistoricalTsFileParallelParsingNum = pipeHistoricalTsFileParallelParsingNum;
+  }
+
+  public int getPipeTsFileParallelParsingThreadNum() {
+    return pipeTsFileParallelParsingThreadNum;
+  }
+
+  public void setPipeTsFileParallelParsingThreadNum(int pipeTsFileParallelParsingThreadNum) {
+    this.pipeTsFileParallelParsingThreadNum = pipeTsFileParallelParsingThreadNum;
+  }
+
+  public long getPipeTsFileParallelParsingMaxPrefetchedMemoryInBytes() {
+    return pipeTsFileParallelParsingMaxPrefetchedMemoryInBytes;
+  }
+
+  public void setPipeTsFileParallelParsingMaxPrefetchedMemoryInBytes(
+      long pipeTsFileParallelParsingMaxPrefetchedMemoryInBytes) {
+    this.pipeTsFileParallelParsingMaxPrefetchedMemoryInBytes =
+        pipeTsFileParallelParsingMaxPrefetchedMemoryInBytes;
+  }
+
   public double getPipeAllSinksRateLimitBytesPerSecond() {
     return pipeAllSinksRateLimitBytesPerSecond;
   }
@@ -1588,4 +1637,12 @@ public class CommonConfig {
   public void setTrustedUriPattern(Pattern trustedUriPattern) {
     this.trustedUriPattern = trustedUriPattern;
   }
+
+  public long getContinuousQueryLateDataLookbackInMs() {
+    return continuousQueryLateDataLookbackInMs;
+  }
+
+  public void setContinuousQueryLateDataLookbackInMs(long continuousQueryLateDataLookbackInMs) {
+    this.continuousQueryLateDataLookbackInMs = continuousQueryLateDataLookbackInMs;
+  }
 }
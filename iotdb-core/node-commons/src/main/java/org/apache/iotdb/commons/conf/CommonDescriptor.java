@@ -243,6 +243,12 @@ public class CommonDescriptor {
                 "cluster_device_limit_threshold",
                 String.valueOf(config.getDeviceLimitThreshold()))));
 
+    config.setContinuousQueryLateDataLookbackInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "continuous_query_late_data_lookback_in_ms",
+                String.valueOf(config.getContinuousQueryLateDataLookbackInMs()))));
+
     loadRetryProperties(properties);
     loadBinaryAllocatorProps(properties);
   }
@@ -609,6 +615,26 @@ public class CommonDescriptor {
             properties.getProperty(
                 "pipe_tsfile_scan_parsing_threshold",
                 String.valueOf(config.getPipeTsFileScanParsingThreshold()))));
+    config.setPipeTsFileSharedParsingMaxRetainedMemoryInBytes(
+        Long.parseLong(
+            properties.getProperty(
+                "pipe_tsfile_shared_parsing_max_retained_memory_in_bytes",
+                String.valueOf(config.getPipeTsFileSharedParsingMaxRetainedMemoryInBytes()))));
+    config.setPipeHistoricalTsFileParallelParsingNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "pipe_historical_tsfile_parallel_parsing_num",
+                String.valueOf(config.getPipeHistoricalTsFileParallelParsingNum()))));
+    config.setPipeTsFileParallelParsingThreadNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "pipe_tsfile_parallel_parsing_thread_num",
+                String.valueOf(config.getPipeTsFileParallelParsingThreadNum()))));
+    config.setPipeTsFileParallelParsingMaxPrefetchedMemoryInBytes(
+        Long.parseLong(
+            properties.getProperty(
+                "pipe_tsfile_parallel_parsing_max_prefetched_memory_in_bytes",
+                String.valueOf(config.getPipeTsFileParallelParsingMaxPrefetchedMemoryInBytes()))));
 
     config.setTwoStageAggregateMaxCombinerLiveTimeInMs(
         Long.parseLong(
@@ -268,6 +268,7 @@ public class IoTDBConstant {
   public static final String TRIGGER_FOLDER_NAME = "trigger";
   public static final String PIPE_FOLDER_NAME = "pipe";
   public static final String TMP_FOLDER_NAME = "tmp";
+  public static final String TIER_CACHE_FOLDER_NAME = "tier_cache";
   public static final String DELETION_FOLDER_NAME = "deletion";
 
   public static final String MQTT_FOLDER_NAME = "mqtt";
@@ -281,6 +282,8 @@ public class IoTDBConstant {
   public static final String MQTT_HANDLER_POOL_SIZE_NAME = "mqtt_handler_pool_size";
   public static final String MQTT_PAYLOAD_FORMATTER_NAME = "mqtt_payload_formatter";
   public static final String MQTT_MAX_MESSAGE_SIZE = "mqtt_max_message_size";
+  public static final String MQTT_BATCH_SIZE = "mqtt_batch_size";
+  public static final String MQTT_BATCH_MAX_DELAY_IN_MS = "mqtt_batch_max_delay_in_ms";
 
   // thrift
   public static final int LEFT_SIZE_IN_REQUEST = 4 * 1024 * 1024;
@@ -178,6 +178,29 @@ public class DataPartition extends Partition {
         .collect(toList());
   }
 
+  /**
+   * For table model usage.
+   *
+   * <p>Get the time partition slots which have been assigned to the given device and satisfy the
+   * time filter. The result is used to estimate the data volume of a device at planning time.
+   */
+  public List<TTimePartitionSlot> getTimePartitionSlotsWithTimeFilter(
+      final String database, final IDeviceID deviceId, final Filter timeFilter) {
+    final Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TRegionReplicaSet>>> dbMap =
+        dataPartitionMap.get(database);
+    if (dbMap == null) {
+      return Collections.emptyList();
+    }
+    final Map<TTimePartitionSlot, List<TRegionReplicaSet>> seriesSlotMap =
+        dbMap.get(calculateDeviceGroupId(deviceId));
+    if (seriesSlotMap == null) {
+      return Collections.emptyList();
+    }
+    return seriesSlotMap.keySet().stream()
+        .filter(slot -> TimePartitionUtils.satisfyPartitionStartTime(timeFilter, slot.startTime))
+        .collect(toList());
+  }
+
   public List<TRegionReplicaSet> getDataRegionReplicaSet(
       final IDeviceID deviceID, final TTimePartitionSlot tTimePartitionSlot) {
     final String storageGroup = getDatabaseNameByDevice(deviceID);
@@ -188,6 +188,22 @@ public class PipeConfig {
     return COMMON_CONFIG.getPipeTsFileScanParsingThreshold();
   }
 
+  public long getPipeTsFileSharedParsingMaxRetainedMemoryInBytes() {
+    return COMMON_CONFIG.getPipeTsFileSharedParsingMaxRetainedMemoryInBytes();
+  }
+
+  public int getPipeHistoricalTsFileParallelParsingNum() {
+    return COMMON_CONFIG.getPipeHistoricalTsFileParallelParsingNum();
+  }
+
+  public int getPipeTsFileParallelParsingThreadNum() {
+    return COMMON_CONFIG.getPipeTsFileParallelParsingThreadNum();
+  }
+
+  public long getPipeTsFileParallelParsingMaxPrefetchedMemoryInBytes() {
+    return COMMON_CONFIG.getPipeTsFileParallelParsingMaxPrefetchedMemoryInBytes();
+  }
+
   /////////////////////////////// Meta Consistency ///////////////////////////////
 
   public boolean isSeperatedPipeHeartbeatEnabled() {
@@ -405,6 +421,15 @@ public class PipeConfig {
     LOGGER.info(
         "PipeRemainingTimeCommitRateAverageTime: {}", getPipeRemainingTimeCommitRateAverageTime());
     LOGGER.info("PipeTsFileScanParsingThreshold(): {}", getPipeTsFileScanParsingThreshold());
+    LOGGER.info(
+        "PipeTsFileSharedParsingMaxRetainedMemoryInBytes: {}",
+        getPipeTsFileSharedParsingMaxRetainedMemoryInBytes());
+    LOGGER.info(
+        "PipeHistoricalTsFileParallelParsingNum: {}", getPipeHistoricalTsFileParallelParsingNum());
+    LOGGER.info("PipeTsFileParallelParsingThreadNum: {}", getPipeTsFileParallelParsingThreadNum());
+    LOGGER.info(
+        "PipeTsFileParallelParsingMaxPrefetchedMemoryInBytes: {}",
+        getPipeTsFileParallelParsingMaxPrefetchedMemoryInBytes());
 
     LOGGER.info("PipeAsyncConnectorSelectorNumber: {}", getPipeAsyncConnectorSelectorNumber());
     LOGGER.info("PipeAsyncConnectorMaxClientNumber: {}", getPipeAsyncConnectorMaxClientNumber());
@@ -131,6 +131,12 @@ public class PipeConnectorConstant {
       "sink.air-gap.handshake-timeout-ms";
   public static final int CONNECTOR_AIR_GAP_HANDSHAKE_TIMEOUT_MS_DEFAULT_VALUE = 5000;
 
+  // The air gap receiver port of the target, TsFiles are streamed from the disk to it if specified
+  public static final String CONNECTOR_ZERO_COPY_TSFILE_PORT_KEY =
+      "connector.zero-copy-tsfile.port";
+  public static final String SINK_ZERO_COPY_TSFILE_PORT_KEY = "sink.zero-copy-tsfile.port";
+  public static final int CONNECTOR_ZERO_COPY_TSFILE_PORT_DEFAULT_VALUE = -1;
+
   public static final String CONNECTOR_IOTDB_SYNC_CONNECTOR_VERSION_KEY = "connector.version";
   public static final String SINK_IOTDB_SYNC_CONNECTOR_VERSION_KEY = "sink.version";
   public static final String CONNECTOR_IOTDB_SYNC_CONNECTOR_VERSION_DEFAULT_VALUE = "1.1";
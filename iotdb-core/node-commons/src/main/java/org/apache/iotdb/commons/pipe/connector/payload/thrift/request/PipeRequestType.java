@@ -46,6 +46,9 @@ public enum PipeRequestType {
   TRANSFER_TABLET_BINARY_V2((short) 12),
   TRANSFER_TABLET_BATCH_V2((short) 13),
 
+  // Only available through a dedicated socket, the file piece follows the request as raw bytes
+  TRANSFER_TS_FILE_PIECE_STREAM((short) 14),
+
   // Schema region
   TRANSFER_SCHEMA_PLAN((short) 100),
   TRANSFER_SCHEMA_SNAPSHOT_PIECE((short) 101),
@@ -45,7 +45,11 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -347,6 +351,82 @@ public abstract class IoTDBFileReceiver implements IoTDBReceiver {
     }
   }
 
+  /**
+   * Write a file piece which is streamed on the socket right after its header into the writing
+   * file. The payload stream is expected to end after the piece. If the piece is rejected, the
+   * caller is responsible for draining the rest of the piece from the socket.
+   *
+   * <p>Unlike the sending side, the piece is copied through a small heap buffer here: the payload
+   * is read from the buffered stream of the socket, which may already hold the beginning of the
+   * piece read together with its header. The piece is never held in memory as a whole though.
+   */
+  protected final TPipeTransferResp handleTransferFilePieceStream(
+      final String fileName,
+      final long startWritingOffset,
+      final long pieceLength,
+      final boolean isSingleFile,
+      final InputStream payloadStream)
+      throws IOException {
+    try {
+      updateWritingFileIfNeeded(fileName, isSingleFile);
+
+      // The sender resumes from the last acknowledged offset after a failure, so the content
+      // after the offset can be dropped safely.
+      if (startWritingOffset < writingFileWriter.length()) {
+        writingFileWriter.setLength(startWritingOffset);
+      }
+
+      if (!isWritingFileOffsetCorrect(startWritingOffset)) {
+        if (!writingFile.getName().endsWith(TsFileConstant.TSFILE_SUFFIX)) {
+          writingFileWriter.setLength(0);
+        }
+
+        final TSStatus status =
+            RpcUtils.getStatus(
+                TSStatusCode.PIPE_TRANSFER_FILE_OFFSET_RESET,
+                String.format(
+                    "Request sender to reset file reader's offset from %s to %s.",
+                    startWritingOffset, writingFileWriter.length()));
+        LOGGER.warn(
+            "Receiver id = {}: File offset reset requested by receiver, response status = {}.",
+            receiverId.get(),
+            status);
+        return PipeTransferFilePieceResp.toTPipeTransferResp(status, writingFileWriter.length());
+      }
+
+      final FileChannel writingFileChannel = writingFileWriter.getChannel();
+      final ReadableByteChannel payloadChannel = Channels.newChannel(payloadStream);
+      long consumedLength = 0;
+      while (consumedLength < pieceLength) {
+        final long transferredLength =
+            writingFileChannel.transferFrom(
+                payloadChannel, startWritingOffset + consumedLength, pieceLength - consumedLength);
+        if (transferredLength <= 0) {
+          throw new IOException("Socket closed when receiving file piece stream.");
+        }
+        consumedLength += transferredLength;
+      }
+      // FileChannel#transferFrom does not move the file pointer
+      writingFileWriter.seek(startWritingOffset + pieceLength);
+
+      return PipeTransferFilePieceResp.toTPipeTransferResp(
+          RpcUtils.SUCCESS_STATUS, writingFileWriter.length());
+    } catch (final Exception e) {
+      LOGGER.warn(
+          "Receiver id = {}: Failed to write file piece stream of file {} at offset {}.",
+          receiverId.get(),
+          fileName,
+          startWritingOffset,
+          e);
+      final TSStatus status =
+          RpcUtils.getStatus(
+              TSStatusCode.PIPE_TRANSFER_FILE_ERROR,
+              String.format("Failed to write file piece stream, because %s", e.getMessage()));
+      return PipeTransferFilePieceResp.toTPipeTransferResp(
+          status, PipeTransferFilePieceResp.ERROR_END_OFFSET);
+    }
+  }
+
   protected final void updateWritingFileIfNeeded(final String fileName, final boolean isSingleFile)
       throws IOException {
     if (isFileExistedAndNameCorrect(fileName)) {
@@ -203,6 +203,25 @@ public class ColumnHeaderConstant {
   public static final String START_TIME_TABLE_MODEL = "start_time";
   public static final String ELAPSED_TIME_TABLE_MODEL = "elapsed_time";
 
+  // column names for information_schema.query_profiles
+  public static final String FRAGMENT_INSTANCE_NUM_TABLE_MODEL = "fragment_instance_num";
+  public static final String CPU_TIME_TABLE_MODEL = "cpu_time";
+  public static final String READ_BYTES_TABLE_MODEL = "read_bytes";
+  public static final String DISK_CHUNK_NUM_TABLE_MODEL = "disk_chunk_num";
+  public static final String CHUNK_CACHE_HIT_NUM_TABLE_MODEL = "chunk_cache_hit_num";
+  public static final String TIMESERIES_METADATA_CACHE_HIT_NUM_TABLE_MODEL =
+      "timeseries_metadata_cache_hit_num";
+  public static final String BLOOM_FILTER_CACHE_HIT_NUM_TABLE_MODEL = "bloom_filter_cache_hit_num";
+  public static final String DECODED_PAGE_NUM_TABLE_MODEL = "decoded_page_num";
+  public static final String PEAK_MEMORY_TABLE_MODEL = "peak_memory";
+
+  // column names for information_schema.driver_tasks
+  public static final String DRIVER_TASK_ID_TABLE_MODEL = "driver_task_id";
+  public static final String PRIORITY_LEVEL_TABLE_MODEL = "priority_level";
+  public static final String SCHEDULED_TIME_TABLE_MODEL = "scheduled_time";
+  public static final String READY_QUEUED_TIME_TABLE_MODEL = "ready_queued_time";
+  public static final String BLOCKED_QUEUED_TIME_TABLE_MODEL = "blocked_queued_time";
+
   public static final String TABLE_NAME_TABLE_MODEL = "table_name";
   public static final String COLUMN_NAME_TABLE_MODEL = "column_name";
 
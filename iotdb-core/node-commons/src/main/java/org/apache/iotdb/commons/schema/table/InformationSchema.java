@@ -37,6 +37,8 @@ public class InformationSchema {
   public static final String DATABASES = "databases";
   public static final String TABLES = "tables";
   public static final String COLUMNS = "columns";
+  public static final String QUERY_PROFILES = "query_profiles";
+  public static final String DRIVER_TASKS = "driver_tasks";
 
   static {
     final TsTable queriesTable = new TsTable(QUERIES);
@@ -114,6 +116,68 @@ public class InformationSchema {
             ColumnHeaderConstant.STATUS.toLowerCase(Locale.ENGLISH), TSDataType.STRING));
     columnTable.removeColumnSchema(TsTable.TIME_COLUMN_NAME);
     schemaTables.put(COLUMNS, columnTable);
+
+    final TsTable queryProfilesTable = new TsTable(QUERY_PROFILES);
+    queryProfilesTable.addColumnSchema(
+        new TagColumnSchema(ColumnHeaderConstant.QUERY_ID_TABLE_MODEL, TSDataType.STRING));
+    queryProfilesTable.addColumnSchema(
+        new AttributeColumnSchema(ColumnHeaderConstant.DATA_NODE_ID_TABLE_MODEL, TSDataType.INT32));
+    queryProfilesTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.FRAGMENT_INSTANCE_NUM_TABLE_MODEL, TSDataType.INT32));
+    queryProfilesTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.START_TIME_TABLE_MODEL, TSDataType.TIMESTAMP));
+    queryProfilesTable.addColumnSchema(
+        new AttributeColumnSchema(ColumnHeaderConstant.ELAPSED_TIME_TABLE_MODEL, TSDataType.FLOAT));
+    queryProfilesTable.addColumnSchema(
+        new AttributeColumnSchema(ColumnHeaderConstant.CPU_TIME_TABLE_MODEL, TSDataType.FLOAT));
+    queryProfilesTable.addColumnSchema(
+        new AttributeColumnSchema(ColumnHeaderConstant.READ_BYTES_TABLE_MODEL, TSDataType.INT64));
+    queryProfilesTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.DISK_CHUNK_NUM_TABLE_MODEL, TSDataType.INT64));
+    queryProfilesTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.CHUNK_CACHE_HIT_NUM_TABLE_MODEL, TSDataType.INT64));
+    queryProfilesTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.TIMESERIES_METADATA_CACHE_HIT_NUM_TABLE_MODEL, TSDataType.INT64));
+    queryProfilesTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.BLOOM_FILTER_CACHE_HIT_NUM_TABLE_MODEL, TSDataType.INT64));
+    queryProfilesTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.DECODED_PAGE_NUM_TABLE_MODEL, TSDataType.INT64));
+    queryProfilesTable.addColumnSchema(
+        new AttributeColumnSchema(ColumnHeaderConstant.PEAK_MEMORY_TABLE_MODEL, TSDataType.INT64));
+    queryProfilesTable.removeColumnSchema(TsTable.TIME_COLUMN_NAME);
+    schemaTables.put(QUERY_PROFILES, queryProfilesTable);
+
+    final TsTable driverTasksTable = new TsTable(DRIVER_TASKS);
+    driverTasksTable.addColumnSchema(
+        new TagColumnSchema(ColumnHeaderConstant.QUERY_ID_TABLE_MODEL, TSDataType.STRING));
+    driverTasksTable.addColumnSchema(
+        new TagColumnSchema(ColumnHeaderConstant.DRIVER_TASK_ID_TABLE_MODEL, TSDataType.STRING));
+    driverTasksTable.addColumnSchema(
+        new AttributeColumnSchema(ColumnHeaderConstant.DATA_NODE_ID_TABLE_MODEL, TSDataType.INT32));
+    driverTasksTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.STATE.toLowerCase(Locale.ENGLISH), TSDataType.STRING));
+    driverTasksTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.PRIORITY_LEVEL_TABLE_MODEL, TSDataType.STRING));
+    driverTasksTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.SCHEDULED_TIME_TABLE_MODEL, TSDataType.FLOAT));
+    driverTasksTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.READY_QUEUED_TIME_TABLE_MODEL, TSDataType.FLOAT));
+    driverTasksTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.BLOCKED_QUEUED_TIME_TABLE_MODEL, TSDataType.FLOAT));
+    driverTasksTable.removeColumnSchema(TsTable.TIME_COLUMN_NAME);
+    schemaTables.put(DRIVER_TASKS, driverTasksTable);
   }
 
   public static Map<String, TsTable> getSchemaTables() {
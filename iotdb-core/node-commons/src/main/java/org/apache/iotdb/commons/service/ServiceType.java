@@ -35,6 +35,7 @@ public enum ServiceType {
   AUTHORIZATION_SERVICE("Authorization ServerService", "AuthService"),
   FILE_READER_MANAGER_SERVICE("File reader manager ServerService", "FileReaderManagerService"),
   SETTLE_SERVICE("SETTLE DataService", "SettleService"),
+  TIER_MIGRATION_SERVICE("Tier Migration Service", "TierMigrationService"),
   SYNC_RPC_SERVICE("Sync RPC ServerService", ""),
   SYNC_SERVICE("Sync Service", "SyncService"),
   MERGE_SERVICE("Merge Manager", "Merge Manager"),
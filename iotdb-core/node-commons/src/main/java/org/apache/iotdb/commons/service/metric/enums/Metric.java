@@ -123,6 +123,7 @@ public enum Metric {
   MEMORY_POOL("memory_pool"),
   LOCAL_EXECUTION_PLANNER("local_execution_planner"),
   QUERY_DISK_READ("query_disk_read"),
+  QUERY_PROFILE("query_profile"),
 
   // file related
   FILE_SIZE("file_size"),
@@ -55,6 +55,8 @@ public enum TableBuiltinAggregationFunction {
   VARIANCE("variance"),
   VAR_POP("var_pop"),
   VAR_SAMP("var_samp"),
+  APPROX_COUNT_DISTINCT("approx_count_distinct"),
+  APPROX_PERCENTILE("approx_percentile"),
   ;
 
   private final String functionName;
@@ -98,6 +100,8 @@ public enum TableBuiltinAggregationFunction {
       case "variance":
       case "var_pop":
       case "var_samp":
+      case "approx_count_distinct":
+      case "approx_percentile":
         return RowType.anonymous(Collections.emptyList());
       case "extreme":
       case "max":
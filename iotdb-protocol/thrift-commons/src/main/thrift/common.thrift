@@ -281,7 +281,9 @@ enum TAggregationType {
   FIRST_BY,
   LAST_BY,
   MIN,
-  MAX
+  MAX,
+  APPROX_COUNT_DISTINCT,
+  APPROX_PERCENTILE
 }
 
 struct TShowConfigurationTemplateResp {
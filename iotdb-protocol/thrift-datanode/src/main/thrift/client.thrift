@@ -144,6 +144,40 @@ struct TSExecuteBatchStatementReq{
   2: required list<string> statements
 }
 
+// PrepareStatement()
+//
+// Prepares a statement whose parameters are marked by '?', which is kept by the session until it is
+// deallocated.
+struct TSPrepareStatementReq {
+  1: required i64 sessionId
+  2: required string statement
+}
+
+struct TSPrepareStatementResp {
+  1: required common.TSStatus status
+  2: optional i64 preparedStatementId
+  3: optional i32 parameterCount
+}
+
+// ExecutePreparedStatement()
+//
+// Executes a prepared statement with the parameters bound as the texts of literals, e.g. 1, 1.5,
+// 'str', true or null.
+struct TSExecutePreparedStatementReq {
+  1: required i64 sessionId
+  2: required i64 preparedStatementId
+  3: required list<string> parameters
+  4: required i64 statementId
+  5: optional i32 fetchSize
+  6: optional i64 timeout
+  7: optional bool jdbcQuery
+}
+
+struct TSDeallocatePreparedStatementReq {
+  1: required i64 sessionId
+  2: required i64 preparedStatementId
+}
+
 struct TSGetOperationStatusReq {
   1: required i64 sessionId
   // Session to run this request against
@@ -241,6 +275,9 @@ struct TSInsertTabletReq {
   8: optional bool isAligned
   9: optional bool writeToTable
   10: optional list<byte> columnCategories
+  // whether timestamps and values are in the compressed columnar layout, which is only sent when
+  // the server has accepted "compressed_tablet" while opening the session
+  11: optional bool isCompressed
 }
 
 struct TSInsertTabletsReq {
@@ -634,6 +671,12 @@ service IClientRPCService {
 
   i64 requestStatementId(1:i64 sessionId);
 
+  TSPrepareStatementResp prepareStatement(1:TSPrepareStatementReq req);
+
+  TSExecuteStatementResp executePreparedStatement(1:TSExecutePreparedStatementReq req);
+
+  common.TSStatus deallocatePreparedStatement(1:TSDeallocatePreparedStatementReq req);
+
   common.TSStatus createSchemaTemplate(1:TSCreateSchemaTemplateReq req);
 
   common.TSStatus appendSchemaTemplate(1:TSAppendSchemaTemplateReq req);
@@ -139,6 +139,8 @@ struct TSendFragmentInstanceResp {
 struct TSendSinglePlanNodeReq {
   1: required TPlanNode planNode
   2: required common.TConsensusGroupId consensusGroupId
+  // whether the plan node writes the results of a continuous query
+  3: optional bool generatedByContinuousQuery
 }
 
 struct TSendSinglePlanNodeResp {
@@ -298,6 +300,8 @@ struct TDataNodeHeartbeatResp {
   14: optional list<bool> pipeCompletedList
   15: optional list<i64> pipeRemainingEventCountList
   16: optional list<double> pipeRemainingTimeList
+  // database -> the minimum time of the points written into it since the last heartbeat
+  17: optional map<string, i64> minWrittenTimes
 }
 
 struct TPipeHeartbeatReq {
@@ -588,6 +592,8 @@ struct TExecuteCQ {
   5: required string zoneId
   6: required string cqId
   7: required string username
+  // database -> the start time extended to recompute the windows receiving late data of it
+  8: optional map<string, i64> lateDataStartTimes
 }
 
 // ====================================================
@@ -716,6 +722,7 @@ struct TFetchFragmentInstanceStatisticsResp {
   14: optional i64 blockQueuedTime
   15: optional string ip
   16: optional string state
+  17: optional i64 runningTime
 }
 
 /**